@@ -1,11 +1,11 @@
 package AnaliseCredito.Analise_de_Credito.application.service;
 
+import AnaliseCredito.Analise_de_Credito.domain.enums.TipoAlerta;
 import AnaliseCredito.Analise_de_Credito.domain.model.Cliente;
-import AnaliseCredito.Analise_de_Credito.domain.model.Configuracao;
+import AnaliseCredito.Analise_de_Credito.domain.model.ConfiguracaoSnapshot;
 import AnaliseCredito.Analise_de_Credito.domain.model.DadosBI;
 import AnaliseCredito.Analise_de_Credito.domain.model.GrupoEconomico;
 import AnaliseCredito.Analise_de_Credito.domain.model.Pedido;
-import AnaliseCredito.Analise_de_Credito.infrastructure.persistence.ConfiguracaoRepository;
 import AnaliseCredito.Analise_de_Credito.infrastructure.persistence.PedidoRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -14,7 +14,11 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * AlertaService - Calcula alertas de badges para pedidos no Kanban.
@@ -28,16 +32,38 @@ import java.util.List;
  * 6. SCORE BAIXO - Score Boa Vista abaixo do threshold configurado
  *
  * Usado pelo KanbanController para exibir badges visuais nos cards dos pedidos.
+ * Os alertas também são gravados como snapshot (alerta_pedido) no fim da importação,
+ * a partir de avaliarAlertas (código + parâmetro).
+ *
+ * CÁLCULO EM LOTE: as regras 2, 4, 8 e 9 dependem só do grupo (SIMEIs com pedidos,
+ * total de pedidos abertos, DadosBI mais recente). calcularAlertasEmLote/avaliarAlertasEmLote
+ * carregam a configuração uma vez e calculam esses agregados uma vez por grupo.
  */
 @Service
 public class AlertaService {
 
     @Autowired
-    private ConfiguracaoRepository configuracaoRepository;
+    private ConfiguracaoService configuracaoService;
 
     @Autowired
     private PedidoRepository pedidoRepository;
 
+    /**
+     * Alerta calculado: tipo + valor variável (null se o tipo não tem parâmetro).
+     */
+    public record Alerta(TipoAlerta tipo, String parametro) {
+
+        public String getTexto() {
+            return tipo.formatar(parametro);
+        }
+    }
+
+    /**
+     * Fatos do grupo usados pelas regras de grupo, calculados uma vez por grupo no lote.
+     */
+    public record AgregadosGrupo(long simeiComPedidos, BigDecimal totalPedidosAbertos, DadosBI dadosRecentes) {
+    }
+
     /**
      * Calcula todos os alertas aplicáveis para um pedido.
      *
@@ -46,37 +72,105 @@ public class AlertaService {
      * @throws RuntimeException se configuração não for encontrada
      */
     public List<String> calcularAlertas(Pedido pedido) {
-        List<String> alerts = new ArrayList<>();
+        return avaliarAlertas(pedido).stream()
+                .map(Alerta::getTexto)
+                .toList();
+    }
+
+    /**
+     * Calcula todos os alertas aplicáveis para um pedido, como código + parâmetro.
+     *
+     * @param pedido Pedido para calcular alertas
+     * @return Alertas na ordem das regras
+     * @throws RuntimeException se configuração não for encontrada
+     */
+    public List<Alerta> avaliarAlertas(Pedido pedido) {
+        return avaliarAlertas(pedido, getConfiguracao());
+    }
+
+    /**
+     * Calcula os alertas com uma configuração já carregada.
+     */
+    public List<Alerta> avaliarAlertas(Pedido pedido, ConfiguracaoSnapshot config) {
+        return avaliarAlertas(pedido, config, agregar(pedido.getCliente().getGrupoEconomico()));
+    }
+
+    /**
+     * Calcula os textos dos alertas de vários pedidos, com a configuração carregada uma vez.
+     *
+     * @param pedidos Pedidos (tipicamente de poucos grupos: Kanban, importação, parecer)
+     * @return Textos dos alertas por ID do pedido, na ordem dos pedidos
+     * @throws RuntimeException se configuração não for encontrada
+     */
+    public Map<Long, List<String>> calcularAlertasEmLote(Collection<Pedido> pedidos) {
+        Map<Long, List<String>> textos = new LinkedHashMap<>();
+        avaliarAlertasEmLote(pedidos, getConfiguracao()).forEach((pedidoId, alertas) ->
+                textos.put(pedidoId, alertas.stream().map(Alerta::getTexto).toList()));
+        return textos;
+    }
+
+    /**
+     * Calcula os alertas de vários pedidos; os agregados de cada grupo são calculados uma vez.
+     *
+     * @param pedidos Pedidos a avaliar
+     * @param config Configuração já carregada
+     * @return Alertas por ID do pedido, na ordem dos pedidos
+     */
+    public Map<Long, List<Alerta>> avaliarAlertasEmLote(Collection<Pedido> pedidos, ConfiguracaoSnapshot config) {
+        Map<Long, AgregadosGrupo> agregadosPorGrupo = new HashMap<>();
+        Map<Long, List<Alerta>> alertas = new LinkedHashMap<>();
+
+        for (Pedido pedido : pedidos) {
+            GrupoEconomico grupo = pedido.getCliente().getGrupoEconomico();
+            AgregadosGrupo agregados = grupo.getId() != null
+                    ? agregadosPorGrupo.computeIfAbsent(grupo.getId(), id -> agregar(grupo))
+                    : agregar(grupo);
+            alertas.put(pedido.getId(), avaliarAlertas(pedido, config, agregados));
+        }
+        return alertas;
+    }
+
+    /**
+     * Calcula os fatos do grupo usados pelas regras de grupo (2, 4, 8 e 9).
+     */
+    public AgregadosGrupo agregar(GrupoEconomico grupo) {
+        long simeiComPedidos = grupo.getClientes().stream()
+                .filter(c -> Boolean.TRUE.equals(c.getSimei()))
+                .filter(c -> !c.getPedidos().isEmpty())
+                .count();
+
+        return new AgregadosGrupo(simeiComPedidos, calcularTotalPedidosAbertos(grupo),
+                buscarDadosBIMaisRecente(grupo));
+    }
+
+    /**
+     * Aplica as regras a um pedido, com configuração e agregados do grupo já calculados.
+     */
+    public List<Alerta> avaliarAlertas(Pedido pedido, ConfiguracaoSnapshot config, AgregadosGrupo agregados) {
+        List<Alerta> alerts = new ArrayList<>();
 
         Cliente cliente = pedido.getCliente();
         GrupoEconomico grupo = cliente.getGrupoEconomico();
-        Configuracao config = getConfiguracao();
 
         // 1. SIMEI > LIMITE
         if (Boolean.TRUE.equals(cliente.getSimei()) &&
                 pedido.getValor().compareTo(config.getLimiteSimei()) > 0) {
-            alerts.add("SIMEI > LIMITE");
+            alerts.add(new Alerta(TipoAlerta.SIMEI_ACIMA_LIMITE, null));
         }
 
         // 2. GRUPO > X SIMEIS
-        long simeiComPedidos = grupo.getClientes().stream()
-                .filter(c -> Boolean.TRUE.equals(c.getSimei()))
-                .filter(c -> !c.getPedidos().isEmpty())
-                .count();
-
-        if (simeiComPedidos > config.getMaxSimeisPorGrupo()) {
-            alerts.add("GRUPO > " + config.getMaxSimeisPorGrupo() + " SIMEIS");
+        if (agregados.simeiComPedidos() > config.getMaxSimeisPorGrupo()) {
+            alerts.add(new Alerta(TipoAlerta.GRUPO_ACIMA_SIMEIS, String.valueOf(config.getMaxSimeisPorGrupo())));
         }
 
         // 3. PEDIDO > LIMITE
         if (pedido.getValor().compareTo(grupo.getLimiteAprovado()) > 0) {
-            alerts.add("PEDIDO > LIMITE");
+            alerts.add(new Alerta(TipoAlerta.PEDIDO_ACIMA_LIMITE, null));
         }
 
         // 4. TOTAL > LIMITE
-        BigDecimal totalPedidosAbertos = calcularTotalPedidosAbertos(grupo);
-        if (totalPedidosAbertos.compareTo(grupo.getLimiteAprovado()) > 0) {
-            alerts.add("TOTAL > LIMITE");
+        if (agregados.totalPedidosAbertos().compareTo(grupo.getLimiteAprovado()) > 0) {
+            alerts.add(new Alerta(TipoAlerta.TOTAL_ACIMA_LIMITE, null));
         }
 
         // 5. RESTRIÇÕES (X)
@@ -86,13 +180,13 @@ public class AlertaService {
                 cliente.getCheques().size();
 
         if (restricoesTotal > 0) {
-            alerts.add("RESTRIÇÕES (" + restricoesTotal + ")");
+            alerts.add(new Alerta(TipoAlerta.RESTRICOES, String.valueOf(restricoesTotal)));
         }
 
         // 6. SCORE BAIXO
         if (cliente.getScoreBoaVista() != null &&
                 cliente.getScoreBoaVista() < config.getScoreBaixoThreshold()) {
-            alerts.add("SCORE BAIXO");
+            alerts.add(new Alerta(TipoAlerta.SCORE_BAIXO, null));
         }
 
         // 7. ALERTA: Pedido acima da sazonalidade
@@ -101,17 +195,17 @@ public class AlertaService {
             if (mediaColecao.compareTo(BigDecimal.ZERO) > 0) {
                 BigDecimal limiteSazonal = mediaColecao.multiply(new BigDecimal("1.50")); // 50% acima
                 if (pedido.getValor().compareTo(limiteSazonal) > 0) {
-                    alerts.add("PEDIDO ACIMA DA SAZONALIDADE (+50%)");
+                    alerts.add(new Alerta(TipoAlerta.ACIMA_SAZONALIDADE, null));
                 }
             }
         }
 
         // 8. ALERTA: Deterioração de score BI
-        DadosBI dadosRecentes = buscarDadosBIMaisRecente(grupo);
+        DadosBI dadosRecentes = agregados.dadosRecentes();
         if (dadosRecentes != null) {
             Integer variacaoScore = dadosRecentes.getVariacaoScore();
             if (variacaoScore != null && variacaoScore < -100) {
-                alerts.add("DETERIORAÇÃO DE SCORE (" + variacaoScore + " pontos)");
+                alerts.add(new Alerta(TipoAlerta.DETERIORACAO_SCORE, String.valueOf(variacaoScore)));
             }
         }
 
@@ -119,7 +213,8 @@ public class AlertaService {
         if (dadosRecentes != null) {
             BigDecimal variacaoAtraso = dadosRecentes.getVariacaoAtraso();
             if (variacaoAtraso != null && variacaoAtraso.compareTo(new BigDecimal("5")) > 0) {
-                alerts.add("ATRASO CRESCENTE (+" + variacaoAtraso.setScale(1, RoundingMode.HALF_UP) + " dias)");
+                alerts.add(new Alerta(TipoAlerta.ATRASO_CRESCENTE,
+                        variacaoAtraso.setScale(1, RoundingMode.HALF_UP).toPlainString()));
             }
         }
 
@@ -127,14 +222,13 @@ public class AlertaService {
     }
 
     /**
-     * Busca a configuração singleton do sistema.
+     * Snapshot da configuração vigente (cache em memória, sem ir ao banco).
      *
      * @return Configuração do sistema (ID=1)
      * @throws RuntimeException se configuração não for encontrada
      */
-    private Configuracao getConfiguracao() {
-        return configuracaoRepository.findById(1L)
-                .orElseThrow(() -> new RuntimeException("Configuração não encontrada"));
+    private ConfiguracaoSnapshot getConfiguracao() {
+        return configuracaoService.atual();
     }
 
     /**
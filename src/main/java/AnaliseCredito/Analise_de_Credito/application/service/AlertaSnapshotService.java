@@ -0,0 +1,174 @@
+package AnaliseCredito.Analise_de_Credito.application.service;
+
+import AnaliseCredito.Analise_de_Credito.domain.enums.TipoAlerta;
+import AnaliseCredito.Analise_de_Credito.domain.model.AlertaPedido;
+import AnaliseCredito.Analise_de_Credito.domain.model.ConfiguracaoSnapshot;
+import AnaliseCredito.Analise_de_Credito.domain.model.Pedido;
+import AnaliseCredito.Analise_de_Credito.infrastructure.persistence.AlertaPedidoRepository;
+import AnaliseCredito.Analise_de_Credito.infrastructure.persistence.GrupoEconomicoRepository;
+import AnaliseCredito.Analise_de_Credito.infrastructure.persistence.PedidoRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * AlertaSnapshotService - Grava os alertas dos pedidos na tabela alerta_pedido.
+ *
+ * REGRAS:
+ * - O recálculo é feito por grupo econômico: os alertas de um pedido dependem
+ *   dos demais pedidos e clientes do grupo (SIMEIs, total em aberto, DadosBI)
+ * - Os alertas antigos dos pedidos do grupo são apagados e regravados (bulk DELETE + INSERT em lote)
+ * - Cada linha guarda a versão da configuração usada no cálculo
+ * - Falha em um pedido não interrompe o recálculo dos demais
+ */
+@Service
+public class AlertaSnapshotService {
+
+    /**
+     * Grupos processados por vez (tamanho da lista IN e do contexto de persistência)
+     */
+    private static final int GRUPOS_POR_LOTE = 200;
+
+    @Autowired
+    private AlertaService alertaService;
+
+    @Autowired
+    private AlertaPedidoRepository alertaPedidoRepository;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private GrupoEconomicoRepository grupoEconomicoRepository;
+
+    @Autowired
+    private ConfiguracaoService configuracaoService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Resultado de um recálculo.
+     *
+     * @param pedidos Pedidos com alertas recalculados
+     * @param alertas Linhas de alerta gravadas
+     * @param erros Mensagens dos pedidos que falharam
+     */
+    public record Recalculo(int pedidos, int alertas, List<String> erros) {
+    }
+
+    /**
+     * Recalcula o snapshot de alertas de todos os pedidos.
+     */
+    @Transactional
+    public Recalculo recalcularTodos() {
+        List<Long> grupoIds = grupoEconomicoRepository.findCodigoEId().stream()
+                .map(linha -> (Long) linha[1])
+                .toList();
+        return recalcular(grupoIds);
+    }
+
+    /**
+     * Recalcula o snapshot de alertas dos pedidos dos grupos informados.
+     *
+     * @param grupoIds Grupos econômicos afetados
+     * @return Totais do recálculo
+     */
+    @Transactional
+    public Recalculo recalcular(Collection<Long> grupoIds) {
+        int pedidosCalculados = 0;
+        int alertasGravados = 0;
+        List<String> erros = new ArrayList<>();
+
+        if (grupoIds.isEmpty()) {
+            return new Recalculo(0, 0, erros);
+        }
+
+        ConfiguracaoSnapshot config = configuracaoService.atual();
+        LocalDateTime agora = LocalDateTime.now();
+
+        List<Long> ids = new ArrayList<>(grupoIds);
+        for (int inicio = 0; inicio < ids.size(); inicio += GRUPOS_POR_LOTE) {
+            List<Long> lote = ids.subList(inicio, Math.min(inicio + GRUPOS_POR_LOTE, ids.size()));
+
+            List<Pedido> pedidos = pedidoRepository.findByGrupoEconomicoIdIn(lote);
+            if (pedidos.isEmpty()) {
+                continue;
+            }
+
+            alertaPedidoRepository.deleteByPedidoIdIn(pedidos.stream().map(Pedido::getId).toList());
+
+            List<AlertaPedido> snapshot = new ArrayList<>();
+            for (Map.Entry<Long, List<AlertaService.Alerta>> entry : avaliarLote(pedidos, config, erros).entrySet()) {
+                for (AlertaService.Alerta alerta : entry.getValue()) {
+                    snapshot.add(new AlertaPedido(null, entry.getKey(), alerta.tipo(),
+                            alerta.parametro(), agora, config.getVersao()));
+                }
+                pedidosCalculados++;
+            }
+
+            alertaPedidoRepository.saveAll(snapshot);
+            alertasGravados += snapshot.size();
+
+            // Libera as entidades do lote (pedidos, clientes, grupos) antes do próximo
+            entityManager.flush();
+            entityManager.clear();
+        }
+
+        return new Recalculo(pedidosCalculados, alertasGravados, erros);
+    }
+
+    /**
+     * Avalia o lote de uma vez (agregados por grupo calculados uma vez). Se algum pedido
+     * falhar, refaz pedido a pedido para registrar o erro só dos que falharam.
+     */
+    private Map<Long, List<AlertaService.Alerta>> avaliarLote(List<Pedido> pedidos, ConfiguracaoSnapshot config,
+                                                             List<String> erros) {
+        try {
+            return alertaService.avaliarAlertasEmLote(pedidos, config);
+        } catch (Exception e) {
+            Map<Long, List<AlertaService.Alerta>> alertas = new LinkedHashMap<>();
+            for (Pedido pedido : pedidos) {
+                try {
+                    alertas.put(pedido.getId(), alertaService.avaliarAlertas(pedido, config));
+                } catch (Exception ex) {
+                    erros.add("Erro ao calcular alertas para pedido " + pedido.getId() + ": " + ex.getMessage());
+                }
+            }
+            return alertas;
+        }
+    }
+
+    /**
+     * Textos dos alertas gravados para os pedidos, agrupados por pedido.
+     * Pedidos sem alertas não aparecem no mapa.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, List<String>> buscarAlertas(Collection<Long> pedidoIds) {
+        Map<Long, List<String>> porPedido = new LinkedHashMap<>();
+        if (pedidoIds.isEmpty()) {
+            return porPedido;
+        }
+        for (AlertaPedido alerta : alertaPedidoRepository.findByPedidoIdIn(pedidoIds)) {
+            porPedido.computeIfAbsent(alerta.getPedidoId(), id -> new ArrayList<>()).add(alerta.getTexto());
+        }
+        return porPedido;
+    }
+
+    /**
+     * IDs dos pedidos com um alerta específico (consulta indexada por código).
+     */
+    @Transactional(readOnly = true)
+    public List<Long> buscarPedidosComAlerta(TipoAlerta tipo) {
+        return alertaPedidoRepository.findPedidoIdsByCodigo(tipo);
+    }
+}
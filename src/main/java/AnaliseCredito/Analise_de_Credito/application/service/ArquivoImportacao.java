@@ -0,0 +1,51 @@
+package AnaliseCredito.Analise_de_Credito.application.service;
+
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Arquivo de importação copiado para disco local.
+ *
+ * O MultipartFile só é válido durante a requisição HTTP; como a importação
+ * roda em background, o upload é copiado para um arquivo temporário que
+ * vive até o fim do job.
+ *
+ * @param nome Nome original do arquivo enviado
+ * @param caminho Arquivo temporário com o conteúdo
+ */
+public record ArquivoImportacao(String nome, Path caminho) implements InputStreamSource {
+
+    /**
+     * Copia o upload para um arquivo temporário.
+     */
+    public static ArquivoImportacao copiar(MultipartFile file) throws IOException {
+        String nome = file.getOriginalFilename() != null ? file.getOriginalFilename() : "arquivo";
+        int ponto = nome.lastIndexOf('.');
+        String extensao = ponto >= 0 ? nome.substring(ponto) : "";
+
+        Path temporario = Files.createTempFile("importacao-", extensao);
+        file.transferTo(temporario);
+        return new ArquivoImportacao(nome, temporario);
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return Files.newInputStream(caminho);
+    }
+
+    /**
+     * Remove o arquivo temporário (ignora falhas).
+     */
+    public void excluir() {
+        try {
+            Files.deleteIfExists(caminho);
+        } catch (IOException e) {
+            // Arquivo temporário: o SO limpa depois
+        }
+    }
+}
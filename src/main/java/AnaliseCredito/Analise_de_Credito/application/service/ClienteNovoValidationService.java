@@ -1,10 +1,9 @@
 package AnaliseCredito.Analise_de_Credito.application.service;
 
 import AnaliseCredito.Analise_de_Credito.domain.model.Cliente;
-import AnaliseCredito.Analise_de_Credito.domain.model.Configuracao;
+import AnaliseCredito.Analise_de_Credito.domain.model.ConfiguracaoSnapshot;
 import AnaliseCredito.Analise_de_Credito.domain.model.Pefin;
 import AnaliseCredito.Analise_de_Credito.domain.model.Protesto;
-import AnaliseCredito.Analise_de_Credito.infrastructure.persistence.ConfiguracaoRepository;
 import AnaliseCredito.Analise_de_Credito.infrastructure.persistence.PefinRepository;
 import AnaliseCredito.Analise_de_Credito.infrastructure.persistence.ProtestoRepository;
 import AnaliseCredito.Analise_de_Credito.infrastructure.persistence.AcaoJudicialRepository;
@@ -32,7 +31,7 @@ import java.util.List;
 public class ClienteNovoValidationService {
 
     @Autowired
-    private ConfiguracaoRepository configuracaoRepository;
+    private ConfiguracaoService configuracaoService;
 
     @Autowired
     private ProtestoRepository protestoRepository;
@@ -46,9 +45,8 @@ public class ClienteNovoValidationService {
     @Autowired
     private ChequeRepository chequeRepository;
 
-    private Configuracao getConfig() {
-        return configuracaoRepository.findById(1L)
-                .orElseThrow(() -> new RuntimeException("Configuração não encontrada"));
+    private ConfiguracaoSnapshot getConfig() {
+        return configuracaoService.atual();
     }
 
     /**
@@ -70,7 +68,7 @@ public class ClienteNovoValidationService {
      * - CNAE: não está na lista de permitidos → cancelamento
      */
     public String validarCadastral(Cliente cliente) {
-        Configuracao config = getConfig();
+        ConfiguracaoSnapshot config = getConfig();
 
         // Verifica status da Receita Federal
         if (cliente.getStatusReceita() != null && !"ATIVA".equalsIgnoreCase(cliente.getStatusReceita())) {
@@ -99,7 +97,7 @@ public class ClienteNovoValidationService {
         if (cliente.getDataFundacao() == null) {
             return false;
         }
-        Configuracao config = getConfig();
+        ConfiguracaoSnapshot config = getConfig();
         long meses = ChronoUnit.MONTHS.between(cliente.getDataFundacao(), LocalDate.now());
         return meses < config.getMesesFundacaoThreshold();
     }
@@ -108,7 +106,7 @@ public class ClienteNovoValidationService {
      * Verifica se algum protesto do cliente ultrapassa o threshold configurado.
      */
     public boolean hasProtestoAcima(Cliente cliente) {
-        Configuracao config = getConfig();
+        ConfiguracaoSnapshot config = getConfig();
         BigDecimal threshold = config.getProtestoThresholdAntecipado();
         List<Protesto> protestos = protestoRepository.findByClienteId(cliente.getId());
         return protestos.stream()
@@ -122,7 +120,7 @@ public class ClienteNovoValidationService {
         if (cliente.getDataAberturaLoja() == null) {
             return false;
         }
-        Configuracao config = getConfig();
+        ConfiguracaoSnapshot config = getConfig();
         long meses = ChronoUnit.MONTHS.between(cliente.getDataAberturaLoja(), LocalDate.now());
         return meses < config.getMesesLojaThreshold();
     }
@@ -132,7 +130,7 @@ public class ClienteNovoValidationService {
      * em valor ultrapassa o threshold configurado.
      */
     public boolean hasRestricaoAcima(Cliente cliente) {
-        Configuracao config = getConfig();
+        ConfiguracaoSnapshot config = getConfig();
         BigDecimal threshold = config.getRestricaoThresholdAntecipado();
 
         BigDecimal totalPefin = pefinRepository.findByClienteId(cliente.getId()).stream()
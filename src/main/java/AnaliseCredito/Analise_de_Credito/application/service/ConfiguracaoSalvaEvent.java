@@ -0,0 +1,12 @@
+package AnaliseCredito.Analise_de_Credito.application.service;
+
+import AnaliseCredito.Analise_de_Credito.domain.model.ConfiguracaoSnapshot;
+
+/**
+ * Evento: uma nova versão da configuração foi gravada.
+ *
+ * Publicado por ConfiguracaoService.salvar() dentro da transação da gravação;
+ * o snapshot só passa a ser servido pelo cache depois do commit.
+ */
+public record ConfiguracaoSalvaEvent(ConfiguracaoSnapshot snapshot) {
+}
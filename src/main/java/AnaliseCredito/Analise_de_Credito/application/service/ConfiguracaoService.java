@@ -0,0 +1,108 @@
+package AnaliseCredito.Analise_de_Credito.application.service;
+
+import AnaliseCredito.Analise_de_Credito.domain.model.Configuracao;
+import AnaliseCredito.Analise_de_Credito.domain.model.ConfiguracaoSnapshot;
+import AnaliseCredito.Analise_de_Credito.infrastructure.persistence.ConfiguracaoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * ConfiguracaoService - Cache em memória da configuração singleton (ID = 1).
+ *
+ * REGRAS:
+ * - atual() devolve o snapshot imutável da versão vigente; o banco só é lido
+ *   na primeira chamada (ou depois de invalidar())
+ * - salvar() incrementa a versão e grava; a linha fica bloqueada durante o
+ *   salvamento, então dois salvamentos simultâneos nunca gravam a mesma versão
+ * - O snapshot novo é trocado de forma atômica só depois do commit
+ *   (ConfiguracaoSalvaEvent): ninguém lê parâmetros não commitados, e uma
+ *   gravação desfeita nunca chega ao cache
+ * - O snapshot só avança de versão: um salvamento concorrente mais antigo
+ *   não sobrescreve um mais novo
+ *
+ * Quem faz um cálculo pega um snapshot uma vez e o usa até o fim, então todas
+ * as regras do cálculo enxergam a mesma versão dos parâmetros.
+ */
+@Service
+public class ConfiguracaoService {
+
+    @Autowired
+    private ConfiguracaoRepository configuracaoRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final AtomicReference<ConfiguracaoSnapshot> vigente = new AtomicReference<>();
+
+    /**
+     * Snapshot da configuração vigente.
+     *
+     * @return Configuração imutável da versão atual
+     * @throws RuntimeException se configuração não for encontrada
+     */
+    public ConfiguracaoSnapshot atual() {
+        ConfiguracaoSnapshot snapshot = vigente.get();
+        if (snapshot != null) {
+            return snapshot;
+        }
+        return publicar(ConfiguracaoSnapshot.de(buscar()));
+    }
+
+    /**
+     * Entidade da configuração, lida do banco (formulário de edição).
+     *
+     * @throws RuntimeException se configuração não for encontrada
+     */
+    public Configuracao buscar() {
+        return configuracaoRepository.findById(1L)
+                .orElseThrow(() -> new RuntimeException("Configuração não encontrada"));
+    }
+
+    /**
+     * Grava a configuração como nova versão; o cache passa a servi-la depois do commit.
+     *
+     * @param config Parâmetros vindos do formulário
+     * @return Snapshot da versão gravada
+     */
+    @Transactional
+    public ConfiguracaoSnapshot salvar(Configuracao config) {
+        // Ensure ID is always 1 (singleton pattern)
+        config.setId(1L);
+
+        // Versão vem do banco, não do formulário; o bloqueio vale até o commit
+        Long versaoAtual = configuracaoRepository.findParaAtualizacao(1L)
+                .map(Configuracao::getVersao)
+                .orElse(0L);
+        config.setVersao(versaoAtual + 1);
+
+        Configuracao salva = configuracaoRepository.saveAndFlush(config);
+        ConfiguracaoSnapshot snapshot = ConfiguracaoSnapshot.de(salva);
+        eventPublisher.publishEvent(new ConfiguracaoSalvaEvent(snapshot));
+        return snapshot;
+    }
+
+    /**
+     * Versão gravada e commitada: passa a ser servida por atual().
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoSalvar(ConfiguracaoSalvaEvent evento) {
+        publicar(evento.snapshot());
+    }
+
+    /**
+     * Descarta o snapshot; a próxima chamada a atual() relê o banco.
+     */
+    public void invalidar() {
+        vigente.set(null);
+    }
+
+    private ConfiguracaoSnapshot publicar(ConfiguracaoSnapshot novo) {
+        return vigente.accumulateAndGet(novo, (anterior, candidato) ->
+                anterior == null || candidato.getVersao() >= anterior.getVersao() ? candidato : anterior);
+    }
+}
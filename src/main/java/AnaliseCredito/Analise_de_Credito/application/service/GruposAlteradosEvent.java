@@ -0,0 +1,46 @@
+package AnaliseCredito.Analise_de_Credito.application.service;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Evento de domínio: dados que aparecem nos cards do Kanban mudaram para estes grupos
+ * (transição de workflow, importação, edição de restrições ou score).
+ *
+ * Publicado dentro da transação da alteração; KanbanProjecaoService atualiza a
+ * projeção kanban_card depois do commit. grupoIds null = todos os grupos
+ * (ex: configuração alterada muda os alertas de todos os pedidos).
+ *
+ * alertasAtualizados: quem publicou já regravou o snapshot de alertas (alerta_pedido)
+ * desses grupos, e a projeção não precisa recalculá-lo (ex: fim da importação).
+ */
+public record GruposAlteradosEvent(Set<Long> grupoIds, boolean alertasAtualizados) {
+
+    public static GruposAlteradosEvent de(Collection<Long> grupoIds) {
+        return new GruposAlteradosEvent(grupoIds.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toUnmodifiableSet()), false);
+    }
+
+    public static GruposAlteradosEvent de(Long grupoId) {
+        return de(Collections.singletonList(grupoId));
+    }
+
+    public static GruposAlteradosEvent todos() {
+        return new GruposAlteradosEvent(null, false);
+    }
+
+    /**
+     * Mesmo evento, indicando que o snapshot de alertas dos grupos já está atualizado.
+     */
+    public GruposAlteradosEvent comAlertasAtualizados() {
+        return new GruposAlteradosEvent(grupoIds, true);
+    }
+
+    public boolean isTodos() {
+        return grupoIds == null;
+    }
+}
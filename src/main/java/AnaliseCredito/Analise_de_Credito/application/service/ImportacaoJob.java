@@ -0,0 +1,107 @@
+package AnaliseCredito.Analise_de_Credito.application.service;
+
+import AnaliseCredito.Analise_de_Credito.presentation.dto.ResultadoImportacao;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * ImportacaoJob - Estado de uma importação executada em background.
+ *
+ * Máquina de estados:
+ * NA_FILA → LENDO_ARQUIVOS → PERSISTINDO → PUBLICANDO → POS_PROCESSAMENTO → CONCLUIDO
+ *
+ * Em PERSISTINDO a leitura dos arquivos continua em paralelo (pipeline leitura →
+ * normalização → staging), com um commit curto por lote na área de staging.
+ *
+ * PUBLICANDO e POS_PROCESSAMENTO acontecem na mesma transação: os dados só ficam
+ * visíveis para os demais usuários no commit, ao final de POS_PROCESSAMENTO.
+ *
+ * Escrito pela thread da importação e lido pelas requisições de
+ * acompanhamento (SSE); o estado e os contadores do resultado são volatile e
+ * CONCLUIDO é sempre a última escrita, então quem observa CONCLUIDO enxerga o
+ * resultado completo.
+ */
+@Getter
+public class ImportacaoJob {
+
+    public enum Estado {
+        NA_FILA("Na fila"),
+        LENDO_ARQUIVOS("Lendo arquivos"),
+        PERSISTINDO("Lendo e preparando registros"),
+        PUBLICANDO("Publicando registros"),
+        POS_PROCESSAMENTO("Calculando limites e alertas"),
+        CONCLUIDO("Concluído");
+
+        private final String descricao;
+
+        Estado(String descricao) {
+            this.descricao = descricao;
+        }
+
+        public String getDescricao() {
+            return descricao;
+        }
+    }
+
+    private final String id = UUID.randomUUID().toString();
+    private final ResultadoImportacao resultado = new ResultadoImportacao();
+    private final LocalDateTime criadoEm = LocalDateTime.now();
+
+    private volatile Estado estado = Estado.NA_FILA;
+    private volatile LocalDateTime iniciadoEm;
+    private volatile LocalDateTime concluidoEm;
+
+    /**
+     * Avança para a próxima etapa. A primeira saída da fila marca o início.
+     */
+    public void avancar(Estado novoEstado) {
+        if (iniciadoEm == null) {
+            iniciadoEm = LocalDateTime.now();
+        }
+        if (novoEstado == Estado.CONCLUIDO) {
+            concluidoEm = LocalDateTime.now();
+        }
+        this.estado = novoEstado;
+    }
+
+    public boolean isConcluido() {
+        return estado == Estado.CONCLUIDO;
+    }
+
+    /**
+     * Registros gravados até agora (leitura aproximada durante a execução).
+     */
+    public int getRegistrosProcessados() {
+        if (estado == Estado.PERSISTINDO) {
+            // Ainda nada publicado: progresso da leitura (preparados + inalterados)
+            return resultado.getPreparados() + resultado.getInalterados();
+        }
+        return resultado.getTotalProcessado();
+    }
+
+    /**
+     * Vazão média desde o início do processamento, em registros por segundo.
+     */
+    public long getRegistrosPorSegundo() {
+        if (iniciadoEm == null) {
+            return 0;
+        }
+        LocalDateTime fim = concluidoEm != null ? concluidoEm : LocalDateTime.now();
+        long ms = Math.max(1, Duration.between(iniciadoEm, fim).toMillis());
+        return getRegistrosProcessados() * 1000L / ms;
+    }
+
+    /**
+     * Tempo decorrido desde o início (ou até a conclusão), em segundos.
+     */
+    public long getSegundosDecorridos() {
+        if (iniciadoEm == null) {
+            return 0;
+        }
+        LocalDateTime fim = concluidoEm != null ? concluidoEm : LocalDateTime.now();
+        return Duration.between(iniciadoEm, fim).toSeconds();
+    }
+}
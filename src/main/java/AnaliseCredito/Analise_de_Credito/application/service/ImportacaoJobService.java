@@ -0,0 +1,225 @@
+package AnaliseCredito.Analise_de_Credito.application.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * ImportacaoJobService - Executa importações em background e publica o progresso.
+ *
+ * REGRAS:
+ * - Um único escritor: as importações rodam uma de cada vez, em ordem de chegada
+ *   (uploads posteriores ficam NA_FILA atrás da importação corrente)
+ * - O upload é copiado para disco na requisição; o request thread é liberado imediatamente
+ * - Progresso é enviado por Server-Sent Events a cada segundo até CONCLUIDO
+ * - Jobs concluídos ficam disponíveis por 1 hora para consulta do resultado
+ */
+@Service
+public class ImportacaoJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportacaoJobService.class);
+
+    private static final long SSE_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(30);
+    private static final long RETENCAO_HORAS = 1;
+
+    @Autowired
+    private ImportacaoService importacaoService;
+
+    private final Map<String, ImportacaoJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, List<SseEmitter>> assinantes = new ConcurrentHashMap<>();
+
+    private final ExecutorService escritor = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("importacao-escritor").daemon().factory());
+    private final ScheduledExecutorService notificador = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("importacao-progresso").daemon().factory());
+
+    /**
+     * Copia os uploads para disco e enfileira a importação.
+     *
+     * @return Job criado (estado NA_FILA)
+     * @throws IOException se não for possível gravar os arquivos temporários
+     */
+    public ImportacaoJob enfileirar(MultipartFile clientes, MultipartFile pedidos,
+                                   MultipartFile dadosBI, MultipartFile duplicatas) throws IOException {
+        return enfileirar(Arrays.asList(clientes, pedidos, dadosBI, duplicatas),
+                (job, arquivos) -> importacaoService.processar(
+                        arquivos.get(0), arquivos.get(1), arquivos.get(2), arquivos.get(3), job));
+    }
+
+    /**
+     * Copia os arquivos do bureau enviados (vazios são ignorados) e enfileira a importação,
+     * na mesma fila da importação principal.
+     *
+     * @return Job criado (estado NA_FILA)
+     * @throws IOException se não for possível gravar os arquivos temporários
+     */
+    public ImportacaoJob enfileirarBureau(MultipartFile restricoes, MultipartFile socios,
+                                          MultipartFile participacoes) throws IOException {
+        return enfileirar(Arrays.asList(restricoes, socios, participacoes),
+                (job, arquivos) -> importacaoService.processarBureau(
+                        arquivos.get(0), arquivos.get(1), arquivos.get(2), job));
+    }
+
+    /**
+     * @param importacao Executada pelo escritor com os arquivos em disco (null onde o upload veio vazio)
+     */
+    private ImportacaoJob enfileirar(List<MultipartFile> uploads,
+                                     BiConsumer<ImportacaoJob, List<ArquivoImportacao>> importacao) throws IOException {
+        removerJobsExpirados();
+
+        List<ArquivoImportacao> arquivos = new ArrayList<>();
+        try {
+            for (MultipartFile upload : uploads) {
+                arquivos.add(upload == null || upload.isEmpty() ? null : ArquivoImportacao.copiar(upload));
+            }
+        } catch (IOException e) {
+            excluir(arquivos);
+            throw e;
+        }
+
+        ImportacaoJob job = new ImportacaoJob();
+        jobs.put(job.getId(), job);
+        escritor.submit(() -> executar(job, arquivos, importacao));
+
+        logger.info("Importação {} enfileirada", job.getId());
+        return job;
+    }
+
+    public Optional<ImportacaoJob> buscar(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    /**
+     * Quantos jobs aguardam na fila antes deste (0 = é o próximo ou já está rodando).
+     */
+    public long posicaoNaFila(ImportacaoJob job) {
+        if (job.getEstado() != ImportacaoJob.Estado.NA_FILA) {
+            return 0;
+        }
+        return jobs.values().stream()
+                .filter(j -> j.getEstado() == ImportacaoJob.Estado.NA_FILA)
+                .filter(j -> j.getCriadoEm().isBefore(job.getCriadoEm()))
+                .count();
+    }
+
+    /**
+     * Registra um assinante SSE para o progresso do job.
+     */
+    public SseEmitter acompanhar(ImportacaoJob job) {
+        SseEmitter emitter = new SseEmitter(SSE_TIMEOUT_MS);
+        List<SseEmitter> lista = assinantes.computeIfAbsent(job.getId(), id -> new CopyOnWriteArrayList<>());
+        lista.add(emitter);
+        emitter.onCompletion(() -> lista.remove(emitter));
+        emitter.onTimeout(() -> lista.remove(emitter));
+        emitter.onError(e -> lista.remove(emitter));
+
+        // Estado atual imediatamente, sem esperar o próximo tick
+        enviar(job, emitter);
+        return emitter;
+    }
+
+    // ========== EXECUÇÃO ==========
+
+    private void executar(ImportacaoJob job, List<ArquivoImportacao> arquivos,
+                          BiConsumer<ImportacaoJob, List<ArquivoImportacao>> importacao) {
+        try {
+            logger.info("Importação {} iniciada", job.getId());
+            importacao.accept(job, arquivos);
+        } catch (Exception e) {
+            job.getResultado().setStatus("ERRO");
+            job.getResultado().addErro("Erro geral na importação: " + e.getMessage());
+        } finally {
+            excluir(arquivos);
+            job.avancar(ImportacaoJob.Estado.CONCLUIDO);
+            logger.info("Importação {} concluída: {} registros em {}s",
+                    job.getId(), job.getRegistrosProcessados(), job.getSegundosDecorridos());
+            publicarProgresso(job);
+        }
+    }
+
+    private void excluir(List<ArquivoImportacao> arquivos) {
+        arquivos.stream().filter(Objects::nonNull).forEach(ArquivoImportacao::excluir);
+    }
+
+    // ========== PROGRESSO (SSE) ==========
+
+    private void publicarProgresso() {
+        try {
+            assinantes.keySet().forEach(id -> buscar(id).ifPresent(this::publicarProgresso));
+        } catch (Exception e) {
+            // Nunca deixa o agendador morrer
+            logger.warn("Falha ao publicar progresso de importação", e);
+        }
+    }
+
+    private void publicarProgresso(ImportacaoJob job) {
+        List<SseEmitter> lista = assinantes.get(job.getId());
+        if (lista == null) {
+            return;
+        }
+        for (SseEmitter emitter : lista) {
+            enviar(job, emitter);
+        }
+        if (job.isConcluido()) {
+            lista.forEach(SseEmitter::complete);
+            assinantes.remove(job.getId());
+        }
+    }
+
+    private void enviar(ImportacaoJob job, SseEmitter emitter) {
+        Map<String, Object> progresso = new LinkedHashMap<>();
+        progresso.put("estado", job.getEstado().name());
+        progresso.put("descricao", job.getEstado().getDescricao());
+        progresso.put("posicaoNaFila", posicaoNaFila(job));
+        progresso.put("registros", job.getRegistrosProcessados());
+        progresso.put("registrosPorSegundo", job.getRegistrosPorSegundo());
+        progresso.put("segundos", job.getSegundosDecorridos());
+
+        try {
+            emitter.send(SseEmitter.event()
+                    .name(job.isConcluido() ? "concluido" : "progresso")
+                    .data(progresso));
+        } catch (IOException | IllegalStateException e) {
+            // Cliente desconectou
+            emitter.completeWithError(e);
+        }
+    }
+
+    private void removerJobsExpirados() {
+        LocalDateTime limite = LocalDateTime.now().minusHours(RETENCAO_HORAS);
+        jobs.values().removeIf(j -> j.isConcluido() && j.getConcluidoEm().isBefore(limite));
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        notificador.scheduleAtFixedRate(this::publicarProgresso, 1, 1, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        notificador.shutdownNow();
+        escritor.shutdownNow();
+    }
+}
@@ -1,50 +1,118 @@
 package AnaliseCredito.Analise_de_Credito.application.service;
 
+import AnaliseCredito.Analise_de_Credito.application.service.PipelineImportacao.Entrada;
 import AnaliseCredito.Analise_de_Credito.domain.enums.PosicaoDuplicata;
 import AnaliseCredito.Analise_de_Credito.domain.enums.StatusWorkflow;
 import AnaliseCredito.Analise_de_Credito.domain.enums.TipoCliente;
 import AnaliseCredito.Analise_de_Credito.domain.enums.TipoWorkflow;
 import AnaliseCredito.Analise_de_Credito.domain.model.*;
+import AnaliseCredito.Analise_de_Credito.infrastructure.importacao.EsquemaPlanilha;
+import AnaliseCredito.Analise_de_Credito.infrastructure.importacao.LeitorCsvMapeado;
+import AnaliseCredito.Analise_de_Credito.infrastructure.importacao.LeitorPlanilha;
+import AnaliseCredito.Analise_de_Credito.infrastructure.importacao.LeitorXlsxStreaming;
+import AnaliseCredito.Analise_de_Credito.infrastructure.importacao.LinhaPlanilha;
+import AnaliseCredito.Analise_de_Credito.infrastructure.importacao.TipoColuna;
 import AnaliseCredito.Analise_de_Credito.infrastructure.persistence.*;
 import AnaliseCredito.Analise_de_Credito.presentation.dto.*;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import AnaliseCredito.Analise_de_Credito.util.HashConteudo;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.text.Normalizer;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
- * ImportacaoService - Serviço de importação de dados via arquivos XLSX.
+ * ImportacaoService - Serviço de importação de dados via arquivos XLSX ou CSV.
  *
  * Este é o serviço central de importação que:
- * 1. Recebe 4 arquivos XLSX (Clientes, Pedidos, DadosBI, Duplicatas)
- * 2. Parseia com Apache POI
+ * 1. Recebe 4 arquivos XLSX ou CSV (Clientes, Pedidos, DadosBI, Duplicatas)
+ * 2. Parseia e prepara em streaming, os 4 arquivos em paralelo (virtual threads):
+ *    XLSX com Apache POI (XSSFReader + SAX), CSV com leitor sobre arquivo mapeado em memória
  * 3. Valida dados (modo leniente - continua em erros)
+ *    Colunas declaradas em um EsquemaPlanilha por arquivo, localizadas pelo nome do
+ *    cabeçalho e compiladas uma vez em leitores tipados (decimais exatos, sem double)
+ *    Leitura, normalização e persistência rodam em pipeline (PipelineImportacao),
+ *    com filas limitadas entre os estágios: parse e INSERTs se sobrepõem e a memória
+ *    não cresce com o tamanho do arquivo
  * 4. Importa em ordem: Clientes → Pedidos → DadosBI → Duplicatas
  * 5. Cria GrupoEconomico automaticamente se não existe
  * 6. Define workflow pelo bloqueio ao criar Pedido
  * 7. Cria Analise PENDENTE para cada pedido
- * 8. Pós-processamento: calcula limites sugeridos e alertas
+ * 8. Pós-processamento: calcula limites sugeridos e grava o snapshot de alertas
+ *    (alerta_pedido) dos grupos afetados
  *
- * ESTRATÉGIA DE TRANSAÇÃO: Parcial
- * - Cada método importarX() tem sua própria transação
- * - Registros válidos são salvos mesmo se outros falharem
+ * ESTRATÉGIA DE TRANSAÇÃO: Staging + publicação atômica
+ * - Leitura: as linhas alteradas de cada arquivo vão para a área de staging
+ *   (importacao_staging, StagingImportacaoService), em transações curtas por lote;
+ *   nenhuma tabela do sistema é tocada enquanto os arquivos são lidos
+ * - Publicação: uma única transação relê o delta preparado, aplica cada linha pelas
+ *   4 fases (os mesmos INSERTs/UPDATEs por linha, via JPA) e roda o pós-processamento
+ *   (limites e alertas dos grupos afetados). Ela dura o tempo de aplicar o delta: em
+ *   re-importações, só as linhas alteradas; em uma primeira carga, tanto quanto a
+ *   importação sem staging. O que fica fora dela é a leitura, a normalização e o
+ *   descarte das linhas inalteradas. Quem consulta o sistema vê o último estado
+ *   publicado (MVCC do H2), nunca dados pela metade; quem edita uma linha que ela
+ *   já gravou espera o commit (LOCK_TIMEOUT de 10s na URL do H2) em vez de falhar
+ * - Registros válidos são salvos mesmo se outras linhas falharem: linha inválida
+ *   (Bean Validation da entidade, com os limites das colunas) é recusada na normalização,
+ *   antes do staging, e linha sem cliente/grupo só é registrada; erro de banco na
+ *   publicação não é engolido por linha e desfaz a importação inteira
+ * - Falha geral desfaz a importação inteira; arquivo que falha no meio da leitura
+ *   também (um arquivo nunca é publicado pela metade); o staging do lote é sempre descartado
  * - Erros são logados no ResultadoImportacao
+ * - INSERTs em batch JDBC (ids por sequence pooled-lo), com flush/clear a cada lote
  *
- * DUPLICATAS: Estratégia skip
- * - CNPJs duplicados são ignorados com aviso
- * - Permite re-importação segura (idempotente)
+ * RE-IMPORTAÇÃO: Delta por chave natural + hash do conteúdo
+ * - Cada linha grava sua chave natural e o hash (FNV-1a 64) das colunas normalizadas
+ * - Chave nova: INSERT; chave existente com hash diferente: UPDATE;
+ *   mesmo hash: linha inalterada, nada é escrito
+ * - Cliente que troca de grupo leva as análises junto (UPDATE em massa); os dois
+ *   grupos são recalculados no pós-processamento
+ * - Registros sem chave natural (anteriores ao delta, dados iniciais) recebem a
+ *   chave no início da fase, então são atualizados e não duplicados
+ * - Permite re-importar o arquivo completo todo dia (idempotente)
+ *
+ * BUREAU: Restrições, Sócios e Participações (processarBureau)
+ * - Mesmo pipeline, staging e publicação; substituição por cliente em vez de delta
+ *   (DELETE ... IN dos clientes do lote + INSERTs em batch)
  */
 @Service
 public class ImportacaoService {
@@ -67,43 +135,145 @@ public class ImportacaoService {
     @Autowired
     private DuplicataRepository duplicataRepository;
 
+    @Autowired
+    private PefinRepository pefinRepository;
+
+    @Autowired
+    private ProtestoRepository protestoRepository;
+
+    @Autowired
+    private AcaoJudicialRepository acaoJudicialRepository;
+
+    @Autowired
+    private ChequeRepository chequeRepository;
+
+    @Autowired
+    private SocioRepository socioRepository;
+
+    @Autowired
+    private ParticipacaoRepository participacaoRepository;
+
     @Autowired
     private ScoringService scoringService;
 
     @Autowired
-    private AlertaService alertaService;
+    private AlertaSnapshotService alertaSnapshotService;
+
+    @Autowired
+    private LeitorXlsxStreaming leitorXlsx;
+
+    @Autowired
+    private LeitorCsvMapeado leitorCsv;
+
+    @Autowired
+    private StagingImportacaoService stagingImportacaoService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private Validator validator;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${importacao.tamanho-lote:500}")
+    private int tamanhoLote;
+
+    @Value("${importacao.capacidade-fila:1000}")
+    private int capacidadeFila;
 
     /**
-     * Processa importação completa dos 4 arquivos XLSX.
+     * Processa importação completa dos 4 arquivos (XLSX ou CSV, cada um independente).
      *
-     * @param clientes Arquivo Clientes.xlsx
-     * @param pedidos Arquivo Pedidos.xlsx
-     * @param dadosBI Arquivo DadosBI.xlsx
-     * @param duplicatas Arquivo Duplicatas.xlsx
+     * @param clientes Arquivo Clientes.xlsx / Clientes.csv
+     * @param pedidos Arquivo Pedidos.xlsx / Pedidos.csv
+     * @param dadosBI Arquivo DadosBI.xlsx / DadosBI.csv
+     * @param duplicatas Arquivo Duplicatas.xlsx / Duplicatas.csv
      * @return Resultado da importação com contadores e erros
      */
-    public ResultadoImportacao processar(MultipartFile clientes,
-                                         MultipartFile pedidos,
-                                         MultipartFile dadosBI,
-                                         MultipartFile duplicatas) {
-        ResultadoImportacao resultado = new ResultadoImportacao();
+    public ResultadoImportacao processar(InputStreamSource clientes,
+                                         InputStreamSource pedidos,
+                                         InputStreamSource dadosBI,
+                                         InputStreamSource duplicatas) {
+        ImportacaoJob job = new ImportacaoJob();
+        processar(clientes, pedidos, dadosBI, duplicatas, job);
+        job.avancar(ImportacaoJob.Estado.CONCLUIDO);
+        return job.getResultado();
+    }
 
-        try {
-            // 1. Parse files with Apache POI
-            List<ClienteDTO> clientesData = parseClientes(clientes);
-            List<PedidoDTO> pedidosData = parsePedidos(pedidos);
-            List<DadosBIDTO> dadosBIData = parseDadosBI(dadosBI);
-            List<DuplicataDTO> duplicatasData = parseDuplicatas(duplicatas);
-
-            // 2. Import in order (each method is @Transactional)
-            importarClientes(clientesData, resultado);
-            importarPedidos(pedidosData, resultado);
-            importarDadosBI(dadosBIData, resultado);
-            importarDuplicatas(duplicatasData, resultado);
-
-            // 3. Post-processing
-            calcularLimitesSugeridos(resultado);
-            calcularAlertas(resultado);
+    /**
+     * Processa importação completa, registrando cada etapa no job
+     * (usado pela importação em background - ImportacaoJobService).
+     *
+     * @param job Job que recebe o resultado e o estado corrente
+     */
+    public void processar(InputStreamSource clientes,
+                          InputStreamSource pedidos,
+                          InputStreamSource dadosBI,
+                          InputStreamSource duplicatas,
+                          ImportacaoJob job) {
+        ResultadoImportacao resultado = job.getResultado();
+        String lote = job.getId();
+        job.avancar(ImportacaoJob.Estado.LENDO_ARQUIVOS);
+
+        try (ExecutorService estagios = Executors.newVirtualThreadPerTaskExecutor();
+             // 1. Start reader + normalizer stages for the 4 files (bounded queues)
+             PipelineImportacao<ClienteDTO> pipelineClientes =
+                     iniciarPipeline(estagios, clientes, ESQUEMA_CLIENTES, this::normalizarCliente);
+             PipelineImportacao<PedidoDTO> pipelinePedidos =
+                     iniciarPipeline(estagios, pedidos, ESQUEMA_PEDIDOS, this::normalizarPedido);
+             PipelineImportacao<DadosBIDTO> pipelineDadosBI =
+                     iniciarPipeline(estagios, dadosBI, ESQUEMA_DADOS_BI, this::normalizarDadosBI);
+             PipelineImportacao<DuplicataDTO> pipelineDuplicatas =
+                     iniciarPipeline(estagios, duplicatas, ESQUEMA_DUPLICATAS, normalizadorDuplicatas())) {
+
+            try {
+                // 2. Stage the changed rows of the 4 files in parallel, one short commit per batch
+                //    Nothing is visible to other users yet; a file that fails mid-read
+                //    aborts the import before anything is published
+                job.avancar(ImportacaoJob.Estado.PERSISTINDO);
+                aguardar(List.of(
+                        preparar(estagios, lote, pipelineClientes, clienteRepository::findChaveIdEHash, resultado),
+                        preparar(estagios, lote, pipelinePedidos, pedidoRepository::findChaveIdEHash, resultado),
+                        preparar(estagios, lote, pipelineDadosBI, dadosBIRepository::findChaveIdEHash, resultado),
+                        preparar(estagios, lote, pipelineDuplicatas, duplicataRepository::findChaveIdEHash, resultado)));
+                concluirLeitura(pipelineClientes, resultado);
+                concluirLeitura(pipelinePedidos, resultado);
+                concluirLeitura(pipelineDadosBI, resultado);
+                concluirLeitura(pipelineDuplicatas, resultado);
+
+                // 3. Publish the staged delta and post-process in ONE transaction
+                //    Each staged row is replayed through the per-row importarX path and limits/alerts
+                //    are recalculated inside it: it lasts as long as applying the delta (every row on
+                //    a first load). Readers keep seeing the last committed data (H2 MVCC) until the commit,
+                //    writers to the same rows wait for it (LOCK_TIMEOUT); if anything fails, the
+                //    publication is rolled back and nothing is published
+                job.avancar(ImportacaoJob.Estado.PUBLICANDO);
+                transactionTemplate.executeWithoutResult(tx -> {
+                    ResolvedorImportacao resolvedor = novoResolvedor();
+                    importarClientes(stagingImportacaoService.ler(lote, pipelineClientes.getNomeArquivo(),
+                            ClienteDTO.class), resultado, resolvedor);
+                    importarPedidos(stagingImportacaoService.ler(lote, pipelinePedidos.getNomeArquivo(),
+                            PedidoDTO.class), resultado, resolvedor);
+                    importarDadosBI(stagingImportacaoService.ler(lote, pipelineDadosBI.getNomeArquivo(),
+                            DadosBIDTO.class), resultado, resolvedor);
+                    importarDuplicatas(stagingImportacaoService.ler(lote, pipelineDuplicatas.getNomeArquivo(),
+                            DuplicataDTO.class), resultado, resolvedor);
+
+                    // Only groups touched by this import are recalculated
+                    job.avancar(ImportacaoJob.Estado.POS_PROCESSAMENTO);
+                    calcularLimitesSugeridos(resultado, resolvedor.getGruposAfetados());
+                    calcularAlertas(resultado, resolvedor.getGruposAfetados());
+                });
+            } catch (RuntimeException e) {
+                resultado.desfazer("Importação desfeita, nenhum dado foi publicado: " + e.getMessage());
+            } finally {
+                stagingImportacaoService.descartar(lote);
+            }
 
             // 4. Set final status
             resultado.finalizarComStatus();
@@ -112,268 +282,540 @@ public class ImportacaoService {
             resultado.setStatus("ERRO");
             resultado.addErro("Erro geral na importação: " + e.getMessage());
         }
-
-        return resultado;
     }
 
-    // ========== PARSING METHODS (Apache POI) ==========
+    // ========== BUREAU: RESTRIÇÕES, SÓCIOS E PARTICIPAÇÕES ==========
 
     /**
-     * Parseia arquivo Clientes.xlsx
-     * Colunas: cnpj, razao_social, nome_fantasia, telefone, email, estado,
-     *          tipo, data_fundacao, simei, situacao_credito, situacao_cobranca,
-     *          cluster, grupo_economico, score_boa_vista, score_boa_vista_data, sintegra
+     * Importa os arquivos do bureau, registrando cada etapa no job. Cada arquivo é
+     * opcional (null = não enviado), mas ao menos um deve ser informado.
+     *
+     * SUBSTITUIÇÃO POR CLIENTE: o arquivo é a consulta completa dos CNPJs que traz.
+     * Para cada cliente presente, os registros atuais daquele tipo são removidos e
+     * substituídos pelas linhas do arquivo; clientes ausentes não são alterados.
+     * Mesmo staging e publicação atômica da importação principal.
+     *
+     * @param restricoes Pefin, Protesto, Ação Judicial e Cheque (coluna tipo)
+     * @param socios Sócios dos clientes
+     * @param participacoes Participações dos sócios em outras empresas
+     * @param job Job que recebe o resultado e o estado corrente
      */
-    private List<ClienteDTO> parseClientes(MultipartFile file) throws IOException {
-        List<ClienteDTO> clientes = new ArrayList<>();
+    public void processarBureau(InputStreamSource restricoes,
+                                InputStreamSource socios,
+                                InputStreamSource participacoes,
+                                ImportacaoJob job) {
+        ResultadoImportacao resultado = job.getResultado();
+        String lote = job.getId();
+        job.avancar(ImportacaoJob.Estado.LENDO_ARQUIVOS);
+
+        try (ExecutorService estagios = Executors.newVirtualThreadPerTaskExecutor();
+             PipelineImportacao<RestricaoDTO> pipelineRestricoes = restricoes == null ? null
+                     : iniciarPipeline(estagios, restricoes, ESQUEMA_RESTRICOES, this::normalizarRestricao);
+             PipelineImportacao<SocioDTO> pipelineSocios = socios == null ? null
+                     : iniciarPipeline(estagios, socios, ESQUEMA_SOCIOS, this::normalizarSocio);
+             PipelineImportacao<ParticipacaoDTO> pipelineParticipacoes = participacoes == null ? null
+                     : iniciarPipeline(estagios, participacoes, ESQUEMA_PARTICIPACOES, this::normalizarParticipacao)) {
 
-        try (InputStream is = file.getInputStream();
-             Workbook workbook = new XSSFWorkbook(is)) {
+            try {
+                // Substituição por cliente: sem delta, todas as linhas são preparadas (em paralelo)
+                job.avancar(ImportacaoJob.Estado.PERSISTINDO);
+                List<PipelineImportacao<?>> pipelines = Stream.<PipelineImportacao<?>>of(
+                                pipelineRestricoes, pipelineSocios, pipelineParticipacoes)
+                        .filter(Objects::nonNull)
+                        .toList();
+                aguardar(pipelines.stream()
+                        .<Future<?>>map(pipeline -> preparar(estagios, lote, pipeline, null, resultado))
+                        .toList());
+                pipelines.forEach(pipeline -> concluirLeitura(pipeline, resultado));
+
+                job.avancar(ImportacaoJob.Estado.PUBLICANDO);
+                transactionTemplate.executeWithoutResult(tx -> {
+                    ResolvedorImportacao resolvedor = novoResolvedor();
+                    if (pipelineRestricoes != null) {
+                        importarRestricoes(stagingImportacaoService.ler(lote, pipelineRestricoes.getNomeArquivo(),
+                                RestricaoDTO.class), resultado, resolvedor);
+                    }
+                    if (pipelineSocios != null) {
+                        importarSocios(stagingImportacaoService.ler(lote, pipelineSocios.getNomeArquivo(),
+                                SocioDTO.class), resultado, resolvedor);
+                    }
+                    if (pipelineParticipacoes != null) {
+                        importarParticipacoes(stagingImportacaoService.ler(lote, pipelineParticipacoes.getNomeArquivo(),
+                                ParticipacaoDTO.class), resultado, resolvedor);
+                    }
+
+                    // Restrições entram no alerta RESTRICOES: só os grupos dos clientes substituídos
+                    job.avancar(ImportacaoJob.Estado.POS_PROCESSAMENTO);
+                    calcularAlertas(resultado, resolvedor.getGruposAfetados());
+                });
+            } catch (RuntimeException e) {
+                resultado.desfazer("Importação desfeita, nenhum dado foi publicado: " + e.getMessage());
+            } finally {
+                stagingImportacaoService.descartar(lote);
+            }
 
-            Sheet sheet = workbook.getSheetAt(0);
-            Iterator<Row> rows = sheet.iterator();
+            resultado.finalizarComStatus();
 
-            // Skip header row
-            if (rows.hasNext()) rows.next();
+        } catch (Exception e) {
+            resultado.setStatus("ERRO");
+            resultado.addErro("Erro geral na importação: " + e.getMessage());
+        }
+    }
 
-            int rowNum = 1;
-            while (rows.hasNext()) {
-                Row row = rows.next();
-                rowNum++;
+    // ========== PRÉ-VALIDAÇÃO (dry-run) ==========
 
-                try {
-                    ClienteDTO dto = new ClienteDTO();
-                    dto.setCnpj(getStringValue(row, 0));
-                    dto.setRazaoSocial(getStringValue(row, 1));
-                    dto.setNomeFantasia(getStringValue(row, 2));
-                    dto.setTelefone(getStringValue(row, 3));
-                    dto.setEmail(getStringValue(row, 4));
-                    dto.setEstado(getStringValue(row, 5));
-                    dto.setTipo(getStringValue(row, 6));
-                    dto.setDataFundacao(getDateValue(row, 7));
-                    dto.setSimei(getBooleanValue(row, 8));
-                    dto.setSituacaoCredito(getStringValue(row, 9));
-                    dto.setSituacaoCobranca(getStringValue(row, 10));
-                    dto.setCluster(getStringValue(row, 11));
-                    dto.setGrupoEconomico(getStringValue(row, 12));
-                    dto.setScoreBoaVista(getIntegerValue(row, 13));
-                    dto.setScoreBoaVistaData(getDateValue(row, 14));
-                    dto.setSintegra(getStringValue(row, 15));
-
-                    clientes.add(dto);
-                } catch (Exception e) {
-                    // Log row error but continue
-                    System.err.println("Erro ao parsear linha " + rowNum + " de Clientes: " + e.getMessage());
-                }
-            }
+    /**
+     * Valida os 4 arquivos sem gravar nada: mesmo parse, esquema, normalização e
+     * Bean Validation da importação, mais as checagens de referência
+     * (cliente do pedido/duplicata no arquivo de Clientes ou no banco, grupo do
+     * DadosBI criado pelo arquivo de Clientes ou existente) e de chaves repetidas.
+     *
+     * O banco só é lido: índices de CNPJ/grupo e de chave + hash (1 query cada),
+     * que também dão a previsão de inserções, atualizações e linhas inalteradas.
+     *
+     * @return Relatório por arquivo, com os problemas e o número da linha
+     */
+    @Transactional(readOnly = true)
+    public RelatorioValidacao validar(InputStreamSource clientes,
+                                      InputStreamSource pedidos,
+                                      InputStreamSource dadosBI,
+                                      InputStreamSource duplicatas) {
+        long inicio = System.nanoTime();
+        RelatorioValidacao relatorio = new RelatorioValidacao();
+
+        try (ExecutorService estagios = Executors.newVirtualThreadPerTaskExecutor();
+             PipelineImportacao<ClienteDTO> pipelineClientes =
+                     iniciarPipeline(estagios, clientes, ESQUEMA_CLIENTES, this::normalizarCliente);
+             PipelineImportacao<PedidoDTO> pipelinePedidos =
+                     iniciarPipeline(estagios, pedidos, ESQUEMA_PEDIDOS, this::normalizarPedido);
+             PipelineImportacao<DadosBIDTO> pipelineDadosBI =
+                     iniciarPipeline(estagios, dadosBI, ESQUEMA_DADOS_BI, this::normalizarDadosBI);
+             PipelineImportacao<DuplicataDTO> pipelineDuplicatas =
+                     iniciarPipeline(estagios, duplicatas, ESQUEMA_DUPLICATAS, normalizadorDuplicatas())) {
+
+            ResolvedorImportacao resolvedor = novoResolvedor();
+            Set<String> cnpjsDoArquivo = new HashSet<>();
+            Set<String> gruposDoArquivo = new HashSet<>();
+
+            // Bean Validation já foi feita na normalização: aqui só as referências
+            validarArquivo(pipelineClientes, IndiceConteudo.de(clienteRepository.findChaveIdEHash()), relatorio,
+                    (dto, entrada) -> {
+                        // Mesma regra de grupo da importação: sem grupo, cliente novo vira grupo próprio
+                        boolean grupoInformado = dto.getGrupoEconomico() != null && !dto.getGrupoEconomico().trim().isEmpty();
+                        cnpjsDoArquivo.add(dto.getCnpj());
+                        if (grupoInformado) {
+                            gruposDoArquivo.add(dto.getGrupoEconomico());
+                        } else if (resolvedor.getClienteId(dto.getCnpj()) == null) {
+                            gruposDoArquivo.add(dto.getCnpj());
+                        }
+                        return null;
+                    });
+
+            validarArquivo(pipelinePedidos, IndiceConteudo.de(pedidoRepository.findChaveIdEHash()), relatorio,
+                    (dto, entrada) -> !cnpjsDoArquivo.contains(dto.getCnpjCliente())
+                            && resolvedor.getClienteId(dto.getCnpjCliente()) == null
+                            ? "Cliente não encontrado: " + dto.getCnpjCliente() + " (nem no arquivo de Clientes, nem no banco)"
+                            : null);
+
+            validarArquivo(pipelineDadosBI, IndiceConteudo.de(dadosBIRepository.findChaveIdEHash()), relatorio,
+                    (dto, entrada) -> !gruposDoArquivo.contains(dto.getGrupoEconomico())
+                            && resolvedor.getGrupoId(dto.getGrupoEconomico()) == null
+                            ? "Grupo não encontrado: " + dto.getGrupoEconomico() + " (nem no arquivo de Clientes, nem no banco)"
+                            : null);
+
+            validarArquivo(pipelineDuplicatas, IndiceConteudo.de(duplicataRepository.findChaveIdEHash()), relatorio,
+                    (dto, entrada) -> !cnpjsDoArquivo.contains(dto.getCnpj())
+                            && resolvedor.getClienteId(dto.getCnpj()) == null
+                            ? "Cliente não encontrado: " + dto.getCnpj() + " (nem no arquivo de Clientes, nem no banco)"
+                            : null);
         }
 
-        return clientes;
+        relatorio.setTempoMs((System.nanoTime() - inicio) / 1_000_000);
+        return relatorio;
     }
 
     /**
-     * Parseia arquivo Pedidos.xlsx
-     * Colunas: numero, data, valor, cnpj_cliente, marca, bloqueio,
-     *          deposito, condicao_pagamento, colecao
+     * Consome o pipeline de um arquivo classificando cada linha, sem gravar.
+     *
+     * @param checagem Referências da linha; retorna a mensagem do problema ou null
      */
-    private List<PedidoDTO> parsePedidos(MultipartFile file) throws IOException {
-        List<PedidoDTO> pedidos = new ArrayList<>();
-
-        try (InputStream is = file.getInputStream();
-             Workbook workbook = new XSSFWorkbook(is)) {
-
-            Sheet sheet = workbook.getSheetAt(0);
-            Iterator<Row> rows = sheet.iterator();
-
-            // Skip header row
-            if (rows.hasNext()) rows.next();
+    private <T> void validarArquivo(PipelineImportacao<T> pipeline, IndiceConteudo indice,
+                                    RelatorioValidacao relatorio, BiFunction<T, Entrada<T>, String> checagem) {
+        RelatorioValidacao.Arquivo arquivo = relatorio.arquivo(pipeline.getNomeArquivo());
+        Map<String, Integer> linhaPorChave = new HashMap<>();
+
+        for (Entrada<T> entrada : pipeline) {
+            if (entrada.isErro()) {
+                arquivo.addErro(entrada.linha(), entrada.erro());
+                continue;
+            }
 
-            int rowNum = 1;
-            while (rows.hasNext()) {
-                Row row = rows.next();
-                rowNum++;
+            String problema;
+            try {
+                problema = checagem.apply(entrada.dto(), entrada);
+            } catch (Exception e) {
+                problema = e.getMessage();
+            }
+            if (problema != null) {
+                arquivo.addErro(entrada.linha(), problema);
+                continue;
+            }
 
-                try {
-                    PedidoDTO dto = new PedidoDTO();
-                    dto.setNumero(getStringValue(row, 0));
-                    dto.setData(getDateValue(row, 1));
-                    dto.setValor(getBigDecimalValue(row, 2));
-                    dto.setCnpjCliente(getStringValue(row, 3));
-                    dto.setMarca(getStringValue(row, 4));
-                    dto.setBloqueio(getStringValue(row, 5));
-                    dto.setDeposito(getStringValue(row, 6));
-                    dto.setCondicaoPagamento(getStringValue(row, 7));
-                    dto.setColecao(getIntegerValue(row, 8));
-
-                    pedidos.add(dto);
-                } catch (Exception e) {
-                    System.err.println("Erro ao parsear linha " + rowNum + " de Pedidos: " + e.getMessage());
-                }
+            // Chave repetida no arquivo: a importação aplica a última ocorrência
+            Integer anterior = linhaPorChave.putIfAbsent(entrada.chave(), entrada.linha());
+            if (anterior != null) {
+                arquivo.incrementarRepetidos();
+                arquivo.addAviso(entrada.linha(), "Chave " + entrada.chave() + " repetida (primeira na linha "
+                        + anterior + "); prevalece a última ocorrência");
+            } else if (indice.getId(entrada.chave()) == null) {
+                arquivo.incrementarNovos();
+            } else if (indice.inalterado(entrada.chave(), entrada.hash())) {
+                arquivo.incrementarInalterados();
+            } else {
+                arquivo.incrementarAtualizados();
             }
         }
 
-        return pedidos;
+        arquivo.setTempoLeituraMs(pipeline.getTempoLeituraMs());
+        Exception falha = pipeline.getFalha();
+        if (falha != null) {
+            arquivo.addErro(0, pipeline.getLinhasLidas() == 0
+                    ? "Falha ao ler " + pipeline.getNomeArquivo() + ": " + falha.getMessage()
+                    : "Falha ao ler " + pipeline.getNomeArquivo() + " após " + pipeline.getLinhasLidas()
+                      + " linhas (a importação seria desfeita): " + falha.getMessage());
+        }
     }
 
+    // ========== PARSING METHODS (streaming - XLSX ou CSV) ==========
+
     /**
-     * Parseia arquivo DadosBI.xlsx
-     * Colunas: grupo_economico, colecao, valor_vencido, credito, score, atraso_medio
+     * Inicia o pipeline de um arquivo: o leitor faz o parse em streaming (SAX para XLSX,
+     * mmap para CSV) e mapeia cada linha direto para o DTO; o normalizador checa os
+     * campos obrigatórios e calcula chave natural e hash. O formato é escolhido pela
+     * extensão do arquivo. Linhas com erro de conversão viram entradas de erro.
+     *
+     * O esquema é compilado contra o cabeçalho do arquivo antes da primeira linha;
+     * coluna obrigatória ausente recusa o arquivo inteiro.
+     *
+     * Os estágios não acessam o ResultadoImportacao: só quem consome o pipeline escreve nele.
      */
-    private List<DadosBIDTO> parseDadosBI(MultipartFile file) throws IOException {
-        List<DadosBIDTO> dadosBI = new ArrayList<>();
-
-        try (InputStream is = file.getInputStream();
-             Workbook workbook = new XSSFWorkbook(is)) {
-
-            Sheet sheet = workbook.getSheetAt(0);
-            Iterator<Row> rows = sheet.iterator();
-
-            // Skip header row
-            if (rows.hasNext()) rows.next();
-
-            int rowNum = 1;
-            while (rows.hasNext()) {
-                Row row = rows.next();
-                rowNum++;
-
+    private <T> PipelineImportacao<T> iniciarPipeline(ExecutorService executor, InputStreamSource file,
+                                                      EsquemaPlanilha<T> esquema,
+                                                      Function<T, Entrada<T>> normalizador) {
+        LeitorPlanilha leitor = isCsv(file) ? leitorCsv : leitorXlsx;
+        String nomeArquivo = esquema.getNomeArquivo();
+
+        PipelineImportacao.Leitura<T> leitura = destino -> {
+            AtomicReference<Function<LinhaPlanilha, T>> mapeador = new AtomicReference<>();
+            Consumer<List<String>> cabecalho = nomes -> mapeador.set(esquema.compilar(nomes));
+            Consumer<LinhaPlanilha> consumidor = linha -> {
+                T dto;
                 try {
-                    DadosBIDTO dto = new DadosBIDTO();
-                    dto.setGrupoEconomico(getStringValue(row, 0));
-                    dto.setColecao(getIntegerValue(row, 1));
-                    dto.setValorVencido(getBigDecimalValue(row, 2));
-                    dto.setCredito(getBigDecimalValue(row, 3));
-                    dto.setScore(getIntegerValue(row, 4));
-                    dto.setAtrasoMedio(getBigDecimalValue(row, 5));
-
-                    dadosBI.add(dto);
+                    dto = mapeador.get().apply(linha);
                 } catch (Exception e) {
-                    System.err.println("Erro ao parsear linha " + rowNum + " de DadosBI: " + e.getMessage());
+                    // Log row error but continue
+                    destino.accept(Entrada.comErro(nomeArquivo + " linha " + linha.getNumero() + ": " + e.getMessage(),
+                            linha.getNumero()));
+                    return;
+                }
+                destino.accept(Entrada.lida(dto, linha.getNumero()));
+            };
+
+            if (file instanceof ArquivoImportacao arquivo) {
+                // Já está em disco: lê direto, sem cópia temporária
+                leitor.ler(arquivo.caminho(), cabecalho, consumidor);
+            } else {
+                try (InputStream is = file.getInputStream()) {
+                    leitor.ler(is, cabecalho, consumidor);
                 }
             }
-        }
+        };
 
-        return dadosBI;
+        return PipelineImportacao.iniciar(nomeArquivo, capacidadeFila, executor, leitura, normalizador);
     }
 
     /**
-     * Parseia arquivo Duplicatas.xlsx
-     * Colunas: cnpj, posicao, portador, vencimento, valor, saldo, data_pagamento
+     * CSV pela extensão do nome original; qualquer outro arquivo é lido como XLSX.
      */
-    private List<DuplicataDTO> parseDuplicatas(MultipartFile file) throws IOException {
-        List<DuplicataDTO> duplicatas = new ArrayList<>();
-
-        try (InputStream is = file.getInputStream();
-             Workbook workbook = new XSSFWorkbook(is)) {
+    private boolean isCsv(InputStreamSource file) {
+        String nome = null;
+        if (file instanceof ArquivoImportacao arquivo) {
+            nome = arquivo.nome();
+        } else if (file instanceof MultipartFile multipart) {
+            nome = multipart.getOriginalFilename();
+        }
+        return nome != null && nome.toLowerCase().endsWith(".csv");
+    }
 
-            Sheet sheet = workbook.getSheetAt(0);
-            Iterator<Row> rows = sheet.iterator();
+    /**
+     * Registra tempo de leitura e falha do arquivo depois que o persistidor consumiu o pipeline
+     * (chamado na ordem dos arquivos, depois de todas as preparações).
+     *
+     * Arquivo que não pôde ser aberto: registra o erro e segue (nenhuma linha foi gravada).
+     * Falha no meio do arquivo: as linhas já gravadas seriam um arquivo pela metade,
+     * então a importação inteira é desfeita.
+     */
+    private void concluirLeitura(PipelineImportacao<?> pipeline, ResultadoImportacao resultado) {
+        resultado.registrarTempoLeitura(pipeline.getNomeArquivo(), pipeline.getTempoLeituraMs());
 
-            // Skip header row
-            if (rows.hasNext()) rows.next();
+        Exception falha = pipeline.getFalha();
+        if (falha == null) {
+            return;
+        }
+        if (pipeline.getLinhasLidas() == 0) {
+            resultado.addErro("Falha ao ler " + pipeline.getNomeArquivo() + ": " + falha.getMessage());
+        } else {
+            throw new RuntimeException("Falha ao ler " + pipeline.getNomeArquivo() + " após "
+                    + pipeline.getLinhasLidas() + " linhas: " + falha.getMessage(), falha);
+        }
+    }
 
-            int rowNum = 1;
-            while (rows.hasNext()) {
-                Row row = rows.next();
-                rowNum++;
+    /**
+     * Consome o pipeline de um arquivo em uma thread própria, gravando as linhas alteradas
+     * na área de staging (commits curtos por lote). Os arquivos são preparados ao mesmo
+     * tempo: nenhum fica com a fila cheia esperando o anterior terminar.
+     *
+     * @param chaves Query de chave + hash atuais da tabela de destino (null = sem delta)
+     * @return Preparação em andamento (aguardar)
+     */
+    private <T> Future<?> preparar(ExecutorService executor, String lote, PipelineImportacao<T> pipeline,
+                                   Supplier<List<Object[]>> chaves, ResultadoImportacao resultado) {
+        return executor.submit(() -> stagingImportacaoService.preparar(lote, pipeline,
+                chaves != null ? IndiceConteudo.de(chaves.get()) : null, resultado));
+    }
 
-                try {
-                    DuplicataDTO dto = new DuplicataDTO();
-                    dto.setCnpj(getStringValue(row, 0));
-                    dto.setPosicao(getStringValue(row, 1));
-                    dto.setPortador(getStringValue(row, 2));
-                    dto.setVencimento(getDateValue(row, 3));
-                    dto.setValor(getBigDecimalValue(row, 4));
-                    dto.setSaldo(getBigDecimalValue(row, 5));
-                    dto.setDataPagamento(getDateValue(row, 6));
-
-                    duplicatas.add(dto);
-                } catch (Exception e) {
-                    System.err.println("Erro ao parsear linha " + rowNum + " de Duplicatas: " + e.getMessage());
+    /**
+     * Espera todas as preparações terminarem (nenhuma linha pode chegar ao staging
+     * depois do descarte do lote) e relança a primeira falha.
+     */
+    private static void aguardar(List<Future<?>> preparacoes) {
+        RuntimeException falha = null;
+        for (Future<?> preparacao : preparacoes) {
+            try {
+                preparacao.get();
+            } catch (ExecutionException e) {
+                if (falha == null) {
+                    falha = e.getCause() instanceof RuntimeException causa ? causa
+                            : new RuntimeException(e.getCause().getMessage(), e.getCause());
                 }
+            } catch (InterruptedException e) {
+                preparacoes.forEach(p -> p.cancel(true));
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Importação interrompida", e);
             }
         }
-
-        return duplicatas;
+        if (falha != null) {
+            throw falha;
+        }
     }
 
-    // ========== CELL VALUE EXTRACTORS ==========
-
-    private String getStringValue(Row row, int column) {
-        Cell cell = row.getCell(column);
-        if (cell == null) return null;
+    // ========== ESQUEMAS DAS PLANILHAS ==========
+
+    // Colunas localizadas pelo nome do cabeçalho; a posição vale para arquivos sem o nome
+
+    private static final EsquemaPlanilha<ClienteDTO> ESQUEMA_CLIENTES = EsquemaPlanilha.de("Clientes", ClienteDTO::new)
+            .obrigatoria("cnpj", 0, TipoColuna.TEXTO, ClienteDTO::setCnpj)
+            .coluna("razao_social", 1, TipoColuna.TEXTO, ClienteDTO::setRazaoSocial)
+            .coluna("nome_fantasia", 2, TipoColuna.TEXTO, ClienteDTO::setNomeFantasia)
+            .coluna("telefone", 3, TipoColuna.TEXTO, ClienteDTO::setTelefone)
+            .coluna("email", 4, TipoColuna.TEXTO, ClienteDTO::setEmail)
+            .coluna("estado", 5, TipoColuna.TEXTO, ClienteDTO::setEstado)
+            .coluna("tipo", 6, TipoColuna.TEXTO, ClienteDTO::setTipo)
+            .coluna("data_fundacao", 7, TipoColuna.DATA, ClienteDTO::setDataFundacao)
+            .coluna("simei", 8, TipoColuna.BOOLEANO, false, ClienteDTO::setSimei)
+            .coluna("situacao_credito", 9, TipoColuna.TEXTO, ClienteDTO::setSituacaoCredito)
+            .coluna("situacao_cobranca", 10, TipoColuna.TEXTO, ClienteDTO::setSituacaoCobranca)
+            .coluna("cluster", 11, TipoColuna.TEXTO, ClienteDTO::setCluster)
+            .coluna("grupo_economico", 12, TipoColuna.TEXTO, ClienteDTO::setGrupoEconomico)
+            .coluna("score_boa_vista", 13, TipoColuna.INTEIRO, ClienteDTO::setScoreBoaVista)
+            .coluna("score_boa_vista_data", 14, TipoColuna.DATA, ClienteDTO::setScoreBoaVistaData)
+            .coluna("sintegra", 15, TipoColuna.TEXTO, ClienteDTO::setSintegra);
+
+    private static final EsquemaPlanilha<PedidoDTO> ESQUEMA_PEDIDOS = EsquemaPlanilha.de("Pedidos", PedidoDTO::new)
+            .obrigatoria("numero", 0, TipoColuna.TEXTO, PedidoDTO::setNumero)
+            .coluna("data", 1, TipoColuna.DATA, PedidoDTO::setData)
+            .coluna("valor", 2, TipoColuna.DECIMAL, BigDecimal.ZERO, PedidoDTO::setValor)
+            .obrigatoria("cnpj_cliente", 3, TipoColuna.TEXTO, PedidoDTO::setCnpjCliente)
+            .coluna("marca", 4, TipoColuna.TEXTO, PedidoDTO::setMarca)
+            .coluna("bloqueio", 5, TipoColuna.TEXTO, PedidoDTO::setBloqueio)
+            .coluna("deposito", 6, TipoColuna.TEXTO, PedidoDTO::setDeposito)
+            .coluna("condicao_pagamento", 7, TipoColuna.TEXTO, PedidoDTO::setCondicaoPagamento)
+            .coluna("colecao", 8, TipoColuna.INTEIRO, PedidoDTO::setColecao);
+
+    private static final EsquemaPlanilha<DadosBIDTO> ESQUEMA_DADOS_BI = EsquemaPlanilha.de("DadosBI", DadosBIDTO::new)
+            .obrigatoria("grupo_economico", 0, TipoColuna.TEXTO, DadosBIDTO::setGrupoEconomico)
+            .obrigatoria("colecao", 1, TipoColuna.INTEIRO, DadosBIDTO::setColecao)
+            .coluna("valor_vencido", 2, TipoColuna.DECIMAL, BigDecimal.ZERO, DadosBIDTO::setValorVencido)
+            .coluna("credito", 3, TipoColuna.DECIMAL, BigDecimal.ZERO, DadosBIDTO::setCredito)
+            .coluna("score", 4, TipoColuna.INTEIRO, DadosBIDTO::setScore)
+            .coluna("atraso_medio", 5, TipoColuna.DECIMAL, BigDecimal.ZERO, DadosBIDTO::setAtrasoMedio);
+
+    private static final EsquemaPlanilha<DuplicataDTO> ESQUEMA_DUPLICATAS = EsquemaPlanilha.de("Duplicatas", DuplicataDTO::new)
+            .obrigatoria("cnpj", 0, TipoColuna.TEXTO, DuplicataDTO::setCnpj)
+            .coluna("posicao", 1, TipoColuna.TEXTO, DuplicataDTO::setPosicao)
+            .coluna("portador", 2, TipoColuna.TEXTO, DuplicataDTO::setPortador)
+            .obrigatoria("vencimento", 3, TipoColuna.DATA, DuplicataDTO::setVencimento)
+            .coluna("valor", 4, TipoColuna.DECIMAL, BigDecimal.ZERO, DuplicataDTO::setValor)
+            .coluna("saldo", 5, TipoColuna.DECIMAL, BigDecimal.ZERO, DuplicataDTO::setSaldo)
+            .coluna("data_pagamento", 6, TipoColuna.DATA, DuplicataDTO::setDataPagamento);
+
+    private static final EsquemaPlanilha<RestricaoDTO> ESQUEMA_RESTRICOES = EsquemaPlanilha.de("Restricoes", RestricaoDTO::new)
+            .obrigatoria("cnpj", 0, TipoColuna.TEXTO, RestricaoDTO::setCnpj)
+            .coluna("tipo", 1, TipoColuna.TEXTO, RestricaoDTO::setTipo)
+            .coluna("valor", 2, TipoColuna.DECIMAL, BigDecimal.ZERO, RestricaoDTO::setValor)
+            .coluna("data", 3, TipoColuna.DATA, RestricaoDTO::setData)
+            .coluna("origem", 4, TipoColuna.TEXTO, RestricaoDTO::setOrigem)
+            .coluna("detalhe", 5, TipoColuna.TEXTO, RestricaoDTO::setDetalhe);
+
+    private static final EsquemaPlanilha<SocioDTO> ESQUEMA_SOCIOS = EsquemaPlanilha.de("Socios", SocioDTO::new)
+            .obrigatoria("cnpj", 0, TipoColuna.TEXTO, SocioDTO::setCnpj)
+            .obrigatoria("nome", 1, TipoColuna.TEXTO, SocioDTO::setNome)
+            .obrigatoria("cpf", 2, TipoColuna.TEXTO, SocioDTO::setCpf)
+            .coluna("participacao", 3, TipoColuna.DECIMAL, BigDecimal.ZERO, SocioDTO::setParticipacao)
+            .coluna("renda_anual", 4, TipoColuna.DECIMAL, BigDecimal.ZERO, SocioDTO::setRendaAnual);
+
+    private static final EsquemaPlanilha<ParticipacaoDTO> ESQUEMA_PARTICIPACOES = EsquemaPlanilha.de("Participacoes", ParticipacaoDTO::new)
+            .obrigatoria("cnpj", 0, TipoColuna.TEXTO, ParticipacaoDTO::setCnpj)
+            .obrigatoria("empresa_nome", 1, TipoColuna.TEXTO, ParticipacaoDTO::setEmpresaNome)
+            .obrigatoria("empresa_cnpj", 2, TipoColuna.TEXTO, ParticipacaoDTO::setEmpresaCnpj)
+            .coluna("percentual", 3, TipoColuna.DECIMAL, BigDecimal.ZERO, ParticipacaoDTO::setPercentual);
+
+    // ========== NORMALIZERS (estágio intermediário do pipeline) ==========
 
-        return switch (cell.getCellType()) {
-            case STRING -> cell.getStringCellValue().trim();
-            case NUMERIC -> String.valueOf((long) cell.getNumericCellValue());
-            case BOOLEAN -> String.valueOf(cell.getBooleanCellValue());
-            case BLANK -> null;
-            default -> null;
-        };
+    /**
+     * Campos obrigatórios, chave natural e hash do conteúdo de cada linha.
+     * Rodam fora da thread da transação; linha sem campo obrigatório vira erro.
+     *
+     * A entidade da linha (com cliente/grupo provisórios) passa pela Bean Validation aqui,
+     * antes do staging: a publicação roda em uma única transação, e uma linha recusada
+     * pelo banco (tamanho, precisão, NOT NULL) a marcaria inteira para rollback.
+     * Os limites das colunas estão declarados nas entidades (@Size, @Digits).
+     */
+    private Entrada<ClienteDTO> normalizarCliente(ClienteDTO dto) {
+        if (dto.getCnpj() == null || dto.getCnpj().trim().isEmpty()) {
+            return Entrada.comErro("Cliente sem CNPJ - linha ignorada");
+        }
+        long hash = hashConteudo(dto);
+        boolean grupoInformado = dto.getGrupoEconomico() != null && !dto.getGrupoEconomico().trim().isEmpty();
+        GrupoEconomico grupo = novoGrupo(grupoInformado ? dto.getGrupoEconomico() : dto.getCnpj());
+        Cliente cliente = new Cliente();
+        cliente.setCnpj(dto.getCnpj());
+        preencherCliente(cliente, dto, grupo, hash);
+        String violacoes = violacoes(cliente);
+        if (violacoes == null) {
+            violacoes = violacoes(grupo);
+        }
+        if (violacoes != null) {
+            return Entrada.comErro("Cliente " + dto.getCnpj() + ": " + violacoes);
+        }
+        return Entrada.normalizada(dto, dto.getCnpj(), hash);
     }
 
-    private Integer getIntegerValue(Row row, int column) {
-        Cell cell = row.getCell(column);
-        if (cell == null || cell.getCellType() == CellType.BLANK) return null;
+    private Entrada<PedidoDTO> normalizarPedido(PedidoDTO dto) {
+        if (dto.getCnpjCliente() == null || dto.getNumero() == null) {
+            return Entrada.comErro("Pedido sem CNPJ ou número - linha ignorada");
+        }
+        String chave = chavePedido(dto.getCnpjCliente(), dto.getNumero());
+        long hash = hashConteudo(dto);
+        Pedido pedido = new Pedido();
+        preencherPedido(pedido, dto, new Cliente(), chave, hash);
+        String violacoes = violacoes(pedido);
+        if (violacoes != null) {
+            return Entrada.comErro("Pedido " + dto.getNumero() + ": " + violacoes);
+        }
+        return Entrada.normalizada(dto, chave, hash);
+    }
 
-        try {
-            if (cell.getCellType() == CellType.NUMERIC) {
-                return (int) cell.getNumericCellValue();
-            } else if (cell.getCellType() == CellType.STRING) {
-                String value = cell.getStringCellValue().trim();
-                return value.isEmpty() ? null : Integer.parseInt(value);
-            }
-        } catch (Exception e) {
-            return null;
+    private Entrada<DadosBIDTO> normalizarDadosBI(DadosBIDTO dto) {
+        if (dto.getGrupoEconomico() == null || dto.getColecao() == null) {
+            return Entrada.comErro("DadosBI sem grupo ou coleção - linha ignorada");
+        }
+        String chave = chaveDadosBI(dto.getGrupoEconomico(), dto.getColecao());
+        long hash = hashConteudo(dto);
+        DadosBI dadosBI = new DadosBI();
+        preencherDadosBI(dadosBI, dto, new GrupoEconomico(), chave, hash);
+        String violacoes = violacoes(dadosBI);
+        if (violacoes != null) {
+            return Entrada.comErro("DadosBI " + dto.getGrupoEconomico() + "/" + dto.getColecao() + ": " + violacoes);
         }
-        return null;
+        return Entrada.normalizada(dto, chave, hash);
     }
 
-    private BigDecimal getBigDecimalValue(Row row, int column) {
-        Cell cell = row.getCell(column);
-        if (cell == null || cell.getCellType() == CellType.BLANK) return BigDecimal.ZERO;
+    /**
+     * Normalizador de um arquivo de duplicatas. A planilha não traz o número do título,
+     * então duas parcelas do mesmo cliente, vencimento e portador só se distinguem pela
+     * ordem no arquivo: a chave leva o ordinal da linha dentro desse trio.
+     */
+    private Function<DuplicataDTO, Entrada<DuplicataDTO>> normalizadorDuplicatas() {
+        Map<String, Integer> ocorrencias = new HashMap<>();
+        return dto -> normalizarDuplicata(dto, ocorrencias);
+    }
 
-        try {
-            if (cell.getCellType() == CellType.NUMERIC) {
-                return BigDecimal.valueOf(cell.getNumericCellValue())
-                        .setScale(2, RoundingMode.HALF_UP);
-            } else if (cell.getCellType() == CellType.STRING) {
-                String value = cell.getStringCellValue().trim();
-                return value.isEmpty() ? BigDecimal.ZERO :
-                       new BigDecimal(value).setScale(2, RoundingMode.HALF_UP);
-            }
-        } catch (Exception e) {
-            return BigDecimal.ZERO;
+    private Entrada<DuplicataDTO> normalizarDuplicata(DuplicataDTO dto, Map<String, Integer> ocorrencias) {
+        if (dto.getCnpj() == null || dto.getVencimento() == null) {
+            return Entrada.comErro("Duplicata sem CNPJ ou vencimento - linha ignorada");
         }
-        return BigDecimal.ZERO;
+        String base = chaveDuplicata(dto.getCnpj(), dto.getVencimento(), dto.getPortador());
+        String chave = chaveDuplicata(base, ocorrencias.merge(base, 1, Integer::sum));
+        long hash = hashConteudo(dto);
+        Duplicata duplicata = new Duplicata();
+        preencherDuplicata(duplicata, dto, new Cliente(), chave, hash);
+        String violacoes = violacoes(duplicata);
+        if (violacoes != null) {
+            return Entrada.comErro("Duplicata " + dto.getCnpj() + ": " + violacoes);
+        }
+        return Entrada.normalizada(dto, chave, hash);
     }
 
-    private LocalDate getDateValue(Row row, int column) {
-        Cell cell = row.getCell(column);
-        if (cell == null || cell.getCellType() == CellType.BLANK) return null;
+    // Bureau: substituição por cliente, sem delta; a chave é o CNPJ e o hash não é usado
 
+    private Entrada<RestricaoDTO> normalizarRestricao(RestricaoDTO dto) {
+        if (dto.getCnpj() == null || dto.getCnpj().trim().isEmpty()) {
+            return Entrada.comErro("Restrição sem CNPJ - linha ignorada");
+        }
+        Object restricao;
         try {
-            if (cell.getCellType() == CellType.NUMERIC && DateUtil.isCellDateFormatted(cell)) {
-                return cell.getLocalDateTimeCellValue().toLocalDate();
-            }
-        } catch (Exception e) {
-            return null;
+            restricao = criarRestricao(dto, new Cliente());
+        } catch (IllegalArgumentException e) {
+            return Entrada.comErro("Restrição " + dto.getCnpj() + ": " + e.getMessage());
+        }
+        String violacoes = restricao != null ? violacoes(restricao) : null;
+        if (violacoes != null) {
+            return Entrada.comErro("Restrição " + dto.getCnpj() + ": " + violacoes);
         }
-        return null;
+        return Entrada.normalizada(dto, dto.getCnpj(), 0L);
     }
 
-    private Boolean getBooleanValue(Row row, int column) {
-        Cell cell = row.getCell(column);
-        if (cell == null || cell.getCellType() == CellType.BLANK) return false;
+    private Entrada<SocioDTO> normalizarSocio(SocioDTO dto) {
+        if (dto.getCnpj() == null || dto.getCpf() == null) {
+            return Entrada.comErro("Sócio sem CNPJ ou CPF - linha ignorada");
+        }
+        // Célula numérica no Excel perde os zeros à esquerda do CPF
+        dto.setCpf(completarDigitos(dto.getCpf(), 11));
+        String violacoes = violacoes(criarSocio(dto, new Cliente()));
+        if (violacoes != null) {
+            return Entrada.comErro("Sócio " + dto.getCnpj() + ": " + violacoes);
+        }
+        return Entrada.normalizada(dto, dto.getCnpj(), 0L);
+    }
 
-        return switch (cell.getCellType()) {
-            case BOOLEAN -> cell.getBooleanCellValue();
-            case STRING -> {
-                String value = cell.getStringCellValue().trim().toUpperCase();
-                yield "TRUE".equals(value) || "SIM".equals(value) || "1".equals(value);
-            }
-            case NUMERIC -> cell.getNumericCellValue() > 0;
-            default -> false;
-        };
+    private Entrada<ParticipacaoDTO> normalizarParticipacao(ParticipacaoDTO dto) {
+        if (dto.getCnpj() == null || dto.getEmpresaCnpj() == null) {
+            return Entrada.comErro("Participação sem CNPJ do cliente ou da empresa - linha ignorada");
+        }
+        dto.setEmpresaCnpj(completarDigitos(dto.getEmpresaCnpj(), 14));
+        String violacoes = violacoes(criarParticipacao(dto, new Cliente()));
+        if (violacoes != null) {
+            return Entrada.comErro("Participação " + dto.getCnpj() + ": " + violacoes);
+        }
+        return Entrada.normalizada(dto, dto.getCnpj(), 0L);
+    }
+
+    /**
+     * Lista já em memória como fonte das fases (mesma normalização do pipeline, sem threads).
+     */
+    private static <T> Iterable<Entrada<T>> entradas(List<T> data, Function<T, Entrada<T>> normalizador) {
+        return () -> data.stream().map(normalizador).iterator();
     }
 
     // ========== IMPORT METHODS ==========
@@ -384,53 +826,78 @@ public class ImportacaoService {
      */
     @Transactional
     public void importarClientes(List<ClienteDTO> data, ResultadoImportacao resultado) {
-        for (ClienteDTO dto : data) {
-            try {
-                // Validar CNPJ obrigatório
-                if (dto.getCnpj() == null || dto.getCnpj().trim().isEmpty()) {
-                    resultado.addErro("Cliente sem CNPJ - linha ignorada");
-                    continue;
-                }
+        importarClientes(entradas(data, this::normalizarCliente), resultado, novoResolvedor());
+    }
 
-                // Skip se já existe (idempotente)
-                if (clienteRepository.findByCnpj(dto.getCnpj()).isPresent()) {
-                    resultado.addAviso("Cliente " + dto.getCnpj() + " já existe - ignorado");
-                    continue;
-                }
+    /**
+     * Importa clientes resolvendo CNPJ e grupo pelo índice em memória da importação.
+     * Consome as entradas já normalizadas (pipeline ou lista), na ordem do arquivo.
+     *
+     * Delta por hash: cliente novo é inserido, cliente existente só é regravado
+     * se o conteúdo da linha mudou desde a última importação.
+     */
+    @Transactional
+    public void importarClientes(Iterable<Entrada<ClienteDTO>> entradas, ResultadoImportacao resultado,
+                                 ResolvedorImportacao resolvedor) {
+        IndiceConteudo indice = IndiceConteudo.de(clienteRepository.findChaveIdEHash());
+        int persistidos = 0;
+        for (Entrada<ClienteDTO> entrada : entradas) {
+            if (entrada.isErro()) {
+                resultado.addErro(entrada.erro());
+                continue;
+            }
+            ClienteDTO dto = entrada.dto();
 
-                // 1. Find or create GrupoEconomico
-                String codigoGrupo = (dto.getGrupoEconomico() != null && !dto.getGrupoEconomico().trim().isEmpty())
-                        ? dto.getGrupoEconomico() : dto.getCnpj();
-                GrupoEconomico grupo = findOrCreateGrupo(codigoGrupo);
+            // Linha idêntica à última importada: nada a gravar
+            long hash = entrada.hash();
+            if (indice.inalterado(entrada.chave(), hash)) {
+                resultado.incrementarInalterados();
+                continue;
+            }
+
+            // 1. Find or create GrupoEconomico
+            //    Cliente existente sem grupo na planilha permanece no grupo atual
+            Long clienteId = resolvedor.getClienteId(dto.getCnpj());
+            boolean grupoInformado = dto.getGrupoEconomico() != null && !dto.getGrupoEconomico().trim().isEmpty();
+            GrupoEconomico grupo;
+            if (clienteId != null && !grupoInformado) {
+                grupo = grupoEconomicoRepository.getReferenceById(resolvedor.getGrupoIdDoCliente(dto.getCnpj()));
+            } else {
+                grupo = findOrCreateGrupo(grupoInformado ? dto.getGrupoEconomico() : dto.getCnpj(), resolvedor);
+            }
 
-                // 2. Create Cliente
-                Cliente cliente = new Cliente();
+            // 2. Create Cliente, ou Update: aplica os mesmos campos ao registro existente
+            //    (a linha já passou pela Bean Validation na normalização)
+            Cliente cliente;
+            Long grupoAnteriorId = null;
+            if (clienteId != null) {
+                grupoAnteriorId = resolvedor.getGrupoIdDoCliente(dto.getCnpj());
+                resolvedor.marcarGrupoAfetado(grupoAnteriorId);
+                cliente = clienteRepository.findById(clienteId)
+                        .orElseThrow(() -> new RuntimeException("Cliente não encontrado: " + dto.getCnpj()));
+            } else {
+                cliente = new Cliente();
                 cliente.setCnpj(dto.getCnpj());
-                cliente.setRazaoSocial(dto.getRazaoSocial() != null ? dto.getRazaoSocial() : "Razão Social");
-                cliente.setNomeFantasia(dto.getNomeFantasia());
-                cliente.setTelefone(dto.getTelefone());
-                cliente.setEmail(dto.getEmail());
-                cliente.setEstado(dto.getEstado());
-                cliente.setDataFundacao(dto.getDataFundacao());
-                cliente.setSimei(dto.getSimei() != null ? dto.getSimei() : false);
-                cliente.setSituacaoCredito(dto.getSituacaoCredito());
-                cliente.setSituacaoCobranca(dto.getSituacaoCobranca());
-                cliente.setCluster(dto.getCluster());
-                cliente.setScoreBoaVista(dto.getScoreBoaVista());
-                cliente.setScoreBoaVistaData(dto.getScoreBoaVistaData());
-                cliente.setSintegra(dto.getSintegra());
-                cliente.setGrupoEconomico(grupo);
-
-                // Parse TipoCliente
-                TipoCliente tipoCliente = parseTipoCliente(dto.getTipo());
-                cliente.setTipoCliente(tipoCliente);
-
-                clienteRepository.save(cliente);
-                resultado.incrementarClientes();
+            }
+            preencherCliente(cliente, dto, grupo, hash);
 
-            } catch (Exception e) {
-                resultado.addErro("Cliente " + dto.getCnpj() + ": " + e.getMessage());
+            clienteRepository.save(cliente);
+
+            // Cliente mudou de grupo: as análises dele vão junto (grupoEconomicoId é
+            // denormalizado na Analise); grupo antigo e novo ficam afetados
+            if (clienteId != null && !grupo.getId().equals(grupoAnteriorId)) {
+                analiseRepository.atualizarGrupoPorCliente(clienteId, grupo.getId());
+            }
+            resolvedor.registrarCliente(cliente.getCnpj(), cliente.getId(), grupo.getId());
+            resolvedor.marcarGrupoAfetado(grupo.getId());
+            indice.registrar(cliente.getCnpj(), cliente.getId(), hash);
+
+            if (clienteId != null) {
+                resultado.incrementarAtualizados();
+            } else {
+                resultado.incrementarClientes();
             }
+            liberarLote(++persistidos);
         }
     }
 
@@ -440,53 +907,84 @@ public class ImportacaoService {
      */
     @Transactional
     public void importarPedidos(List<PedidoDTO> data, ResultadoImportacao resultado) {
-        for (PedidoDTO dto : data) {
-            try {
-                // Validar campos obrigatórios
-                if (dto.getCnpjCliente() == null || dto.getNumero() == null) {
-                    resultado.addErro("Pedido sem CNPJ ou número - linha ignorada");
-                    continue;
-                }
+        importarPedidos(entradas(data, this::normalizarPedido), resultado, novoResolvedor());
+    }
 
-                // Buscar cliente
-                Cliente cliente = clienteRepository.findByCnpj(dto.getCnpjCliente())
-                        .orElseThrow(() -> new RuntimeException("Cliente não encontrado: " + dto.getCnpjCliente()));
-
-                // Criar pedido
-                Pedido pedido = new Pedido();
-                pedido.setNumero(dto.getNumero());
-                pedido.setData(dto.getData() != null ? dto.getData() : LocalDate.now());
-                pedido.setValor(dto.getValor() != null ? dto.getValor() : BigDecimal.ZERO);
-                pedido.setMarca(dto.getMarca());
-                pedido.setDeposito(dto.getDeposito());
-                pedido.setCondicaoPagamento(dto.getCondicaoPagamento());
-                pedido.setColecao(dto.getColecao());
-                pedido.setBloqueio(dto.getBloqueio());
-                pedido.setCliente(cliente);
-
-                // Define workflow by bloqueio
-                if ("80".equals(dto.getBloqueio()) || "36".equals(dto.getBloqueio())) {
-                    pedido.setWorkflow(TipoWorkflow.CLIENTE_NOVO);
-                } else {
-                    pedido.setWorkflow(TipoWorkflow.BASE_PRAZO);
-                }
+    /**
+     * Importa pedidos resolvendo o cliente pelo índice em memória da importação.
+     *
+     * Chave natural: CNPJ do cliente + número. Pedido novo é inserido com sua
+     * Analise PENDENTE; pedido existente só é regravado se a linha mudou
+     * (workflow e análise em andamento são preservados).
+     */
+    @Transactional
+    public void importarPedidos(Iterable<Entrada<PedidoDTO>> entradas, ResultadoImportacao resultado,
+                                ResolvedorImportacao resolvedor) {
+        preencherChavesLegadas(pedidoRepository.findSemChaveNatural(),
+                p -> chavePedido(p.getCliente().getCnpj(), p.getNumero()), Pedido::setChaveNatural);
+        IndiceConteudo indice = IndiceConteudo.de(pedidoRepository.findChaveIdEHash());
+        int persistidos = 0;
+        for (Entrada<PedidoDTO> entrada : entradas) {
+            if (entrada.isErro()) {
+                resultado.addErro(entrada.erro());
+                continue;
+            }
+            PedidoDTO dto = entrada.dto();
+
+            // Linha idêntica à última importada: nada a gravar
+            String chave = entrada.chave();
+            long hash = entrada.hash();
+            if (indice.inalterado(chave, hash)) {
+                resultado.incrementarInalterados();
+                continue;
+            }
+
+            // Resolver cliente (referência sem SELECT)
+            Long clienteId = resolvedor.getClienteId(dto.getCnpjCliente());
+            if (clienteId == null) {
+                resultado.addErro("Pedido " + dto.getNumero() + ": Cliente não encontrado: " + dto.getCnpjCliente());
+                continue;
+            }
+            Cliente cliente = clienteRepository.getReferenceById(clienteId);
 
+            // Criar pedido
+            Pedido pedido = new Pedido();
+            preencherPedido(pedido, dto, cliente, chave, hash);
+
+            // Define workflow by bloqueio
+            if ("80".equals(dto.getBloqueio()) || "36".equals(dto.getBloqueio())) {
+                pedido.setWorkflow(TipoWorkflow.CLIENTE_NOVO);
+            } else {
+                pedido.setWorkflow(TipoWorkflow.BASE_PRAZO);
+            }
+
+            Long grupoId = resolvedor.getGrupoIdDoCliente(dto.getCnpjCliente());
+            Long pedidoId = indice.getId(chave);
+
+            if (pedidoId != null) {
+                // Update: só os campos vindos da planilha
+                pedido = pedidoRepository.findById(pedidoId)
+                        .orElseThrow(() -> new RuntimeException("Pedido não encontrado: " + dto.getNumero()));
+                preencherPedido(pedido, dto, cliente, chave, hash);
+                pedidoRepository.save(pedido);
+                resultado.incrementarAtualizados();
+            } else {
                 pedidoRepository.save(pedido);
 
                 // Create Analise PENDENTE
                 Analise analise = new Analise();
                 analise.setPedido(pedido);
-                analise.setClienteId(cliente.getId());
-                analise.setGrupoEconomicoId(cliente.getGrupoEconomico().getId());
+                analise.setClienteId(clienteId);
+                analise.setGrupoEconomicoId(grupoId);
                 analise.setStatusWorkflow(StatusWorkflow.PENDENTE);
                 analise.setDataInicio(LocalDateTime.now());
                 analiseRepository.save(analise);
-
                 resultado.incrementarPedidos();
-
-            } catch (Exception e) {
-                resultado.addErro("Pedido " + dto.getNumero() + ": " + e.getMessage());
             }
+
+            resolvedor.marcarGrupoAfetado(grupoId);
+            indice.registrar(chave, pedido.getId(), hash);
+            liberarLote(++persistidos);
         }
     }
 
@@ -495,34 +993,63 @@ public class ImportacaoService {
      */
     @Transactional
     public void importarDadosBI(List<DadosBIDTO> data, ResultadoImportacao resultado) {
-        for (DadosBIDTO dto : data) {
-            try {
-                // Validar campos obrigatórios
-                if (dto.getGrupoEconomico() == null || dto.getColecao() == null) {
-                    resultado.addErro("DadosBI sem grupo ou coleção - linha ignorada");
-                    continue;
-                }
+        importarDadosBI(entradas(data, this::normalizarDadosBI), resultado, novoResolvedor());
+    }
 
-                // Buscar grupo econômico
-                GrupoEconomico grupo = grupoEconomicoRepository.findByCodigo(dto.getGrupoEconomico())
-                        .orElseThrow(() -> new RuntimeException("Grupo não encontrado: " + dto.getGrupoEconomico()));
-
-                // Criar DadosBI
-                DadosBI dadosBI = new DadosBI();
-                dadosBI.setGrupoEconomico(grupo);
-                dadosBI.setColecao(dto.getColecao());
-                dadosBI.setValorVencido(dto.getValorVencido() != null ? dto.getValorVencido() : BigDecimal.ZERO);
-                dadosBI.setCredito(dto.getCredito() != null ? dto.getCredito() : BigDecimal.ZERO);
-                dadosBI.setScore(dto.getScore());
-                dadosBI.setAtrasoMedio(dto.getAtrasoMedio() != null ? dto.getAtrasoMedio() : BigDecimal.ZERO);
-                dadosBI.setDataImportacao(LocalDateTime.now());
-
-                dadosBIRepository.save(dadosBI);
-                resultado.incrementarDadosBI();
+    /**
+     * Importa dados de BI resolvendo o grupo pelo índice em memória da importação.
+     *
+     * Chave natural: código do grupo + coleção. Só linhas novas ou alteradas são gravadas.
+     */
+    @Transactional
+    public void importarDadosBI(Iterable<Entrada<DadosBIDTO>> entradas, ResultadoImportacao resultado,
+                                ResolvedorImportacao resolvedor) {
+        preencherChavesLegadas(dadosBIRepository.findSemChaveNatural(),
+                d -> chaveDadosBI(d.getGrupoEconomico().getCodigo(), d.getColecao()), DadosBI::setChaveNatural);
+        IndiceConteudo indice = IndiceConteudo.de(dadosBIRepository.findChaveIdEHash());
+        int persistidos = 0;
+        for (Entrada<DadosBIDTO> entrada : entradas) {
+            if (entrada.isErro()) {
+                resultado.addErro(entrada.erro());
+                continue;
+            }
+            DadosBIDTO dto = entrada.dto();
+
+            // Linha idêntica à última importada: nada a gravar
+            String chave = entrada.chave();
+            long hash = entrada.hash();
+            if (indice.inalterado(chave, hash)) {
+                resultado.incrementarInalterados();
+                continue;
+            }
 
-            } catch (Exception e) {
-                resultado.addErro("DadosBI " + dto.getGrupoEconomico() + "/" + dto.getColecao() + ": " + e.getMessage());
+            // Resolver grupo econômico
+            Long grupoId = resolvedor.getGrupoId(dto.getGrupoEconomico());
+            if (grupoId == null) {
+                resultado.addErro("DadosBI " + dto.getGrupoEconomico() + "/" + dto.getColecao()
+                        + ": Grupo não encontrado: " + dto.getGrupoEconomico());
+                continue;
             }
+            GrupoEconomico grupo = grupoEconomicoRepository.getReferenceById(grupoId);
+
+            // Criar DadosBI
+            DadosBI dadosBI = new DadosBI();
+            preencherDadosBI(dadosBI, dto, grupo, chave, hash);
+
+            Long dadosBIId = indice.getId(chave);
+            if (dadosBIId != null) {
+                dadosBI = dadosBIRepository.findById(dadosBIId)
+                        .orElseThrow(() -> new RuntimeException("DadosBI não encontrado: " + chave));
+                preencherDadosBI(dadosBI, dto, grupo, chave, hash);
+                resultado.incrementarAtualizados();
+            } else {
+                resultado.incrementarDadosBI();
+            }
+
+            dadosBIRepository.save(dadosBI);
+            resolvedor.marcarGrupoAfetado(grupoId);
+            indice.registrar(chave, dadosBI.getId(), hash);
+            liberarLote(++persistidos);
         }
     }
 
@@ -531,123 +1058,555 @@ public class ImportacaoService {
      */
     @Transactional
     public void importarDuplicatas(List<DuplicataDTO> data, ResultadoImportacao resultado) {
-        for (DuplicataDTO dto : data) {
-            try {
-                // Validar campos obrigatórios
-                if (dto.getCnpj() == null || dto.getVencimento() == null) {
-                    resultado.addErro("Duplicata sem CNPJ ou vencimento - linha ignorada");
-                    continue;
-                }
+        importarDuplicatas(entradas(data, normalizadorDuplicatas()), resultado, novoResolvedor());
+    }
 
-                // Buscar cliente
-                Cliente cliente = clienteRepository.findByCnpj(dto.getCnpj())
-                        .orElseThrow(() -> new RuntimeException("Cliente não encontrado: " + dto.getCnpj()));
+    /**
+     * Importa duplicatas resolvendo o cliente pelo índice em memória da importação.
+     *
+     * Chave natural: CNPJ + vencimento + portador + ordinal da linha dentro desse trio
+     * (a planilha não traz o número do título). Valor, posição, saldo e pagamento são conteúdo: uma mudança em qualquer
+     * um muda o hash e atualiza o mesmo registro; só linhas novas ou alteradas são gravadas.
+     */
+    @Transactional
+    public void importarDuplicatas(Iterable<Entrada<DuplicataDTO>> entradas, ResultadoImportacao resultado,
+                                   ResolvedorImportacao resolvedor) {
+        Map<String, Integer> ocorrencias = new HashMap<>();
+        preencherChavesLegadas(duplicataRepository.findSemChaveNatural(), d -> {
+            String base = chaveDuplicata(d.getCliente().getCnpj(), d.getVencimento(), d.getPortador());
+            return chaveDuplicata(base, ocorrencias.merge(base, 1, Integer::sum));
+        }, Duplicata::setChaveNatural);
+        IndiceConteudo indice = IndiceConteudo.de(duplicataRepository.findChaveIdEHash());
+        int persistidos = 0;
+        for (Entrada<DuplicataDTO> entrada : entradas) {
+            if (entrada.isErro()) {
+                resultado.addErro(entrada.erro());
+                continue;
+            }
+            DuplicataDTO dto = entrada.dto();
+
+            // Linha idêntica à última importada: nada a gravar
+            String chave = entrada.chave();
+            long hash = entrada.hash();
+            if (indice.inalterado(chave, hash)) {
+                resultado.incrementarInalterados();
+                continue;
+            }
+
+            // Resolver cliente (referência sem SELECT)
+            Long clienteId = resolvedor.getClienteId(dto.getCnpj());
+            if (clienteId == null) {
+                resultado.addErro("Duplicata " + dto.getCnpj() + ": Cliente não encontrado: " + dto.getCnpj());
+                continue;
+            }
+            Cliente cliente = clienteRepository.getReferenceById(clienteId);
+
+            // Criar duplicata
+            Duplicata duplicata = new Duplicata();
+            preencherDuplicata(duplicata, dto, cliente, chave, hash);
+
+            Long duplicataId = indice.getId(chave);
+            if (duplicataId != null) {
+                duplicata = duplicataRepository.findById(duplicataId)
+                        .orElseThrow(() -> new RuntimeException("Duplicata não encontrada: " + chave));
+                preencherDuplicata(duplicata, dto, cliente, chave, hash);
+                resultado.incrementarAtualizados();
+            } else {
+                resultado.incrementarDuplicatas();
+            }
 
-                // Criar duplicata
-                Duplicata duplicata = new Duplicata();
-                duplicata.setCliente(cliente);
-                duplicata.setVencimento(dto.getVencimento());
-                duplicata.setValor(dto.getValor() != null ? dto.getValor() : BigDecimal.ZERO);
-                duplicata.setSaldo(dto.getSaldo() != null ? dto.getSaldo() : BigDecimal.ZERO);
-                duplicata.setPortador(dto.getPortador());
-                duplicata.setDataPagamento(dto.getDataPagamento());
+            duplicataRepository.save(duplicata);
+            indice.registrar(chave, duplicata.getId(), hash);
+            liberarLote(++persistidos);
+        }
+    }
 
-                // Parse posição
-                PosicaoDuplicata posicao = parsePosicaoDuplicata(dto.getPosicao());
-                duplicata.setPosicao(posicao);
+    /**
+     * Importa restrições do bureau substituindo as atuais de cada cliente da lista.
+     */
+    @Transactional
+    public void importarRestricoes(List<RestricaoDTO> data, ResultadoImportacao resultado) {
+        ResolvedorImportacao resolvedor = novoResolvedor();
+        importarRestricoes(entradas(data, this::normalizarRestricao), resultado, resolvedor);
+        calcularAlertas(resultado, resolvedor.getGruposAfetados());
+    }
 
-                duplicataRepository.save(duplicata);
-                resultado.incrementarDuplicatas();
+    /**
+     * Importa as restrições do bureau (Pefin, Protesto, Ação Judicial, Cheque),
+     * substituindo as 4 listas de cada cliente presente no arquivo.
+     * Linha com tipo vazio ou NADA_CONSTA só limpa as restrições do cliente.
+     */
+    @Transactional
+    public void importarRestricoes(Iterable<Entrada<RestricaoDTO>> entradas, ResultadoImportacao resultado,
+                                   ResolvedorImportacao resolvedor) {
+        substituirPorCliente(entradas, resultado, resolvedor, "Restrição", RestricaoDTO::getCnpj,
+                this::criarRestricao, resultado::incrementarRestricoes, true,
+                clienteIds -> pefinRepository.deleteByClienteIdIn(clienteIds)
+                        + protestoRepository.deleteByClienteIdIn(clienteIds)
+                        + acaoJudicialRepository.deleteByClienteIdIn(clienteIds)
+                        + chequeRepository.deleteByClienteIdIn(clienteIds));
+    }
 
-            } catch (Exception e) {
-                resultado.addErro("Duplicata " + dto.getCnpj() + ": " + e.getMessage());
+    @Transactional
+    public void importarSocios(List<SocioDTO> data, ResultadoImportacao resultado) {
+        importarSocios(entradas(data, this::normalizarSocio), resultado, novoResolvedor());
+    }
+
+    /**
+     * Importa os sócios, substituindo os sócios de cada cliente presente no arquivo.
+     */
+    @Transactional
+    public void importarSocios(Iterable<Entrada<SocioDTO>> entradas, ResultadoImportacao resultado,
+                               ResolvedorImportacao resolvedor) {
+        substituirPorCliente(entradas, resultado, resolvedor, "Sócio", SocioDTO::getCnpj, this::criarSocio,
+                resultado::incrementarSocios, false, socioRepository::deleteByClienteIdIn);
+    }
+
+    @Transactional
+    public void importarParticipacoes(List<ParticipacaoDTO> data, ResultadoImportacao resultado) {
+        importarParticipacoes(entradas(data, this::normalizarParticipacao), resultado, novoResolvedor());
+    }
+
+    /**
+     * Importa as participações, substituindo as participações de cada cliente presente no arquivo.
+     */
+    @Transactional
+    public void importarParticipacoes(Iterable<Entrada<ParticipacaoDTO>> entradas, ResultadoImportacao resultado,
+                                      ResolvedorImportacao resolvedor) {
+        substituirPorCliente(entradas, resultado, resolvedor, "Participação", ParticipacaoDTO::getCnpj,
+                this::criarParticipacao, resultado::incrementarParticipacoes, false,
+                participacaoRepository::deleteByClienteIdIn);
+    }
+
+    /**
+     * Grava as linhas do arquivo substituindo, por cliente, os registros existentes.
+     *
+     * As linhas chegam na ordem do arquivo (não agrupadas por cliente). Cada lote de
+     * tamanhoLote linhas remove primeiro, com um DELETE ... IN por tabela, os registros
+     * dos clientes vistos pela primeira vez no lote e depois insere as linhas em batch JDBC.
+     * Linhas seguintes do mesmo cliente só inserem.
+     *
+     * @param criar Entidade da linha para o cliente, ou null se a linha só limpa o cliente
+     * @param excluir Remove os registros atuais dos clientes; retorna quantos removeu
+     * @param afetaAlertas Marca o grupo do cliente para recalcular o snapshot de alertas
+     */
+    private <T> void substituirPorCliente(Iterable<Entrada<T>> entradas, ResultadoImportacao resultado,
+                                          ResolvedorImportacao resolvedor, String descricao,
+                                          Function<T, String> cnpjDaLinha, BiFunction<T, Cliente, Object> criar,
+                                          Runnable contar, boolean afetaAlertas,
+                                          ToIntFunction<Collection<Long>> excluir) {
+        Set<Long> clientesVistos = new HashSet<>();
+        Set<Long> aExcluir = new LinkedHashSet<>();
+        List<Object> lote = new ArrayList<>();
+
+        for (Entrada<T> entrada : entradas) {
+            if (entrada.isErro()) {
+                resultado.addErro(entrada.erro());
+                continue;
+            }
+            String cnpj = cnpjDaLinha.apply(entrada.dto());
+
+            // Resolver cliente (referência sem SELECT)
+            Long clienteId = resolvedor.getClienteId(cnpj);
+            if (clienteId == null) {
+                resultado.addErro(descricao + " " + cnpj + ": Cliente não encontrado: " + cnpj);
+                continue;
+            }
+            Object registro = criar.apply(entrada.dto(), clienteRepository.getReferenceById(clienteId));
+
+            // Primeira linha válida do cliente: registros atuais saem antes dos INSERTs do lote
+            if (clientesVistos.add(clienteId)) {
+                aExcluir.add(clienteId);
+                if (afetaAlertas) {
+                    resolvedor.marcarGrupoAfetado(resolvedor.getGrupoIdDoCliente(cnpj));
+                }
+            }
+            if (registro != null) {
+                lote.add(registro);
+                contar.run();
+            }
+
+            if (tamanhoLote > 0 && lote.size() >= tamanhoLote) {
+                gravarLote(lote, aExcluir, excluir, resultado);
+            }
+        }
+        gravarLote(lote, aExcluir, excluir, resultado);
+    }
+
+    private void gravarLote(List<Object> lote, Set<Long> aExcluir, ToIntFunction<Collection<Long>> excluir,
+                            ResultadoImportacao resultado) {
+        if (!aExcluir.isEmpty()) {
+            resultado.addSubstituidos(excluir.applyAsInt(aExcluir));
+            aExcluir.clear();
+        }
+        lote.forEach(entityManager::persist);
+        lote.clear();
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            entityManager.flush();
+            entityManager.clear();
+        }
+    }
+
+    /**
+     * Restrição da linha conforme a coluna tipo.
+     *
+     * @return Pefin, Protesto, AcaoJudicial ou Cheque; null para NADA_CONSTA / tipo vazio
+     */
+    private Object criarRestricao(RestricaoDTO dto, Cliente cliente) {
+        BigDecimal valor = decimal(dto.getValor());
+        String tipo = dto.getTipo() == null ? "" : Normalizer.normalize(dto.getTipo().trim(), Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toUpperCase()
+                .replace(' ', '_');
+
+        switch (tipo) {
+            case "", "NADA_CONSTA" -> {
+                return null;
+            }
+            case "PEFIN" -> {
+                Pefin pefin = new Pefin();
+                pefin.setCliente(cliente);
+                pefin.setOrigem(dto.getOrigem());
+                pefin.setValor(valor);
+                pefin.setDataOcorrencia(dto.getData());
+                return pefin;
+            }
+            case "PROTESTO" -> {
+                Protesto protesto = new Protesto();
+                protesto.setCliente(cliente);
+                protesto.setCartorio(dto.getOrigem());
+                protesto.setValor(valor);
+                protesto.setDataProtesto(dto.getData());
+                return protesto;
+            }
+            case "ACAO_JUDICIAL", "ACAO" -> {
+                AcaoJudicial acao = new AcaoJudicial();
+                acao.setCliente(cliente);
+                acao.setVara(dto.getOrigem());
+                acao.setTipo(dto.getDetalhe());
+                acao.setValor(valor);
+                acao.setDataDistribuicao(dto.getData());
+                return acao;
+            }
+            case "CHEQUE" -> {
+                Cheque cheque = new Cheque();
+                cheque.setCliente(cliente);
+                cheque.setBanco(dto.getOrigem());
+                cheque.setAgencia(dto.getDetalhe());
+                cheque.setValor(valor);
+                cheque.setDataOcorrencia(dto.getData());
+                return cheque;
             }
+            default -> throw new IllegalArgumentException("Tipo de restrição inválido: " + dto.getTipo()
+                    + " (use PEFIN, PROTESTO, ACAO_JUDICIAL, CHEQUE ou NADA_CONSTA)");
+        }
+    }
+
+    private Socio criarSocio(SocioDTO dto, Cliente cliente) {
+        Socio socio = new Socio();
+        socio.setCliente(cliente);
+        socio.setNome(dto.getNome());
+        socio.setCpf(dto.getCpf());
+        socio.setParticipacao(decimal(dto.getParticipacao()));
+        socio.setRendaAnual(decimal(dto.getRendaAnual()));
+        return socio;
+    }
+
+    private Participacao criarParticipacao(ParticipacaoDTO dto, Cliente cliente) {
+        Participacao participacao = new Participacao();
+        participacao.setCliente(cliente);
+        participacao.setEmpresaNome(dto.getEmpresaNome());
+        participacao.setEmpresaCnpj(dto.getEmpresaCnpj());
+        participacao.setPercentual(decimal(dto.getPercentual()));
+        return participacao;
+    }
+
+    /**
+     * Valor da planilha na escala das colunas decimais (2 casas, como o banco gravaria);
+     * célula vazia vira zero.
+     */
+    private static BigDecimal decimal(BigDecimal valor) {
+        return valor != null ? valor.setScale(2, RoundingMode.HALF_UP) : BigDecimal.ZERO;
+    }
+
+    /**
+     * Completa com zeros à esquerda um documento só de dígitos (CPF/CNPJ lido de célula numérica).
+     */
+    private static String completarDigitos(String documento, int tamanho) {
+        String texto = documento.trim();
+        if (texto.length() < tamanho && !texto.isEmpty() && texto.chars().allMatch(Character::isDigit)) {
+            return "0".repeat(tamanho - texto.length()) + texto;
         }
+        return texto;
     }
 
     // ========== POST-PROCESSING ==========
 
     /**
      * Calcula limites sugeridos para todas as análises usando ScoringService.
-     * Leniente: não falha importação se cálculo de um limite falhar.
+     * Recalcula todos os grupos que possuem análises.
      */
     @Transactional
     public void calcularLimitesSugeridos(ResultadoImportacao resultado) {
-        try {
-            List<Analise> analises = analiseRepository.findAll();
-            int sucessos = 0;
+        calcularLimitesSugeridos(resultado, analiseRepository.findGrupoEconomicoIdsDistintos());
+    }
 
-            for (Analise analise : analises) {
-                try {
-                    GrupoEconomico grupo = grupoEconomicoRepository.findById(analise.getGrupoEconomicoId())
-                            .orElseThrow(() -> new RuntimeException("Grupo não encontrado"));
+    /**
+     * Calcula o limite sugerido uma vez por grupo e aplica (bulk UPDATE) a todas
+     * as análises do grupo. Custo proporcional aos grupos afetados, não ao histórico.
+     * Leniente: não falha importação se cálculo de um limite falhar.
+     */
+    @Transactional
+    public void calcularLimitesSugeridos(ResultadoImportacao resultado, Collection<Long> grupoIds) {
+        int analises = 0;
+        int grupos = 0;
 
-                    BigDecimal limite = scoringService.calcularLimiteSugerido(grupo);
-                    analise.setLimiteSugerido(limite);
-                    analiseRepository.save(analise);
-                    sucessos++;
+        for (Long grupoId : grupoIds) {
+            try {
+                GrupoEconomico grupo = grupoEconomicoRepository.findById(grupoId)
+                        .orElseThrow(() -> new RuntimeException("Grupo não encontrado"));
 
-                } catch (Exception e) {
-                    // Log but don't fail entire import
-                    resultado.addAviso("Erro ao calcular limite para análise " + analise.getId() + ": " + e.getMessage());
-                }
-            }
+                BigDecimal limite = scoringService.calcularLimiteSugerido(grupo);
+                analises += analiseRepository.atualizarLimiteSugeridoPorGrupo(grupoId, limite);
+                grupos++;
 
-            if (sucessos > 0) {
-                resultado.addAviso("Limites sugeridos calculados: " + sucessos);
+            } catch (Exception e) {
+                // Log but don't fail entire import
+                resultado.addAviso("Erro ao calcular limite para grupo " + grupoId + ": " + e.getMessage());
             }
+        }
 
-        } catch (Exception e) {
-            resultado.addAviso("Erro no cálculo de limites: " + e.getMessage());
+        if (analises > 0) {
+            resultado.addAviso("Limites sugeridos calculados: " + analises + " análises em " + grupos + " grupos");
         }
     }
 
     /**
-     * Calcula alertas para todos os pedidos usando AlertaService.
-     * Alertas são armazenados transientemente (não persistidos).
+     * Recalcula o snapshot de alertas (alerta_pedido) de todos os pedidos.
+     * Último passo da importação: publica a alteração de todos os cards do Kanban.
      */
     public void calcularAlertas(ResultadoImportacao resultado) {
         try {
-            List<Pedido> pedidos = pedidoRepository.findAll();
-            int sucessos = 0;
-
-            for (Pedido pedido : pedidos) {
-                try {
-                    List<String> alertas = alertaService.calcularAlertas(pedido);
-                    pedido.setAlerts(alertas);
-                    sucessos++;
-
-                } catch (Exception e) {
-                    // Log but don't fail
-                    resultado.addAviso("Erro ao calcular alertas para pedido " + pedido.getId() + ": " + e.getMessage());
-                }
-            }
-
-            if (sucessos > 0) {
-                resultado.addAviso("Alertas calculados: " + sucessos);
-            }
+            registrarAlertas(alertaSnapshotService.recalcularTodos(), resultado);
+        } catch (Exception e) {
+            resultado.addAviso("Erro no cálculo de alertas: " + e.getMessage());
+        }
+        eventPublisher.publishEvent(GruposAlteradosEvent.todos().comAlertasAtualizados());
+    }
 
+    /**
+     * Recalcula o snapshot de alertas dos pedidos dos grupos afetados, em lote.
+     * Leniente: erros viram avisos, não falham a importação.
+     * Último passo da importação: publica a alteração dos cards do Kanban desses grupos
+     * (aplicada depois do commit; nada é publicado se a importação for desfeita).
+     */
+    public void calcularAlertas(ResultadoImportacao resultado, Collection<Long> grupoIds) {
+        try {
+            registrarAlertas(alertaSnapshotService.recalcular(grupoIds), resultado);
         } catch (Exception e) {
             resultado.addAviso("Erro no cálculo de alertas: " + e.getMessage());
         }
+        if (!grupoIds.isEmpty()) {
+            eventPublisher.publishEvent(GruposAlteradosEvent.de(grupoIds).comAlertasAtualizados());
+        }
+    }
+
+    private void registrarAlertas(AlertaSnapshotService.Recalculo recalculo, ResultadoImportacao resultado) {
+        recalculo.erros().forEach(resultado::addAviso);
+        if (recalculo.pedidos() > 0) {
+            resultado.addAviso("Alertas calculados: " + recalculo.pedidos()
+                    + " pedidos (" + recalculo.alertas() + " alertas gravados)");
+        }
     }
 
     // ========== HELPER METHODS ==========
 
+    /**
+     * Carrega o índice CNPJ/código → id para uma importação (1 query por tabela).
+     */
+    private ResolvedorImportacao novoResolvedor() {
+        return ResolvedorImportacao.carregar(clienteRepository, grupoEconomicoRepository);
+    }
+
+    /**
+     * @return violações de Bean Validation da entidade ("campo mensagem, ..."), ou null se válida
+     */
+    private <T> String violacoes(T entidade) {
+        Set<ConstraintViolation<T>> violacoes = validator.validate(entidade);
+        if (violacoes.isEmpty()) {
+            return null;
+        }
+        return violacoes.stream()
+                .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    /**
+     * A cada tamanhoLote linhas: envia os INSERTs pendentes (em batch JDBC) e
+     * limpa o contexto de persistência, mantendo a memória constante em cargas grandes.
+     */
+    private void liberarLote(int persistidos) {
+        if (tamanhoLote > 0 && persistidos % tamanhoLote == 0
+                && TransactionSynchronizationManager.isActualTransactionActive()) {
+            entityManager.flush();
+            entityManager.clear();
+        }
+    }
+
+    // ========== DELTA (chave natural + hash) ==========
+
+    /**
+     * Campos do cliente vindos da planilha (usado no insert e no update).
+     */
+    private void preencherCliente(Cliente cliente, ClienteDTO dto, GrupoEconomico grupo, long hash) {
+        cliente.setRazaoSocial(dto.getRazaoSocial() != null ? dto.getRazaoSocial() : "Razão Social");
+        cliente.setNomeFantasia(dto.getNomeFantasia());
+        cliente.setTelefone(dto.getTelefone());
+        cliente.setEmail(dto.getEmail());
+        cliente.setEstado(dto.getEstado());
+        cliente.setDataFundacao(dto.getDataFundacao());
+        cliente.setSimei(dto.getSimei() != null ? dto.getSimei() : false);
+        cliente.setSituacaoCredito(dto.getSituacaoCredito());
+        cliente.setSituacaoCobranca(dto.getSituacaoCobranca());
+        cliente.setCluster(dto.getCluster());
+        cliente.setScoreBoaVista(dto.getScoreBoaVista());
+        cliente.setScoreBoaVistaData(dto.getScoreBoaVistaData());
+        cliente.setSintegra(dto.getSintegra());
+        cliente.setTipoCliente(parseTipoCliente(dto.getTipo()));
+        cliente.setGrupoEconomico(grupo);
+        cliente.setHashConteudo(hash);
+    }
+
+    private void preencherPedido(Pedido pedido, PedidoDTO dto, Cliente cliente, String chave, long hash) {
+        pedido.setNumero(dto.getNumero());
+        pedido.setData(dto.getData() != null ? dto.getData() : LocalDate.now());
+        pedido.setValor(decimal(dto.getValor()));
+        pedido.setMarca(dto.getMarca());
+        pedido.setDeposito(dto.getDeposito());
+        pedido.setCondicaoPagamento(dto.getCondicaoPagamento());
+        pedido.setColecao(dto.getColecao());
+        pedido.setBloqueio(dto.getBloqueio());
+        pedido.setCliente(cliente);
+        pedido.setChaveNatural(chave);
+        pedido.setHashConteudo(hash);
+    }
+
+    private void preencherDadosBI(DadosBI dadosBI, DadosBIDTO dto, GrupoEconomico grupo, String chave, long hash) {
+        dadosBI.setGrupoEconomico(grupo);
+        dadosBI.setColecao(dto.getColecao());
+        dadosBI.setValorVencido(decimal(dto.getValorVencido()));
+        dadosBI.setCredito(decimal(dto.getCredito()));
+        dadosBI.setScore(dto.getScore());
+        dadosBI.setAtrasoMedio(decimal(dto.getAtrasoMedio()));
+        dadosBI.setDataImportacao(LocalDateTime.now());
+        dadosBI.setChaveNatural(chave);
+        dadosBI.setHashConteudo(hash);
+    }
+
+    private void preencherDuplicata(Duplicata duplicata, DuplicataDTO dto, Cliente cliente, String chave, long hash) {
+        duplicata.setCliente(cliente);
+        duplicata.setVencimento(dto.getVencimento());
+        duplicata.setValor(decimal(dto.getValor()));
+        duplicata.setSaldo(decimal(dto.getSaldo()));
+        duplicata.setPortador(dto.getPortador());
+        duplicata.setDataPagamento(dto.getDataPagamento());
+        duplicata.setPosicao(parsePosicaoDuplicata(dto.getPosicao()));
+        duplicata.setChaveNatural(chave);
+        duplicata.setHashConteudo(hash);
+    }
+
+    // Chaves naturais: montadas igual a partir da linha do arquivo e do registro gravado
+
+    private static String chavePedido(String cnpjCliente, String numero) {
+        return cnpjCliente + "|" + numero;
+    }
+
+    private static String chaveDadosBI(String grupoEconomico, Integer colecao) {
+        return grupoEconomico + "|" + colecao;
+    }
+
+    private static String chaveDuplicata(String cnpj, LocalDate vencimento, String portador) {
+        return cnpj + "|" + vencimento + "|" + (portador != null ? portador.trim() : "");
+    }
+
+    // A primeira ocorrência fica sem sufixo: é a chave já gravada antes do ordinal
+    private static String chaveDuplicata(String base, int ordem) {
+        return ordem == 1 ? base : base + "#" + ordem;
+    }
+
+    /**
+     * Preenche a chave natural dos registros gravados sem ela (antes do delta por chave,
+     * ou fora da importação, como os dados iniciais), para que a fase os encontre no
+     * índice e os atualize em vez de inserir duplicados. O hash continua nulo: a
+     * primeira re-importação regrava o conteúdo e passa a controlá-lo.
+     */
+    private <E> void preencherChavesLegadas(List<E> semChave, Function<E, String> chave,
+                                            BiConsumer<E, String> setChave) {
+        if (semChave.isEmpty()) {
+            return;
+        }
+        semChave.forEach(registro -> setChave.accept(registro, chave.apply(registro)));
+        entityManager.flush();
+    }
+
+    private long hashConteudo(ClienteDTO dto) {
+        return HashConteudo.novo()
+                .add(dto.getCnpj()).add(dto.getRazaoSocial()).add(dto.getNomeFantasia())
+                .add(dto.getTelefone()).add(dto.getEmail()).add(dto.getEstado()).add(dto.getTipo())
+                .add(dto.getDataFundacao()).add(dto.getSimei()).add(dto.getSituacaoCredito())
+                .add(dto.getSituacaoCobranca()).add(dto.getCluster()).add(dto.getGrupoEconomico())
+                .add(dto.getScoreBoaVista()).add(dto.getScoreBoaVistaData()).add(dto.getSintegra())
+                .valor();
+    }
+
+    private long hashConteudo(PedidoDTO dto) {
+        return HashConteudo.novo()
+                .add(dto.getNumero()).add(dto.getData()).add(dto.getValor()).add(dto.getCnpjCliente())
+                .add(dto.getMarca()).add(dto.getBloqueio()).add(dto.getDeposito())
+                .add(dto.getCondicaoPagamento()).add(dto.getColecao())
+                .valor();
+    }
+
+    private long hashConteudo(DadosBIDTO dto) {
+        return HashConteudo.novo()
+                .add(dto.getGrupoEconomico()).add(dto.getColecao()).add(dto.getValorVencido())
+                .add(dto.getCredito()).add(dto.getScore()).add(dto.getAtrasoMedio())
+                .valor();
+    }
+
+    private long hashConteudo(DuplicataDTO dto) {
+        return HashConteudo.novo()
+                .add(dto.getCnpj()).add(dto.getPosicao()).add(dto.getPortador()).add(dto.getVencimento())
+                .add(dto.getValor()).add(dto.getSaldo()).add(dto.getDataPagamento())
+                .valor();
+    }
+
     /**
      * Busca ou cria GrupoEconomico pelo código.
-     * Se não existir, cria um novo com limites zerados.
-     */
-    private GrupoEconomico findOrCreateGrupo(String codigo) {
-        return grupoEconomicoRepository.findByCodigo(codigo)
-                .orElseGet(() -> {
-                    GrupoEconomico grupo = new GrupoEconomico();
-                    grupo.setCodigo(codigo);
-                    grupo.setNome("Grupo " + codigo);
-                    grupo.setLimiteAprovado(BigDecimal.ZERO);
-                    grupo.setLimiteDisponivel(BigDecimal.ZERO);
-                    return grupoEconomicoRepository.save(grupo);
-                });
+     * Se não existir, cria um novo com limites zerados e registra no resolvedor.
+     */
+    private GrupoEconomico findOrCreateGrupo(String codigo, ResolvedorImportacao resolvedor) {
+        Long grupoId = resolvedor.getGrupoId(codigo);
+        if (grupoId != null) {
+            return grupoEconomicoRepository.getReferenceById(grupoId);
+        }
+
+        GrupoEconomico grupo = grupoEconomicoRepository.save(novoGrupo(codigo));
+        resolvedor.registrarGrupo(codigo, grupo.getId());
+        return grupo;
+    }
+
+    /**
+     * Grupo criado pela importação para o código (ainda não salvo).
+     */
+    private static GrupoEconomico novoGrupo(String codigo) {
+        GrupoEconomico grupo = new GrupoEconomico();
+        grupo.setCodigo(codigo);
+        grupo.setNome("Grupo " + codigo);
+        grupo.setLimiteAprovado(BigDecimal.ZERO);
+        grupo.setLimiteDisponivel(BigDecimal.ZERO);
+        return grupo;
     }
 
     /**
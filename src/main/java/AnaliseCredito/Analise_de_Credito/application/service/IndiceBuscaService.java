@@ -0,0 +1,267 @@
+package AnaliseCredito.Analise_de_Credito.application.service;
+
+import AnaliseCredito.Analise_de_Credito.infrastructure.persistence.ClienteRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * IndiceBuscaService - Índice invertido de trigramas em memória para a busca do Kanban.
+ *
+ * REGRAS:
+ * - Um documento por grupo econômico: código e nome do grupo, razão social e nome
+ *   fantasia dos clientes (sem acento, minúsculas) e CNPJs só com dígitos
+ * - Cada trigrama do documento aponta para os grupos que o contêm; a busca intersecta
+ *   as listas dos trigramas do termo e confirma o trecho nos candidatos
+ * - Termo só com dígitos e pontuação (., /, -) é CNPJ: casa com o prefixo dos dígitos
+ *   (ou com o trecho no texto, ex: código do grupo)
+ * - Atualizado depois de cada regravação dos cards (KanbanCardsAtualizadosEvent:
+ *   importação, edições, inicialização); reconstrução total quando o evento é de todos
+ *
+ * Termos com menos de 3 caracteres ou que casam com grupos demais não usam o índice:
+ * buscar() devolve grupoIds null e o Kanban filtra pelo texto_busca do card (LIKE).
+ */
+@Service
+public class IndiceBuscaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndiceBuscaService.class);
+
+    /**
+     * Tamanho do trigrama (e do menor termo que usa o índice)
+     */
+    private static final int N = 3;
+
+    /**
+     * Acima disto a lista de grupos vira um IN grande demais: melhor o filtro textual
+     */
+    private static final int MAX_GRUPOS = 1000;
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    private static final Pattern NAO_ALFANUMERICO = Pattern.compile("[^a-z0-9]+");
+    private static final Pattern TERMO_CNPJ = Pattern.compile("[\\d./\\-\\s]+");
+    private static final Pattern NAO_DIGITO = Pattern.compile("\\D");
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    /**
+     * Texto normalizado e CNPJs (dígitos) de um grupo
+     */
+    private record Documento(String texto, List<String> cnpjs) {
+    }
+
+    /**
+     * Resultado da busca.
+     *
+     * @param termo Termo normalizado (para o filtro textual quando grupoIds é null)
+     * @param grupoIds Grupos que casam com o termo; null = índice não se aplica ao termo
+     */
+    public record ResultadoBusca(String termo, Set<Long> grupoIds) {
+
+        public boolean usaIndice() {
+            return grupoIds != null;
+        }
+    }
+
+    private final Map<Long, Documento> documentos = new HashMap<>();
+
+    private final Map<String, Set<Long>> trigramas = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Normaliza um texto para busca: minúsculas, sem acentos, só letras e dígitos
+     * separados por um espaço.
+     *
+     * @return Texto normalizado ("" se null)
+     */
+    public static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String semAcento = MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return NAO_ALFANUMERICO.matcher(semAcento.toLowerCase()).replaceAll(" ").trim();
+    }
+
+    /**
+     * Busca os grupos cujo documento contém o termo.
+     *
+     * @param busca Texto digitado na busca do Kanban
+     * @return Termo normalizado e grupos encontrados (grupoIds null = usar filtro textual)
+     */
+    public ResultadoBusca buscar(String busca) {
+        boolean cnpj = TERMO_CNPJ.matcher(busca).matches();
+        String termo = cnpj ? NAO_DIGITO.matcher(busca).replaceAll("") : normalizar(busca);
+        if (termo.length() < N) {
+            return new ResultadoBusca(termo, null);
+        }
+
+        lock.readLock().lock();
+        try {
+            // Interseção começando pela lista mais curta
+            List<Set<Long>> listas = new ArrayList<>();
+            for (String trigrama : trigramasDe(termo)) {
+                Set<Long> grupos = trigramas.get(trigrama);
+                if (grupos == null) {
+                    return new ResultadoBusca(termo, Set.of());
+                }
+                listas.add(grupos);
+            }
+            listas.sort(Comparator.comparingInt(Set::size));
+
+            Set<Long> candidatos = new HashSet<>(listas.get(0));
+            for (int i = 1; i < listas.size() && !candidatos.isEmpty(); i++) {
+                candidatos.retainAll(listas.get(i));
+            }
+
+            // Trigramas em comum não garantem o trecho inteiro: confirma no documento
+            Set<Long> encontrados = new HashSet<>();
+            for (Long grupoId : candidatos) {
+                Documento documento = documentos.get(grupoId);
+                if (documento.texto().contains(termo)
+                        || (cnpj && documento.cnpjs().stream().anyMatch(c -> c.startsWith(termo)))) {
+                    encontrados.add(grupoId);
+                    if (encontrados.size() > MAX_GRUPOS) {
+                        return new ResultadoBusca(termo, null);
+                    }
+                }
+            }
+            return new ResultadoBusca(termo, encontrados);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Mantém o índice em dia com os cards regravados, antes do aviso aos quadros
+     * (SSE) e da troca de versão dos dados.
+     */
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void aoAtualizarCards(KanbanCardsAtualizadosEvent evento) {
+        if (evento.isTodos()) {
+            reconstruir();
+        } else {
+            reindexar(evento.grupoIds());
+        }
+    }
+
+    /**
+     * Reconstrói o índice inteiro a partir dos clientes do banco.
+     */
+    @Transactional(readOnly = true)
+    public void reconstruir() {
+        long inicio = System.currentTimeMillis();
+        Map<Long, Documento> novos = montarDocumentos(clienteRepository.findTextosBusca());
+
+        lock.writeLock().lock();
+        try {
+            documentos.clear();
+            trigramas.clear();
+            novos.forEach(this::indexar);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Índice de busca do Kanban reconstruído: {} grupos em {} ms",
+                novos.size(), System.currentTimeMillis() - inicio);
+    }
+
+    /**
+     * Reindexa os grupos informados (grupo sem clientes sai do índice).
+     */
+    @Transactional(readOnly = true)
+    public void reindexar(Collection<Long> grupoIds) {
+        if (grupoIds.isEmpty()) {
+            return;
+        }
+        Map<Long, Documento> novos = montarDocumentos(clienteRepository.findTextosBuscaPorGrupos(grupoIds));
+
+        lock.writeLock().lock();
+        try {
+            grupoIds.forEach(this::remover);
+            novos.forEach(this::indexar);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ========== MONTAGEM ==========
+
+    private Map<Long, Documento> montarDocumentos(List<ClienteRepository.TextoBusca> linhas) {
+        Map<Long, StringBuilder> textos = new HashMap<>();
+        Map<Long, List<String>> cnpjs = new HashMap<>();
+        for (ClienteRepository.TextoBusca linha : linhas) {
+            StringBuilder texto = textos.computeIfAbsent(linha.getGrupoEconomicoId(), id ->
+                    new StringBuilder(normalizar(linha.getGrupoCodigo()))
+                            .append('\n').append(normalizar(linha.getGrupoNome())));
+            texto.append('\n').append(normalizar(linha.getRazaoSocial()));
+            texto.append('\n').append(normalizar(linha.getNomeFantasia()));
+            if (linha.getCnpj() != null) {
+                cnpjs.computeIfAbsent(linha.getGrupoEconomicoId(), id -> new ArrayList<>())
+                        .add(NAO_DIGITO.matcher(linha.getCnpj()).replaceAll(""));
+            }
+        }
+
+        Map<Long, Documento> resultado = new HashMap<>();
+        textos.forEach((grupoId, texto) ->
+                resultado.put(grupoId, new Documento(texto.toString(), cnpjs.getOrDefault(grupoId, List.of()))));
+        return resultado;
+    }
+
+    private void indexar(Long grupoId, Documento documento) {
+        documentos.put(grupoId, documento);
+        for (String trigrama : trigramasDe(documento)) {
+            trigramas.computeIfAbsent(trigrama, t -> new HashSet<>()).add(grupoId);
+        }
+    }
+
+    private void remover(Long grupoId) {
+        Documento documento = documentos.remove(grupoId);
+        if (documento == null) {
+            return;
+        }
+        for (String trigrama : trigramasDe(documento)) {
+            Set<Long> grupos = trigramas.get(trigrama);
+            if (grupos != null) {
+                grupos.remove(grupoId);
+                if (grupos.isEmpty()) {
+                    trigramas.remove(trigrama);
+                }
+            }
+        }
+    }
+
+    private Set<String> trigramasDe(Documento documento) {
+        Set<String> resultado = trigramasDe(documento.texto());
+        documento.cnpjs().forEach(cnpj -> resultado.addAll(trigramasDe(cnpj)));
+        return resultado;
+    }
+
+    private Set<String> trigramasDe(String texto) {
+        Set<String> resultado = new LinkedHashSet<>();
+        for (int i = 0; i + N <= texto.length(); i++) {
+            resultado.add(texto.substring(i, i + N));
+        }
+        return resultado;
+    }
+}
@@ -0,0 +1,61 @@
+package AnaliseCredito.Analise_de_Credito.application.service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * IndiceConteudo - Chave natural → (id, hash do conteúdo) de uma entidade importada.
+ *
+ * Carregado com uma query por fase da importação. Cada linha do arquivo é
+ * classificada em uma passada:
+ * - chave ausente: INSERT
+ * - chave presente com hash diferente: UPDATE
+ * - chave presente com o mesmo hash: inalterada (nada é escrito)
+ *
+ * Registros gravados antes do controle por hash (hash_conteudo nulo) contam
+ * como hash 0, então a primeira re-importação os atualiza.
+ *
+ * Não é thread-safe: usado apenas pela thread que persiste a importação.
+ */
+public class IndiceConteudo {
+
+    private final Map<String, long[]> porChave;
+
+    private IndiceConteudo(int tamanho) {
+        this.porChave = new HashMap<>(Math.max(16, tamanho * 2));
+    }
+
+    /**
+     * @param linhas Resultado de uma query (chave, id, hash)
+     */
+    public static IndiceConteudo de(List<Object[]> linhas) {
+        IndiceConteudo indice = new IndiceConteudo(linhas.size());
+        for (Object[] linha : linhas) {
+            indice.registrar((String) linha[0], (Long) linha[1], (Long) linha[2]);
+        }
+        return indice;
+    }
+
+    /**
+     * @return id do registro com a chave, ou null se não existir
+     */
+    public Long getId(String chave) {
+        long[] registro = porChave.get(chave);
+        return registro != null ? registro[0] : null;
+    }
+
+    /**
+     * @return true se o registro com a chave existe e tem exatamente este hash
+     */
+    public boolean inalterado(String chave, long hash) {
+        long[] registro = porChave.get(chave);
+        return registro != null && registro[1] == hash;
+    }
+
+    public void registrar(String chave, Long id, Long hash) {
+        if (chave != null && id != null) {
+            porChave.put(chave, new long[]{id, hash != null ? hash : 0L});
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package AnaliseCredito.Analise_de_Credito.application.service;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Evento: a projeção kanban_card destes grupos foi regravada.
+ *
+ * Publicado pelo KanbanProjecaoService dentro da transação que regrava os cards;
+ * KanbanEventosService repassa aos quadros abertos (SSE) depois do commit, quando
+ * os cards novos já podem ser lidos. grupoIds null = projeção inteira reconstruída.
+ */
+public record KanbanCardsAtualizadosEvent(Set<Long> grupoIds) {
+
+    public static KanbanCardsAtualizadosEvent de(Collection<Long> grupoIds) {
+        return new KanbanCardsAtualizadosEvent(Set.copyOf(grupoIds));
+    }
+
+    public static KanbanCardsAtualizadosEvent todos() {
+        return new KanbanCardsAtualizadosEvent(null);
+    }
+
+    public boolean isTodos() {
+        return grupoIds == null;
+    }
+}
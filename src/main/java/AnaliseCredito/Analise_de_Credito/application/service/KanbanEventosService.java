@@ -0,0 +1,165 @@
+package AnaliseCredito.Analise_de_Credito.application.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * KanbanEventosService - Canal Server-Sent Events dos quadros Kanban abertos.
+ *
+ * REGRAS:
+ * - Cada quadro aberto assina o canal (GET /analise/kanban/eventos)
+ * - Depois do commit da projeção (KanbanCardsAtualizadosEvent), envia um evento "cards"
+ *   com os IDs dos grupos cujos cards mudaram: {"grupoIds": [...], "todos": false}
+ * - O quadro busca só esses cards (GET /analise/kanban/cards, com os filtros dele)
+ *   e os troca no lugar, sem recarregar a página
+ * - O envio nunca acontece na thread que confirmou a transação: o listener só acumula
+ *   os grupos na fila da conexão e o envio roda no executor enviador (uma virtual thread
+ *   por conexão com envio pendente). Um navegador lento atrasa só a própria conexão
+ * - Enquanto uma conexão está enviando, os eventos seguintes são mesclados (união dos
+ *   grupos; "todos" absorve o resto): a fila de cada conexão tem tamanho limitado
+ * - Conexão encerrada ou com erro sai da lista; o EventSource do navegador reconecta
+ *   sozinho quando o timeout expira
+ */
+@Service
+public class KanbanEventosService {
+
+    private static final Logger logger = LoggerFactory.getLogger(KanbanEventosService.class);
+
+    /**
+     * Tempo máximo de uma conexão SSE antes da reconexão do navegador (30 min)
+     */
+    private static final long TIMEOUT_MS = 30 * 60 * 1000L;
+
+    private final List<Conexao> conexoes = new CopyOnWriteArrayList<>();
+
+    private final ExecutorService enviador = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("kanban-sse-", 0).factory());
+
+    /**
+     * Registra um quadro no canal.
+     *
+     * @return Emitter da conexão SSE (devolvido pelo controller)
+     */
+    public SseEmitter inscrever() {
+        SseEmitter emissor = new SseEmitter(TIMEOUT_MS);
+        Conexao conexao = new Conexao(emissor);
+        emissor.onCompletion(() -> conexoes.remove(conexao));
+        emissor.onTimeout(() -> conexoes.remove(conexao));
+        emissor.onError(e -> conexoes.remove(conexao));
+        conexoes.add(conexao);
+        return emissor;
+    }
+
+    /**
+     * Quantidade de quadros conectados.
+     */
+    public int getConectados() {
+        return conexoes.size();
+    }
+
+    /**
+     * Repassa os grupos alterados aos quadros, depois do commit dos cards.
+     * Só enfileira: o envio pelos sockets roda no executor enviador.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAtualizarCards(KanbanCardsAtualizadosEvent evento) {
+        for (Conexao conexao : conexoes) {
+            conexao.enfileirar(evento);
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        enviador.shutdownNow();
+    }
+
+    /**
+     * Quadro conectado e os grupos ainda não enviados a ele.
+     */
+    private final class Conexao {
+
+        private final SseEmitter emissor;
+
+        private final Set<Long> grupoIds = new LinkedHashSet<>();
+        private boolean todos;
+        private boolean enviando;
+
+        Conexao(SseEmitter emissor) {
+            this.emissor = emissor;
+        }
+
+        /**
+         * Mescla o evento na fila e agenda o envio, se ainda não houver um em andamento.
+         */
+        void enfileirar(KanbanCardsAtualizadosEvent evento) {
+            synchronized (this) {
+                if (evento.isTodos()) {
+                    todos = true;
+                    grupoIds.clear();
+                } else if (!todos) {
+                    grupoIds.addAll(evento.grupoIds());
+                }
+                if (enviando) {
+                    return;
+                }
+                enviando = true;
+            }
+            try {
+                enviador.execute(this::enviarPendentes);
+            } catch (RejectedExecutionException e) {
+                // Aplicação encerrando
+                synchronized (this) {
+                    enviando = false;
+                }
+            }
+        }
+
+        /**
+         * Envia a fila até esvaziá-la (roda no executor enviador).
+         */
+        private void enviarPendentes() {
+            while (true) {
+                Map<String, Object> dados = new LinkedHashMap<>();
+                synchronized (this) {
+                    if (!todos && grupoIds.isEmpty()) {
+                        enviando = false;
+                        return;
+                    }
+                    dados.put("grupoIds", todos ? List.of() : List.copyOf(grupoIds));
+                    dados.put("todos", todos);
+                    grupoIds.clear();
+                    todos = false;
+                }
+
+                try {
+                    emissor.send(SseEmitter.event().name("cards").data(dados));
+                } catch (IOException | IllegalStateException e) {
+                    // Navegador desconectou: descarta a conexão
+                    logger.debug("Conexão SSE do Kanban encerrada: {}", e.getMessage());
+                    conexoes.remove(this);
+                    synchronized (this) {
+                        grupoIds.clear();
+                        todos = false;
+                        enviando = false;
+                    }
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package AnaliseCredito.Analise_de_Credito.application.service;
+
+import AnaliseCredito.Analise_de_Credito.domain.enums.TipoWorkflow;
+import AnaliseCredito.Analise_de_Credito.domain.model.KanbanCard;
+import AnaliseCredito.Analise_de_Credito.infrastructure.persistence.AlertaPedidoRepository;
+import AnaliseCredito.Analise_de_Credito.infrastructure.persistence.AnaliseRepository;
+import AnaliseCredito.Analise_de_Credito.infrastructure.persistence.KanbanCardRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * KanbanProjecaoService - Mantém a projeção kanban_card (um card por grupo × workflow).
+ *
+ * REGRAS:
+ * - Quem altera dados exibidos no card publica GruposAlteradosEvent
+ *   (WorkflowService, importação, edição de restrições/score, configuração)
+ * - Depois do commit, os cards dos grupos do evento são apagados e remontados
+ *   em uma transação própria; sem transação ativa, na hora (fallbackExecution)
+ * - Regravações dos mesmos grupos são serializadas (trava por faixa de grupo
+ *   mantida até o commit), então nunca colidem na chave única grupo × workflow
+ * - Na inicialização a projeção inteira é reconstruída
+ * - Cards regravados por evento publicam KanbanCardsAtualizadosEvent: os quadros
+ *   abertos recebem os grupos alterados por SSE (KanbanEventosService)
+ *
+ * MONTAGEM: por lote de grupos, 4 consultas de projeção (totais agregados no banco,
+ * análise principal, linhas compactas análise/cliente e alertas do snapshot alerta_pedido),
+ * sem fetch join nem entidades no contexto de persistência. O snapshot de alertas
+ * dos grupos é regravado antes, a menos que o evento diga que já está atualizado.
+ *
+ * O Kanban passa a ler só kanban_card: o custo de montar um card é pago uma vez
+ * por alteração do grupo, não a cada abertura do quadro.
+ */
+@Service
+public class KanbanProjecaoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(KanbanProjecaoService.class);
+
+    /**
+     * Grupos processados por vez (tamanho da lista IN e do contexto de persistência)
+     */
+    private static final int GRUPOS_POR_LOTE = 200;
+
+    /**
+     * Faixas de trava por grupo (grupoId módulo FAIXAS_TRAVA)
+     */
+    private static final int FAIXAS_TRAVA = 64;
+
+    private final Lock[] travas = Stream.generate(ReentrantLock::new).limit(FAIXAS_TRAVA).toArray(Lock[]::new);
+
+    @Autowired
+    private AnaliseRepository analiseRepository;
+
+    @Autowired
+    private KanbanCardRepository kanbanCardRepository;
+
+    @Autowired
+    private AlertaPedidoRepository alertaPedidoRepository;
+
+    @Autowired
+    private AlertaSnapshotService alertaSnapshotService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Atualiza os cards dos grupos alterados, depois do commit da alteração,
+     * em uma transação própria (REQUIRES_NEW) serializada por grupo.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarGrupos(GruposAlteradosEvent evento) {
+        List<Lock> travasDoEvento = evento.isTodos() ? List.of(travas) : travasDos(evento.grupoIds());
+        emTransacaoExclusiva(travasDoEvento, () -> {
+            if (evento.isTodos()) {
+                reconstruirCards(evento.alertasAtualizados());
+                eventPublisher.publishEvent(KanbanCardsAtualizadosEvent.todos());
+            } else {
+                atualizarCards(evento.grupoIds(), evento.alertasAtualizados());
+                eventPublisher.publishEvent(KanbanCardsAtualizadosEvent.de(evento.grupoIds()));
+            }
+        });
+    }
+
+    /**
+     * Reconstrói a projeção ao subir a aplicação (dados iniciais já gravados).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void aoIniciar() {
+        long inicio = System.currentTimeMillis();
+        int[] cards = new int[1];
+        emTransacaoExclusiva(List.of(travas), () -> {
+            cards[0] = reconstruirCards(false);
+            eventPublisher.publishEvent(KanbanCardsAtualizadosEvent.todos());
+        });
+        logger.info("Projeção do Kanban reconstruída: {} cards em {} ms", cards[0], System.currentTimeMillis() - inicio);
+    }
+
+    /**
+     * Apaga e remonta todos os cards.
+     *
+     * @return Quantidade de cards gravados
+     */
+    @Transactional
+    public int reconstruir() {
+        return reconstruirCards(false);
+    }
+
+    /**
+     * Apaga e remonta os cards dos grupos informados (com o snapshot de alertas).
+     * Grupos sem análises ficam sem card.
+     *
+     * @return Quantidade de cards gravados
+     */
+    @Transactional
+    public int atualizar(Collection<Long> grupoIds) {
+        return atualizarCards(grupoIds, false);
+    }
+
+    // ========== SERIALIZAÇÃO POR GRUPO ==========
+
+    /**
+     * Trava da faixa de cada grupo. Regravações concorrentes (eventos de transações
+     * diferentes) dos mesmos grupos não podem se sobrepor: o DELETE + INSERT de uma
+     * colidiria com o da outra na uk_kanban_card_grupo_workflow. A trava vale até o
+     * commit da transação de regravação; a reconstrução total pega todas.
+     */
+    private List<Lock> travasDos(Collection<Long> grupoIds) {
+        // Faixas em ordem crescente: duas regravações nunca se esperam em ciclo
+        return grupoIds.stream()
+                .map(id -> Math.floorMod(Long.hashCode(id), FAIXAS_TRAVA))
+                .distinct()
+                .sorted()
+                .map(faixa -> travas[faixa])
+                .toList();
+    }
+
+    private void emTransacaoExclusiva(List<Lock> travasDoEvento, Runnable regravacao) {
+        travasDoEvento.forEach(Lock::lock);
+        try {
+            TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+            transacao.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            transacao.executeWithoutResult(tx -> regravacao.run());
+        } finally {
+            travasDoEvento.forEach(Lock::unlock);
+        }
+    }
+
+    // ========== REGRAVAÇÃO ==========
+
+    private int reconstruirCards(boolean alertasAtualizados) {
+        kanbanCardRepository.deleteAllInBatch();
+        return atualizarCards(analiseRepository.findGrupoEconomicoIdsDistintos(), alertasAtualizados);
+    }
+
+    private int atualizarCards(Collection<Long> grupoIds, boolean alertasAtualizados) {
+        int gravados = 0;
+        List<Long> ids = new ArrayList<>(grupoIds);
+        LocalDateTime agora = LocalDateTime.now();
+
+        for (int inicio = 0; inicio < ids.size(); inicio += GRUPOS_POR_LOTE) {
+            List<Long> lote = ids.subList(inicio, Math.min(inicio + GRUPOS_POR_LOTE, ids.size()));
+
+            if (!alertasAtualizados) {
+                alertaSnapshotService.recalcular(lote);
+            }
+            kanbanCardRepository.deleteByGrupoEconomicoIdIn(lote);
+
+            List<KanbanCard> cards = montarCards(lote, agora);
+            kanbanCardRepository.saveAll(cards);
+            gravados += cards.size();
+
+            // Só os cards novos estão no contexto; libera antes do próximo lote
+            entityManager.flush();
+            entityManager.clear();
+        }
+        return gravados;
+    }
+
+    // ========== MONTAGEM DOS CARDS ==========
+
+    private record Chave(Long grupoId, TipoWorkflow workflow) {
+    }
+
+    private List<KanbanCard> montarCards(List<Long> grupoIds, LocalDateTime agora) {
+        // Totais: uma linha por card
+        Map<Chave, KanbanCard> cards = new HashMap<>();
+        List<KanbanCard> ordem = new ArrayList<>();
+        for (AnaliseRepository.ResumoCard resumo : analiseRepository.resumirCards(grupoIds)) {
+            KanbanCard card = new KanbanCard();
+            card.setGrupoEconomicoId(resumo.getGrupoEconomicoId());
+            card.setWorkflow(resumo.getWorkflow());
+            card.setGrupoNome(resumo.getGrupoNome());
+            card.setGrupoCodigo(resumo.getGrupoCodigo());
+            card.setQuantidadePedidos(resumo.getQuantidadePedidos().intValue());
+            card.setValorTotal(Objects.requireNonNullElse(resumo.getValorTotal(), BigDecimal.ZERO));
+            card.setPiorScore(resumo.getPiorScore());
+            card.setAtualizadoEm(agora);
+            cards.put(new Chave(resumo.getGrupoEconomicoId(), resumo.getWorkflow()), card);
+            ordem.add(card);
+        }
+
+        // Análise principal (empate na data: menor id, que vem primeiro)
+        for (AnaliseRepository.PrincipalCard principal : analiseRepository.findPrincipaisCards(grupoIds)) {
+            KanbanCard card = cards.get(new Chave(principal.getGrupoEconomicoId(), principal.getWorkflow()));
+            if (card != null && card.getAnalisePrincipalId() == null) {
+                card.setAnalisePrincipalId(principal.getAnaliseId());
+                card.setStatus(principal.getStatus());
+                card.setDataInicio(principal.getDataInicio());
+                card.setUf(principal.getUf());
+            }
+        }
+
+        // IDs das análises e clientes distintos, na ordem das análises
+        Map<Chave, LinkedHashSet<String>> clientes = new HashMap<>();
+        Map<Chave, StringBuilder> textoBusca = new HashMap<>();
+        for (AnaliseRepository.AnaliseCard linha : analiseRepository.findAnalisesCards(grupoIds)) {
+            Chave chave = new Chave(linha.getGrupoEconomicoId(), linha.getWorkflow());
+            KanbanCard card = cards.get(chave);
+            if (card == null) {
+                continue;
+            }
+            card.getAnaliseIds().add(linha.getAnaliseId());
+            if (clientes.computeIfAbsent(chave, k -> new LinkedHashSet<>()).add(linha.getRazaoSocial())) {
+                textoBusca.computeIfAbsent(chave, k -> new StringBuilder())
+                        .append(IndiceBuscaService.normalizar(linha.getRazaoSocial()))
+                        .append(' ').append(linha.getCnpj().replaceAll("\\D", "")).append('\n');
+            }
+        }
+        clientes.forEach((chave, nomes) -> cards.get(chave).setClientesRazaoSocial(new ArrayList<>(nomes)));
+        textoBusca.forEach((chave, texto) -> {
+            KanbanCard card = cards.get(chave);
+            card.setTextoBusca(IndiceBuscaService.normalizar(card.getGrupoCodigo()) + ' '
+                    + IndiceBuscaService.normalizar(card.getGrupoNome()) + '\n' + texto);
+        });
+
+        // Alertas do snapshot
+        for (AlertaPedidoRepository.AlertaCard alerta : alertaPedidoRepository.findAlertasCards(grupoIds)) {
+            KanbanCard card = cards.get(new Chave(alerta.getGrupoEconomicoId(), alerta.getWorkflow()));
+            if (card != null && !card.getAlertas().contains(alerta.getTexto())) {
+                card.getAlertas().add(alerta.getTexto());
+            }
+        }
+
+        return ordem;
+    }
+}
@@ -6,6 +6,7 @@ import AnaliseCredito.Analise_de_Credito.infrastructure.persistence.GrupoEconomi
 import AnaliseCredito.Analise_de_Credito.infrastructure.persistence.HistoricoLimiteRepository;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -15,7 +16,8 @@ import java.math.BigDecimal;
  * Serviço responsável por atualizar o limite aprovado de um GrupoEconomico.
  *
  * Operação atômica: insere HistoricoLimite + atualiza GrupoEconomico.limiteAprovado
- * na mesma transação.
+ * na mesma transação. O limite entra nos alertas (PEDIDO/TOTAL > LIMITE), então a
+ * alteração publica GruposAlteradosEvent para o card do grupo no Kanban.
  */
 @Service
 public class LimiteService {
@@ -26,6 +28,9 @@ public class LimiteService {
     @Autowired
     private HistoricoLimiteRepository historicoRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
      * Atualiza o limite aprovado de um grupo, gravando o histórico.
      *
@@ -48,5 +53,7 @@ public class LimiteService {
 
         grupo.setLimiteAprovado(valor);
         grupoRepository.save(grupo);
+
+        eventPublisher.publishEvent(GruposAlteradosEvent.de(grupoId));
     }
 }
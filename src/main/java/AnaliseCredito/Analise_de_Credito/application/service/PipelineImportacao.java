@@ -0,0 +1,243 @@
+package AnaliseCredito.Analise_de_Credito.application.service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * PipelineImportacao - Importação de um arquivo em estágios encadeados por filas limitadas.
+ *
+ * leitor (parse + mapeamento para DTO) → normalizador (campos obrigatórios, chave natural, hash)
+ * → persistidor (delta, vínculos, save em lote)
+ *
+ * Leitor e normalizador rodam cada um na sua thread; o persistidor é quem itera o
+ * pipeline, na thread que prepara o arquivo. Parse e INSERTs acontecem ao mesmo tempo.
+ *
+ * BACKPRESSURE: as filas entre os estágios têm capacidade fixa (ArrayBlockingQueue).
+ * Se o banco atrasa, put() bloqueia os estágios anteriores; a memória fica limitada
+ * pela capacidade das filas, não pelo tamanho do arquivo.
+ *
+ * Erros de linha seguem pela fila como Entrada de erro, na ordem do arquivo.
+ * Falha do arquivo inteiro encerra o pipeline e fica disponível em getFalha()
+ * depois que o persistidor consumir todas as entradas.
+ */
+public class PipelineImportacao<T> implements Iterable<PipelineImportacao.Entrada<T>>, AutoCloseable {
+
+    /**
+     * Linha do arquivo: DTO lido, chave natural e hash (após normalização),
+     * ou apenas a mensagem de erro da linha. linha = número na planilha (0 se desconhecido).
+     */
+    public record Entrada<T>(T dto, String chave, long hash, String erro, int linha) {
+
+        public static <T> Entrada<T> lida(T dto, int linha) {
+            return new Entrada<>(dto, null, 0L, null, linha);
+        }
+
+        public static <T> Entrada<T> normalizada(T dto, String chave, long hash) {
+            return new Entrada<>(dto, chave, hash, null, 0);
+        }
+
+        public static <T> Entrada<T> comErro(String erro) {
+            return comErro(erro, 0);
+        }
+
+        public static <T> Entrada<T> comErro(String erro, int linha) {
+            return new Entrada<>(null, null, 0L, erro, linha);
+        }
+
+        public boolean isErro() {
+            return erro != null;
+        }
+
+        Entrada<T> naLinha(int numero) {
+            return numero == linha ? this : new Entrada<>(dto, chave, hash, erro, numero);
+        }
+    }
+
+    /**
+     * Leitura do arquivo: entrega cada linha (DTO ou erro de linha) ao destino, em ordem.
+     */
+    @FunctionalInterface
+    public interface Leitura<T> {
+        void ler(Consumer<Entrada<T>> destino) throws Exception;
+    }
+
+    private static final Entrada<?> FIM = new Entrada<>(null, null, 0L, null, 0);
+
+    private final String nomeArquivo;
+    private final BlockingQueue<Entrada<T>> lidas;
+    private final BlockingQueue<Entrada<T>> normalizadas;
+    private final List<Future<?>> estagios = new ArrayList<>(2);
+    private boolean consumido;
+
+    // Escritos pelo leitor antes do FIM; visíveis ao persistidor pelo happens-before das filas
+    private Exception falha;
+    private long linhasLidas;
+    private long tempoLeituraMs;
+
+    private PipelineImportacao(String nomeArquivo, int capacidade) {
+        this.nomeArquivo = nomeArquivo;
+        this.lidas = new ArrayBlockingQueue<>(capacidade);
+        this.normalizadas = new ArrayBlockingQueue<>(capacidade);
+    }
+
+    /**
+     * Inicia leitor e normalizador no executor. As entradas ficam disponíveis
+     * para iteração (uma única vez) conforme são produzidas.
+     *
+     * @param capacidade Tamanho de cada fila entre estágios
+     */
+    public static <T> PipelineImportacao<T> iniciar(String nomeArquivo, int capacidade, ExecutorService executor,
+                                                    Leitura<T> leitura, Function<T, Entrada<T>> normalizador) {
+        PipelineImportacao<T> pipeline = new PipelineImportacao<>(nomeArquivo, capacidade);
+        pipeline.estagios.add(executor.submit(() -> pipeline.executarLeitura(leitura)));
+        pipeline.estagios.add(executor.submit(() -> pipeline.executarNormalizacao(normalizador)));
+        return pipeline;
+    }
+
+    // ========== ESTÁGIOS ==========
+
+    private void executarLeitura(Leitura<T> leitura) {
+        long inicio = System.nanoTime();
+        try {
+            leitura.ler(entrada -> {
+                linhasLidas++;
+                enfileirar(lidas, entrada);
+            });
+        } catch (CancellationException e) {
+            // Pipeline fechado antes do fim: ninguém mais consome
+        } catch (Exception e) {
+            falha = e;
+        } finally {
+            tempoLeituraMs = (System.nanoTime() - inicio) / 1_000_000;
+            encerrar(lidas);
+        }
+    }
+
+    private void executarNormalizacao(Function<T, Entrada<T>> normalizador) {
+        try {
+            Entrada<T> entrada;
+            while ((entrada = lidas.take()) != FIM) {
+                if (!entrada.isErro()) {
+                    int linha = entrada.linha();
+                    try {
+                        entrada = normalizador.apply(entrada.dto()).naLinha(linha);
+                    } catch (RuntimeException e) {
+                        entrada = Entrada.comErro(nomeArquivo + ": " + e.getMessage(), linha);
+                    }
+                }
+                normalizadas.put(entrada);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            encerrar(normalizadas);
+        }
+    }
+
+    private void enfileirar(BlockingQueue<Entrada<T>> fila, Entrada<T> entrada) {
+        try {
+            fila.put(entrada);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Importação de " + nomeArquivo + " cancelada");
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void encerrar(BlockingQueue<Entrada<T>> fila) {
+        try {
+            fila.put((Entrada<T>) FIM);
+        } catch (InterruptedException e) {
+            // Cancelado: o consumidor já desistiu
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ========== PERSISTIDOR ==========
+
+    /**
+     * Itera as entradas normalizadas, bloqueando até a próxima ficar pronta.
+     * Termina quando o leitor encerra (fim do arquivo ou falha).
+     */
+    @Override
+    public Iterator<Entrada<T>> iterator() {
+        if (consumido) {
+            throw new IllegalStateException("Pipeline de " + nomeArquivo + " já consumido");
+        }
+        consumido = true;
+
+        return new Iterator<>() {
+            private Entrada<T> proxima;
+            private boolean fim;
+
+            @Override
+            public boolean hasNext() {
+                if (proxima == null && !fim) {
+                    Entrada<T> entrada = receber();
+                    if (entrada == FIM) {
+                        fim = true;
+                    } else {
+                        proxima = entrada;
+                    }
+                }
+                return proxima != null;
+            }
+
+            @Override
+            public Entrada<T> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Entrada<T> entrada = proxima;
+                proxima = null;
+                return entrada;
+            }
+        };
+    }
+
+    private Entrada<T> receber() {
+        try {
+            return normalizadas.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Importação interrompida");
+        }
+    }
+
+    public String getNomeArquivo() {
+        return nomeArquivo;
+    }
+
+    /**
+     * @return falha da leitura do arquivo, ou null se foi lido até o fim
+     */
+    public Exception getFalha() {
+        return falha;
+    }
+
+    public long getLinhasLidas() {
+        return linhasLidas;
+    }
+
+    public long getTempoLeituraMs() {
+        return tempoLeituraMs;
+    }
+
+    /**
+     * Interrompe os estágios que ainda estiverem rodando (ex.: a transação falhou
+     * no meio do arquivo), liberando as threads bloqueadas nas filas.
+     */
+    @Override
+    public void close() {
+        estagios.forEach(estagio -> estagio.cancel(true));
+    }
+}
@@ -0,0 +1,151 @@
+package AnaliseCredito.Analise_de_Credito.application.service;
+
+import AnaliseCredito.Analise_de_Credito.infrastructure.persistence.ClienteRepository;
+import AnaliseCredito.Analise_de_Credito.infrastructure.persistence.GrupoEconomicoRepository;
+import AnaliseCredito.Analise_de_Credito.util.MapaLongLong;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ResolvedorImportacao - Índice em memória de CNPJ → Cliente e código → GrupoEconomico
+ * com escopo de uma importação.
+ *
+ * Carrega todos os clientes e grupos existentes com uma query cada (somente ids),
+ * substituindo o findByCnpj/findByCodigo por linha. É atualizado conforme a
+ * importação insere novos registros, então lookups são O(1) durante todo o lote.
+ *
+ * CNPJs de 14 dígitos são empacotados como long (chave primitiva, sem boxing).
+ * Valores fora do padrão caem em um HashMap de fallback.
+ *
+ * Também acumula os grupos afetados pela importação (novos clientes, pedidos,
+ * DadosBI), para que o pós-processamento recalcule só esses grupos.
+ *
+ * Não é thread-safe: usado apenas pela thread que persiste a importação.
+ */
+public class ResolvedorImportacao {
+
+    private static final long AUSENTE = -1L;
+
+    private final MapaLongLong clientePorCnpj;
+    private final MapaLongLong grupoPorCnpj;
+    private final Map<String, long[]> clientePorCnpjTexto = new HashMap<>();
+    private final Map<String, Long> grupoPorCodigo;
+    private final Set<Long> gruposAfetados = new LinkedHashSet<>();
+
+    private ResolvedorImportacao(int clientes, int grupos) {
+        this.clientePorCnpj = new MapaLongLong(clientes);
+        this.grupoPorCnpj = new MapaLongLong(clientes);
+        this.grupoPorCodigo = new HashMap<>(Math.max(16, grupos * 2));
+    }
+
+    /**
+     * Carrega o estado atual do banco (1 query para clientes, 1 para grupos).
+     */
+    public static ResolvedorImportacao carregar(ClienteRepository clienteRepository,
+                                                GrupoEconomicoRepository grupoEconomicoRepository) {
+        var clientes = clienteRepository.findCnpjIdEGrupo();
+        var grupos = grupoEconomicoRepository.findCodigoEId();
+
+        ResolvedorImportacao resolvedor = new ResolvedorImportacao(clientes.size(), grupos.size());
+
+        for (Object[] linha : grupos) {
+            // Código não é único no banco: mantém o primeiro, como findByCodigo
+            resolvedor.grupoPorCodigo.putIfAbsent((String) linha[0], (Long) linha[1]);
+        }
+        for (Object[] linha : clientes) {
+            resolvedor.registrarCliente((String) linha[0], (Long) linha[1], (Long) linha[2]);
+        }
+
+        return resolvedor;
+    }
+
+    // ========== CLIENTES ==========
+
+    /**
+     * @return id do cliente com o CNPJ, ou null se não existir
+     */
+    public Long getClienteId(String cnpj) {
+        long chave = chaveCnpj(cnpj);
+        if (chave != AUSENTE) {
+            long id = clientePorCnpj.get(chave, AUSENTE);
+            return id != AUSENTE ? id : null;
+        }
+        long[] ids = clientePorCnpjTexto.get(cnpj);
+        return ids != null ? ids[0] : null;
+    }
+
+    /**
+     * @return id do grupo econômico do cliente com o CNPJ, ou null se não existir
+     */
+    public Long getGrupoIdDoCliente(String cnpj) {
+        long chave = chaveCnpj(cnpj);
+        if (chave != AUSENTE) {
+            long id = grupoPorCnpj.get(chave, AUSENTE);
+            return id != AUSENTE ? id : null;
+        }
+        long[] ids = clientePorCnpjTexto.get(cnpj);
+        return ids != null && ids[1] != AUSENTE ? ids[1] : null;
+    }
+
+    public void registrarCliente(String cnpj, Long clienteId, Long grupoId) {
+        long grupo = grupoId != null ? grupoId : AUSENTE;
+        long chave = chaveCnpj(cnpj);
+        if (chave != AUSENTE) {
+            clientePorCnpj.put(chave, clienteId);
+            grupoPorCnpj.put(chave, grupo);
+        } else if (cnpj != null) {
+            clientePorCnpjTexto.put(cnpj, new long[]{clienteId, grupo});
+        }
+    }
+
+    // ========== GRUPOS ==========
+
+    /**
+     * @return id do grupo com o código, ou null se não existir
+     */
+    public Long getGrupoId(String codigo) {
+        return grupoPorCodigo.get(codigo);
+    }
+
+    public void registrarGrupo(String codigo, Long grupoId) {
+        grupoPorCodigo.put(codigo, grupoId);
+    }
+
+    // ========== GRUPOS AFETADOS ==========
+
+    public void marcarGrupoAfetado(Long grupoId) {
+        if (grupoId != null) {
+            gruposAfetados.add(grupoId);
+        }
+    }
+
+    /**
+     * @return ids dos grupos criados ou alterados nesta importação (sem repetição)
+     */
+    public Set<Long> getGruposAfetados() {
+        return Collections.unmodifiableSet(gruposAfetados);
+    }
+
+    /**
+     * Empacota um CNPJ de exatamente 14 dígitos em long.
+     * Retorna AUSENTE para qualquer outro formato (tratado pelo mapa de fallback).
+     */
+    static long chaveCnpj(String cnpj) {
+        if (cnpj == null || cnpj.length() != 14) {
+            return AUSENTE;
+        }
+        long chave = 0;
+        for (int i = 0; i < 14; i++) {
+            char c = cnpj.charAt(i);
+            if (c < '0' || c > '9') {
+                return AUSENTE;
+            }
+            chave = chave * 10 + (c - '0');
+        }
+        return chave;
+    }
+}
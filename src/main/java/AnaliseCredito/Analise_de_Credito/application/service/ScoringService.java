@@ -1,11 +1,10 @@
 package AnaliseCredito.Analise_de_Credito.application.service;
 
 import AnaliseCredito.Analise_de_Credito.domain.model.Cliente;
-import AnaliseCredito.Analise_de_Credito.domain.model.Configuracao;
+import AnaliseCredito.Analise_de_Credito.domain.model.ConfiguracaoSnapshot;
 import AnaliseCredito.Analise_de_Credito.domain.model.DadosBI;
 import AnaliseCredito.Analise_de_Credito.domain.model.GrupoEconomico;
 import AnaliseCredito.Analise_de_Credito.infrastructure.persistence.ClienteRepository;
-import AnaliseCredito.Analise_de_Credito.infrastructure.persistence.ConfiguracaoRepository;
 import AnaliseCredito.Analise_de_Credito.infrastructure.persistence.DadosBIRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -33,7 +32,7 @@ public class ScoringService {
     private DadosBIRepository dadosBIRepository;
 
     @Autowired
-    private ConfiguracaoRepository configuracaoRepository;
+    private ConfiguracaoService configuracaoService;
 
     @Autowired
     private ClienteRepository clienteRepository;
@@ -67,20 +66,10 @@ public class ScoringService {
         Integer scoreInterno = ultimas2.get(0).getScore();
 
         // 4. Buscar configuração
-        Configuracao config = configuracaoRepository.findById(1L)
-                .orElseThrow(() -> new RuntimeException("Configuração não encontrada"));
-
-        // 5. Fator multiplicador baseado no score
-        BigDecimal fator;
-        if (scoreInterno >= 800) {
-            fator = config.getScoreAltoMultiplicador();
-        } else if (scoreInterno >= 600) {
-            fator = config.getScoreMedioMultiplicador();
-        } else if (scoreInterno >= 400) {
-            fator = config.getScoreNormalMultiplicador();
-        } else {
-            fator = config.getScoreBaixoMultiplicador();
-        }
+        ConfiguracaoSnapshot config = configuracaoService.atual();
+
+        // 5. Fator multiplicador baseado no score (faixas pré-montadas no snapshot)
+        BigDecimal fator = config.getMultiplicadorPorScore(scoreInterno);
 
         // 6. Calcular limite
         BigDecimal limite = maiorCredito.multiply(fator);
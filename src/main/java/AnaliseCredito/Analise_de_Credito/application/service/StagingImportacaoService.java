@@ -0,0 +1,149 @@
+package AnaliseCredito.Analise_de_Credito.application.service;
+
+import AnaliseCredito.Analise_de_Credito.application.service.PipelineImportacao.Entrada;
+import AnaliseCredito.Analise_de_Credito.domain.model.LinhaStaging;
+import AnaliseCredito.Analise_de_Credito.infrastructure.persistence.LinhaStagingRepository;
+import AnaliseCredito.Analise_de_Credito.presentation.dto.ResultadoImportacao;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * StagingImportacaoService - Área de staging da importação (tabela importacao_staging).
+ *
+ * REGRAS:
+ * - preparar(): consome o pipeline de um arquivo e grava as linhas normalizadas em
+ *   lotes de tamanhoLote, cada lote na sua própria transação curta (sem lock nas
+ *   tabelas do sistema durante a leitura dos arquivos); os arquivos de uma importação
+ *   são preparados ao mesmo tempo, um por thread
+ * - Linhas idênticas à última importação (mesma chave e hash) não são preparadas:
+ *   só o delta chega à publicação
+ * - ler(): devolve as linhas preparadas de um arquivo, na ordem do arquivo, paginadas
+ *   por id; usado pela transação de publicação
+ * - descartar(): remove o lote, publicado ou desfeito
+ */
+@Service
+public class StagingImportacaoService {
+
+    @Autowired
+    private LinhaStagingRepository linhaStagingRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${importacao.tamanho-lote:500}")
+    private int tamanhoLote;
+
+    /**
+     * Grava as linhas do pipeline no lote. Erros de leitura/normalização vão direto
+     * para o resultado; linhas inalteradas só são contadas.
+     *
+     * @param lote Id da importação
+     * @param pipeline Pipeline do arquivo (consumido até o fim)
+     * @param indice Chave + hash atuais da tabela de destino (null = sem delta, tudo é preparado)
+     * @param resultado Resultado da importação
+     */
+    public <T> void preparar(String lote, PipelineImportacao<T> pipeline, IndiceConteudo indice,
+                             ResultadoImportacao resultado) {
+        List<LinhaStaging> pendentes = new ArrayList<>();
+        for (Entrada<T> entrada : pipeline) {
+            if (entrada.isErro()) {
+                resultado.addErro(entrada.erro());
+                continue;
+            }
+            if (indice != null && indice.inalterado(entrada.chave(), entrada.hash())) {
+                resultado.incrementarInalterados();
+                continue;
+            }
+
+            pendentes.add(new LinhaStaging(null, lote, pipeline.getNomeArquivo(), entrada.linha(),
+                    entrada.chave(), entrada.hash(), serializar(entrada.dto())));
+            if (pendentes.size() >= tamanhoLote) {
+                gravar(pendentes, resultado);
+            }
+        }
+        gravar(pendentes, resultado);
+    }
+
+    /**
+     * Linhas preparadas de um arquivo, como entradas já normalizadas para as fases da importação.
+     * Cada página é lida quando a anterior termina (memória constante).
+     *
+     * @param tipo Classe do DTO do arquivo
+     */
+    public <T> Iterable<Entrada<T>> ler(String lote, String arquivo, Class<T> tipo) {
+        return () -> new Iterator<>() {
+            private Iterator<LinhaStagingRepository.LinhaPreparada> pagina = Collections.emptyIterator();
+            private long ultimoId = 0;
+            private boolean fim;
+
+            @Override
+            public boolean hasNext() {
+                if (!pagina.hasNext() && !fim) {
+                    List<LinhaStagingRepository.LinhaPreparada> linhas =
+                            linhaStagingRepository.findPagina(lote, arquivo, ultimoId, Limit.of(tamanhoLote));
+                    fim = linhas.size() < tamanhoLote;
+                    if (!linhas.isEmpty()) {
+                        ultimoId = linhas.get(linhas.size() - 1).getId();
+                    }
+                    pagina = linhas.iterator();
+                }
+                return pagina.hasNext();
+            }
+
+            @Override
+            public Entrada<T> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                LinhaStagingRepository.LinhaPreparada linha = pagina.next();
+                return new Entrada<>(desserializar(linha.getConteudo(), tipo), linha.getChave(), linha.getHash(),
+                        null, linha.getLinha());
+            }
+        };
+    }
+
+    /**
+     * Remove as linhas do lote (transação própria).
+     */
+    @Transactional
+    public void descartar(String lote) {
+        linhaStagingRepository.deleteByLote(lote);
+    }
+
+    private void gravar(List<LinhaStaging> pendentes, ResultadoImportacao resultado) {
+        if (pendentes.isEmpty()) {
+            return;
+        }
+        // saveAll abre e confirma a própria transação: um commit curto por lote
+        linhaStagingRepository.saveAll(pendentes);
+        resultado.addPreparados(pendentes.size());
+        pendentes.clear();
+    }
+
+    private String serializar(Object dto) {
+        try {
+            return objectMapper.writeValueAsString(dto);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Falha ao preparar linha para importação: " + e.getMessage(), e);
+        }
+    }
+
+    private <T> T desserializar(String conteudo, Class<T> tipo) {
+        try {
+            return objectMapper.readValue(conteudo, tipo);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Falha ao ler linha preparada para importação: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package AnaliseCredito.Analise_de_Credito.application.service;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * VersaoDadosService - Versão monotônica dos dados exibidos nas telas.
+ *
+ * REGRAS:
+ * - Incrementa depois que uma alteração fica visível: ao fim da regravação dos cards
+ *   do Kanban (KanbanCardsAtualizadosEvent - transições, importação, restrições,
+ *   limite, configuração) e ao fim de qualquer requisição de escrita
+ *   (VersaoDadosInterceptor - edições que só aparecem na tela da análise)
+ * - Nunca incrementa antes do commit: uma página montada com dados antigos nunca
+ *   recebe a versão nova
+ * - Começa no instante da inicialização, então a versão não se repete entre execuções
+ *   (o banco é recriado a cada subida)
+ *
+ * A versão compõe o ETag de /analise/kanban e /analise/{id}: enquanto ela não muda,
+ * o navegador recebe 304 sem consulta ao banco nem renderização.
+ */
+@Service
+public class VersaoDadosService {
+
+    private final AtomicLong versao = new AtomicLong(System.currentTimeMillis());
+
+    /**
+     * Versão vigente dos dados.
+     */
+    public long atual() {
+        return versao.get();
+    }
+
+    /**
+     * Marca que os dados mudaram.
+     *
+     * @return Nova versão
+     */
+    public long incrementar() {
+        return versao.incrementAndGet();
+    }
+
+    /**
+     * Cards do Kanban regravados e commitados.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAtualizarCards(KanbanCardsAtualizadosEvent evento) {
+        incrementar();
+    }
+}
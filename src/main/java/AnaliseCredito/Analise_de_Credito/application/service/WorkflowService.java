@@ -4,15 +4,15 @@ import AnaliseCredito.Analise_de_Credito.domain.enums.StatusWorkflow;
 import AnaliseCredito.Analise_de_Credito.domain.enums.TipoWorkflow;
 import AnaliseCredito.Analise_de_Credito.domain.model.Analise;
 import AnaliseCredito.Analise_de_Credito.domain.model.Cliente;
-import AnaliseCredito.Analise_de_Credito.domain.model.Configuracao;
+import AnaliseCredito.Analise_de_Credito.domain.model.ConfiguracaoSnapshot;
 import AnaliseCredito.Analise_de_Credito.domain.model.GrupoEconomico;
 import AnaliseCredito.Analise_de_Credito.domain.model.Pedido;
 import AnaliseCredito.Analise_de_Credito.infrastructure.persistence.AnaliseRepository;
 import AnaliseCredito.Analise_de_Credito.infrastructure.persistence.ClienteRepository;
-import AnaliseCredito.Analise_de_Credito.infrastructure.persistence.ConfiguracaoRepository;
 import AnaliseCredito.Analise_de_Credito.infrastructure.persistence.GrupoEconomicoRepository;
 import AnaliseCredito.Analise_de_Credito.infrastructure.persistence.PedidoRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -32,6 +32,7 @@ import java.util.Set;
  * 3. Atualizar status da análise
  * 4. Registrar metadata (data, analista)
  * 5. Aplicar efeitos colaterais (atualizar limite do grupo ao finalizar)
+ * 6. Publicar GruposAlteradosEvent (projeção do Kanban)
  *
  * WORKFLOWS:
  *
@@ -52,7 +53,7 @@ public class WorkflowService {
     private AnaliseRepository analiseRepository;
 
     @Autowired
-    private ConfiguracaoRepository configuracaoRepository;
+    private ConfiguracaoService configuracaoService;
 
     @Autowired
     private GrupoEconomicoRepository grupoEconomicoRepository;
@@ -63,6 +64,9 @@ public class WorkflowService {
     @Autowired
     private PedidoRepository pedidoRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     // Mapa de transições válidas por workflow
     private static final Map<TipoWorkflow, Map<StatusWorkflow, Set<StatusWorkflow>>> TRANSICOES_VALIDAS;
 
@@ -159,6 +163,9 @@ public class WorkflowService {
 
         // 4. Persistir alterações
         analiseRepository.save(analise);
+
+        // 5. Card do grupo no Kanban é atualizado após o commit
+        eventPublisher.publishEvent(GruposAlteradosEvent.de(analise.getGrupoEconomicoId()));
     }
 
     /**
@@ -278,8 +285,7 @@ public class WorkflowService {
      * @throws RuntimeException se configuração não for encontrada
      */
     public boolean requerAprovacaoGestor(Analise analise) {
-        Configuracao config = configuracaoRepository.findById(1L)
-            .orElseThrow(() -> new RuntimeException("Configuração não encontrada"));
+        ConfiguracaoSnapshot config = configuracaoService.atual();
 
         Pedido pedido = analise.getPedido();
 
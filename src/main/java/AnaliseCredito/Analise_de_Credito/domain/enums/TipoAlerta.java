@@ -0,0 +1,34 @@
+package AnaliseCredito.Analise_de_Credito.domain.enums;
+
+/**
+ * Tipos de alerta calculados pelo AlertaService.
+ *
+ * O código (nome do enum) é o que fica gravado em alerta_pedido; o texto
+ * exibido no badge é montado a partir do formato e do parâmetro do alerta.
+ */
+public enum TipoAlerta {
+    SIMEI_ACIMA_LIMITE("SIMEI > LIMITE"),
+    GRUPO_ACIMA_SIMEIS("GRUPO > %s SIMEIS"),
+    PEDIDO_ACIMA_LIMITE("PEDIDO > LIMITE"),
+    TOTAL_ACIMA_LIMITE("TOTAL > LIMITE"),
+    RESTRICOES("RESTRIÇÕES (%s)"),
+    SCORE_BAIXO("SCORE BAIXO"),
+    ACIMA_SAZONALIDADE("PEDIDO ACIMA DA SAZONALIDADE (+50%%)"),
+    DETERIORACAO_SCORE("DETERIORAÇÃO DE SCORE (%s pontos)"),
+    ATRASO_CRESCENTE("ATRASO CRESCENTE (+%s dias)");
+
+    private final String formato;
+
+    TipoAlerta(String formato) {
+        this.formato = formato;
+    }
+
+    /**
+     * Texto do badge (ex: "RESTRIÇÕES (3)").
+     *
+     * @param parametro Valor variável do alerta, ou null se o alerta não tem parâmetro
+     */
+    public String formatar(String parametro) {
+        return String.format(formato, parametro);
+    }
+}
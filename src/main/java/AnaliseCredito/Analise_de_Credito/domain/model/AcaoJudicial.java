@@ -1,7 +1,9 @@
 package AnaliseCredito.Analise_de_Credito.domain.model;
 
 import jakarta.persistence.*;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -24,7 +26,8 @@ import java.time.LocalDate;
 public class AcaoJudicial {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "acao_judicial_seq")
+    @SequenceGenerator(name = "acao_judicial_seq", sequenceName = "acao_judicial_seq", allocationSize = 50)
     private Long id;
 
     @NotNull
@@ -35,18 +38,21 @@ public class AcaoJudicial {
     /**
      * Tipo da acao (ex: "Execucao Fiscal", "Cobranca", "Falencia")
      */
+    @Size(max = 200)
     @Column(length = 200)
     private String tipo;
 
     /**
      * Vara onde tramita a acao
      */
+    @Size(max = 200)
     @Column(length = 200)
     private String vara;
 
     /**
      * Valor da acao judicial
      */
+    @Digits(integer = 13, fraction = 2)
     @Column(precision = 15, scale = 2)
     private BigDecimal valor = BigDecimal.ZERO;
 
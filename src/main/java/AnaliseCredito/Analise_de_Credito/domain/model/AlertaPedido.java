@@ -0,0 +1,69 @@
+package AnaliseCredito.Analise_de_Credito.domain.model;
+
+import AnaliseCredito.Analise_de_Credito.domain.enums.TipoAlerta;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * AlertaPedido - Snapshot de um alerta calculado para um pedido.
+ *
+ * Gravado em lote no fim da importação (AlertaSnapshotService), uma linha
+ * por alerta ativo. Pedidos sem alertas não têm linhas.
+ *
+ * O snapshot vale para a versão da configuração em que foi calculado:
+ * se versaoConfiguracao for diferente da Configuracao atual, os limites
+ * usados no cálculo mudaram e o alerta deve ser recalculado.
+ */
+@Entity
+@Table(name = "alerta_pedido", indexes = {
+    @Index(name = "idx_alerta_pedido_pedido", columnList = "pedido_id"),
+    @Index(name = "idx_alerta_pedido_codigo", columnList = "codigo")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlertaPedido {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "alerta_pedido_seq")
+    @SequenceGenerator(name = "alerta_pedido_seq", sequenceName = "alerta_pedido_seq", allocationSize = 50)
+    private Long id;
+
+    /**
+     * ID do pedido (sem relacionamento: a tabela é só leitura para as telas)
+     */
+    @NotNull
+    @Column(name = "pedido_id", nullable = false)
+    private Long pedidoId;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private TipoAlerta codigo;
+
+    /**
+     * Valor variável do alerta (ex: quantidade de restrições), null se não houver
+     */
+    @Column(length = 50)
+    private String parametro;
+
+    @NotNull
+    @Column(name = "calculado_em", nullable = false)
+    private LocalDateTime calculadoEm;
+
+    @NotNull
+    @Column(name = "versao_configuracao", nullable = false)
+    private Long versaoConfiguracao;
+
+    /**
+     * Texto exibido no badge (mesmo formato de AlertaService.calcularAlertas)
+     */
+    public String getTexto() {
+        return codigo.formatar(parametro);
+    }
+}
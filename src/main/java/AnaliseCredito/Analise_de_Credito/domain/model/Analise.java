@@ -26,7 +26,8 @@ import java.time.LocalDateTime;
     @Index(name = "idx_analise_pedido", columnList = "pedido_id"),
     @Index(name = "idx_analise_cliente", columnList = "cliente_id"),
     @Index(name = "idx_analise_status", columnList = "status_workflow"),
-    @Index(name = "idx_analise_data", columnList = "data_inicio")
+    @Index(name = "idx_analise_data", columnList = "data_inicio"),
+    @Index(name = "idx_analise_grupo_data", columnList = "grupo_economico_id, data_inicio")
 })
 @Data
 @NoArgsConstructor
@@ -34,7 +35,8 @@ import java.time.LocalDateTime;
 public class Analise {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "analise_seq")
+    @SequenceGenerator(name = "analise_seq", sequenceName = "analise_seq", allocationSize = 50)
     private Long id;
 
     // ========== Referências (evitar loops de serialização) ==========
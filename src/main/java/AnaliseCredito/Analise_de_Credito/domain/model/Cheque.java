@@ -1,7 +1,9 @@
 package AnaliseCredito.Analise_de_Credito.domain.model;
 
 import jakarta.persistence.*;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -24,7 +26,8 @@ import java.time.LocalDate;
 public class Cheque {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cheque_seq")
+    @SequenceGenerator(name = "cheque_seq", sequenceName = "cheque_seq", allocationSize = 50)
     private Long id;
 
     @NotNull
@@ -35,12 +38,14 @@ public class Cheque {
     /**
      * Nome do banco
      */
+    @Size(max = 100)
     @Column(length = 100)
     private String banco;
 
     /**
      * Numero da agencia
      */
+    @Size(max = 20)
     @Column(length = 20)
     private String agencia;
 
@@ -48,6 +53,7 @@ public class Cheque {
      * Valor do cheque
      */
     @NotNull
+    @Digits(integer = 13, fraction = 2)
     @Column(nullable = false, precision = 15, scale = 2)
     private BigDecimal valor = BigDecimal.ZERO;
 
@@ -35,7 +35,8 @@ import java.util.List;
 public class Cliente {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cliente_seq")
+    @SequenceGenerator(name = "cliente_seq", sequenceName = "cliente_seq", allocationSize = 50)
     private Long id;
 
     // ========== Dados Cadastrais ==========
@@ -46,19 +47,24 @@ public class Cliente {
     private String cnpj;
 
     @NotBlank
+    @Size(max = 200)
     @Column(nullable = false, length = 200)
     private String razaoSocial;
 
+    @Size(max = 200)
     @Column(length = 200)
     private String nomeFantasia;
 
+    @Size(max = 20)
     @Column(length = 20)
     private String telefone;
 
     @Email
+    @Size(max = 100)
     @Column(length = 100)
     private String email;
 
+    @Size(max = 100)
     @Column(length = 100)
     private String instagram;
 
@@ -82,26 +88,33 @@ public class Cliente {
     @Column(nullable = false)
     private Boolean simei = false;
 
+    @Size(max = 50)
     @Column(length = 50)
     private String cluster;
 
+    @Size(max = 50)
     @Column(length = 50)
     private String situacaoCredito;
 
+    @Size(max = 50)
     @Column(length = 50)
     private String situacaoCobranca;
 
+    @Size(max = 50)
     @Column(length = 50)
     private String sintegra;
 
     // ========== Pipeline Cliente Novo ==========
 
+    @Size(max = 50)
     @Column(name = "status_receita", length = 50)
     private String statusReceita;
 
+    @Size(max = 50)
     @Column(name = "status_simples", length = 50)
     private String statusSimples;
 
+    @Size(max = 20)
     @Column(length = 20)
     private String cnae;
 
@@ -123,6 +136,15 @@ public class Cliente {
     @Column(name = "score_boa_vista_data")
     private LocalDate scoreBoaVistaData;
 
+    // ========== Controle de Importação ==========
+
+    /**
+     * Hash (FNV-1a 64) das colunas normalizadas da última linha importada.
+     * Linha com o mesmo hash numa re-importação não é regravada.
+     */
+    @Column(name = "hash_conteudo")
+    private Long hashConteudo;
+
     // ========== Relacionamentos ==========
 
     /**
@@ -148,6 +148,51 @@ public class Configuracao {
     @Column(name = "mes_fim_verao", length = 2)
     private String mesFimVerao = "02";
 
+    // ========== Pipeline Cliente Novo ==========
+
+    /**
+     * CNAEs permitidos, separados por vírgula (vazio/null = todos permitidos)
+     */
+    @Column(name = "cnaes_permitidos", length = 2000)
+    private String cnaesPermitidos;
+
+    /**
+     * Valor de protesto acima do qual o cliente novo vai para antecipado
+     * Default: 1000
+     */
+    @Column(name = "protesto_threshold_antecipado", precision = 15, scale = 2)
+    private BigDecimal protestoThresholdAntecipado = new BigDecimal("1000");
+
+    /**
+     * Total de restrições (R$) acima do qual o cliente novo vai para antecipado
+     * Default: 1000
+     */
+    @Column(name = "restricao_threshold_antecipado", precision = 15, scale = 2)
+    private BigDecimal restricaoThresholdAntecipado = new BigDecimal("1000");
+
+    /**
+     * Empresa fundada há menos destes meses é considerada recente
+     * Default: 12
+     */
+    @Column(name = "meses_fundacao_threshold")
+    private Integer mesesFundacaoThreshold = 12;
+
+    /**
+     * Loja aberta há menos destes meses é considerada recente
+     * Default: 10
+     */
+    @Column(name = "meses_loja_threshold")
+    private Integer mesesLojaThreshold = 10;
+
+    // ========== Controle ==========
+
+    /**
+     * Versão dos parâmetros, incrementada a cada alteração salva.
+     * Gravada nos snapshots de alertas para identificar cálculos com parâmetros antigos.
+     */
+    @Column(nullable = false)
+    private Long versao = 1L;
+
     // ========== Métodos auxiliares ==========
 
     /**
@@ -0,0 +1,162 @@
+package AnaliseCredito.Analise_de_Credito.domain.model;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * ConfiguracaoSnapshot - Cópia imutável dos parâmetros de uma versão da Configuracao.
+ *
+ * Mantida em memória por ConfiguracaoService e trocada inteira quando a configuração
+ * é salva: quem pega um snapshot calcula tudo com a mesma versão, sem ir ao banco.
+ * As estruturas derivadas são montadas uma vez por versão:
+ * - CNAEs permitidos em um Set (em vez de split da string a cada consulta)
+ * - Faixas de score → multiplicador em um NavigableMap
+ */
+@Getter
+public final class ConfiguracaoSnapshot {
+
+    private final Long versao;
+
+    // Limites SIMEI
+    private final BigDecimal limiteSimei;
+    private final Integer maxSimeisPorGrupo;
+
+    // Score
+    private final Integer scoreBaixoThreshold;
+    private final BigDecimal scoreAltoMultiplicador;
+    private final BigDecimal scoreMedioMultiplicador;
+    private final BigDecimal scoreNormalMultiplicador;
+    private final BigDecimal scoreBaixoMultiplicador;
+
+    // Alçada
+    private final BigDecimal valorAprovacaoGestor;
+    private final BigDecimal totalGrupoAprovacaoGestor;
+    private final Integer restricoesAprovacaoGestor;
+
+    // Sazonalidade
+    private final Boolean considerarSazonalidade;
+    private final BigDecimal multiplicadorAltaTemporada;
+    private final BigDecimal multiplicadorBaixaTemporada;
+    private final String mesInicioVerao;
+    private final String mesFimVerao;
+
+    // Pipeline Cliente Novo
+    private final BigDecimal protestoThresholdAntecipado;
+    private final BigDecimal restricaoThresholdAntecipado;
+    private final Integer mesesFundacaoThreshold;
+    private final Integer mesesLojaThreshold;
+
+    /**
+     * CNAEs permitidos (null = todos permitidos)
+     */
+    @Getter(AccessLevel.NONE)
+    private final Set<String> cnaesPermitidos;
+
+    /**
+     * Score mínimo da faixa → multiplicador
+     */
+    @Getter(AccessLevel.NONE)
+    private final NavigableMap<Integer, BigDecimal> multiplicadoresPorScore;
+
+    private ConfiguracaoSnapshot(Configuracao config) {
+        this.versao = config.getVersao();
+        this.limiteSimei = config.getLimiteSimei();
+        this.maxSimeisPorGrupo = config.getMaxSimeisPorGrupo();
+        this.scoreBaixoThreshold = config.getScoreBaixoThreshold();
+        this.scoreAltoMultiplicador = config.getScoreAltoMultiplicador();
+        this.scoreMedioMultiplicador = config.getScoreMedioMultiplicador();
+        this.scoreNormalMultiplicador = config.getScoreNormalMultiplicador();
+        this.scoreBaixoMultiplicador = config.getScoreBaixoMultiplicador();
+        this.valorAprovacaoGestor = config.getValorAprovacaoGestor();
+        this.totalGrupoAprovacaoGestor = config.getTotalGrupoAprovacaoGestor();
+        this.restricoesAprovacaoGestor = config.getRestricoesAprovacaoGestor();
+        this.considerarSazonalidade = config.getConsiderarSazonalidade();
+        this.multiplicadorAltaTemporada = config.getMultiplicadorAltaTemporada();
+        this.multiplicadorBaixaTemporada = config.getMultiplicadorBaixaTemporada();
+        this.mesInicioVerao = config.getMesInicioVerao();
+        this.mesFimVerao = config.getMesFimVerao();
+        this.protestoThresholdAntecipado = config.getProtestoThresholdAntecipado();
+        this.restricaoThresholdAntecipado = config.getRestricaoThresholdAntecipado();
+        this.mesesFundacaoThreshold = config.getMesesFundacaoThreshold();
+        this.mesesLojaThreshold = config.getMesesLojaThreshold();
+
+        String cnaes = config.getCnaesPermitidos();
+        this.cnaesPermitidos = cnaes == null || cnaes.isBlank() ? null
+                : Arrays.stream(cnaes.split(","))
+                        .map(String::trim)
+                        .filter(c -> !c.isEmpty())
+                        .collect(Collectors.toUnmodifiableSet());
+
+        TreeMap<Integer, BigDecimal> faixas = new TreeMap<>();
+        faixas.put(Integer.MIN_VALUE, scoreBaixoMultiplicador);
+        faixas.put(400, scoreNormalMultiplicador);
+        faixas.put(600, scoreMedioMultiplicador);
+        faixas.put(800, scoreAltoMultiplicador);
+        this.multiplicadoresPorScore = Collections.unmodifiableNavigableMap(faixas);
+    }
+
+    /**
+     * Congela os valores atuais da entidade.
+     */
+    public static ConfiguracaoSnapshot de(Configuracao config) {
+        return new ConfiguracaoSnapshot(config);
+    }
+
+    /**
+     * Retorna o multiplicador da faixa do score (null = faixa normal)
+     */
+    public BigDecimal getMultiplicadorPorScore(Integer score) {
+        if (score == null) return scoreNormalMultiplicador;
+        return multiplicadoresPorScore.floorEntry(score).getValue();
+    }
+
+    /**
+     * Verifica se score é considerado baixo
+     */
+    public boolean isScoreBaixo(Integer score) {
+        return score != null && score < scoreBaixoThreshold;
+    }
+
+    /**
+     * Verifica se valor requer aprovação de gestor
+     */
+    public boolean requerAprovacaoPorValor(BigDecimal valor) {
+        return valor != null && valor.compareTo(valorAprovacaoGestor) > 0;
+    }
+
+    /**
+     * Verifica se total do grupo requer aprovação de gestor
+     */
+    public boolean requerAprovacaoPorTotalGrupo(BigDecimal totalGrupo) {
+        return totalGrupo != null && totalGrupo.compareTo(totalGrupoAprovacaoGestor) > 0;
+    }
+
+    /**
+     * Verifica se número de restrições requer aprovação de gestor
+     */
+    public boolean requerAprovacaoPorRestricoes(Integer numRestricoes) {
+        return numRestricoes != null && numRestricoes >= restricoesAprovacaoGestor;
+    }
+
+    /**
+     * Verifica se um CNAE é permitido para o pipeline de cliente novo (lookup no Set).
+     * Se a lista de CNAEs permitidos estiver vazia/null, todos são permitidos.
+     */
+    public boolean isCnaePermitido(String cnae) {
+        if (cnaesPermitidos == null) {
+            return true;
+        }
+        if (cnae == null || cnae.isBlank()) {
+            return false;
+        }
+        return cnaesPermitidos.contains(cnae.trim());
+    }
+}
@@ -2,7 +2,9 @@ package AnaliseCredito.Analise_de_Credito.domain.model;
 
 import AnaliseCredito.Analise_de_Credito.domain.enums.TendenciaRisco;
 import jakarta.persistence.*;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -21,7 +23,8 @@ import java.util.List;
 @Table(name = "dados_bi", indexes = {
     @Index(name = "idx_dados_bi_grupo", columnList = "grupo_economico_id"),
     @Index(name = "idx_dados_bi_colecao", columnList = "colecao"),
-    @Index(name = "idx_dados_bi_importacao", columnList = "data_importacao")
+    @Index(name = "idx_dados_bi_importacao", columnList = "data_importacao"),
+    @Index(name = "idx_dados_bi_chave_natural", columnList = "chave_natural")
 })
 @Data
 @NoArgsConstructor
@@ -29,7 +32,8 @@ import java.util.List;
 public class DadosBI {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "dados_bi_seq")
+    @SequenceGenerator(name = "dados_bi_seq", sequenceName = "dados_bi_seq", allocationSize = 50)
     private Long id;
 
     // ========== Relacionamento ==========
@@ -54,12 +58,14 @@ public class DadosBI {
     /**
      * Valor total vencido na coleção
      */
+    @Digits(integer = 13, fraction = 2)
     @Column(name = "valor_vencido", precision = 15, scale = 2)
     private BigDecimal valorVencido = BigDecimal.ZERO;
 
     /**
      * Crédito disponível na coleção
      */
+    @Digits(integer = 13, fraction = 2)
     @Column(precision = 15, scale = 2)
     private BigDecimal credito = BigDecimal.ZERO;
 
@@ -71,6 +77,7 @@ public class DadosBI {
     /**
      * Atraso médio em dias
      */
+    @Digits(integer = 8, fraction = 2)
     @Column(name = "atraso_medio", precision = 10, scale = 2)
     private BigDecimal atrasoMedio = BigDecimal.ZERO;
 
@@ -80,6 +87,23 @@ public class DadosBI {
     @Column(name = "data_importacao", nullable = false)
     private LocalDateTime dataImportacao;
 
+    // ========== Controle de Importação ==========
+
+    /**
+     * Chave natural da linha importada (código do grupo|coleção).
+     * Identifica o registro numa re-importação do mesmo arquivo.
+     */
+    @Size(max = 200)
+    @Column(name = "chave_natural", length = 200)
+    private String chaveNatural;
+
+    /**
+     * Hash (FNV-1a 64) das colunas normalizadas da última linha importada.
+     * Linha com o mesmo hash numa re-importação não é regravada.
+     */
+    @Column(name = "hash_conteudo")
+    private Long hashConteudo;
+
     // ========== Métodos auxiliares ==========
 
     /**
@@ -2,7 +2,9 @@ package AnaliseCredito.Analise_de_Credito.domain.model;
 
 import AnaliseCredito.Analise_de_Credito.domain.enums.PosicaoDuplicata;
 import jakarta.persistence.*;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -21,7 +23,8 @@ import java.time.temporal.ChronoUnit;
 @Table(name = "duplicata", indexes = {
     @Index(name = "idx_duplicata_cliente", columnList = "cliente_id"),
     @Index(name = "idx_duplicata_vencimento", columnList = "vencimento"),
-    @Index(name = "idx_duplicata_posicao", columnList = "posicao")
+    @Index(name = "idx_duplicata_posicao", columnList = "posicao"),
+    @Index(name = "idx_duplicata_chave_natural", columnList = "chave_natural")
 })
 @Data
 @NoArgsConstructor
@@ -29,7 +32,8 @@ import java.time.temporal.ChronoUnit;
 public class Duplicata {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "duplicata_seq")
+    @SequenceGenerator(name = "duplicata_seq", sequenceName = "duplicata_seq", allocationSize = 50)
     private Long id;
 
     // ========== Relacionamento ==========
@@ -46,6 +50,7 @@ public class Duplicata {
     @Column(nullable = false, length = 20)
     private PosicaoDuplicata posicao;
 
+    @Size(max = 100)
     @Column(length = 100)
     private String portador;
 
@@ -54,9 +59,11 @@ public class Duplicata {
     private LocalDate vencimento;
 
     @NotNull
+    @Digits(integer = 13, fraction = 2)
     @Column(nullable = false, precision = 15, scale = 2)
     private BigDecimal valor;
 
+    @Digits(integer = 13, fraction = 2)
     @Column(precision = 15, scale = 2)
     private BigDecimal saldo = BigDecimal.ZERO;
 
@@ -66,6 +73,23 @@ public class Duplicata {
     @Column(name = "data_pagamento")
     private LocalDate dataPagamento;
 
+    // ========== Controle de Importação ==========
+
+    /**
+     * Chave natural da linha importada (CNPJ|vencimento|portador|valor).
+     * Identifica o registro numa re-importação do mesmo arquivo.
+     */
+    @Size(max = 200)
+    @Column(name = "chave_natural", length = 200)
+    private String chaveNatural;
+
+    /**
+     * Hash (FNV-1a 64) das colunas normalizadas da última linha importada.
+     * Linha com o mesmo hash numa re-importação não é regravada.
+     */
+    @Column(name = "hash_conteudo")
+    private Long hashConteudo;
+
     // ========== Métodos auxiliares ==========
 
     /**
@@ -3,6 +3,7 @@ package AnaliseCredito.Analise_de_Credito.domain.model;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -29,13 +30,15 @@ import java.util.List;
 public class GrupoEconomico {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "grupo_economico_seq")
+    @SequenceGenerator(name = "grupo_economico_seq", sequenceName = "grupo_economico_seq", allocationSize = 50)
     private Long id;
 
     /**
      * Código do grupo - pode ser CNPJ único (singleton) ou código customizado
      */
     @NotBlank
+    @Size(max = 50)
     @Column(nullable = false, length = 50)
     private String codigo;
 
@@ -43,6 +46,7 @@ public class GrupoEconomico {
      * Nome/descrição do grupo econômico
      */
     @NotBlank
+    @Size(max = 200)
     @Column(nullable = false, length = 200)
     private String nome;
 
@@ -0,0 +1,122 @@
+package AnaliseCredito.Analise_de_Credito.domain.model;
+
+import AnaliseCredito.Analise_de_Credito.domain.enums.StatusWorkflow;
+import AnaliseCredito.Analise_de_Credito.domain.enums.TipoWorkflow;
+import AnaliseCredito.Analise_de_Credito.infrastructure.persistence.ListaIdsConverter;
+import AnaliseCredito.Analise_de_Credito.infrastructure.persistence.ListaTextoConverter;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * KanbanCard - Projeção desnormalizada de um card do Kanban (grupo econômico × workflow).
+ *
+ * Mantida pelo KanbanProjecaoService a cada GruposAlteradosEvent e reconstruída
+ * na inicialização. O Kanban lê só esta tabela (um SELECT indexado), sem carregar
+ * análises, pedidos e clientes.
+ *
+ * Status e dataInicio são os da análise principal (a mais antiga do grupo no workflow).
+ * Os dias em análise são calculados na leitura a partir de dataInicio.
+ */
+@Entity
+@Table(name = "kanban_card",
+    uniqueConstraints = @UniqueConstraint(name = "uk_kanban_card_grupo_workflow",
+        columnNames = {"grupo_economico_id", "workflow"}),
+    indexes = {
+        @Index(name = "idx_kanban_card_coluna", columnList = "workflow, status_workflow, data_inicio")
+    })
+@Data
+@NoArgsConstructor
+public class KanbanCard {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "kanban_card_seq")
+    @SequenceGenerator(name = "kanban_card_seq", sequenceName = "kanban_card_seq", allocationSize = 50)
+    private Long id;
+
+    /**
+     * ID do grupo (sem relacionamento: a tabela é só leitura para as telas)
+     */
+    @NotNull
+    @Column(name = "grupo_economico_id", nullable = false)
+    private Long grupoEconomicoId;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TipoWorkflow workflow;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status_workflow", nullable = false, length = 50)
+    private StatusWorkflow status;
+
+    @Column(name = "grupo_nome", length = 200)
+    private String grupoNome;
+
+    @Column(name = "grupo_codigo", length = 50)
+    private String grupoCodigo;
+
+    /**
+     * Razões sociais distintas dos clientes com análise no card.
+     * CLOB: cresce com o grupo, sem limite de tamanho (um grupo grande não derruba a regravação)
+     */
+    @Lob
+    @Convert(converter = ListaTextoConverter.class)
+    @Column(name = "clientes")
+    private List<String> clientesRazaoSocial = new ArrayList<>();
+
+    @Lob
+    @Convert(converter = ListaIdsConverter.class)
+    @Column(name = "analise_ids")
+    private List<Long> analiseIds = new ArrayList<>();
+
+    @Column(name = "quantidade_pedidos", nullable = false)
+    private Integer quantidadePedidos = 0;
+
+    @Column(name = "valor_total", precision = 15, scale = 2)
+    private BigDecimal valorTotal = BigDecimal.ZERO;
+
+    /**
+     * Menor score Boa Vista entre os clientes do card
+     */
+    @Column(name = "pior_score")
+    private Integer piorScore;
+
+    /**
+     * União dos alertas dos pedidos do card (texto dos badges)
+     */
+    @Convert(converter = ListaTextoConverter.class)
+    @Column(name = "alertas", length = 4000)
+    private List<String> alertas = new ArrayList<>();
+
+    @Column(name = "analise_principal_id")
+    private Long analisePrincipalId;
+
+    @Column(name = "data_inicio")
+    private LocalDateTime dataInicio;
+
+    /**
+     * UF do cliente da análise principal
+     */
+    @Column(length = 2)
+    private String uf;
+
+    /**
+     * Código/nome do grupo, razões sociais e CNPJs (dígitos) normalizados (minúsculas,
+     * sem acento) para o filtro de busca quando o termo não usa o IndiceBuscaService (CLOB)
+     */
+    @Lob
+    @Column(name = "texto_busca")
+    private String textoBusca;
+
+    @NotNull
+    @Column(name = "atualizado_em", nullable = false)
+    private LocalDateTime atualizadoEm;
+}
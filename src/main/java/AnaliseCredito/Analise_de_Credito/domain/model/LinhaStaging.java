@@ -0,0 +1,65 @@
+package AnaliseCredito.Analise_de_Credito.domain.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * LinhaStaging - Linha lida de um arquivo de importação, ainda não publicada.
+ *
+ * A importação grava aqui, em transações curtas por lote, as linhas já normalizadas
+ * (DTO em JSON, chave natural e hash) enquanto os arquivos são lidos. A publicação
+ * aplica essas linhas às tabelas do sistema numa única transação no final e as remove.
+ *
+ * Nenhuma tela lê esta tabela: o que está aqui não é visível para os demais usuários.
+ */
+@Entity
+@Table(name = "importacao_staging", indexes = {
+    @Index(name = "idx_importacao_staging_lote", columnList = "lote, arquivo, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LinhaStaging {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "importacao_staging_seq")
+    @SequenceGenerator(name = "importacao_staging_seq", sequenceName = "importacao_staging_seq", allocationSize = 50)
+    private Long id;
+
+    /**
+     * Importação dona da linha (id do ImportacaoJob)
+     */
+    @NotNull
+    @Column(nullable = false, length = 36)
+    private String lote;
+
+    /**
+     * Nome do arquivo de origem (Clientes, Pedidos, ...)
+     */
+    @NotNull
+    @Column(nullable = false, length = 30)
+    private String arquivo;
+
+    /**
+     * Número da linha no arquivo
+     */
+    @Column(nullable = false)
+    private int linha;
+
+    @Column(length = 500)
+    private String chave;
+
+    @Column(nullable = false)
+    private long hash;
+
+    /**
+     * DTO da linha serializado em JSON
+     */
+    @NotNull
+    @Lob
+    @Column(nullable = false)
+    private String conteudo;
+}
@@ -1,6 +1,7 @@
 package AnaliseCredito.Analise_de_Credito.domain.model;
 
 import jakarta.persistence.*;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -25,7 +26,8 @@ import java.math.BigDecimal;
 public class Participacao {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "participacao_seq")
+    @SequenceGenerator(name = "participacao_seq", sequenceName = "participacao_seq", allocationSize = 50)
     private Long id;
 
     // ========== Relacionamento ==========
@@ -41,6 +43,7 @@ public class Participacao {
     // ========== Dados da Empresa Participada ==========
 
     @NotBlank
+    @Size(max = 200)
     @Column(name = "empresa_nome", nullable = false, length = 200)
     private String empresaNome;
 
@@ -55,6 +58,7 @@ public class Participacao {
     /**
      * Percentual de participação do sócio (0-100)
      */
+    @Digits(integer = 3, fraction = 2)
     @Column(precision = 5, scale = 2)
     private BigDecimal percentual = BigDecimal.ZERO;
 
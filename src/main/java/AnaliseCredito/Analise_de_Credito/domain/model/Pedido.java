@@ -3,8 +3,10 @@ package AnaliseCredito.Analise_de_Credito.domain.model;
 import AnaliseCredito.Analise_de_Credito.domain.enums.TipoOperacao;
 import AnaliseCredito.Analise_de_Credito.domain.enums.TipoWorkflow;
 import jakarta.persistence.*;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -26,7 +28,8 @@ import java.util.List;
     @Index(name = "idx_pedido_numero", columnList = "numero"),
     @Index(name = "idx_pedido_cliente", columnList = "cliente_id"),
     @Index(name = "idx_pedido_data", columnList = "data"),
-    @Index(name = "idx_pedido_colecao", columnList = "colecao")
+    @Index(name = "idx_pedido_colecao", columnList = "colecao"),
+    @Index(name = "idx_pedido_chave_natural", columnList = "chave_natural")
 })
 @Data
 @NoArgsConstructor
@@ -34,12 +37,14 @@ import java.util.List;
 public class Pedido {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pedido_seq")
+    @SequenceGenerator(name = "pedido_seq", sequenceName = "pedido_seq", allocationSize = 50)
     private Long id;
 
     // ========== Dados do Pedido ==========
 
     @NotBlank
+    @Size(max = 50)
     @Column(nullable = false, length = 50)
     private String numero;
 
@@ -48,15 +53,19 @@ public class Pedido {
     private LocalDate data;
 
     @NotNull
+    @Digits(integer = 13, fraction = 2)
     @Column(nullable = false, precision = 15, scale = 2)
     private BigDecimal valor;
 
+    @Size(max = 100)
     @Column(length = 100)
     private String marca;
 
+    @Size(max = 100)
     @Column(length = 100)
     private String deposito;
 
+    @Size(max = 100)
     @Column(name = "condicao_pagamento", length = 100)
     private String condicaoPagamento;
 
@@ -68,6 +77,7 @@ public class Pedido {
     /**
      * Nome da coleção (ex: "Verão 2026", "Inverno 2025")
      */
+    @Size(max = 50)
     @Column(name = "nome_colecao", length = 50)
     private String nomeColecao;
 
@@ -91,12 +101,14 @@ public class Pedido {
      * "80" ou "36" = CLIENTE_NOVO
      * Outros = BASE_PRAZO
      */
+    @Size(max = 10)
     @Column(length = 10)
     private String bloqueio;
 
     /**
      * Status atual da análise (string livre)
      */
+    @Size(max = 100)
     @Column(name = "status_analise", length = 100)
     private String statusAnalise;
 
@@ -107,6 +119,23 @@ public class Pedido {
     @Column(length = 20)
     private TipoWorkflow workflow;
 
+    // ========== Controle de Importação ==========
+
+    /**
+     * Chave natural da linha importada (CNPJ do cliente|número).
+     * Identifica o registro numa re-importação do mesmo arquivo.
+     */
+    @Size(max = 200)
+    @Column(name = "chave_natural", length = 200)
+    private String chaveNatural;
+
+    /**
+     * Hash (FNV-1a 64) das colunas normalizadas da última linha importada.
+     * Linha com o mesmo hash numa re-importação não é regravada.
+     */
+    @Column(name = "hash_conteudo")
+    private Long hashConteudo;
+
     // ========== Relacionamentos ==========
 
     @NotNull
@@ -1,7 +1,9 @@
 package AnaliseCredito.Analise_de_Credito.domain.model;
 
 import jakarta.persistence.*;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -24,7 +26,8 @@ import java.time.LocalDate;
 public class Protesto {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "protesto_seq")
+    @SequenceGenerator(name = "protesto_seq", sequenceName = "protesto_seq", allocationSize = 50)
     private Long id;
 
     @NotNull
@@ -35,6 +38,7 @@ public class Protesto {
     /**
      * Nome do cartorio onde foi protestado
      */
+    @Size(max = 200)
     @Column(length = 200)
     private String cartorio;
 
@@ -42,6 +46,7 @@ public class Protesto {
      * Valor do protesto
      */
     @NotNull
+    @Digits(integer = 13, fraction = 2)
     @Column(nullable = false, precision = 15, scale = 2)
     private BigDecimal valor = BigDecimal.ZERO;
 
@@ -1,6 +1,7 @@
 package AnaliseCredito.Analise_de_Credito.domain.model;
 
 import jakarta.persistence.*;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -25,7 +26,8 @@ import java.math.BigDecimal;
 public class Socio {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "socio_seq")
+    @SequenceGenerator(name = "socio_seq", sequenceName = "socio_seq", allocationSize = 50)
     private Long id;
 
     // ========== Relacionamento ==========
@@ -38,6 +40,7 @@ public class Socio {
     // ========== Dados do Sócio ==========
 
     @NotBlank
+    @Size(max = 200)
     @Column(nullable = false, length = 200)
     private String nome;
 
@@ -52,12 +55,14 @@ public class Socio {
     /**
      * Percentual de participação (0-100)
      */
+    @Digits(integer = 3, fraction = 2)
     @Column(precision = 5, scale = 2)
     private BigDecimal participacao = BigDecimal.ZERO;
 
     /**
      * Renda anual declarada
      */
+    @Digits(integer = 13, fraction = 2)
     @Column(name = "renda_anual", precision = 15, scale = 2)
     private BigDecimal rendaAnual = BigDecimal.ZERO;
 
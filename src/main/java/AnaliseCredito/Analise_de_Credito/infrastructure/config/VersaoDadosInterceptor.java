@@ -0,0 +1,84 @@
+package AnaliseCredito.Analise_de_Credito.infrastructure.config;
+
+import AnaliseCredito.Analise_de_Credito.application.service.VersaoDadosService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.support.RequestContextUtils;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * VersaoDadosInterceptor - GET condicional (ETag) do Kanban e da tela de análise.
+ *
+ * REGRAS:
+ * - GET /analise/kanban e /analise/{id}: ETag forte = versão dos dados + hora atual + perfil
+ *   da sessão. If-None-Match igual → 304 antes do controller (sem transação, consulta
+ *   ao banco ou Thymeleaf); senão a página é montada normalmente com o ETag no cabeçalho
+ * - A hora entra no ETag porque os dias em análise (SLA) são calculados na leitura
+ * - Cache-Control no-cache: o navegador guarda a página, mas sempre revalida
+ * - Página com mensagem flash (GET do redirect de uma escrita): no-store e sem ETag,
+ *   senão o refresh seguinte receberia 304 e voltaria a exibir a mensagem
+ * - Qualquer requisição de escrita (POST etc.) incrementa a versão ao começar e ao terminar:
+ *   o GET do redirect nunca casa com o ETag anterior, e uma página montada durante a
+ *   escrita é invalidada depois do commit
+ */
+@Component
+public class VersaoDadosInterceptor implements HandlerInterceptor {
+
+    private static final Pattern PAGINAS_CONDICIONAIS = Pattern.compile("/analise/(kanban|\\d+)");
+
+    private static final Set<String> METODOS_LEITURA = Set.of("GET", "HEAD", "OPTIONS");
+
+    @Autowired
+    private VersaoDadosService versaoDadosService;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!METODOS_LEITURA.contains(request.getMethod())) {
+            versaoDadosService.incrementar();
+            return true;
+        }
+        if (!"GET".equals(request.getMethod()) || !PAGINAS_CONDICIONAIS.matcher(caminho(request)).matches()) {
+            return true;
+        }
+
+        Map<String, ?> flash = RequestContextUtils.getInputFlashMap(request);
+        if (flash != null && !flash.isEmpty()) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noStore().getHeaderValue());
+            return true;
+        }
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        return !new ServletWebRequest(request, response).checkNotModified(etag(request));
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (!METODOS_LEITURA.contains(request.getMethod())) {
+            versaoDadosService.incrementar();
+        }
+    }
+
+    private String etag(HttpServletRequest request) {
+        HttpSession session = request.getSession(false);
+        Object perfil = session != null ? session.getAttribute("perfil") : null;
+        LocalDateTime hora = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        return "\"" + versaoDadosService.atual() + "-" + hora + "-" + perfil + "\"";
+    }
+
+    private String caminho(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+}
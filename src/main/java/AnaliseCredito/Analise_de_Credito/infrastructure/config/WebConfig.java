@@ -0,0 +1,23 @@
+package AnaliseCredito.Analise_de_Credito.infrastructure.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * WebConfig - Configuração do Spring MVC.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private VersaoDadosInterceptor versaoDadosInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Primeiro da cadeia: um 304 não abre nem o EntityManager do open-in-view
+        registry.addInterceptor(versaoDadosInterceptor).order(Ordered.HIGHEST_PRECEDENCE);
+    }
+}
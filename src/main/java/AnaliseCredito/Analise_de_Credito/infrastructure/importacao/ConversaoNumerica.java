@@ -0,0 +1,211 @@
+package AnaliseCredito.Analise_de_Credito.infrastructure.importacao;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Conversão de números em texto sem exceções e sem passar por double.
+ *
+ * Valores monetários chegam do XLSX como o texto gravado no XML da célula
+ * (ex: "1500.4559999999999"); o decimal é montado direto desses dígitos,
+ * então não há perda de precisão. Texto inválido retorna null, sem exceção por
+ * célula: o leitor decide entre o default da coluna e recusar a linha.
+ */
+final class ConversaoNumerica {
+
+    private static final long LIMITE_DIGITOS = (Long.MAX_VALUE - 9) / 10;
+    private static final int MAX_DIGITOS_EXPOENTE = 4;
+    private static final char SEM_SEPARADOR = 0;
+    private static final BigDecimal MAX_INT = BigDecimal.valueOf(Integer.MAX_VALUE);
+    private static final BigDecimal MIN_INT = BigDecimal.valueOf(Integer.MIN_VALUE);
+
+    private ConversaoNumerica() {
+    }
+
+    /**
+     * Número no formato do XML da célula numérica: [-]dígitos[.dígitos][E[+-]dígitos].
+     *
+     * @return Valor exato, ou null se o texto não estiver nesse formato
+     */
+    static BigDecimal decimalCelula(String valor) {
+        int fim = valor.length();
+        int i = 0;
+        boolean negativo = false;
+        if (i < fim && (valor.charAt(i) == '-' || valor.charAt(i) == '+')) {
+            negativo = valor.charAt(i) == '-';
+            i++;
+        }
+
+        long semEscala = 0;
+        int escala = 0;
+        int digitos = 0;
+        boolean cabeEmLong = true;
+        boolean ponto = false;
+        for (; i < fim; i++) {
+            char c = valor.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (semEscala > LIMITE_DIGITOS) {
+                    cabeEmLong = false;
+                } else {
+                    semEscala = semEscala * 10 + (c - '0');
+                }
+                digitos++;
+                if (ponto) {
+                    escala++;
+                }
+            } else if (c == '.' && !ponto) {
+                ponto = true;
+            } else {
+                break;
+            }
+        }
+        if (digitos == 0) {
+            return null;
+        }
+        if (i == fim) {
+            return cabeEmLong ? BigDecimal.valueOf(negativo ? -semEscala : semEscala, escala) : new BigDecimal(valor);
+        }
+
+        // Notação científica (números muito grandes/pequenos): formato já validado, o construtor não falha
+        char e = valor.charAt(i++);
+        if (e != 'E' && e != 'e') {
+            return null;
+        }
+        if (i < fim && (valor.charAt(i) == '-' || valor.charAt(i) == '+')) {
+            i++;
+        }
+        if (fim - i < 1 || fim - i > MAX_DIGITOS_EXPOENTE) {
+            return null;
+        }
+        for (; i < fim; i++) {
+            char c = valor.charAt(i);
+            if (c < '0' || c > '9') {
+                return null;
+            }
+        }
+        return new BigDecimal(valor);
+    }
+
+    /**
+     * Parte inteira (truncada) do número da célula numérica.
+     *
+     * @return null se o texto não for número ou não couber em long
+     */
+    static Long inteiroCelula(String valor) {
+        BigDecimal decimal = decimalCelula(valor);
+        if (decimal == null) {
+            return null;
+        }
+        BigDecimal inteiro = decimal.setScale(0, RoundingMode.DOWN);
+        return inteiro.unscaledValue().bitLength() < Long.SIZE ? inteiro.longValue() : null;
+    }
+
+    /**
+     * Número digitado como texto ("1500.45", "1.234,56", "-10,5").
+     *
+     * Separador decimal: o último entre '.' e ',' quando aparecem os dois; um único
+     * '.' ou ',' ("1.500" = 1,5, como sempre foi lido); nenhum se o mesmo sinal se
+     * repete. O outro sinal é separador de milhar e só vale entre grupos de três
+     * dígitos. Mesma regra do CSV (lido direto dos bytes por uma CharSequence).
+     *
+     * @return Valor exato, ou null se houver caractere fora de dígitos, sinal e separadores
+     *         ou separadores fora dessa regra ("1.50.000", "1,5,0", "1.234,5,6")
+     */
+    static BigDecimal decimalTexto(CharSequence valor) {
+        int inicio = 0;
+        int fim = valor.length();
+        while (inicio < fim && Character.isWhitespace(valor.charAt(inicio))) {
+            inicio++;
+        }
+        while (fim > inicio && Character.isWhitespace(valor.charAt(fim - 1))) {
+            fim--;
+        }
+        if (inicio == fim) {
+            return null;
+        }
+
+        int i = inicio;
+        boolean negativo = valor.charAt(i) == '-';
+        if (negativo || valor.charAt(i) == '+') {
+            i++;
+        }
+
+        int pontos = 0;
+        int virgulas = 0;
+        int ultimoSinal = -1;
+        for (int j = i; j < fim; j++) {
+            char c = valor.charAt(j);
+            if (c == '.') {
+                pontos++;
+                ultimoSinal = j;
+            } else if (c == ',') {
+                virgulas++;
+                ultimoSinal = j;
+            }
+        }
+        char separadorDecimal;
+        if (pontos > 0 && virgulas > 0) {
+            separadorDecimal = valor.charAt(ultimoSinal);
+        } else if (pontos + virgulas == 1) {
+            separadorDecimal = valor.charAt(ultimoSinal);
+        } else {
+            separadorDecimal = SEM_SEPARADOR;
+        }
+        char separadorMilhar = separadorDecimal == '.' || (separadorDecimal == SEM_SEPARADOR && virgulas > 0) ? ',' : '.';
+
+        long semEscala = 0;
+        int escala = 0;
+        int digitos = 0;
+        int digitosGrupo = 0;
+        int grupos = 0;
+        boolean parteDecimal = false;
+        for (; i < fim; i++) {
+            char c = valor.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (semEscala > LIMITE_DIGITOS) {
+                    return null;
+                }
+                semEscala = semEscala * 10 + (c - '0');
+                digitos++;
+                if (parteDecimal) {
+                    escala++;
+                } else {
+                    digitosGrupo++;
+                }
+            } else if (c == separadorMilhar && !parteDecimal) {
+                if (grupos == 0 ? digitosGrupo < 1 || digitosGrupo > 3 : digitosGrupo != 3) {
+                    return null;
+                }
+                grupos++;
+                digitosGrupo = 0;
+            } else if (c == separadorDecimal && !parteDecimal) {
+                if (grupos > 0 && digitosGrupo != 3) {
+                    return null;
+                }
+                parteDecimal = true;
+            } else {
+                return null;
+            }
+        }
+        if (digitos == 0 || (!parteDecimal && grupos > 0 && digitosGrupo != 3)) {
+            return null;
+        }
+        return BigDecimal.valueOf(negativo ? -semEscala : semEscala, escala);
+    }
+
+    /**
+     * Inteiro digitado como texto ("750", " -3 ", "1.000.000"), com a regra de separadores
+     * de decimalTexto. Parte decimal só é aceita se for zero e de até duas casas
+     * ("750,00"): "7,5" não é truncado e "1.000" (1 ou mil?) não é adivinhado, são recusados.
+     *
+     * @return null se o texto não for número inteiro ou não couber em int
+     */
+    static Integer inteiroTexto(CharSequence valor) {
+        BigDecimal decimal = decimalTexto(valor);
+        if (decimal == null || decimal.scale() > 2 || decimal.remainder(BigDecimal.ONE).signum() != 0) {
+            return null;
+        }
+        BigDecimal inteiro = decimal.setScale(0, RoundingMode.UNNECESSARY);
+        return inteiro.compareTo(MAX_INT) <= 0 && inteiro.compareTo(MIN_INT) >= 0 ? inteiro.intValue() : null;
+    }
+}
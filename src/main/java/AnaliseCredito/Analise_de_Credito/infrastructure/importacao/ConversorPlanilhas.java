@@ -0,0 +1,319 @@
+package AnaliseCredito.Analise_de_Credito.infrastructure.importacao;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Conversão CSV ↔ XLSX em streaming, com memória constante nos dois sentidos.
+ *
+ * CSV → XLSX: lê com LeitorCsvMapeado (RFC 4180) e grava com SXSSF; só as últimas
+ * JANELA_LINHAS linhas ficam em memória, as anteriores vão para um arquivo temporário
+ * comprimido. O tipo de cada célula é inferido do texto:
+ * - Número ("1500.45", "1.234,56", "-3"): célula numérica
+ * - Data ("aaaa-MM-dd", "dd/MM/aaaa"): célula de data (dd/mm/aaaa)
+ * - true/false: célula booleana
+ * - Documento (só dígitos com zero à esquerda ou 11+ dígitos, ex: CPF/CNPJ),
+ *   número com mais de 15 dígitos significativos e o resto: texto
+ *
+ * XLSX → CSV: lê com LeitorXlsxStreaming (modelo de eventos, SAX) e grava RFC 4180
+ * (UTF-8, separador ',', CRLF). Datas saem como aaaa-MM-dd e números sem notação científica.
+ *
+ * Os dois sentidos preservam o cabeçalho e produzem arquivos que a importação lê
+ * com o mesmo resultado do original.
+ */
+@Component
+public class ConversorPlanilhas {
+
+    /**
+     * Linhas mantidas em memória pelo SXSSF antes de descarregar para disco.
+     */
+    static final int JANELA_LINHAS = 100;
+
+    // Precisão de um número do Excel (double): acima disso a célula vira texto
+    private static final int MAX_DIGITOS_NUMERO = 15;
+
+    // Largura máxima aplicada à coluna, em caracteres
+    private static final int MAX_LARGURA_COLUNA = 60;
+
+    private final LeitorCsvMapeado leitorCsv;
+    private final LeitorXlsxStreaming leitorXlsx;
+
+    public ConversorPlanilhas(LeitorCsvMapeado leitorCsv, LeitorXlsxStreaming leitorXlsx) {
+        this.leitorCsv = leitorCsv;
+        this.leitorXlsx = leitorXlsx;
+    }
+
+    // ========== CSV → XLSX ==========
+
+    /**
+     * Converte um CSV em XLSX (primeira planilha "Dados").
+     *
+     * @return Quantidade de linhas de dados gravadas (cabeçalho excluído)
+     * @throws IOException se o CSV não puder ser lido ou o XLSX gravado
+     */
+    public long csvParaXlsx(Path csv, Path xlsx) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(JANELA_LINHAS);
+        workbook.setCompressTempFiles(true);
+        try {
+            EscritorXlsx escritor = new EscritorXlsx(workbook);
+            leitorCsv.ler(csv, escritor::cabecalho, escritor::linha);
+            escritor.ajustarColunas();
+
+            try (OutputStream out = Files.newOutputStream(xlsx)) {
+                workbook.write(out);
+            }
+            return escritor.linhas;
+        } finally {
+            // Remove os arquivos temporários das linhas já descarregadas
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    /**
+     * Grava as linhas lidas do CSV na planilha, inferindo o tipo de cada célula.
+     */
+    private static class EscritorXlsx {
+
+        private final SXSSFSheet sheet;
+        private final CellStyle estiloCabecalho;
+        private final CellStyle estiloData;
+        private int[] larguras = new int[16];
+        private int proximaLinha = 0;
+        private long linhas = 0;
+
+        EscritorXlsx(SXSSFWorkbook workbook) {
+            this.sheet = workbook.createSheet("Dados");
+
+            this.estiloCabecalho = workbook.createCellStyle();
+            Font fonte = workbook.createFont();
+            fonte.setBold(true);
+            estiloCabecalho.setFont(fonte);
+            estiloCabecalho.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
+            estiloCabecalho.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+
+            this.estiloData = workbook.createCellStyle();
+            estiloData.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("dd/mm/yyyy"));
+        }
+
+        void cabecalho(List<String> nomes) {
+            Row row = sheet.createRow(proximaLinha++);
+            for (int coluna = 0; coluna < nomes.size(); coluna++) {
+                String nome = nomes.get(coluna);
+                if (nome == null) {
+                    continue;
+                }
+                Cell cell = row.createCell(coluna);
+                cell.setCellValue(nome);
+                cell.setCellStyle(estiloCabecalho);
+                medir(coluna, nome.length());
+            }
+        }
+
+        void linha(LinhaPlanilha linha) {
+            Row row = sheet.createRow(proximaLinha++);
+            for (int coluna = 0; coluna < linha.getLargura(); coluna++) {
+                String texto = linha.getTexto(coluna);
+                if (texto == null) {
+                    continue;
+                }
+                Cell cell = row.createCell(coluna);
+                LocalDate data;
+                BigDecimal numero;
+
+                if ((data = linha.getData(coluna)) != null) {
+                    cell.setCellValue(data);
+                    cell.setCellStyle(estiloData);
+                } else if ("true".equalsIgnoreCase(texto) || "false".equalsIgnoreCase(texto)) {
+                    cell.setCellValue(Boolean.parseBoolean(texto));
+                } else if ((numero = numero(texto)) != null) {
+                    cell.setCellValue(numero.doubleValue());
+                } else {
+                    cell.setCellValue(texto);
+                }
+                medir(coluna, texto.length());
+            }
+            linhas++;
+        }
+
+        private void medir(int coluna, int tamanho) {
+            if (coluna >= larguras.length) {
+                larguras = Arrays.copyOf(larguras, Math.max(coluna + 1, larguras.length * 2));
+            }
+            larguras[coluna] = Math.max(larguras[coluna], Math.min(tamanho, MAX_LARGURA_COLUNA));
+        }
+
+        /**
+         * Largura pelo maior texto visto (autoSizeColumn precisaria de todas as linhas em memória).
+         */
+        void ajustarColunas() {
+            for (int coluna = 0; coluna < larguras.length; coluna++) {
+                if (larguras[coluna] > 0) {
+                    sheet.setColumnWidth(coluna, (larguras[coluna] + 2) * 256);
+                }
+            }
+        }
+    }
+
+    /**
+     * Número do texto, ou null se deve continuar texto (documento, precisão, formato).
+     */
+    static BigDecimal numero(String texto) {
+        if (isDocumento(texto)) {
+            return null;
+        }
+        BigDecimal valor = ConversaoNumerica.decimalTexto(texto);
+        if (valor == null || valor.stripTrailingZeros().precision() > MAX_DIGITOS_NUMERO) {
+            return null;
+        }
+        return valor;
+    }
+
+    /**
+     * Só dígitos com zero à esquerda ou 11+ dígitos (CPF, CNPJ, telefone):
+     * como número perderia os zeros ou a precisão.
+     */
+    private static boolean isDocumento(String texto) {
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return texto.length() >= 11 || (texto.length() > 1 && texto.charAt(0) == '0');
+    }
+
+    // ========== XLSX → CSV ==========
+
+    /**
+     * Converte a primeira planilha de um XLSX em CSV.
+     *
+     * @return Quantidade de linhas de dados gravadas (cabeçalho excluído)
+     * @throws IOException se o XLSX não puder ser lido ou o CSV gravado
+     */
+    public long xlsxParaCsv(Path xlsx, Path csv) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+            EscritorCsv escritor = new EscritorCsv(writer);
+            leitorXlsx.ler(xlsx, escritor::cabecalho, escritor::linha);
+            return escritor.linhas;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Grava as linhas lidas do XLSX como registros RFC 4180.
+     */
+    private static class EscritorCsv {
+
+        private static final MathContext PRECISAO_EXCEL = new MathContext(MAX_DIGITOS_NUMERO);
+
+        private final Writer writer;
+        private int largura;
+        private long linhas = 0;
+
+        EscritorCsv(Writer writer) {
+            this.writer = writer;
+        }
+
+        void cabecalho(List<String> nomes) {
+            largura = nomes.size();
+            for (int coluna = 0; coluna < nomes.size(); coluna++) {
+                campo(coluna, nomes.get(coluna));
+            }
+            fimRegistro();
+        }
+
+        void linha(LinhaPlanilha linha) {
+            // Mesma quantidade de campos em todos os registros
+            int colunas = Math.max(largura, linha.getLargura());
+            for (int coluna = 0; coluna < colunas; coluna++) {
+                LocalDate data = linha.getData(coluna);
+                campo(coluna, data != null ? data.toString() : texto(linha.getTexto(coluna)));
+            }
+            fimRegistro();
+            linhas++;
+        }
+
+        /**
+         * Número da célula como o Excel exibe: 15 dígitos significativos, sem expoente
+         * ("1500.4559999999999" → "1500.456"). O que já cabe em 15 dígitos passa inalterado.
+         */
+        private static String texto(String valor) {
+            if (valor == null || (valor.indexOf('.') < 0 && valor.indexOf('E') < 0)) {
+                return valor;
+            }
+            BigDecimal numero = ConversaoNumerica.decimalCelula(valor);
+            if (numero == null || (numero.precision() <= MAX_DIGITOS_NUMERO && valor.indexOf('E') < 0)) {
+                return valor;
+            }
+            return numero.round(PRECISAO_EXCEL).stripTrailingZeros().toPlainString();
+        }
+
+        private void campo(int coluna, String valor) {
+            try {
+                if (coluna > 0) {
+                    writer.write(',');
+                }
+                if (valor == null) {
+                    return;
+                }
+                if (precisaAspas(valor)) {
+                    writer.write('"');
+                    writer.write(valor.replace("\"", "\"\""));
+                    writer.write('"');
+                } else {
+                    writer.write(valor);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void fimRegistro() {
+            try {
+                writer.write("\r\n");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        // Separador, aspas, quebra de linha ou espaço nas pontas (o leitor apara campos sem aspas)
+        private static boolean precisaAspas(String valor) {
+            if (valor.isEmpty()) {
+                return false;
+            }
+            if (Character.isWhitespace(valor.charAt(0)) || Character.isWhitespace(valor.charAt(valor.length() - 1))) {
+                return true;
+            }
+            for (int i = 0; i < valor.length(); i++) {
+                char c = valor.charAt(i);
+                if (c == ',' || c == ';' || c == '"' || c == '\n' || c == '\r') {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package AnaliseCredito.Analise_de_Credito.infrastructure.importacao;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * EsquemaPlanilha - Descrição declarativa das colunas de um arquivo de importação.
+ *
+ * Cada coluna tem nome (cabeçalho), posição padrão, tipo, se é obrigatória,
+ * valor padrão e o setter do DTO. O esquema é compilado uma vez por arquivo,
+ * contra o cabeçalho lido: cada coluna vira um leitor já ligado ao índice e ao
+ * extrator do tipo, e a linha é mapeada por um laço sobre esses leitores.
+ *
+ * LOCALIZAÇÃO DAS COLUNAS:
+ * - Pelo nome no cabeçalho, sem caixa/acento, espaço ou hífen = "_"
+ *   ("Razão Social" encontra razao_social), em qualquer ordem
+ * - Nome ausente: posição padrão, se essa posição não pertencer a outra coluna
+ *   do esquema (arquivos antigos com cabeçalho diferente)
+ * - Coluna obrigatória não localizada: o arquivo é recusado na compilação
+ * - Coluna opcional não localizada: recebe o valor padrão (ou fica null)
+ *
+ * Uso:
+ * <pre>
+ * EsquemaPlanilha.de("Pedidos", PedidoDTO::new)
+ *         .obrigatoria("numero", 0, TipoColuna.TEXTO, PedidoDTO::setNumero)
+ *         .coluna("valor", 2, TipoColuna.DECIMAL, BigDecimal.ZERO, PedidoDTO::setValor);
+ * </pre>
+ *
+ * @param <T> DTO preenchido por linha
+ */
+public final class EsquemaPlanilha<T> {
+
+    private final String nomeArquivo;
+    private final Supplier<T> fabrica;
+    private final List<Coluna<T, ?>> colunas = new ArrayList<>();
+
+    private EsquemaPlanilha(String nomeArquivo, Supplier<T> fabrica) {
+        this.nomeArquivo = nomeArquivo;
+        this.fabrica = fabrica;
+    }
+
+    public static <T> EsquemaPlanilha<T> de(String nomeArquivo, Supplier<T> fabrica) {
+        return new EsquemaPlanilha<>(nomeArquivo, fabrica);
+    }
+
+    /**
+     * Coluna opcional, sem valor padrão (célula vazia mantém o default do extrator).
+     */
+    public <V> EsquemaPlanilha<T> coluna(String nome, int posicao, TipoColuna<V> tipo, BiConsumer<T, V> destino) {
+        return adicionar(new Coluna<>(nome, posicao, tipo, false, null, destino));
+    }
+
+    /**
+     * Coluna opcional com valor padrão para célula vazia ou coluna ausente.
+     */
+    public <V> EsquemaPlanilha<T> coluna(String nome, int posicao, TipoColuna<V> tipo, V padrao,
+                                        BiConsumer<T, V> destino) {
+        return adicionar(new Coluna<>(nome, posicao, tipo, false, padrao, destino));
+    }
+
+    /**
+     * Coluna que precisa existir no arquivo (célula vazia é tratada pela importação).
+     */
+    public <V> EsquemaPlanilha<T> obrigatoria(String nome, int posicao, TipoColuna<V> tipo, BiConsumer<T, V> destino) {
+        return adicionar(new Coluna<>(nome, posicao, tipo, true, null, destino));
+    }
+
+    private EsquemaPlanilha<T> adicionar(Coluna<T, ?> coluna) {
+        colunas.add(coluna);
+        return this;
+    }
+
+    public String getNomeArquivo() {
+        return nomeArquivo;
+    }
+
+    // ========== COMPILAÇÃO ==========
+
+    /**
+     * Resolve cada coluna contra o cabeçalho e monta o mapeador da linha.
+     *
+     * @param cabecalho Textos da primeira linha do arquivo
+     * @return Mapeador LinhaPlanilha → DTO para todas as linhas do arquivo
+     * @throws IllegalArgumentException se uma coluna obrigatória não existir no arquivo
+     */
+    public Function<LinhaPlanilha, T> compilar(List<String> cabecalho) {
+        Map<String, Integer> indicePorNome = new HashMap<>();
+        for (int i = 0; i < cabecalho.size(); i++) {
+            indicePorNome.putIfAbsent(normalizarNome(cabecalho.get(i)), i);
+        }
+        Set<Integer> posicoesComNome = new HashSet<>();
+        for (Coluna<T, ?> coluna : colunas) {
+            Integer indice = indicePorNome.get(normalizarNome(coluna.nome()));
+            if (indice != null) {
+                posicoesComNome.add(indice);
+            }
+        }
+
+        List<LeitorColuna<T>> leitores = new ArrayList<>(colunas.size());
+        List<String> ausentes = new ArrayList<>();
+        for (Coluna<T, ?> coluna : colunas) {
+            Integer indice = indicePorNome.get(normalizarNome(coluna.nome()));
+            if (indice == null && coluna.posicao() < cabecalho.size() && !posicoesComNome.contains(coluna.posicao())) {
+                indice = coluna.posicao();
+            }
+
+            if (indice != null) {
+                leitores.add(coluna.compilar(indice));
+            } else if (coluna.obrigatoria()) {
+                ausentes.add(coluna.nome());
+            } else if (coluna.padrao() != null) {
+                leitores.add(coluna.constante());
+            }
+        }
+
+        if (!ausentes.isEmpty()) {
+            throw new IllegalArgumentException("Coluna obrigatória ausente em " + nomeArquivo + ": "
+                    + String.join(", ", ausentes));
+        }
+
+        @SuppressWarnings("unchecked")
+        LeitorColuna<T>[] compilados = leitores.toArray((LeitorColuna<T>[]) new LeitorColuna<?>[0]);
+        return linha -> {
+            T dto = fabrica.get();
+            for (LeitorColuna<T> leitor : compilados) {
+                leitor.ler(linha, dto);
+            }
+            return dto;
+        };
+    }
+
+    /**
+     * Nome de coluna comparável: minúsculo, sem acentos, espaço/hífen como "_".
+     */
+    static String normalizarNome(String nome) {
+        if (nome == null) {
+            return "";
+        }
+        String semAcento = Normalizer.normalize(nome.trim(), Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return semAcento.toLowerCase(Locale.ROOT).replaceAll("[\\s-]+", "_");
+    }
+
+    // ========== COLUNAS ==========
+
+    /**
+     * Leitor especializado de uma coluna: índice e extrator já resolvidos.
+     */
+    @FunctionalInterface
+    private interface LeitorColuna<T> {
+        void ler(LinhaPlanilha linha, T dto);
+    }
+
+    private record Coluna<T, V>(String nome, int posicao, TipoColuna<V> tipo, boolean obrigatoria,
+                                V padrao, BiConsumer<T, V> destino) {
+
+        LeitorColuna<T> compilar(int indice) {
+            TipoColuna.Extrator<V> extrator = tipo.getExtrator();
+            if (padrao == null) {
+                return (linha, dto) -> destino.accept(dto, extrator.extrair(linha, indice));
+            }
+            return (linha, dto) -> {
+                V valor = extrator.extrair(linha, indice);
+                destino.accept(dto, valor != null ? valor : padrao);
+            };
+        }
+
+        LeitorColuna<T> constante() {
+            return (linha, dto) -> destino.accept(dto, padrao);
+        }
+    }
+}
@@ -0,0 +1,534 @@
+package AnaliseCredito.Analise_de_Credito.infrastructure.importacao;
+
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Leitor CSV sobre arquivo mapeado em memória (FileChannel.map).
+ *
+ * O arquivo é percorrido byte a byte em janelas mapeadas; cada linha é
+ * entregue como uma LinhaCsv que guarda apenas os offsets (início/fim) de
+ * cada campo dentro da janela. Números e datas são convertidos direto dos
+ * bytes, sem criar Strings intermediárias; só getTexto aloca.
+ *
+ * FORMATO (RFC 4180):
+ * - Separador ',' ou ';' (detectado pelo cabeçalho)
+ * - Campos entre aspas podem conter separador, quebra de linha e "" (aspas escapadas)
+ * - Fim de linha \n ou \r\n; BOM UTF-8 no início é ignorado
+ * - Texto em UTF-8
+ *
+ * CONVERSÕES (mesmos defaults do leitor XLSX):
+ * - Decimal aceita "1234.56", "1234,56" e "1.234,56" (regra de ConversaoNumerica);
+ *   vazio → ZERO; preenchido e inválido ("abc", "1.50.000") → a linha é recusada
+ * - Inteiro aceita "1.000.000" e "750,00"; parte decimal diferente de zero ou "1.000" → null
+ * - Data aceita "aaaa-MM-dd" (com hora opcional) e "dd/MM/aaaa"; inválida → null
+ * - Booleano: true/sim/1 (sem diferenciar maiúsculas)
+ *
+ * A primeira linha é o cabeçalho: vai para o callback de cabeçalho, não para o consumidor.
+ */
+@Component
+public class LeitorCsvMapeado implements LeitorPlanilha {
+
+    /**
+     * Tamanho inicial da janela mapeada. Dobra se uma única linha não couber.
+     */
+    static final int JANELA_PADRAO = 32 * 1024 * 1024;
+
+    private final int tamanhoJanela;
+
+    public LeitorCsvMapeado() {
+        this(JANELA_PADRAO);
+    }
+
+    LeitorCsvMapeado(int tamanhoJanela) {
+        this.tamanhoJanela = tamanhoJanela;
+    }
+
+    /**
+     * Lê o CSV a partir de um InputStream (copiado para arquivo temporário para ser mapeado).
+     */
+    @Override
+    public void ler(InputStream is, Consumer<List<String>> cabecalho,
+                    Consumer<LinhaPlanilha> consumidor) throws IOException {
+        Path temporario = Files.createTempFile("importacao-", ".csv");
+        try {
+            Files.copy(is, temporario, StandardCopyOption.REPLACE_EXISTING);
+            ler(temporario, cabecalho, consumidor);
+        } finally {
+            Files.deleteIfExists(temporario);
+        }
+    }
+
+    /**
+     * Lê o arquivo CSV, linha a linha.
+     *
+     * @param arquivo Caminho do arquivo CSV
+     * @param cabecalho Recebe os textos da primeira linha
+     * @param consumidor Recebe cada linha de dados (cabeçalho excluído)
+     * @throws IOException se o arquivo não puder ser lido
+     */
+    @Override
+    public void ler(Path arquivo, Consumer<List<String>> cabecalho,
+                    Consumer<LinhaPlanilha> consumidor) throws IOException {
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            long tamanho = canal.size();
+            EscanerCsv escaner = new EscanerCsv(cabecalho, consumidor);
+
+            long posicao = 0;
+            int janela = tamanhoJanela;
+            while (posicao < tamanho) {
+                int comprimento = (int) Math.min(janela, tamanho - posicao);
+                boolean fimArquivo = posicao + comprimento == tamanho;
+                MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_ONLY, posicao, comprimento);
+
+                int consumido = escaner.escanear(buffer, comprimento, fimArquivo);
+                if (consumido == 0) {
+                    // Uma única linha maior que a janela: amplia e mapeia de novo
+                    if (janela > Integer.MAX_VALUE / 2) {
+                        throw new IOException("Linha do CSV grande demais: " + arquivo.getFileName());
+                    }
+                    janela *= 2;
+                    continue;
+                }
+                posicao += consumido;
+            }
+        }
+    }
+
+    // ========== ESCANER ==========
+
+    /**
+     * Percorre uma janela mapeada separando linhas e campos.
+     * Mantém o estado entre janelas (separador, número da linha).
+     */
+    private static class EscanerCsv {
+
+        private final Consumer<List<String>> cabecalho;
+        private final Consumer<LinhaPlanilha> consumidor;
+        private final LinhaCsv linha = new LinhaCsv();
+
+        private byte separador = 0;
+        private int numeroLinha = 0;
+        private boolean inicioArquivo = true;
+
+        EscanerCsv(Consumer<List<String>> cabecalho, Consumer<LinhaPlanilha> consumidor) {
+            this.cabecalho = cabecalho;
+            this.consumidor = consumidor;
+        }
+
+        /**
+         * Processa todas as linhas completas da janela.
+         *
+         * @return Bytes consumidos; a próxima janela começa na primeira linha incompleta
+         */
+        int escanear(ByteBuffer buffer, int limite, boolean fimArquivo) {
+            int i = 0;
+            if (inicioArquivo) {
+                inicioArquivo = false;
+                if (limite >= 3 && buffer.get(0) == (byte) 0xEF
+                        && buffer.get(1) == (byte) 0xBB && buffer.get(2) == (byte) 0xBF) {
+                    i = 3;
+                }
+            }
+
+            while (i < limite) {
+                int fimRegistro = lerRegistro(buffer, i, limite, fimArquivo);
+                if (fimRegistro < 0) {
+                    return i;
+                }
+                i = fimRegistro;
+
+                numeroLinha++;
+                if (numeroLinha == 1) {
+                    cabecalho.accept(linha.getTextos());
+                } else if (!linha.isEmBranco()) {
+                    consumidor.accept(linha);
+                }
+            }
+            return limite;
+        }
+
+        /**
+         * Separa os campos de uma linha a partir de i.
+         *
+         * @return Posição logo após o fim de linha, ou -1 se a linha não termina nesta janela
+         */
+        private int lerRegistro(ByteBuffer b, int i, int limite, boolean fimArquivo) {
+            if (separador == 0 && !detectarSeparador(b, i, limite, fimArquivo)) {
+                return -1;
+            }
+
+            linha.reiniciar(b, numeroLinha + 1);
+            int coluna = 0;
+
+            while (true) {
+                if (i < limite && b.get(i) == '"') {
+                    // Campo entre aspas: termina na aspa não duplicada
+                    int inicio = i + 1;
+                    int j = inicio;
+                    boolean escapado = false;
+                    while (true) {
+                        if (j >= limite) {
+                            if (!fimArquivo) {
+                                return -1;
+                            }
+                            break; // aspas não fechadas no fim do arquivo: campo vai até o fim
+                        }
+                        if (b.get(j) == '"') {
+                            if (j + 1 >= limite && !fimArquivo) {
+                                return -1; // não dá para saber se é "" sem o próximo byte
+                            }
+                            if (j + 1 < limite && b.get(j + 1) == '"') {
+                                escapado = true;
+                                j += 2;
+                                continue;
+                            }
+                            break;
+                        }
+                        j++;
+                    }
+                    linha.definir(coluna++, inicio, Math.min(j, limite), escapado);
+                    i = j + 1;
+                    // Ignora qualquer coisa entre a aspa de fechamento e o separador
+                    while (i < limite && !isFimCampo(b.get(i))) {
+                        i++;
+                    }
+                } else {
+                    int inicio = i;
+                    while (i < limite && !isFimCampo(b.get(i))) {
+                        i++;
+                    }
+                    linha.definir(coluna++, inicio, i, false);
+                }
+
+                if (i >= limite) {
+                    return fimArquivo ? limite : -1;
+                }
+
+                byte c = b.get(i);
+                if (c == separador) {
+                    i++;
+                    continue;
+                }
+
+                // Fim de linha: \n, \r ou \r\n
+                if (c == '\r') {
+                    if (i + 1 >= limite && !fimArquivo) {
+                        return -1;
+                    }
+                    i++;
+                    if (i < limite && b.get(i) == '\n') {
+                        i++;
+                    }
+                } else {
+                    i++;
+                }
+                return i;
+            }
+        }
+
+        private boolean isFimCampo(byte c) {
+            return c == separador || c == '\n' || c == '\r';
+        }
+
+        /**
+         * Escolhe ',' ou ';' pelo que aparece mais no cabeçalho (fora de aspas).
+         *
+         * @return false se o cabeçalho não termina nesta janela
+         */
+        private boolean detectarSeparador(ByteBuffer b, int i, int limite, boolean fimArquivo) {
+            int virgulas = 0;
+            int pontoVirgulas = 0;
+            boolean entreAspas = false;
+            for (; i < limite; i++) {
+                byte c = b.get(i);
+                if (c == '"') {
+                    entreAspas = !entreAspas;
+                } else if (!entreAspas) {
+                    if (c == '\n' || c == '\r') {
+                        break;
+                    }
+                    if (c == ',') {
+                        virgulas++;
+                    } else if (c == ';') {
+                        pontoVirgulas++;
+                    }
+                }
+            }
+            if (i >= limite && !fimArquivo) {
+                return false;
+            }
+            separador = pontoVirgulas > virgulas ? (byte) ';' : (byte) ',';
+            return true;
+        }
+    }
+
+    // ========== LINHA ==========
+
+    /**
+     * Linha reutilizável: offsets de cada campo na janela mapeada corrente.
+     * As conversões leem os bytes diretamente e nunca lançam exceção
+     * (valor inválido vira o default da importação). Números passam por
+     * ConversaoNumerica através de uma CharSequence sobre os bytes do campo,
+     * a mesma regra de separadores do XLSX.
+     */
+    static class LinhaCsv implements LinhaPlanilha {
+
+        private ByteBuffer buffer;
+        private int numero;
+        private int[] inicios = new int[16];
+        private int[] fins = new int[16];
+        private boolean[] escapados = new boolean[16];
+        private int largura = 0;
+        private byte[] bytesTexto = new byte[64];
+        private final CampoAscii campo = new CampoAscii();
+
+        void reiniciar(ByteBuffer buffer, int numero) {
+            this.buffer = buffer;
+            this.numero = numero;
+            this.largura = 0;
+        }
+
+        void definir(int coluna, int inicio, int fim, boolean escapado) {
+            if (coluna >= inicios.length) {
+                int tamanho = Math.max(coluna + 1, inicios.length * 2);
+                inicios = Arrays.copyOf(inicios, tamanho);
+                fins = Arrays.copyOf(fins, tamanho);
+                escapados = Arrays.copyOf(escapados, tamanho);
+            }
+            inicios[coluna] = inicio;
+            fins[coluna] = fim;
+            escapados[coluna] = escapado;
+            largura = coluna + 1;
+        }
+
+        /**
+         * Linha sem conteúdo (ex: linha em branco no fim do arquivo).
+         */
+        boolean isEmBranco() {
+            return largura == 1 && isVazio(0);
+        }
+
+        // Limites do campo sem espaços/tabs nas pontas
+        private int inicio(int coluna) {
+            int i = inicios[coluna];
+            int fim = fins[coluna];
+            while (i < fim && isEspaco(buffer.get(i))) {
+                i++;
+            }
+            return i;
+        }
+
+        private int fim(int coluna) {
+            int inicio = inicios[coluna];
+            int f = fins[coluna];
+            while (f > inicio && isEspaco(buffer.get(f - 1))) {
+                f--;
+            }
+            return f;
+        }
+
+        private boolean isVazio(int coluna) {
+            return coluna >= largura || inicio(coluna) >= fim(coluna);
+        }
+
+        private static boolean isEspaco(byte c) {
+            return c == ' ' || c == '\t';
+        }
+
+        @Override
+        public int getNumero() {
+            return numero;
+        }
+
+        @Override
+        public int getLargura() {
+            return largura;
+        }
+
+        /**
+         * Textos de todos os campos da linha (usado para o cabeçalho).
+         */
+        List<String> getTextos() {
+            List<String> textos = new ArrayList<>(largura);
+            for (int coluna = 0; coluna < largura; coluna++) {
+                textos.add(getTexto(coluna));
+            }
+            return textos;
+        }
+
+        @Override
+        public String getTexto(int coluna) {
+            if (isVazio(coluna)) {
+                return null;
+            }
+            int inicio = inicio(coluna);
+            int fim = fim(coluna);
+            int tamanho = fim - inicio;
+            if (bytesTexto.length < tamanho) {
+                bytesTexto = new byte[Math.max(tamanho, bytesTexto.length * 2)];
+            }
+
+            int n = 0;
+            for (int i = inicio; i < fim; i++) {
+                byte c = buffer.get(i);
+                bytesTexto[n++] = c;
+                // "" dentro de campo entre aspas vale uma aspa
+                if (c == '"' && escapados[coluna] && i + 1 < fim && buffer.get(i + 1) == '"') {
+                    i++;
+                }
+            }
+            return new String(bytesTexto, 0, n, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public Integer getInteiro(int coluna) {
+            return isVazio(coluna) ? null : ConversaoNumerica.inteiroTexto(campo.de(coluna));
+        }
+
+        @Override
+        public BigDecimal getDecimal(int coluna) {
+            if (isVazio(coluna)) {
+                return BigDecimal.ZERO;
+            }
+            BigDecimal valor = ConversaoNumerica.decimalTexto(campo.de(coluna));
+            if (valor == null) {
+                throw new IllegalArgumentException("Valor numérico inválido na coluna " + (coluna + 1)
+                        + ": '" + campo.de(coluna) + "'");
+            }
+            return valor.setScale(2, RoundingMode.HALF_UP);
+        }
+
+        @Override
+        public LocalDate getData(int coluna) {
+            if (isVazio(coluna)) {
+                return null;
+            }
+            int i = inicio(coluna);
+            int tamanho = fim(coluna) - i;
+            if (tamanho < 10) {
+                return null;
+            }
+
+            int ano;
+            int mes;
+            int dia;
+            if (buffer.get(i + 4) == '-' && buffer.get(i + 7) == '-') {
+                // aaaa-MM-dd, opcionalmente seguido de hora
+                if (tamanho > 10 && buffer.get(i + 10) != 'T' && buffer.get(i + 10) != ' ') {
+                    return null;
+                }
+                ano = numero(i, 4);
+                mes = numero(i + 5, 2);
+                dia = numero(i + 8, 2);
+            } else if (buffer.get(i + 2) == '/' && buffer.get(i + 5) == '/' && tamanho == 10) {
+                // dd/MM/aaaa
+                dia = numero(i, 2);
+                mes = numero(i + 3, 2);
+                ano = numero(i + 6, 4);
+            } else {
+                return null;
+            }
+
+            if (ano < 0 || mes < 1 || mes > 12 || dia < 1 || !YearMonth.of(ano, mes).isValidDay(dia)) {
+                return null;
+            }
+            return LocalDate.of(ano, mes, dia);
+        }
+
+        @Override
+        public Boolean getBooleano(int coluna) {
+            if (isVazio(coluna)) {
+                return false;
+            }
+            int inicio = inicio(coluna);
+            int tamanho = fim(coluna) - inicio;
+            return switch (tamanho) {
+                case 1 -> buffer.get(inicio) == '1';
+                case 3 -> igualSemCaixa(inicio, "sim");
+                case 4 -> igualSemCaixa(inicio, "true");
+                default -> false;
+            };
+        }
+
+        /**
+         * Inteiro de tamanho fixo a partir dos dígitos em [i, i + tamanho); -1 se houver não-dígito.
+         */
+        private int numero(int i, int tamanho) {
+            int valor = 0;
+            for (int j = i; j < i + tamanho; j++) {
+                byte c = buffer.get(j);
+                if (c < '0' || c > '9') {
+                    return -1;
+                }
+                valor = valor * 10 + (c - '0');
+            }
+            return valor;
+        }
+
+        private boolean igualSemCaixa(int inicio, String esperado) {
+            for (int j = 0; j < esperado.length(); j++) {
+                int c = buffer.get(inicio + j) | 0x20; // ASCII minúsculo
+                if (c != esperado.charAt(j)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Bytes de um campo vistos como caracteres, reaproveitada entre campos e linhas.
+         * Cada byte vira um char (números são ASCII; byte de UTF-8 multibyte nunca é
+         * dígito nem separador), então os conversores leem a janela mapeada sem String.
+         */
+        private final class CampoAscii implements CharSequence {
+
+            private int inicio;
+            private int fim;
+
+            CampoAscii de(int coluna) {
+                inicio = inicio(coluna);
+                fim = fim(coluna);
+                return this;
+            }
+
+            @Override
+            public int length() {
+                return fim - inicio;
+            }
+
+            @Override
+            public char charAt(int indice) {
+                return (char) (buffer.get(inicio + indice) & 0xFF);
+            }
+
+            @Override
+            public CharSequence subSequence(int comeco, int termino) {
+                return toString().subSequence(comeco, termino);
+            }
+
+            @Override
+            public String toString() {
+                return StandardCharsets.UTF_8.decode(buffer.slice(inicio, fim - inicio)).toString();
+            }
+        }
+    }
+}
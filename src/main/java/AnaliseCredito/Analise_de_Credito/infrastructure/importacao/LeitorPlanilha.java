@@ -0,0 +1,47 @@
+package AnaliseCredito.Analise_de_Credito.infrastructure.importacao;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Leitor de arquivo de importação (XLSX ou CSV) em streaming.
+ *
+ * A primeira linha é o cabeçalho: é entregue à parte (para localizar as colunas
+ * pelo nome) e não chega ao consumidor de linhas.
+ * A mesma LinhaPlanilha pode ser reutilizada entre chamadas do consumidor.
+ */
+public interface LeitorPlanilha {
+
+    /**
+     * Lê o arquivo em disco, linha a linha.
+     *
+     * @param cabecalho Recebe os textos da primeira linha antes de qualquer linha de dados
+     * @throws IOException se o arquivo não puder ser lido ou estiver em formato inválido
+     */
+    void ler(Path arquivo, Consumer<List<String>> cabecalho, Consumer<LinhaPlanilha> consumidor) throws IOException;
+
+    /**
+     * Lê o conteúdo de um InputStream, linha a linha.
+     *
+     * @param cabecalho Recebe os textos da primeira linha antes de qualquer linha de dados
+     * @throws IOException se o conteúdo não puder ser lido ou estiver em formato inválido
+     */
+    void ler(InputStream is, Consumer<List<String>> cabecalho, Consumer<LinhaPlanilha> consumidor) throws IOException;
+
+    /**
+     * Lê o arquivo em disco ignorando o cabeçalho.
+     */
+    default void ler(Path arquivo, Consumer<LinhaPlanilha> consumidor) throws IOException {
+        ler(arquivo, cabecalho -> { }, consumidor);
+    }
+
+    /**
+     * Lê o conteúdo de um InputStream ignorando o cabeçalho.
+     */
+    default void ler(InputStream is, Consumer<LinhaPlanilha> consumidor) throws IOException {
+        ler(is, cabecalho -> { }, consumidor);
+    }
+}
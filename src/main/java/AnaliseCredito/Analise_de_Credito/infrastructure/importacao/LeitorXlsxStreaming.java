@@ -0,0 +1,377 @@
+package AnaliseCredito.Analise_de_Credito.infrastructure.importacao;
+
+import org.apache.poi.UnsupportedFileFormatException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.BuiltinFormats;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.springframework.stereotype.Component;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Leitor XLSX em streaming baseado no modelo de eventos do Apache POI.
+ *
+ * Usa XSSFReader + tabela de shared strings somente-leitura + handler SAX,
+ * entregando cada linha da primeira planilha ao consumidor assim que é lida.
+ * Nenhuma árvore DOM da planilha é montada: o consumo de memória é constante
+ * independente do número de linhas.
+ *
+ * A primeira linha é o cabeçalho: vai para o callback de cabeçalho, não para o consumidor.
+ */
+@Component
+public class LeitorXlsxStreaming implements LeitorPlanilha {
+
+    /**
+     * Lê o arquivo a partir de um InputStream.
+     *
+     * O conteúdo é copiado para um arquivo temporário porque o pacote OPC
+     * aberto a partir de arquivo é lido sob demanda (sem carregar o zip na memória).
+     */
+    @Override
+    public void ler(InputStream is, Consumer<List<String>> cabecalho,
+                    Consumer<LinhaPlanilha> consumidor) throws IOException {
+        Path temporario = Files.createTempFile("importacao-", ".xlsx");
+        try {
+            Files.copy(is, temporario, StandardCopyOption.REPLACE_EXISTING);
+            ler(temporario, cabecalho, consumidor);
+        } finally {
+            Files.deleteIfExists(temporario);
+        }
+    }
+
+    /**
+     * Lê a primeira planilha do arquivo, linha a linha.
+     *
+     * @param arquivo Caminho do arquivo XLSX
+     * @param cabecalho Recebe os textos da primeira linha
+     * @param consumidor Recebe cada linha de dados (cabeçalho excluído)
+     * @throws IOException se o arquivo não for um XLSX válido
+     */
+    @Override
+    public void ler(Path arquivo, Consumer<List<String>> cabecalho,
+                    Consumer<LinhaPlanilha> consumidor) throws IOException {
+        OPCPackage pacote = null;
+        try {
+            pacote = OPCPackage.open(arquivo.toFile(), PackageAccess.READ);
+            XSSFReader reader = new XSSFReader(pacote);
+            SharedStrings strings = new ReadOnlySharedStringsTable(pacote);
+            StylesTable estilos = reader.getStylesTable();
+
+            Iterator<InputStream> planilhas = reader.getSheetsData();
+            if (!planilhas.hasNext()) {
+                return;
+            }
+
+            try (InputStream planilha = planilhas.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new ManipuladorPlanilha(strings, estilos, cabecalho, consumidor));
+                parser.parse(new InputSource(planilha));
+            }
+
+        } catch (OpenXML4JException | UnsupportedFileFormatException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Arquivo XLSX inválido: " + e.getMessage(), e);
+        } finally {
+            if (pacote != null) {
+                // Pacote aberto somente-leitura: revert() libera sem tentar salvar
+                pacote.revert();
+            }
+        }
+    }
+
+    // ========== HANDLER SAX ==========
+
+    /**
+     * Handler SAX que monta uma LinhaXlsx por elemento <row> do sheet XML.
+     */
+    private static class ManipuladorPlanilha extends DefaultHandler {
+
+        private final SharedStrings strings;
+        private final StylesTable estilos;
+        private final Consumer<List<String>> cabecalho;
+        private final Consumer<LinhaPlanilha> consumidor;
+        private final Map<Integer, Boolean> estiloEhData = new HashMap<>();
+
+        private final LinhaXlsx linha = new LinhaXlsx();
+        private final StringBuilder texto = new StringBuilder();
+
+        private boolean cabecalhoLido = false;
+        private int proximaLinha = 1;
+
+        // Estado da célula corrente
+        private int coluna;
+        private int proximaColuna;
+        private String tipoCelula;
+        private int estiloCelula;
+        private boolean lendoValor;
+
+        ManipuladorPlanilha(SharedStrings strings, StylesTable estilos,
+                            Consumer<List<String>> cabecalho, Consumer<LinhaPlanilha> consumidor) {
+            this.strings = strings;
+            this.estilos = estilos;
+            this.cabecalho = cabecalho;
+            this.consumidor = consumidor;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes atributos) {
+            switch (localName) {
+                case "row" -> {
+                    String r = atributos.getValue("r");
+                    int numero = r != null ? Integer.parseInt(r) : proximaLinha;
+                    proximaLinha = numero + 1;
+                    proximaColuna = 0;
+                    linha.reiniciar(numero);
+                }
+                case "c" -> {
+                    String referencia = atributos.getValue("r");
+                    coluna = referencia != null ? new CellReference(referencia).getCol() : proximaColuna;
+                    proximaColuna = coluna + 1;
+                    tipoCelula = atributos.getValue("t");
+                    String estilo = atributos.getValue("s");
+                    estiloCelula = estilo != null ? Integer.parseInt(estilo) : 0;
+                    texto.setLength(0);
+                }
+                // <v> guarda o valor; <t> guarda o texto de inlineStr
+                case "v", "t" -> lendoValor = true;
+                default -> { }
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (lendoValor) {
+                texto.append(ch, start, length);
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            switch (localName) {
+                case "v", "t" -> lendoValor = false;
+                case "c" -> finalizarCelula();
+                case "row" -> {
+                    if (!cabecalhoLido) {
+                        cabecalhoLido = true;
+                        cabecalho.accept(linha.getTextos());
+                    } else {
+                        consumidor.accept(linha);
+                    }
+                }
+                default -> { }
+            }
+        }
+
+        private void finalizarCelula() {
+            String valor = texto.toString();
+
+            if ("s".equals(tipoCelula)) {
+                String compartilhada = strings.getItemAt(Integer.parseInt(valor)).getString();
+                linha.definir(coluna, TipoCelula.TEXTO, compartilhada);
+            } else if ("inlineStr".equals(tipoCelula) || "str".equals(tipoCelula)) {
+                linha.definir(coluna, TipoCelula.TEXTO, valor);
+            } else if ("b".equals(tipoCelula)) {
+                linha.definir(coluna, TipoCelula.BOOLEANO, valor);
+            } else if ("e".equals(tipoCelula) || valor.isEmpty()) {
+                linha.definir(coluna, TipoCelula.VAZIO, null);
+            } else {
+                TipoCelula tipo = isEstiloData(estiloCelula) ? TipoCelula.DATA : TipoCelula.NUMERO;
+                linha.definir(coluna, tipo, valor);
+            }
+        }
+
+        /**
+         * Verifica (com cache por índice de estilo) se o formato numérico é de data.
+         */
+        private boolean isEstiloData(int indiceEstilo) {
+            if (estilos == null) {
+                return false;
+            }
+            return estiloEhData.computeIfAbsent(indiceEstilo, idx -> {
+                XSSFCellStyle estilo = estilos.getStyleAt(idx);
+                if (estilo == null) {
+                    return false;
+                }
+                short formato = estilo.getDataFormat();
+                String formatoTexto = estilo.getDataFormatString();
+                if (formatoTexto == null) {
+                    formatoTexto = BuiltinFormats.getBuiltinFormat(formato);
+                }
+                return formatoTexto != null && DateUtil.isADateFormat(formato, formatoTexto);
+            });
+        }
+    }
+
+    // ========== LINHA ==========
+
+    enum TipoCelula {
+        VAZIO, TEXTO, NUMERO, DATA, BOOLEANO
+    }
+
+    /**
+     * Linha reutilizável com os valores brutos (texto do XML) e o tipo de cada célula.
+     * As conversões partem do texto bruto da célula sem double e sem exceções
+     * (ConversaoNumerica): valor inválido cai no default da coluna.
+     */
+    static class LinhaXlsx implements LinhaPlanilha {
+
+        private int numero;
+        private TipoCelula[] tipos = new TipoCelula[16];
+        private String[] valores = new String[16];
+        private int largura = 0;
+
+        void reiniciar(int numero) {
+            this.numero = numero;
+            Arrays.fill(tipos, 0, largura, null);
+            Arrays.fill(valores, 0, largura, null);
+            largura = 0;
+        }
+
+        void definir(int coluna, TipoCelula tipo, String valor) {
+            if (coluna >= tipos.length) {
+                int tamanho = Math.max(coluna + 1, tipos.length * 2);
+                tipos = Arrays.copyOf(tipos, tamanho);
+                valores = Arrays.copyOf(valores, tamanho);
+            }
+            tipos[coluna] = tipo;
+            valores[coluna] = valor;
+            largura = Math.max(largura, coluna + 1);
+        }
+
+        private TipoCelula tipo(int coluna) {
+            if (coluna >= largura || tipos[coluna] == null) {
+                return TipoCelula.VAZIO;
+            }
+            return tipos[coluna];
+        }
+
+        @Override
+        public int getNumero() {
+            return numero;
+        }
+
+        @Override
+        public int getLargura() {
+            return largura;
+        }
+
+        /**
+         * Textos de todas as células da linha (usado para o cabeçalho).
+         */
+        List<String> getTextos() {
+            List<String> textos = new ArrayList<>(largura);
+            for (int coluna = 0; coluna < largura; coluna++) {
+                textos.add(getTexto(coluna));
+            }
+            return textos;
+        }
+
+        @Override
+        public String getTexto(int coluna) {
+            return switch (tipo(coluna)) {
+                case TEXTO -> valores[coluna].trim();
+                case NUMERO, DATA -> {
+                    // Inteiro longo (ex: CNPJ gravado como 1.2345678000195E13) sem passar por double;
+                    // com casas decimais, o texto da célula, sem truncar
+                    BigDecimal numero = ConversaoNumerica.decimalCelula(valores[coluna]);
+                    yield numero != null && numero.stripTrailingZeros().scale() <= 0
+                            ? numero.toBigInteger().toString() : valores[coluna];
+                }
+                case BOOLEANO -> String.valueOf("1".equals(valores[coluna]));
+                case VAZIO -> null;
+            };
+        }
+
+        @Override
+        public Integer getInteiro(int coluna) {
+            return switch (tipo(coluna)) {
+                case NUMERO, DATA -> {
+                    Long inteiro = ConversaoNumerica.inteiroCelula(valores[coluna]);
+                    yield inteiro != null && inteiro >= Integer.MIN_VALUE && inteiro <= Integer.MAX_VALUE
+                            ? inteiro.intValue() : null;
+                }
+                case TEXTO -> ConversaoNumerica.inteiroTexto(valores[coluna]);
+                default -> null;
+            };
+        }
+
+        /**
+         * Decimal exato a partir do texto bruto da célula (sem double), com 2 casas.
+         */
+        @Override
+        public BigDecimal getDecimal(int coluna) {
+            TipoCelula tipo = tipo(coluna);
+            if (tipo == TipoCelula.VAZIO || tipo == TipoCelula.BOOLEANO
+                    || (tipo == TipoCelula.TEXTO && valores[coluna].isBlank())) {
+                return BigDecimal.ZERO;
+            }
+            BigDecimal valor = tipo == TipoCelula.TEXTO
+                    ? ConversaoNumerica.decimalTexto(valores[coluna])
+                    : ConversaoNumerica.decimalCelula(valores[coluna]);
+            if (valor == null) {
+                throw new IllegalArgumentException("Valor numérico inválido na coluna " + (coluna + 1)
+                        + ": '" + valores[coluna] + "'");
+            }
+            return valor.setScale(2, RoundingMode.HALF_UP);
+        }
+
+        @Override
+        public LocalDate getData(int coluna) {
+            if (tipo(coluna) != TipoCelula.DATA) {
+                return null;
+            }
+            BigDecimal serial = ConversaoNumerica.decimalCelula(valores[coluna]);
+            if (serial == null) {
+                return null;
+            }
+            // Data do Excel é um número de dias; fora da faixa válida o POI retorna null
+            LocalDateTime dataHora = DateUtil.getLocalDateTime(serial.doubleValue());
+            return dataHora != null ? dataHora.toLocalDate() : null;
+        }
+
+        @Override
+        public Boolean getBooleano(int coluna) {
+            return switch (tipo(coluna)) {
+                case BOOLEANO -> "1".equals(valores[coluna]);
+                case TEXTO -> {
+                    String valor = valores[coluna].trim();
+                    yield "TRUE".equalsIgnoreCase(valor) || "SIM".equalsIgnoreCase(valor) || "1".equals(valor);
+                }
+                case NUMERO, DATA -> {
+                    BigDecimal valor = ConversaoNumerica.decimalCelula(valores[coluna]);
+                    yield valor != null && valor.signum() > 0;
+                }
+                case VAZIO -> false;
+            };
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package AnaliseCredito.Analise_de_Credito.infrastructure.importacao;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Linha de uma planilha de importação com acesso tipado às colunas.
+ *
+ * Implementações são reutilizadas entre linhas pelo leitor: o consumidor
+ * deve extrair os valores durante o callback e não guardar a referência.
+ *
+ * Colunas ausentes ou vazias seguem as regras de default da importação:
+ * texto/inteiro/data retornam null, decimal retorna ZERO e booleano false.
+ * Decimal preenchido que não é número não vira ZERO: a linha é recusada.
+ */
+public interface LinhaPlanilha {
+
+    /**
+     * Número da linha na planilha (1 = cabeçalho).
+     */
+    int getNumero();
+
+    /**
+     * Quantidade de colunas da linha (última coluna presente + 1).
+     */
+    int getLargura();
+
+    String getTexto(int coluna);
+
+    Integer getInteiro(int coluna);
+
+    /**
+     * @throws IllegalArgumentException se a célula estiver preenchida com texto que não é número
+     */
+    BigDecimal getDecimal(int coluna);
+
+    LocalDate getData(int coluna);
+
+    Boolean getBooleano(int coluna);
+}
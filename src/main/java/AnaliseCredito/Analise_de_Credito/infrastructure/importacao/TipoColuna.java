@@ -0,0 +1,46 @@
+package AnaliseCredito.Analise_de_Credito.infrastructure.importacao;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Tipo de uma coluna do EsquemaPlanilha, ligado ao extrator tipado da LinhaPlanilha.
+ *
+ * O tipo é resolvido quando o esquema é compilado: a leitura da linha chama
+ * direto o extrator da coluna, sem switch pelo tipo a cada célula.
+ *
+ * @param <V> Tipo Java do valor da coluna
+ */
+public final class TipoColuna<V> {
+
+    /**
+     * Lê o valor de uma coluna (índice já resolvido) da linha.
+     */
+    @FunctionalInterface
+    public interface Extrator<V> {
+        V extrair(LinhaPlanilha linha, int coluna);
+    }
+
+    public static final TipoColuna<String> TEXTO = new TipoColuna<>("texto", LinhaPlanilha::getTexto);
+    public static final TipoColuna<Integer> INTEIRO = new TipoColuna<>("inteiro", LinhaPlanilha::getInteiro);
+    public static final TipoColuna<BigDecimal> DECIMAL = new TipoColuna<>("decimal", LinhaPlanilha::getDecimal);
+    public static final TipoColuna<LocalDate> DATA = new TipoColuna<>("data", LinhaPlanilha::getData);
+    public static final TipoColuna<Boolean> BOOLEANO = new TipoColuna<>("booleano", LinhaPlanilha::getBooleano);
+
+    private final String nome;
+    private final Extrator<V> extrator;
+
+    private TipoColuna(String nome, Extrator<V> extrator) {
+        this.nome = nome;
+        this.extrator = extrator;
+    }
+
+    public Extrator<V> getExtrator() {
+        return extrator;
+    }
+
+    @Override
+    public String toString() {
+        return nome;
+    }
+}
@@ -2,8 +2,12 @@ package AnaliseCredito.Analise_de_Credito.infrastructure.persistence;
 
 import AnaliseCredito.Analise_de_Credito.domain.model.AcaoJudicial;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -19,4 +23,13 @@ public interface AcaoJudicialRepository extends JpaRepository<AcaoJudicial, Long
      * @return Lista de ações judiciais do cliente
      */
     List<AcaoJudicial> findByClienteId(Long clienteId);
+
+    /**
+     * Remove ações judiciais de um conjunto de clientes (importação substitui por cliente).
+     * @param clienteIds IDs dos clientes
+     * @return Quantidade de linhas removidas
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM AcaoJudicial a WHERE a.cliente.id IN :clienteIds")
+    int deleteByClienteIdIn(@Param("clienteIds") Collection<Long> clienteIds);
 }
@@ -0,0 +1,70 @@
+package AnaliseCredito.Analise_de_Credito.infrastructure.persistence;
+
+import AnaliseCredito.Analise_de_Credito.domain.enums.TipoAlerta;
+import AnaliseCredito.Analise_de_Credito.domain.enums.TipoWorkflow;
+import AnaliseCredito.Analise_de_Credito.domain.model.AlertaPedido;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repositório JPA para a entidade AlertaPedido (snapshot de alertas).
+ */
+@Repository
+public interface AlertaPedidoRepository extends JpaRepository<AlertaPedido, Long> {
+
+    /**
+     * Busca os alertas de um conjunto de pedidos (ex: pedidos exibidos numa tela).
+     * @param pedidoIds IDs dos pedidos
+     * @return Alertas dos pedidos, em qualquer ordem
+     */
+    List<AlertaPedido> findByPedidoIdIn(Collection<Long> pedidoIds);
+
+    /**
+     * Busca os pedidos com um alerta específico (usa idx_alerta_pedido_codigo).
+     * @param codigo Tipo de alerta
+     * @return IDs dos pedidos com o alerta
+     */
+    @Query("SELECT a.pedidoId FROM AlertaPedido a WHERE a.codigo = :codigo")
+    List<Long> findPedidoIdsByCodigo(@Param("codigo") TipoAlerta codigo);
+
+    /**
+     * Alerta distinto de um card do Kanban (grupo × workflow).
+     */
+    interface AlertaCard {
+        Long getGrupoEconomicoId();
+        TipoWorkflow getWorkflow();
+        TipoAlerta getCodigo();
+        String getParametro();
+
+        default String getTexto() {
+            return getCodigo().formatar(getParametro());
+        }
+    }
+
+    /**
+     * Busca os alertas distintos dos pedidos de cada grupo × workflow.
+     * @param grupoIds IDs dos grupos econômicos
+     * @return Alertas de cada card dos grupos
+     */
+    @Query("SELECT DISTINCT a.grupoEconomicoId AS grupoEconomicoId, p.workflow AS workflow, " +
+           "ap.codigo AS codigo, ap.parametro AS parametro " +
+           "FROM AlertaPedido ap, Analise a JOIN a.pedido p " +
+           "WHERE ap.pedidoId = p.id AND a.grupoEconomicoId IN :grupoIds " +
+           "ORDER BY ap.codigo, ap.parametro")
+    List<AlertaCard> findAlertasCards(@Param("grupoIds") Collection<Long> grupoIds);
+
+    /**
+     * Remove os alertas de um conjunto de pedidos (antes de regravar o snapshot).
+     * @param pedidoIds IDs dos pedidos
+     * @return Quantidade de linhas removidas
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM AlertaPedido a WHERE a.pedidoId IN :pedidoIds")
+    int deleteByPedidoIdIn(@Param("pedidoIds") Collection<Long> pedidoIds);
+}
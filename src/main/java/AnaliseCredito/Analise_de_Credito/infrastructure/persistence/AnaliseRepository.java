@@ -1,13 +1,17 @@
 package AnaliseCredito.Analise_de_Credito.infrastructure.persistence;
 
 import AnaliseCredito.Analise_de_Credito.domain.enums.StatusWorkflow;
+import AnaliseCredito.Analise_de_Credito.domain.enums.TipoWorkflow;
 import AnaliseCredito.Analise_de_Credito.domain.model.Analise;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -53,29 +57,127 @@ public interface AnaliseRepository extends JpaRepository<Analise, Long> {
            "LEFT JOIN FETCH g.clientes")
     List<Analise> findAllWithPedidoAndCliente();
 
+    // ========== Projeções do Kanban (kanban_card) ==========
+
+    /**
+     * Totais de um card do Kanban (grupo × workflow), calculados no banco.
+     */
+    interface ResumoCard {
+        Long getGrupoEconomicoId();
+        TipoWorkflow getWorkflow();
+        String getGrupoNome();
+        String getGrupoCodigo();
+        Long getQuantidadePedidos();
+        BigDecimal getValorTotal();
+        Integer getPiorScore();
+    }
+
+    /**
+     * Análise principal de um card: a mais antiga do grupo no workflow.
+     */
+    interface PrincipalCard {
+        Long getGrupoEconomicoId();
+        TipoWorkflow getWorkflow();
+        Long getAnaliseId();
+        StatusWorkflow getStatus();
+        LocalDateTime getDataInicio();
+        String getUf();
+    }
+
+    /**
+     * Linha compacta de uma análise do card (id e cliente), sem carregar entidades.
+     */
+    interface AnaliseCard {
+        Long getGrupoEconomicoId();
+        TipoWorkflow getWorkflow();
+        Long getAnaliseId();
+        String getRazaoSocial();
+        String getCnpj();
+    }
+
     /**
-     * Busca todas as análises com filtros operacionais aplicados.
-     * Todos os parâmetros são opcionais (null = sem filtro).
+     * Agrega por grupo × workflow: quantidade de pedidos, valor total e pior score.
+     * Uma linha por card, sem fetch join (nada entra no contexto de persistência).
+     *
+     * O grupo (nome e código) é o da análise (a.grupoEconomicoId), o mesmo do
+     * agrupamento, e não o grupo atual do cliente: assim cada card é sempre uma linha.
      *
-     * @param uf Estado do cliente (2 letras)
-     * @param valorMin Valor mínimo do pedido
-     * @param valorMax Valor máximo do pedido
-     * @param busca Texto para buscar em razão social ou CNPJ
-     * @return Lista de análises filtradas com todas as relações carregadas
+     * @param grupoIds IDs dos grupos econômicos
+     * @return Totais de cada card dos grupos
      */
-    @Query("SELECT DISTINCT a FROM Analise a " +
-           "JOIN FETCH a.pedido p " +
-           "JOIN FETCH p.cliente c " +
-           "JOIN FETCH c.grupoEconomico g " +
-           "LEFT JOIN FETCH g.clientes " +
-           "WHERE (:uf IS NULL OR c.estado = :uf) " +
-           "AND (:valorMin IS NULL OR p.valor >= :valorMin) " +
-           "AND (:valorMax IS NULL OR p.valor <= :valorMax) " +
-           "AND (:busca IS NULL OR LOWER(c.razaoSocial) LIKE LOWER(CONCAT('%', :busca, '%')) OR c.cnpj LIKE CONCAT('%', :busca, '%'))")
-    List<Analise> findAllWithFiltersAndFetch(
-        @Param("uf") String uf,
-        @Param("valorMin") BigDecimal valorMin,
-        @Param("valorMax") BigDecimal valorMax,
-        @Param("busca") String busca
+    @Query("SELECT a.grupoEconomicoId AS grupoEconomicoId, p.workflow AS workflow, " +
+           "g.nome AS grupoNome, g.codigo AS grupoCodigo, " +
+           "COUNT(a) AS quantidadePedidos, SUM(p.valor) AS valorTotal, MIN(c.scoreBoaVista) AS piorScore " +
+           "FROM Analise a JOIN a.pedido p JOIN p.cliente c " +
+           "JOIN GrupoEconomico g ON g.id = a.grupoEconomicoId " +
+           "WHERE a.grupoEconomicoId IN :grupoIds " +
+           "GROUP BY a.grupoEconomicoId, p.workflow, g.nome, g.codigo")
+    List<ResumoCard> resumirCards(@Param("grupoIds") Collection<Long> grupoIds);
+
+    /**
+     * Busca a análise mais antiga (menor dataInicio) de cada grupo × workflow.
+     * Em caso de empate vêm todas, ordenadas por id.
+     *
+     * @param grupoIds IDs dos grupos econômicos
+     * @return Análise principal de cada card dos grupos
+     */
+    @Query("SELECT a.grupoEconomicoId AS grupoEconomicoId, p.workflow AS workflow, a.id AS analiseId, " +
+           "a.statusWorkflow AS status, a.dataInicio AS dataInicio, c.estado AS uf " +
+           "FROM Analise a JOIN a.pedido p JOIN p.cliente c " +
+           "WHERE a.grupoEconomicoId IN :grupoIds " +
+           "AND a.dataInicio = (SELECT MIN(a2.dataInicio) FROM Analise a2 JOIN a2.pedido p2 " +
+           "                    WHERE a2.grupoEconomicoId = a.grupoEconomicoId AND p2.workflow = p.workflow) " +
+           "ORDER BY a.id")
+    List<PrincipalCard> findPrincipaisCards(@Param("grupoIds") Collection<Long> grupoIds);
+
+    /**
+     * Lista id e cliente de cada análise dos grupos, ordenados por id.
+     *
+     * @param grupoIds IDs dos grupos econômicos
+     * @return Uma linha por análise
+     */
+    @Query("SELECT a.grupoEconomicoId AS grupoEconomicoId, p.workflow AS workflow, a.id AS analiseId, " +
+           "c.razaoSocial AS razaoSocial, c.cnpj AS cnpj " +
+           "FROM Analise a JOIN a.pedido p JOIN p.cliente c " +
+           "WHERE a.grupoEconomicoId IN :grupoIds " +
+           "ORDER BY a.id")
+    List<AnaliseCard> findAnalisesCards(@Param("grupoIds") Collection<Long> grupoIds);
+
+    /**
+     * Lista os ids distintos de grupos que possuem análises.
+     * @return IDs dos grupos econômicos com ao menos uma análise
+     */
+    @Query("SELECT DISTINCT a.grupoEconomicoId FROM Analise a")
+    List<Long> findGrupoEconomicoIdsDistintos();
+
+    /**
+     * Move (bulk UPDATE) todas as análises de um cliente para outro grupo econômico.
+     * Usado quando a re-importação troca o grupo do cliente: grupoEconomicoId é
+     * denormalizado na Analise e precisa acompanhar o cliente.
+     *
+     * @param clienteId ID do cliente
+     * @param grupoEconomicoId ID do novo grupo econômico
+     * @return Quantidade de análises atualizadas
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Analise a SET a.grupoEconomicoId = :grupoEconomicoId WHERE a.clienteId = :clienteId")
+    int atualizarGrupoPorCliente(
+        @Param("clienteId") Long clienteId,
+        @Param("grupoEconomicoId") Long grupoEconomicoId
+    );
+
+    /**
+     * Atualiza (bulk UPDATE) o limite sugerido de todas as análises de um grupo.
+     * O limite é calculado por grupo, então todas as análises do grupo compartilham o valor.
+     *
+     * @param grupoEconomicoId ID do grupo econômico
+     * @param limiteSugerido Limite calculado pelo ScoringService
+     * @return Quantidade de análises atualizadas
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Analise a SET a.limiteSugerido = :limiteSugerido WHERE a.grupoEconomicoId = :grupoEconomicoId")
+    int atualizarLimiteSugeridoPorGrupo(
+        @Param("grupoEconomicoId") Long grupoEconomicoId,
+        @Param("limiteSugerido") BigDecimal limiteSugerido
     );
 }
@@ -2,8 +2,11 @@ package AnaliseCredito.Analise_de_Credito.infrastructure.persistence;
 
 import AnaliseCredito.Analise_de_Credito.domain.model.Cliente;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,6 +17,18 @@ import java.util.Optional;
 @Repository
 public interface ClienteRepository extends JpaRepository<Cliente, Long> {
 
+    /**
+     * Textos pesquisáveis de um cliente e do seu grupo (índice de busca do Kanban).
+     */
+    interface TextoBusca {
+        Long getGrupoEconomicoId();
+        String getGrupoCodigo();
+        String getGrupoNome();
+        String getRazaoSocial();
+        String getNomeFantasia();
+        String getCnpj();
+    }
+
     /**
      * Busca cliente pelo CNPJ.
      * @param cnpj CNPJ do cliente
@@ -27,4 +42,39 @@ public interface ClienteRepository extends JpaRepository<Cliente, Long> {
      * @return Lista de clientes do grupo
      */
     List<Cliente> findByGrupoEconomicoId(Long grupoEconomicoId);
+
+    /**
+     * Lista CNPJ, id e id do grupo de todos os clientes, sem carregar entidades.
+     * Usado para montar o índice em memória da importação (ResolvedorImportacao).
+     * @return Linhas [cnpj, id, grupoEconomicoId]
+     */
+    @Query("SELECT c.cnpj, c.id, c.grupoEconomico.id FROM Cliente c")
+    List<Object[]> findCnpjIdEGrupo();
+
+    /**
+     * Lista CNPJ, id e hash do conteúdo de todos os clientes.
+     * Usado para detectar clientes inalterados numa re-importação (IndiceConteudo).
+     * @return Linhas [cnpj, id, hashConteudo]
+     */
+    @Query("SELECT c.cnpj, c.id, c.hashConteudo FROM Cliente c")
+    List<Object[]> findChaveIdEHash();
+
+    /**
+     * Textos pesquisáveis de todos os clientes com grupo, sem carregar entidades.
+     * Usado para montar o índice de busca do Kanban (IndiceBuscaService).
+     */
+    @Query("SELECT g.id AS grupoEconomicoId, g.codigo AS grupoCodigo, g.nome AS grupoNome, " +
+           "c.razaoSocial AS razaoSocial, c.nomeFantasia AS nomeFantasia, c.cnpj AS cnpj " +
+           "FROM Cliente c JOIN c.grupoEconomico g")
+    List<TextoBusca> findTextosBusca();
+
+    /**
+     * Textos pesquisáveis dos clientes dos grupos informados (reindexação parcial).
+     * @param grupoIds IDs dos grupos econômicos
+     */
+    @Query("SELECT g.id AS grupoEconomicoId, g.codigo AS grupoCodigo, g.nome AS grupoNome, " +
+           "c.razaoSocial AS razaoSocial, c.nomeFantasia AS nomeFantasia, c.cnpj AS cnpj " +
+           "FROM Cliente c JOIN c.grupoEconomico g " +
+           "WHERE g.id IN :grupoIds")
+    List<TextoBusca> findTextosBuscaPorGrupos(@Param("grupoIds") Collection<Long> grupoIds);
 }
@@ -1,9 +1,15 @@
 package AnaliseCredito.Analise_de_Credito.infrastructure.persistence;
 
 import AnaliseCredito.Analise_de_Credito.domain.model.Configuracao;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 /**
  * Repositório JPA para a entidade Configuracao.
  * Esta tabela deve conter apenas 1 registro (ID=1) com os parâmetros do sistema.
@@ -11,4 +17,14 @@ import org.springframework.stereotype.Repository;
  */
 @Repository
 public interface ConfiguracaoRepository extends JpaRepository<Configuracao, Long> {
+
+    /**
+     * Configuração com bloqueio de escrita (SELECT ... FOR UPDATE) até o fim da transação.
+     * Salvamentos concorrentes ficam em fila: cada um lê a versão gravada pelo anterior.
+     * @param id ID da configuração (sempre 1)
+     * @return Configuração bloqueada, se existir
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Configuracao c WHERE c.id = :id")
+    Optional<Configuracao> findParaAtualizacao(@Param("id") Long id);
 }
@@ -2,6 +2,7 @@ package AnaliseCredito.Analise_de_Credito.infrastructure.persistence;
 
 import AnaliseCredito.Analise_de_Credito.domain.model.DadosBI;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -27,4 +28,19 @@ public interface DadosBIRepository extends JpaRepository<DadosBI, Long> {
      * @return Lista de dados de BI do grupo
      */
     List<DadosBI> findByGrupoEconomicoId(Long grupoEconomicoId);
+
+    /**
+     * Lista chave natural, id e hash do conteúdo dos dados de BI importados.
+     * Usado para detectar linhas novas, alteradas e inalteradas numa re-importação (IndiceConteudo).
+     * @return Linhas [chaveNatural, id, hashConteudo]
+     */
+    @Query("SELECT d.chaveNatural, d.id, d.hashConteudo FROM DadosBI d WHERE d.chaveNatural IS NOT NULL")
+    List<Object[]> findChaveIdEHash();
+
+    /**
+     * Dados de BI sem chave natural (gravados antes do delta por chave ou fora da importação),
+     * com o grupo já carregado para montar a chave.
+     */
+    @Query("SELECT d FROM DadosBI d JOIN FETCH d.grupoEconomico WHERE d.chaveNatural IS NULL")
+    List<DadosBI> findSemChaveNatural();
 }
@@ -2,6 +2,7 @@ package AnaliseCredito.Analise_de_Credito.infrastructure.persistence;
 
 import AnaliseCredito.Analise_de_Credito.domain.model.Duplicata;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
@@ -27,4 +28,19 @@ public interface DuplicataRepository extends JpaRepository<Duplicata, Long> {
      * @return Lista de duplicatas vencidas e não pagas
      */
     List<Duplicata> findByVencimentoBeforeAndDataPagamentoIsNull(LocalDate date);
+
+    /**
+     * Lista chave natural, id e hash do conteúdo das duplicatas importadas.
+     * Usado para detectar linhas novas, alteradas e inalteradas numa re-importação (IndiceConteudo).
+     * @return Linhas [chaveNatural, id, hashConteudo]
+     */
+    @Query("SELECT d.chaveNatural, d.id, d.hashConteudo FROM Duplicata d WHERE d.chaveNatural IS NOT NULL")
+    List<Object[]> findChaveIdEHash();
+
+    /**
+     * Duplicatas sem chave natural (gravados antes do delta por chave ou fora da importação),
+     * com o cliente já carregado para montar a chave, na ordem de gravação (ordinal da chave).
+     */
+    @Query("SELECT d FROM Duplicata d JOIN FETCH d.cliente WHERE d.chaveNatural IS NULL ORDER BY d.id")
+    List<Duplicata> findSemChaveNatural();
 }
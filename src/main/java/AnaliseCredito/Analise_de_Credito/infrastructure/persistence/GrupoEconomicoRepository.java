@@ -40,4 +40,12 @@ public interface GrupoEconomicoRepository extends JpaRepository<GrupoEconomico,
         ORDER BY g.nome
         """)
     List<GrupoEconomico> findByFiltros(@Param("uf") String uf, @Param("busca") String busca);
+
+    /**
+     * Lista código e id de todos os grupos, sem carregar entidades.
+     * Usado para montar o índice em memória da importação (ResolvedorImportacao).
+     * @return Linhas [codigo, id]
+     */
+    @Query("SELECT g.codigo, g.id FROM GrupoEconomico g ORDER BY g.id")
+    List<Object[]> findCodigoEId();
 }
@@ -0,0 +1,199 @@
+package AnaliseCredito.Analise_de_Credito.infrastructure.persistence;
+
+import AnaliseCredito.Analise_de_Credito.domain.enums.StatusWorkflow;
+import AnaliseCredito.Analise_de_Credito.domain.enums.TipoWorkflow;
+import AnaliseCredito.Analise_de_Credito.domain.model.KanbanCard;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repositório JPA para a projeção KanbanCard (cards do Kanban por grupo × workflow).
+ */
+@Repository
+public interface KanbanCardRepository extends JpaRepository<KanbanCard, Long> {
+
+    /**
+     * Totais de uma coluna do Kanban (workflow × status).
+     */
+    interface TotalColuna {
+        TipoWorkflow getWorkflow();
+        StatusWorkflow getStatus();
+        Long getQuantidade();
+        BigDecimal getValorTotal();
+    }
+
+    /**
+     * Página de uma coluna do Kanban, em ordem de dataInicio (mais antigos primeiro) e id.
+     * Paginação por chave (keyset): a próxima página começa depois do último card
+     * da anterior (depoisData, depoisId), sem OFFSET. Filtros opcionais (null = sem filtro).
+     *
+     * O índice idx_kanban_card_coluna (workflow, status_workflow, data_inicio) atende
+     * a igualdade de workflow e status e entrega as linhas já na ordem da página.
+     *
+     * @param workflow Workflow da coluna
+     * @param status Status da coluna
+     * @param uf Estado do card (2 letras)
+     * @param valorMin Valor total mínimo do card
+     * @param valorMax Valor total máximo do card
+     * @param busca Termo normalizado buscado no textoBusca do card (termos sem índice)
+     * @param filtrarGrupos Restringe aos grupos encontrados pelo IndiceBuscaService
+     * @param gruposBusca Grupos encontrados pelo índice (nunca vazia: IN () não é SQL válido)
+     * @param inicioApos dataInicio estritamente posterior a este instante (SLA)
+     * @param inicioAte dataInicio até este instante, inclusive (SLA)
+     * @param depoisData dataInicio do último card da página anterior (null = primeira página)
+     * @param depoisId id do último card da página anterior
+     * @param limite Quantidade máxima de cards
+     * @return Cards da página
+     */
+    @Query("SELECT k FROM KanbanCard k " +
+           "WHERE k.workflow = :workflow AND k.status = :status " +
+           "AND (:uf IS NULL OR k.uf = :uf) " +
+           "AND (:valorMin IS NULL OR k.valorTotal >= :valorMin) " +
+           "AND (:valorMax IS NULL OR k.valorTotal <= :valorMax) " +
+           "AND (:busca IS NULL OR k.textoBusca LIKE CONCAT('%', :busca, '%')) " +
+           "AND (:filtrarGrupos = false OR k.grupoEconomicoId IN :gruposBusca) " +
+           "AND (:inicioApos IS NULL OR k.dataInicio > :inicioApos) " +
+           "AND (:inicioAte IS NULL OR k.dataInicio <= :inicioAte) " +
+           "AND (:depoisData IS NULL OR k.dataInicio > :depoisData " +
+           "     OR (k.dataInicio = :depoisData AND k.id > :depoisId)) " +
+           "ORDER BY k.dataInicio, k.id")
+    List<KanbanCard> findPaginaColuna(
+        @Param("workflow") TipoWorkflow workflow,
+        @Param("status") StatusWorkflow status,
+        @Param("uf") String uf,
+        @Param("valorMin") BigDecimal valorMin,
+        @Param("valorMax") BigDecimal valorMax,
+        @Param("busca") String busca,
+        @Param("filtrarGrupos") boolean filtrarGrupos,
+        @Param("gruposBusca") Collection<Long> gruposBusca,
+        @Param("inicioApos") LocalDateTime inicioApos,
+        @Param("inicioAte") LocalDateTime inicioAte,
+        @Param("depoisData") LocalDateTime depoisData,
+        @Param("depoisId") Long depoisId,
+        Limit limite
+    );
+
+    /**
+     * Primeira página de todas as colunas do quadro em um único SELECT: os cards são
+     * numerados por coluna (ROW_NUMBER particionado por workflow × status, na ordem de
+     * findPaginaColuna) e só os primeiros porColuna de cada uma voltam.
+     *
+     * Assim a abertura do Kanban custa um número fixo de consultas, qualquer que seja
+     * a quantidade de colunas ou de cards. Filtros opcionais como em findPaginaColuna;
+     * os CASTs tipam os parâmetros null no H2.
+     *
+     * @param workflows Nomes dos workflows exibidos (IN, nunca vazia)
+     * @param status Nomes dos status das colunas exibidas
+     * @param porColuna Quantidade máxima de cards por coluna
+     * @return Cards ordenados por workflow, status, dataInicio e id
+     */
+    @Query(value = "SELECT * FROM (" +
+           "  SELECT k.*, ROW_NUMBER() OVER (PARTITION BY k.workflow, k.status_workflow " +
+           "                                 ORDER BY k.data_inicio, k.id) AS posicao " +
+           "  FROM kanban_card k " +
+           "  WHERE k.workflow IN (:workflows) " +
+           "  AND k.status_workflow IN (:status) " +
+           "  AND (CAST(:uf AS VARCHAR) IS NULL OR k.uf = :uf) " +
+           "  AND (CAST(:valorMin AS DECIMAL(15,2)) IS NULL OR k.valor_total >= :valorMin) " +
+           "  AND (CAST(:valorMax AS DECIMAL(15,2)) IS NULL OR k.valor_total <= :valorMax) " +
+           "  AND (CAST(:busca AS VARCHAR) IS NULL OR k.texto_busca LIKE CONCAT('%', :busca, '%')) " +
+           "  AND (:filtrarGrupos = FALSE OR k.grupo_economico_id IN (:gruposBusca)) " +
+           "  AND (CAST(:inicioApos AS TIMESTAMP) IS NULL OR k.data_inicio > :inicioApos) " +
+           "  AND (CAST(:inicioAte AS TIMESTAMP) IS NULL OR k.data_inicio <= :inicioAte) " +
+           ") p WHERE p.posicao <= :porColuna " +
+           "ORDER BY p.workflow, p.status_workflow, p.data_inicio, p.id",
+           nativeQuery = true)
+    List<KanbanCard> findPrimeirasPaginas(
+        @Param("workflows") Collection<String> workflows,
+        @Param("status") Collection<String> status,
+        @Param("uf") String uf,
+        @Param("valorMin") BigDecimal valorMin,
+        @Param("valorMax") BigDecimal valorMax,
+        @Param("busca") String busca,
+        @Param("filtrarGrupos") boolean filtrarGrupos,
+        @Param("gruposBusca") Collection<Long> gruposBusca,
+        @Param("inicioApos") LocalDateTime inicioApos,
+        @Param("inicioAte") LocalDateTime inicioAte,
+        @Param("porColuna") int porColuna
+    );
+
+    /**
+     * Cards dos grupos informados que passam nos filtros do quadro (atualização em tempo real:
+     * o quadro troca só os cards desses grupos). Filtros opcionais como em findPaginaColuna.
+     *
+     * @param grupoIds IDs dos grupos alterados
+     * @param workflows Workflows exibidos (IN, nunca vazia)
+     * @return Cards em ordem de dataInicio e id
+     */
+    @Query("SELECT k FROM KanbanCard k " +
+           "WHERE k.grupoEconomicoId IN :grupoIds " +
+           "AND k.workflow IN :workflows " +
+           "AND (:uf IS NULL OR k.uf = :uf) " +
+           "AND (:valorMin IS NULL OR k.valorTotal >= :valorMin) " +
+           "AND (:valorMax IS NULL OR k.valorTotal <= :valorMax) " +
+           "AND (:busca IS NULL OR k.textoBusca LIKE CONCAT('%', :busca, '%')) " +
+           "AND (:filtrarGrupos = false OR k.grupoEconomicoId IN :gruposBusca) " +
+           "AND (:inicioApos IS NULL OR k.dataInicio > :inicioApos) " +
+           "AND (:inicioAte IS NULL OR k.dataInicio <= :inicioAte) " +
+           "ORDER BY k.dataInicio, k.id")
+    List<KanbanCard> findCardsDosGrupos(
+        @Param("grupoIds") Collection<Long> grupoIds,
+        @Param("workflows") Collection<TipoWorkflow> workflows,
+        @Param("uf") String uf,
+        @Param("valorMin") BigDecimal valorMin,
+        @Param("valorMax") BigDecimal valorMax,
+        @Param("busca") String busca,
+        @Param("filtrarGrupos") boolean filtrarGrupos,
+        @Param("gruposBusca") Collection<Long> gruposBusca,
+        @Param("inicioApos") LocalDateTime inicioApos,
+        @Param("inicioAte") LocalDateTime inicioAte
+    );
+
+    /**
+     * Quantidade de cards e valor total de cada coluna, com os mesmos filtros de findPaginaColuna.
+     *
+     * @param workflows Workflows exibidos (IN, nunca vazia)
+     * @return Uma linha por coluna (workflow × status) com ao menos um card
+     */
+    @Query("SELECT k.workflow AS workflow, k.status AS status, " +
+           "COUNT(k) AS quantidade, SUM(k.valorTotal) AS valorTotal " +
+           "FROM KanbanCard k " +
+           "WHERE k.workflow IN :workflows " +
+           "AND (:uf IS NULL OR k.uf = :uf) " +
+           "AND (:valorMin IS NULL OR k.valorTotal >= :valorMin) " +
+           "AND (:valorMax IS NULL OR k.valorTotal <= :valorMax) " +
+           "AND (:busca IS NULL OR k.textoBusca LIKE CONCAT('%', :busca, '%')) " +
+           "AND (:filtrarGrupos = false OR k.grupoEconomicoId IN :gruposBusca) " +
+           "AND (:inicioApos IS NULL OR k.dataInicio > :inicioApos) " +
+           "AND (:inicioAte IS NULL OR k.dataInicio <= :inicioAte) " +
+           "GROUP BY k.workflow, k.status")
+    List<TotalColuna> totalizarColunas(
+        @Param("workflows") Collection<TipoWorkflow> workflows,
+        @Param("uf") String uf,
+        @Param("valorMin") BigDecimal valorMin,
+        @Param("valorMax") BigDecimal valorMax,
+        @Param("busca") String busca,
+        @Param("filtrarGrupos") boolean filtrarGrupos,
+        @Param("gruposBusca") Collection<Long> gruposBusca,
+        @Param("inicioApos") LocalDateTime inicioApos,
+        @Param("inicioAte") LocalDateTime inicioAte
+    );
+
+    /**
+     * Remove os cards dos grupos informados (antes de regravá-los).
+     * @param grupoIds IDs dos grupos econômicos
+     * @return Quantidade de cards removidos
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM KanbanCard k WHERE k.grupoEconomicoId IN :grupoIds")
+    int deleteByGrupoEconomicoIdIn(@Param("grupoIds") Collection<Long> grupoIds);
+}
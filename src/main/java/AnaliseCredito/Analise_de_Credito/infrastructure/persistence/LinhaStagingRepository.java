@@ -0,0 +1,59 @@
+package AnaliseCredito.Analise_de_Credito.infrastructure.persistence;
+
+import AnaliseCredito.Analise_de_Credito.domain.model.LinhaStaging;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repositório JPA para a área de staging da importação (LinhaStaging).
+ */
+@Repository
+public interface LinhaStagingRepository extends JpaRepository<LinhaStaging, Long> {
+
+    /**
+     * Linha preparada, sem carregar a entidade no contexto de persistência.
+     */
+    interface LinhaPreparada {
+        Long getId();
+        int getLinha();
+        String getChave();
+        long getHash();
+        String getConteudo();
+    }
+
+    /**
+     * Página das linhas de um arquivo de um lote, na ordem do arquivo.
+     * Paginação por chave (keyset): a próxima página começa depois do último id.
+     *
+     * @param lote Id da importação
+     * @param arquivo Nome do arquivo
+     * @param depoisId Último id da página anterior (0 = primeira página)
+     * @param limite Quantidade máxima de linhas
+     * @return Linhas da página
+     */
+    @Query("SELECT l.id AS id, l.linha AS linha, l.chave AS chave, l.hash AS hash, l.conteudo AS conteudo " +
+           "FROM LinhaStaging l " +
+           "WHERE l.lote = :lote AND l.arquivo = :arquivo AND l.id > :depoisId " +
+           "ORDER BY l.id")
+    List<LinhaPreparada> findPagina(
+        @Param("lote") String lote,
+        @Param("arquivo") String arquivo,
+        @Param("depoisId") Long depoisId,
+        Limit limite
+    );
+
+    /**
+     * Remove todas as linhas de um lote (publicado ou desfeito).
+     * @param lote Id da importação
+     * @return Quantidade de linhas removidas
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM LinhaStaging l WHERE l.lote = :lote")
+    int deleteByLote(@Param("lote") String lote);
+}
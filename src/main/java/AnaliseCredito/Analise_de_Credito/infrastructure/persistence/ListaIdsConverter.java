@@ -0,0 +1,42 @@
+package AnaliseCredito.Analise_de_Credito.infrastructure.persistence;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Grava uma lista de IDs em uma coluna, separados por vírgula ("12,15,40").
+ * Usado em projeções só de leitura (ex: kanban_card).
+ */
+@Converter
+public class ListaIdsConverter implements AttributeConverter<List<Long>, String> {
+
+    @Override
+    public String convertToDatabaseColumn(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return null;
+        }
+        StringBuilder coluna = new StringBuilder();
+        for (Long id : ids) {
+            if (coluna.length() > 0) {
+                coluna.append(',');
+            }
+            coluna.append(id);
+        }
+        return coluna.toString();
+    }
+
+    @Override
+    public List<Long> convertToEntityAttribute(String coluna) {
+        List<Long> ids = new ArrayList<>();
+        if (coluna == null || coluna.isEmpty()) {
+            return ids;
+        }
+        for (String id : coluna.split(",")) {
+            ids.add(Long.valueOf(id));
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,37 @@
+package AnaliseCredito.Analise_de_Credito.infrastructure.persistence;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Grava uma lista de textos em uma coluna, um item por linha.
+ * Usado em projeções só de leitura (ex: kanban_card), onde a lista é sempre lida inteira.
+ */
+@Converter
+public class ListaTextoConverter implements AttributeConverter<List<String>, String> {
+
+    private static final String SEPARADOR = "\n";
+
+    @Override
+    public String convertToDatabaseColumn(List<String> itens) {
+        if (itens == null || itens.isEmpty()) {
+            return null;
+        }
+        // Quebras de linha dentro de um item viram espaço para não partir o item na leitura
+        return String.join(SEPARADOR, itens.stream()
+                .map(item -> item == null ? "" : item.replace('\r', ' ').replace('\n', ' '))
+                .toList());
+    }
+
+    @Override
+    public List<String> convertToEntityAttribute(String coluna) {
+        if (coluna == null || coluna.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(Arrays.asList(coluna.split(SEPARADOR)));
+    }
+}
@@ -2,8 +2,12 @@ package AnaliseCredito.Analise_de_Credito.infrastructure.persistence;
 
 import AnaliseCredito.Analise_de_Credito.domain.model.Participacao;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -19,4 +23,13 @@ public interface ParticipacaoRepository extends JpaRepository<Participacao, Long
      * @return Lista de participações do cliente
      */
     List<Participacao> findByClienteId(Long clienteId);
+
+    /**
+     * Remove participações de um conjunto de clientes (importação substitui por cliente).
+     * @param clienteIds IDs dos clientes
+     * @return Quantidade de linhas removidas
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM Participacao p WHERE p.cliente.id IN :clienteIds")
+    int deleteByClienteIdIn(@Param("clienteIds") Collection<Long> clienteIds);
 }
@@ -3,8 +3,11 @@ package AnaliseCredito.Analise_de_Credito.infrastructure.persistence;
 import AnaliseCredito.Analise_de_Credito.domain.enums.TipoWorkflow;
 import AnaliseCredito.Analise_de_Credito.domain.model.Pedido;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -34,4 +37,29 @@ public interface PedidoRepository extends JpaRepository<Pedido, Long> {
      * @return Lista de pedidos de todos os clientes do grupo
      */
     List<Pedido> findByClienteGrupoEconomicoId(Long grupoEconomicoId);
+
+    /**
+     * Busca os pedidos de vários grupos econômicos, com cliente e grupo já carregados.
+     * Usado no recálculo em lote dos alertas.
+     * @param grupoEconomicoIds IDs dos grupos econômicos
+     * @return Pedidos de todos os clientes dos grupos
+     */
+    @Query("SELECT p FROM Pedido p JOIN FETCH p.cliente c JOIN FETCH c.grupoEconomico g " +
+           "WHERE g.id IN :grupoEconomicoIds")
+    List<Pedido> findByGrupoEconomicoIdIn(@Param("grupoEconomicoIds") Collection<Long> grupoEconomicoIds);
+
+    /**
+     * Lista chave natural, id e hash do conteúdo dos pedidos importados.
+     * Usado para detectar linhas novas, alteradas e inalteradas numa re-importação (IndiceConteudo).
+     * @return Linhas [chaveNatural, id, hashConteudo]
+     */
+    @Query("SELECT p.chaveNatural, p.id, p.hashConteudo FROM Pedido p WHERE p.chaveNatural IS NOT NULL")
+    List<Object[]> findChaveIdEHash();
+
+    /**
+     * Pedidos sem chave natural (gravados antes do delta por chave ou fora da importação),
+     * com o cliente já carregado para montar a chave.
+     */
+    @Query("SELECT p FROM Pedido p JOIN FETCH p.cliente WHERE p.chaveNatural IS NULL")
+    List<Pedido> findSemChaveNatural();
 }
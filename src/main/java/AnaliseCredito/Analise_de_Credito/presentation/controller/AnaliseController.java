@@ -1,5 +1,6 @@
 package AnaliseCredito.Analise_de_Credito.presentation.controller;
 
+import AnaliseCredito.Analise_de_Credito.application.service.GruposAlteradosEvent;
 import AnaliseCredito.Analise_de_Credito.application.service.ParecerService;
 import AnaliseCredito.Analise_de_Credito.application.service.ScoringService;
 import AnaliseCredito.Analise_de_Credito.application.service.WorkflowService;
@@ -10,6 +11,7 @@ import AnaliseCredito.Analise_de_Credito.infrastructure.persistence.*;
 import AnaliseCredito.Analise_de_Credito.presentation.dto.AnaliseForm;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
@@ -84,6 +86,9 @@ public class AnaliseController {
     @Autowired
     private ParecerService parecerService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
      * GET /analise/{id} - Exibe o wizard de análise.
      *
@@ -390,6 +395,7 @@ public class AnaliseController {
             pefin.setDataOcorrencia(LocalDate.parse(dataOcorrencia));
         }
         pefinRepository.save(pefin);
+        notificarAlteracao(analise);
 
         redirectAttributes.addFlashAttribute("mensagem", "PEFIN adicionado com sucesso.");
         return "redirect:/analise/" + id + "#restricoes";
@@ -400,6 +406,7 @@ public class AnaliseController {
                                @PathVariable Long pefinId,
                                RedirectAttributes redirectAttributes) {
         pefinRepository.deleteById(pefinId);
+        notificarAlteracao(id);
         redirectAttributes.addFlashAttribute("mensagem", "PEFIN removido com sucesso.");
         return "redirect:/analise/" + id + "#restricoes";
     }
@@ -422,6 +429,7 @@ public class AnaliseController {
             protesto.setDataProtesto(LocalDate.parse(dataProtesto));
         }
         protestoRepository.save(protesto);
+        notificarAlteracao(analise);
 
         redirectAttributes.addFlashAttribute("mensagem", "Protesto adicionado com sucesso.");
         return "redirect:/analise/" + id + "#restricoes";
@@ -432,6 +440,7 @@ public class AnaliseController {
                                   @PathVariable Long protestoId,
                                   RedirectAttributes redirectAttributes) {
         protestoRepository.deleteById(protestoId);
+        notificarAlteracao(id);
         redirectAttributes.addFlashAttribute("mensagem", "Protesto removido com sucesso.");
         return "redirect:/analise/" + id + "#restricoes";
     }
@@ -458,6 +467,7 @@ public class AnaliseController {
             acao.setDataDistribuicao(LocalDate.parse(dataDistribuicao));
         }
         acaoJudicialRepository.save(acao);
+        notificarAlteracao(analise);
 
         redirectAttributes.addFlashAttribute("mensagem", "Ação Judicial adicionada com sucesso.");
         return "redirect:/analise/" + id + "#restricoes";
@@ -468,6 +478,7 @@ public class AnaliseController {
                                       @PathVariable Long acaoId,
                                       RedirectAttributes redirectAttributes) {
         acaoJudicialRepository.deleteById(acaoId);
+        notificarAlteracao(id);
         redirectAttributes.addFlashAttribute("mensagem", "Ação Judicial removida com sucesso.");
         return "redirect:/analise/" + id + "#restricoes";
     }
@@ -492,6 +503,7 @@ public class AnaliseController {
             cheque.setDataOcorrencia(LocalDate.parse(dataOcorrencia));
         }
         chequeRepository.save(cheque);
+        notificarAlteracao(analise);
 
         redirectAttributes.addFlashAttribute("mensagem", "Cheque adicionado com sucesso.");
         return "redirect:/analise/" + id + "#restricoes";
@@ -502,10 +514,28 @@ public class AnaliseController {
                                 @PathVariable Long chequeId,
                                 RedirectAttributes redirectAttributes) {
         chequeRepository.deleteById(chequeId);
+        notificarAlteracao(id);
         redirectAttributes.addFlashAttribute("mensagem", "Cheque removido com sucesso.");
         return "redirect:/analise/" + id + "#restricoes";
     }
 
+    /**
+     * Publica a alteração do grupo da análise: restrições e score aparecem no card do Kanban.
+     */
+    private void notificarAlteracao(Analise analise) {
+        eventPublisher.publishEvent(GruposAlteradosEvent.de(analise.getGrupoEconomicoId()));
+    }
+
+    private void notificarAlteracao(Long analiseId) {
+        analiseRepository.findById(analiseId).ifPresent(this::notificarAlteracao);
+    }
+
+    private void notificarAlteracao(Cliente cliente) {
+        if (cliente != null && cliente.getGrupoEconomico() != null) {
+            eventPublisher.publishEvent(GruposAlteradosEvent.de(cliente.getGrupoEconomico().getId()));
+        }
+    }
+
     /**
      * Calcula o limite aprovado com base na decisão.
      *
@@ -594,6 +624,7 @@ public class AnaliseController {
 
             cliente.setScoreBoaVista(scoreBoaVista);
             clienteRepository.save(cliente);
+            notificarAlteracao(analise);
 
             redirectAttributes.addFlashAttribute("mensagem",
                     "Score atualizado com sucesso para " + scoreBoaVista);
@@ -636,6 +667,7 @@ public class AnaliseController {
             pefin.setQuantidade(quantidade);
 
             pefinRepository.save(pefin);
+            notificarAlteracao(analise);
 
             redirectAttributes.addFlashAttribute("mensagem",
                     "Registro Pefin adicionado com sucesso");
@@ -678,6 +710,7 @@ public class AnaliseController {
             protesto.setQuantidade(quantidade);
 
             protestoRepository.save(protesto);
+            notificarAlteracao(analise);
 
             redirectAttributes.addFlashAttribute("mensagem",
                     "Protesto adicionado com sucesso");
@@ -720,6 +753,7 @@ public class AnaliseController {
             acao.setQuantidade(quantidade);
 
             acaoJudicialRepository.save(acao);
+            notificarAlteracao(analise);
 
             redirectAttributes.addFlashAttribute("mensagem",
                     "Ação judicial adicionada com sucesso");
@@ -762,6 +796,7 @@ public class AnaliseController {
             cheque.setQuantidade(quantidade);
 
             chequeRepository.save(cheque);
+            notificarAlteracao(analise);
 
             redirectAttributes.addFlashAttribute("mensagem",
                     "Cheque sem fundo adicionado com sucesso");
@@ -793,24 +828,28 @@ public class AnaliseController {
                     Pefin pefin = pefinRepository.findById(id)
                             .orElseThrow(() -> new IllegalArgumentException("Pefin não encontrado"));
                     pefinRepository.delete(pefin);
+                    notificarAlteracao(pefin.getCliente());
                     redirectAttributes.addFlashAttribute("mensagem", "Pefin removido com sucesso");
                 }
                 case "protesto" -> {
                     Protesto protesto = protestoRepository.findById(id)
                             .orElseThrow(() -> new IllegalArgumentException("Protesto não encontrado"));
                     protestoRepository.delete(protesto);
+                    notificarAlteracao(protesto.getCliente());
                     redirectAttributes.addFlashAttribute("mensagem", "Protesto removido com sucesso");
                 }
                 case "acao" -> {
                     AcaoJudicial acao = acaoJudicialRepository.findById(id)
                             .orElseThrow(() -> new IllegalArgumentException("Ação judicial não encontrada"));
                     acaoJudicialRepository.delete(acao);
+                    notificarAlteracao(acao.getCliente());
                     redirectAttributes.addFlashAttribute("mensagem", "Ação judicial removida com sucesso");
                 }
                 case "cheque" -> {
                     Cheque cheque = chequeRepository.findById(id)
                             .orElseThrow(() -> new IllegalArgumentException("Cheque não encontrado"));
                     chequeRepository.delete(cheque);
+                    notificarAlteracao(cheque.getCliente());
                     redirectAttributes.addFlashAttribute("mensagem", "Cheque removido com sucesso");
                 }
                 default -> throw new IllegalArgumentException("Tipo de restrição inválido: " + tipo);
@@ -1,9 +1,11 @@
 package AnaliseCredito.Analise_de_Credito.presentation.controller;
 
+import AnaliseCredito.Analise_de_Credito.application.service.ConfiguracaoService;
+import AnaliseCredito.Analise_de_Credito.application.service.GruposAlteradosEvent;
 import AnaliseCredito.Analise_de_Credito.domain.model.Configuracao;
-import AnaliseCredito.Analise_de_Credito.infrastructure.persistence.ConfiguracaoRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.propertyeditors.CustomNumberEditor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.WebDataBinder;
@@ -25,7 +27,10 @@ import java.util.Locale;
 public class ConfiguracaoController {
 
     @Autowired
-    private ConfiguracaoRepository configuracaoRepository;
+    private ConfiguracaoService configuracaoService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     /**
      * GET /configuracao - Exibe o formulário de configuração
@@ -38,8 +43,7 @@ public class ConfiguracaoController {
 
     @GetMapping
     public String exibir(Model model) {
-        Configuracao config = configuracaoRepository.findById(1L)
-            .orElseThrow(() -> new RuntimeException("Configuração não encontrada"));
+        Configuracao config = configuracaoService.buscar();
 
         model.addAttribute("config", config);
         return "configuracao";
@@ -51,10 +55,11 @@ public class ConfiguracaoController {
     @PostMapping("/salvar")
     public String salvar(@ModelAttribute Configuracao config,
                         RedirectAttributes redirectAttributes) {
-        // Ensure ID is always 1 (singleton pattern)
-        config.setId(1L);
+        // Nova versão gravada; o cache (ConfiguracaoSnapshot) passa a servi-la após o commit
+        configuracaoService.salvar(config);
 
-        configuracaoRepository.save(config);
+        // Limites dos alertas podem ter mudado: remonta todos os cards do Kanban
+        eventPublisher.publishEvent(GruposAlteradosEvent.todos());
 
         redirectAttributes.addFlashAttribute("mensagem",
             "Configuração atualizada com sucesso!");
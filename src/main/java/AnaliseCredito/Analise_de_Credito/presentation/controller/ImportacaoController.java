@@ -1,49 +1,67 @@
 package AnaliseCredito.Analise_de_Credito.presentation.controller;
 
+import AnaliseCredito.Analise_de_Credito.application.service.ImportacaoJob;
+import AnaliseCredito.Analise_de_Credito.application.service.ImportacaoJobService;
 import AnaliseCredito.Analise_de_Credito.application.service.ImportacaoService;
-import AnaliseCredito.Analise_de_Credito.presentation.dto.ResultadoImportacao;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.util.List;
+import java.util.stream.Stream;
+
 /**
- * ImportacaoController - Controller para importação em massa via XLSX.
+ * ImportacaoController - Controller para importação em massa via XLSX ou CSV.
  *
- * Fornece interface web para upload e processamento de 4 arquivos XLSX:
- * 1. Clientes.xlsx
- * 2. Pedidos.xlsx
- * 3. DadosBI.xlsx
- * 4. Duplicatas.xlsx
+ * Fornece interface web para upload e processamento de 4 arquivos XLSX ou CSV
+ * (mesmas colunas nos dois formatos):
+ * 1. Clientes.xlsx / Clientes.csv
+ * 2. Pedidos.xlsx / Pedidos.csv
+ * 3. DadosBI.xlsx / DadosBI.csv
+ * 4. Duplicatas.xlsx / Duplicatas.csv
  *
  * ROTAS:
- * GET  /importacao           - Exibe formulário de upload
- * POST /importacao/processar - Processa os 4 arquivos
+ * GET  /importacao                   - Exibe formulário de upload
+ * POST /importacao/processar         - Enfileira a importação dos 4 arquivos (background)
+ * POST /importacao/validar           - Pré-validação (dry-run) dos 4 arquivos, sem gravar
+ * POST /importacao/bureau            - Enfileira restrições / sócios / participações (background)
+ * GET  /importacao/jobs/{id}         - Progresso / resultado da importação
+ * GET  /importacao/jobs/{id}/eventos - Progresso via Server-Sent Events
  *
  * VALIDAÇÕES:
  * - Todos os 4 arquivos são obrigatórios
- * - Formato deve ser XLSX (application/vnd.openxmlformats-officedocument.spreadsheetml.sheet)
+ * - Formato deve ser XLSX (application/vnd.openxmlformats-officedocument.spreadsheetml.sheet) ou CSV (text/csv)
  * - Validação de tipo MIME e extensão
  *
  * RESULTADO:
- * - Sucesso: Exibe página de resultado com estatísticas
+ * - Sucesso: Redireciona para a página do job (progresso ao vivo, depois estatísticas)
  * - Erro: Redireciona para formulário com mensagem de erro
  */
 @Controller
 @RequestMapping("/importacao")
 public class ImportacaoController {
 
+    @Autowired
+    private ImportacaoJobService importacaoJobService;
+
     @Autowired
     private ImportacaoService importacaoService;
 
     /**
      * GET /importacao
-     * Exibe formulário de upload de arquivos XLSX.
+     * Exibe formulário de upload de arquivos XLSX/CSV.
      */
     @GetMapping
     public String exibirFormulario() {
@@ -52,15 +70,15 @@ public class ImportacaoController {
 
     /**
      * POST /importacao/processar
-     * Processa os 4 arquivos XLSX e importa dados para o banco.
+     * Enfileira a importação dos 4 arquivos XLSX/CSV. O processamento roda em
+     * background; o usuário acompanha o progresso na página do job.
      *
      * @param clientes Arquivo Clientes.xlsx
      * @param pedidos Arquivo Pedidos.xlsx
      * @param dadosBI Arquivo DadosBI.xlsx
      * @param duplicatas Arquivo Duplicatas.xlsx
-     * @param model Model para resultado
      * @param redirectAttributes Atributos para redirect
-     * @return View de resultado ou redirect para formulário em caso de erro
+     * @return Redirect para a página do job ou para o formulário em caso de erro
      */
     @PostMapping("/processar")
     public String processar(
@@ -68,43 +86,167 @@ public class ImportacaoController {
             @RequestParam("pedidos") MultipartFile pedidos,
             @RequestParam("dadosBI") MultipartFile dadosBI,
             @RequestParam("duplicatas") MultipartFile duplicatas,
-            Model model,
             RedirectAttributes redirectAttributes) {
 
         try {
-            // 1. Validate files present
-            if (clientes.isEmpty() || pedidos.isEmpty() ||
-                dadosBI.isEmpty() || duplicatas.isEmpty()) {
-                redirectAttributes.addFlashAttribute("erro",
-                    "Todos os 4 arquivos são obrigatórios");
+            // 1-2. Validate files present and file types (XLSX or CSV)
+            String erro = validarUpload(clientes, pedidos, dadosBI, duplicatas);
+            if (erro != null) {
+                redirectAttributes.addFlashAttribute("erro", erro);
                 return "redirect:/importacao";
             }
 
-            // 2. Validate file types (XLSX)
-            if (!isXlsxFile(clientes) || !isXlsxFile(pedidos) ||
-                !isXlsxFile(dadosBI) || !isXlsxFile(duplicatas)) {
+            // 3. Queue import (single writer, runs in background)
+            ImportacaoJob job = importacaoJobService.enfileirar(
+                clientes, pedidos, dadosBI, duplicatas
+            );
+
+            return "redirect:/importacao/jobs/" + job.getId();
+
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("erro",
+                "Erro ao processar importação: " + e.getMessage());
+            return "redirect:/importacao";
+        }
+    }
+
+    /**
+     * POST /importacao/bureau
+     * Enfileira a importação em lote dos arquivos do bureau, chaveados por CNPJ.
+     * Cada arquivo é opcional (ao menos um); para cada cliente presente, os registros
+     * daquele tipo são substituídos pelos do arquivo.
+     *
+     * @param restricoes Pefin, Protesto, Ação Judicial e Cheque (coluna tipo)
+     * @param socios Sócios dos clientes
+     * @param participacoes Participações em outras empresas
+     * @return Redirect para a página do job ou para o formulário em caso de erro
+     */
+    @PostMapping("/bureau")
+    public String processarBureau(
+            @RequestParam(value = "restricoes", required = false) MultipartFile restricoes,
+            @RequestParam(value = "socios", required = false) MultipartFile socios,
+            @RequestParam(value = "participacoes", required = false) MultipartFile participacoes,
+            RedirectAttributes redirectAttributes) {
+
+        try {
+            List<MultipartFile> enviados = Stream.of(restricoes, socios, participacoes)
+                .filter(file -> file != null && !file.isEmpty())
+                .toList();
+            if (enviados.isEmpty()) {
                 redirectAttributes.addFlashAttribute("erro",
-                    "Todos os arquivos devem ser XLSX");
+                    "Envie ao menos um arquivo do bureau (Restrições, Sócios ou Participações)");
+                return "redirect:/importacao";
+            }
+            if (!enviados.stream().allMatch(this::isFormatoAceito)) {
+                redirectAttributes.addFlashAttribute("erro",
+                    "Todos os arquivos devem ser XLSX ou CSV");
                 return "redirect:/importacao";
             }
 
-            // 3. Process import
-            ResultadoImportacao resultado = importacaoService.processar(
-                clientes, pedidos, dadosBI, duplicatas
-            );
+            ImportacaoJob job = importacaoJobService.enfileirarBureau(restricoes, socios, participacoes);
+            return "redirect:/importacao/jobs/" + job.getId();
 
-            // 4. Add to model for display
-            model.addAttribute("resultado", resultado);
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("erro",
+                "Erro ao processar importação do bureau: " + e.getMessage());
+            return "redirect:/importacao";
+        }
+    }
 
-            return "importacao-resultado";
+    /**
+     * POST /importacao/validar
+     * Pré-validação dos 4 arquivos: parse, colunas, Bean Validation, referências
+     * (CNPJ do pedido/duplicata, grupo do DadosBI) e chaves repetidas.
+     * Roda na requisição, sem transação de escrita; nada é gravado.
+     *
+     * @return Página com o relatório por arquivo, ou formulário em caso de erro
+     */
+    @PostMapping("/validar")
+    public String validar(
+            @RequestParam("clientes") MultipartFile clientes,
+            @RequestParam("pedidos") MultipartFile pedidos,
+            @RequestParam("dadosBI") MultipartFile dadosBI,
+            @RequestParam("duplicatas") MultipartFile duplicatas,
+            Model model,
+            RedirectAttributes redirectAttributes) {
 
+        String erro = validarUpload(clientes, pedidos, dadosBI, duplicatas);
+        if (erro != null) {
+            redirectAttributes.addFlashAttribute("erro", erro);
+            return "redirect:/importacao";
+        }
+
+        try {
+            model.addAttribute("relatorio", importacaoService.validar(clientes, pedidos, dadosBI, duplicatas));
+            return "importacao-validacao";
         } catch (Exception e) {
             redirectAttributes.addFlashAttribute("erro",
-                "Erro ao processar importação: " + e.getMessage());
+                "Erro ao validar arquivos: " + e.getMessage());
             return "redirect:/importacao";
         }
     }
 
+    /**
+     * GET /importacao/jobs/{id}
+     * Exibe o progresso da importação e, quando concluída, o resultado.
+     */
+    @GetMapping("/jobs/{id}")
+    public String acompanhar(@PathVariable String id, Model model, RedirectAttributes redirectAttributes) {
+        ImportacaoJob job = importacaoJobService.buscar(id).orElse(null);
+        if (job == null) {
+            redirectAttributes.addFlashAttribute("erro", "Importação não encontrada ou expirada");
+            return "redirect:/importacao";
+        }
+
+        model.addAttribute("job", job);
+        model.addAttribute("resultado", job.getResultado());
+        model.addAttribute("posicaoNaFila", importacaoJobService.posicaoNaFila(job));
+        return "importacao-resultado";
+    }
+
+    /**
+     * GET /importacao/jobs/{id}/eventos
+     * Stream SSE de progresso: eventos "progresso" a cada segundo e "concluido" ao final.
+     */
+    @GetMapping(value = "/jobs/{id}/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public SseEmitter eventos(@PathVariable String id) {
+        ImportacaoJob job = importacaoJobService.buscar(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Importação não encontrada"));
+        return importacaoJobService.acompanhar(job);
+    }
+
+    /**
+     * Todos os 4 arquivos presentes e em formato aceito.
+     *
+     * @return Mensagem de erro, ou null se o upload é válido
+     */
+    private String validarUpload(MultipartFile clientes, MultipartFile pedidos,
+                                 MultipartFile dadosBI, MultipartFile duplicatas) {
+        if (clientes.isEmpty() || pedidos.isEmpty() ||
+            dadosBI.isEmpty() || duplicatas.isEmpty()) {
+            return "Todos os 4 arquivos são obrigatórios";
+        }
+        if (!isFormatoAceito(clientes) || !isFormatoAceito(pedidos) ||
+            !isFormatoAceito(dadosBI) || !isFormatoAceito(duplicatas)) {
+            return "Todos os arquivos devem ser XLSX ou CSV";
+        }
+        return null;
+    }
+
+    private boolean isFormatoAceito(MultipartFile file) {
+        return isXlsxFile(file) || isCsvFile(file);
+    }
+
+    /**
+     * Valida se o arquivo é CSV pela extensão (o content type enviado
+     * pelos navegadores para CSV varia: text/csv, application/vnd.ms-excel...).
+     */
+    private boolean isCsvFile(MultipartFile file) {
+        String filename = file.getOriginalFilename();
+        return filename != null && filename.toLowerCase().endsWith(".csv");
+    }
+
     /**
      * Valida se o arquivo é XLSX.
      * Verifica tanto o content type quanto a extensão do arquivo.
@@ -118,6 +260,6 @@ public class ImportacaoController {
 
         return (contentType != null &&
                 contentType.equals("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")) ||
-               (filename != null && filename.endsWith(".xlsx"));
+               (filename != null && filename.toLowerCase().endsWith(".xlsx"));
     }
 }
@@ -1,28 +1,30 @@
 package AnaliseCredito.Analise_de_Credito.presentation.controller;
 
-import AnaliseCredito.Analise_de_Credito.application.service.AlertaService;
+import AnaliseCredito.Analise_de_Credito.application.service.IndiceBuscaService;
+import AnaliseCredito.Analise_de_Credito.application.service.KanbanEventosService;
 import AnaliseCredito.Analise_de_Credito.application.service.WorkflowService;
 import AnaliseCredito.Analise_de_Credito.domain.enums.StatusWorkflow;
 import AnaliseCredito.Analise_de_Credito.domain.enums.TipoWorkflow;
 import AnaliseCredito.Analise_de_Credito.domain.model.Analise;
-import AnaliseCredito.Analise_de_Credito.domain.model.Cliente;
-import AnaliseCredito.Analise_de_Credito.domain.model.GrupoEconomico;
-import AnaliseCredito.Analise_de_Credito.domain.model.Pedido;
+import AnaliseCredito.Analise_de_Credito.domain.model.KanbanCard;
 import AnaliseCredito.Analise_de_Credito.infrastructure.persistence.AnaliseRepository;
-import AnaliseCredito.Analise_de_Credito.infrastructure.persistence.GrupoEconomicoRepository;
-import AnaliseCredito.Analise_de_Credito.infrastructure.persistence.PedidoRepository;
+import AnaliseCredito.Analise_de_Credito.infrastructure.persistence.KanbanCardRepository;
+import AnaliseCredito.Analise_de_Credito.presentation.dto.ColunaKanbanDTO;
 import AnaliseCredito.Analise_de_Credito.presentation.dto.GrupoKanbanDTO;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Controller;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * KanbanController - Controlador do dashboard Kanban de análises.
@@ -30,9 +32,11 @@ import java.util.stream.Collectors;
  * Responsabilidades:
  * 1. Exibir dashboard com análises agrupadas por GRUPO ECONÔMICO, workflow e status
  * 2. Filtrar análises por tipo (BASE_PRAZO, CLIENTE_NOVO, TODOS)
- * 3. Calcular alertas consolidados para cada grupo
+ * 3. Ler os cards consolidados por grupo da projeção kanban_card (KanbanProjecaoService),
+ *    paginados por coluna (primeira página na tela, demais via HTMX)
  * 4. Gerenciar drag-and-drop de cards entre colunas via HTMX
  * 5. Atualizar status de análises via transições do workflow
+ * 6. Manter os quadros abertos atualizados em tempo real (SSE + troca só dos cards alterados)
  *
  * IMPORTANTE: Este é o coração da aplicação - onde os analistas visualizam
  * e gerenciam o pipeline de análise de crédito.
@@ -48,22 +52,68 @@ public class KanbanController {
     private AnaliseRepository analiseRepository;
 
     @Autowired
-    private PedidoRepository pedidoRepository;
+    private KanbanCardRepository kanbanCardRepository;
 
     @Autowired
-    private GrupoEconomicoRepository grupoEconomicoRepository;
+    private WorkflowService workflowService;
 
     @Autowired
-    private AlertaService alertaService;
+    private KanbanEventosService kanbanEventosService;
 
     @Autowired
-    private WorkflowService workflowService;
+    private IndiceBuscaService indiceBuscaService;
+
+    /**
+     * Cards por página de coluna (primeira carga e cada "carregar mais")
+     */
+    private static final int CARDS_POR_PAGINA = 30;
+
+    /**
+     * Colunas exibidas no quadro, por workflow, na ordem do template
+     */
+    private static final Map<TipoWorkflow, List<StatusWorkflow>> COLUNAS = Map.of(
+        TipoWorkflow.BASE_PRAZO, List.of(
+            StatusWorkflow.PENDENTE,
+            StatusWorkflow.EM_ANALISE_FINANCEIRO,
+            StatusWorkflow.PARECER_APROVADO,
+            StatusWorkflow.PARECER_REPROVADO,
+            StatusWorkflow.FINALIZADO),
+        TipoWorkflow.CLIENTE_NOVO, List.of(
+            StatusWorkflow.PENDENTE,
+            StatusWorkflow.DOCUMENTACAO_SOLICITADA,
+            StatusWorkflow.DOCUMENTACAO_ENVIADA,
+            StatusWorkflow.PARECER_APROVADO,
+            StatusWorkflow.PARECER_REPROVADO,
+            StatusWorkflow.FINALIZADO)
+    );
+
+    /**
+     * Filtros do quadro já convertidos para os parâmetros das queries (null = sem filtro).
+     * diasAnalise vira um intervalo de dataInicio (dias em análise = hoje - dataInicio).
+     * busca vira a lista de grupos do IndiceBuscaService (filtrarGrupos) ou, para termos
+     * curtos/amplos demais, o termo normalizado para o LIKE em textoBusca.
+     */
+    private record FiltrosKanban(String uf, BigDecimal valorMin, BigDecimal valorMax, String busca,
+                                 boolean filtrarGrupos, Collection<Long> gruposBusca,
+                                 LocalDateTime inicioApos, LocalDateTime inicioAte) {
+    }
+
+    /**
+     * gruposBusca quando a busca não restringe grupos (a lista do IN nunca pode ser vazia;
+     * nenhum grupo tem ID 0)
+     */
+    private static final List<Long> NENHUM_GRUPO = List.of(0L);
 
     /**
      * GET /analise/kanban - Exibe o dashboard Kanban.
      *
-     * NOVA IMPLEMENTAÇÃO: Agrupa análises por GRUPO ECONÔMICO ao invés de pedidos individuais.
-     * Cada card do Kanban representa um grupo com múltiplos pedidos consolidados.
+     * Cada card do Kanban representa um grupo com múltiplos pedidos consolidados (por workflow).
+     * Os cards vêm prontos da projeção kanban_card. Cada coluna traz só a primeira página
+     * (CARDS_POR_PAGINA cards) e os totais da coluna; o restante é carregado sob demanda
+     * por GET /analise/kanban/coluna (HTMX, ao rolar até o fim da coluna).
+     *
+     * Custo fixo de 2 consultas por abertura (totais agrupados + primeiras páginas de
+     * todas as colunas), independente do tamanho do quadro.
      *
      * @param filtro Filtro de workflow: PRAZO (BASE_PRAZO), NOVO (CLIENTE_NOVO), TODOS (padrão)
      * @param session Sessão HTTP contendo o perfil do usuário (FINANCEIRO ou COMERCIAL)
@@ -85,165 +135,43 @@ public class KanbanController {
             perfil = "FINANCEIRO"; // Fallback
         }
 
-        // Parse faixaValor into min/max BigDecimal
-        BigDecimal valorMin = null;
-        BigDecimal valorMax = null;
-
-        if (faixaValor != null && !faixaValor.isEmpty()) {
-            switch (faixaValor) {
-                case "ATE_20K":
-                    valorMin = BigDecimal.ZERO;
-                    valorMax = new BigDecimal("20000");
-                    break;
-                case "20K_50K":
-                    valorMin = new BigDecimal("20000");
-                    valorMax = new BigDecimal("50000");
-                    break;
-                case "50K_100K":
-                    valorMin = new BigDecimal("50000");
-                    valorMax = new BigDecimal("100000");
-                    break;
-                case "ACIMA_100K":
-                    valorMin = new BigDecimal("100000");
-                    valorMax = null; // No upper limit
-                    break;
-            }
-        }
-
-        // Buscar análises com filtros aplicados (exceto diasAnalise que é calculado)
-        List<Analise> analises = analiseRepository.findAllWithFiltersAndFetch(uf, valorMin, valorMax, busca);
-
-        // Aplicar filtro de workflow se necessário
-        if ("PRAZO".equals(filtro)) {
-            analises = analises.stream()
-                .filter(a -> TipoWorkflow.BASE_PRAZO.equals(a.getPedido().getWorkflow()))
-                .collect(Collectors.toList());
-        } else if ("NOVO".equals(filtro)) {
-            analises = analises.stream()
-                .filter(a -> TipoWorkflow.CLIENTE_NOVO.equals(a.getPedido().getWorkflow()))
-                .collect(Collectors.toList());
-        }
-
-        // Calcular diasEmAnalise e filtrar por SLA se necessário
         LocalDateTime hoje = LocalDateTime.now();
-        if (diasAnalise != null) {
-            analises = analises.stream()
-                .filter(a -> {
-                    long dias = java.time.Duration.between(a.getDataInicio(), hoje).toDays();
-                    if (diasAnalise == 0) {
-                        return dias < 1; // Menos de 1 dia
-                    } else if (diasAnalise == 1) {
-                        return dias >= 1 && dias < 3; // 1-2 dias
-                    } else if (diasAnalise == 3) {
-                        return dias >= 3; // 3+ dias (atrasado)
-                    }
-                    return true;
-                })
-                .collect(Collectors.toList());
-        }
+        FiltrosKanban filtros = montarFiltros(uf, faixaValor, diasAnalise, busca, hoje);
 
-        // Calcular alertas para cada pedido (necessário antes do agrupamento)
-        for (Analise analise : analises) {
-            Pedido pedido = analise.getPedido();
-            List<String> alerts = alertaService.calcularAlertas(pedido);
-            pedido.setAlerts(alerts);
-        }
+        List<TipoWorkflow> workflows = workflowsDoFiltro(filtro);
+        Map<TipoWorkflow, Map<StatusWorkflow, KanbanCardRepository.TotalColuna>> totais = totalizar(workflows, filtros);
 
-        // PASSO 1: Agrupar análises por GrupoEconomico
-        Map<Long, List<Analise>> analisesPorGrupo = analises.stream()
-            .collect(Collectors.groupingBy(a -> a.getPedido().getCliente().getGrupoEconomico().getId()));
-
-        // PASSO 2: Criar GrupoKanbanDTO para cada grupo
-        List<GrupoKanbanDTO> gruposKanban = new ArrayList<>();
-
-        for (Map.Entry<Long, List<Analise>> entry : analisesPorGrupo.entrySet()) {
-            Long grupoId = entry.getKey();
-            List<Analise> analisesDoGrupo = entry.getValue();
-
-            // Buscar GrupoEconomico
-            GrupoEconomico grupo = grupoEconomicoRepository.findById(grupoId)
-                .orElseThrow(() -> new IllegalStateException("Grupo não encontrado: " + grupoId));
-
-            // Coletar dados consolidados
-            List<String> clientesRazaoSocial = analisesDoGrupo.stream()
-                .map(a -> a.getPedido().getCliente().getRazaoSocial())
-                .distinct()
-                .collect(Collectors.toList());
-
-            List<Long> analiseIds = analisesDoGrupo.stream()
-                .map(Analise::getId)
-                .collect(Collectors.toList());
-
-            BigDecimal valorTotal = analisesDoGrupo.stream()
-                .map(a -> a.getPedido().getValor())
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-            // Pior score (menor) entre os clientes do grupo
-            Integer piorScore = analisesDoGrupo.stream()
-                .map(a -> a.getPedido().getCliente().getScoreBoaVista())
-                .filter(Objects::nonNull)
-                .min(Integer::compareTo)
-                .orElse(null);
-
-            // Alertas consolidados (união de todos os alertas)
-            List<String> alertasConsolidados = analisesDoGrupo.stream()
-                .flatMap(a -> a.getPedido().getAlerts().stream())
-                .distinct()
-                .collect(Collectors.toList());
-
-            // Status e workflow do pedido mais antigo (primeira análise criada)
-            Analise analisePrincipal = analisesDoGrupo.stream()
-                .min(Comparator.comparing(Analise::getDataInicio))
-                .orElse(analisesDoGrupo.get(0));
-
-            StatusWorkflow status = analisePrincipal.getStatusWorkflow();
-            TipoWorkflow workflow = analisePrincipal.getPedido().getWorkflow();
-
-            // Calcular diasEmAnalise (da análise principal)
-            Integer diasEmAnalise = (int) java.time.Duration.between(analisePrincipal.getDataInicio(), hoje).toDays();
-
-            // UF do primeiro cliente
-            String ufGrupo = analisesDoGrupo.get(0).getPedido().getCliente().getEstado();
-
-            // Construir DTO
-            GrupoKanbanDTO grupoDTO = GrupoKanbanDTO.builder()
-                .grupoEconomicoId(grupoId)
-                .grupoNome(grupo.getNome())
-                .grupoCodigo(grupo.getCodigo())
-                .clientesRazaoSocial(clientesRazaoSocial)
-                .analiseIds(analiseIds)
-                .quantidadePedidos(analisesDoGrupo.size())
-                .valorTotal(valorTotal)
-                .piorScore(piorScore)
-                .alertasConsolidados(alertasConsolidados)
-                .status(status)
-                .workflow(workflow)
-                .analisePrincipalId(analisePrincipal.getId())
-                .diasEmAnalise(diasEmAnalise)
-                .uf(ufGrupo)
-                .build();
-
-            gruposKanban.add(grupoDTO);
+        // Primeira página de todas as colunas exibidas em uma única query
+        Set<String> statusExibidos = new LinkedHashSet<>();
+        for (TipoWorkflow workflow : workflows) {
+            COLUNAS.getOrDefault(workflow, List.of()).forEach(status -> statusExibidos.add(status.name()));
+        }
+        Map<TipoWorkflow, Map<StatusWorkflow, List<KanbanCard>>> paginas = new EnumMap<>(TipoWorkflow.class);
+        for (KanbanCard card : kanbanCardRepository.findPrimeirasPaginas(
+                workflows.stream().map(TipoWorkflow::name).toList(), statusExibidos,
+                filtros.uf(), filtros.valorMin(), filtros.valorMax(), filtros.busca(),
+                filtros.filtrarGrupos(), filtros.gruposBusca(),
+                filtros.inicioApos(), filtros.inicioAte(), CARDS_POR_PAGINA + 1)) {
+            paginas.computeIfAbsent(card.getWorkflow(), k -> new EnumMap<>(StatusWorkflow.class))
+                .computeIfAbsent(card.getStatus(), k -> new ArrayList<>())
+                .add(card);
         }
 
-        // PASSO 3: Agrupar GrupoKanbanDTO por workflow e status
-        Map<TipoWorkflow, Map<StatusWorkflow, List<GrupoKanbanDTO>>> kanbanData = new EnumMap<>(TipoWorkflow.class);
-
-        // Inicializar estrutura para BASE_PRAZO
-        Map<StatusWorkflow, List<GrupoKanbanDTO>> basePrazoMap = new EnumMap<>(StatusWorkflow.class);
-        kanbanData.put(TipoWorkflow.BASE_PRAZO, basePrazoMap);
-
-        // Inicializar estrutura para CLIENTE_NOVO
-        Map<StatusWorkflow, List<GrupoKanbanDTO>> clienteNovoMap = new EnumMap<>(StatusWorkflow.class);
-        kanbanData.put(TipoWorkflow.CLIENTE_NOVO, clienteNovoMap);
+        Map<TipoWorkflow, Map<StatusWorkflow, ColunaKanbanDTO>> kanbanData = new EnumMap<>(TipoWorkflow.class);
+        for (TipoWorkflow workflow : TipoWorkflow.values()) {
+            Map<StatusWorkflow, ColunaKanbanDTO> colunas = new EnumMap<>(StatusWorkflow.class);
+            kanbanData.put(workflow, colunas);
 
-        // Agrupar os DTOs
-        for (GrupoKanbanDTO grupoDTO : gruposKanban) {
-            TipoWorkflow workflow = grupoDTO.getWorkflow();
-            StatusWorkflow status = grupoDTO.getStatus();
+            if (!workflows.contains(workflow)) {
+                continue;
+            }
 
-            Map<StatusWorkflow, List<GrupoKanbanDTO>> workflowMap = kanbanData.get(workflow);
-            workflowMap.computeIfAbsent(status, k -> new ArrayList<>()).add(grupoDTO);
+            for (StatusWorkflow status : COLUNAS.getOrDefault(workflow, List.of())) {
+                List<KanbanCard> cards = paginas.getOrDefault(workflow, Map.of()).getOrDefault(status, List.of());
+                ColunaKanbanDTO coluna = montarColuna(workflow, status, cards, hoje);
+                aplicarTotal(coluna, totais);
+                colunas.put(status, coluna);
+            }
         }
 
         // Build UF list for dropdown (distinct states from all clients)
@@ -259,10 +187,7 @@ public class KanbanController {
         model.addAttribute("tipoWorkflowValues", TipoWorkflow.values());
 
         // Filter state
-        model.addAttribute("ufSelecionado", uf);
-        model.addAttribute("faixaValorSelecionado", faixaValor);
-        model.addAttribute("diasAnaliseSelecionado", diasAnalise);
-        model.addAttribute("buscaSelecionado", busca != null ? busca : "");
+        adicionarFiltros(model, uf, faixaValor, diasAnalise, busca);
         model.addAttribute("ufs", ufs);
 
         // Passar enums individuais para evitar uso de T() no template
@@ -293,6 +218,280 @@ public class KanbanController {
         return "kanban";
     }
 
+    /**
+     * GET /analise/kanban/coluna - Próxima página de uma coluna (HTMX "carregar mais").
+     *
+     * Paginação por chave: recebe a chave (dataInicio, id) do último card exibido
+     * e devolve os cards seguintes, mais o gatilho da página seguinte se houver.
+     *
+     * @param workflow Workflow da coluna
+     * @param status Status da coluna
+     * @param depoisData dataInicio do último card exibido
+     * @param depoisId id do último card exibido
+     * @return Fragmento com os cards da página
+     */
+    @Transactional(readOnly = true)
+    @GetMapping("/kanban/coluna")
+    public String coluna(@RequestParam TipoWorkflow workflow,
+                         @RequestParam StatusWorkflow status,
+                         @RequestParam(required = false) String uf,
+                         @RequestParam(required = false) String faixaValor,
+                         @RequestParam(required = false) Integer diasAnalise,
+                         @RequestParam(required = false) String busca,
+                         @RequestParam(required = false)
+                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime depoisData,
+                         @RequestParam(required = false) Long depoisId,
+                         Model model) {
+
+        LocalDateTime hoje = LocalDateTime.now();
+        FiltrosKanban filtros = montarFiltros(uf, faixaValor, diasAnalise, busca, hoje);
+
+        model.addAttribute("coluna", carregarPagina(workflow, status, filtros, depoisData, depoisId, hoje));
+        adicionarFiltros(model, uf, faixaValor, diasAnalise, busca);
+
+        return "kanban-coluna";
+    }
+
+    /**
+     * GET /analise/kanban/eventos - Canal SSE de atualizações do quadro.
+     *
+     * Envia um evento "cards" com os grupos cujos cards mudaram (transição, limite,
+     * importação, configuração); o quadro busca só esses cards em /analise/kanban/cards.
+     *
+     * @return Conexão SSE
+     */
+    @GetMapping(value = "/kanban/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public SseEmitter eventos() {
+        return kanbanEventosService.inscrever();
+    }
+
+    /**
+     * GET /analise/kanban/cards - Cards atualizados de alguns grupos (delta do SSE).
+     *
+     * Devolve, com os filtros do quadro, os cards atuais dos grupos e os totais de todas
+     * as colunas exibidas. O quadro remove os cards antigos desses grupos e insere os
+     * devolvidos na coluna e posição certas; grupo sem card devolvido saiu do quadro.
+     *
+     * @param grupoIds IDs dos grupos alterados
+     * @return Fragmento com os cards e os totais das colunas
+     */
+    @Transactional(readOnly = true)
+    @GetMapping("/kanban/cards")
+    public String cards(@RequestParam List<Long> grupoIds,
+                        @RequestParam(required = false, defaultValue = "TODOS") String filtro,
+                        @RequestParam(required = false) String uf,
+                        @RequestParam(required = false) String faixaValor,
+                        @RequestParam(required = false) Integer diasAnalise,
+                        @RequestParam(required = false) String busca,
+                        Model model) {
+
+        LocalDateTime hoje = LocalDateTime.now();
+        FiltrosKanban filtros = montarFiltros(uf, faixaValor, diasAnalise, busca, hoje);
+        List<TipoWorkflow> workflows = workflowsDoFiltro(filtro);
+
+        List<GrupoKanbanDTO> cards = new ArrayList<>();
+        if (!grupoIds.isEmpty()) {
+            for (KanbanCard card : kanbanCardRepository.findCardsDosGrupos(grupoIds, workflows,
+                    filtros.uf(), filtros.valorMin(), filtros.valorMax(), filtros.busca(),
+                    filtros.filtrarGrupos(), filtros.gruposBusca(),
+                    filtros.inicioApos(), filtros.inicioAte())) {
+                cards.add(toDTO(card, hoje));
+            }
+        }
+
+        // Totais de todas as colunas exibidas (zeradas inclusive)
+        Map<TipoWorkflow, Map<StatusWorkflow, KanbanCardRepository.TotalColuna>> totais = totalizar(workflows, filtros);
+        List<ColunaKanbanDTO> colunas = new ArrayList<>();
+        for (TipoWorkflow workflow : workflows) {
+            for (StatusWorkflow status : COLUNAS.getOrDefault(workflow, List.of())) {
+                ColunaKanbanDTO coluna = ColunaKanbanDTO.builder().workflow(workflow).status(status).build();
+                aplicarTotal(coluna, totais);
+                colunas.add(coluna);
+            }
+        }
+
+        model.addAttribute("cards", cards);
+        model.addAttribute("colunas", colunas);
+        return "kanban-delta";
+    }
+
+    /**
+     * Workflows exibidos pelo filtro: PRAZO/NOVO consultam só o escolhido, TODOS consulta todos.
+     * Vai para as queries como lista do IN (workflow = ? sem o "OR :workflow IS NULL",
+     * que impede o uso do índice da coluna).
+     */
+    private List<TipoWorkflow> workflowsDoFiltro(String filtro) {
+        return switch (filtro) {
+            case "PRAZO" -> List.of(TipoWorkflow.BASE_PRAZO);
+            case "NOVO" -> List.of(TipoWorkflow.CLIENTE_NOVO);
+            default -> List.of(TipoWorkflow.values());
+        };
+    }
+
+    /**
+     * Totais de todas as colunas em uma query agrupada.
+     */
+    private Map<TipoWorkflow, Map<StatusWorkflow, KanbanCardRepository.TotalColuna>> totalizar(
+            List<TipoWorkflow> workflows, FiltrosKanban filtros) {
+        Map<TipoWorkflow, Map<StatusWorkflow, KanbanCardRepository.TotalColuna>> totais = new EnumMap<>(TipoWorkflow.class);
+        for (KanbanCardRepository.TotalColuna total : kanbanCardRepository.totalizarColunas(
+                workflows, filtros.uf(), filtros.valorMin(), filtros.valorMax(), filtros.busca(),
+                filtros.filtrarGrupos(), filtros.gruposBusca(),
+                filtros.inicioApos(), filtros.inicioAte())) {
+            totais.computeIfAbsent(total.getWorkflow(), k -> new EnumMap<>(StatusWorkflow.class))
+                .put(total.getStatus(), total);
+        }
+        return totais;
+    }
+
+    private void aplicarTotal(ColunaKanbanDTO coluna,
+                              Map<TipoWorkflow, Map<StatusWorkflow, KanbanCardRepository.TotalColuna>> totais) {
+        KanbanCardRepository.TotalColuna total = totais.getOrDefault(coluna.getWorkflow(), Map.of()).get(coluna.getStatus());
+        if (total != null) {
+            coluna.setQuantidade(total.getQuantidade());
+            coluna.setValorTotal(total.getValorTotal());
+        }
+    }
+
+    /**
+     * Converte os parâmetros da tela nos filtros das queries.
+     */
+    private FiltrosKanban montarFiltros(String uf, String faixaValor, Integer diasAnalise, String busca,
+                                        LocalDateTime hoje) {
+        // Parse faixaValor into min/max BigDecimal
+        BigDecimal valorMin = null;
+        BigDecimal valorMax = null;
+
+        if (faixaValor != null && !faixaValor.isEmpty()) {
+            switch (faixaValor) {
+                case "ATE_20K":
+                    valorMin = BigDecimal.ZERO;
+                    valorMax = new BigDecimal("20000");
+                    break;
+                case "20K_50K":
+                    valorMin = new BigDecimal("20000");
+                    valorMax = new BigDecimal("50000");
+                    break;
+                case "50K_100K":
+                    valorMin = new BigDecimal("50000");
+                    valorMax = new BigDecimal("100000");
+                    break;
+                case "ACIMA_100K":
+                    valorMin = new BigDecimal("100000");
+                    valorMax = null; // No upper limit
+                    break;
+            }
+        }
+
+        // SLA: menos de 1 dia, 1-2 dias, 3+ dias (atrasado)
+        LocalDateTime inicioApos = null;
+        LocalDateTime inicioAte = null;
+        if (diasAnalise != null) {
+            if (diasAnalise == 0) {
+                inicioApos = hoje.minusDays(1);
+            } else if (diasAnalise == 1) {
+                inicioApos = hoje.minusDays(3);
+                inicioAte = hoje.minusDays(1);
+            } else if (diasAnalise == 3) {
+                inicioAte = hoje.minusDays(3);
+            }
+        }
+
+        String ufFiltro = uf != null && !uf.isBlank() ? uf : null;
+
+        // Busca: grupos do índice de trigramas; sem índice aplicável, LIKE no texto do card
+        String termo = null;
+        boolean filtrarGrupos = false;
+        Collection<Long> gruposBusca = NENHUM_GRUPO;
+        if (busca != null && !busca.isBlank()) {
+            IndiceBuscaService.ResultadoBusca resultado = indiceBuscaService.buscar(busca.trim());
+            if (resultado.usaIndice()) {
+                filtrarGrupos = true;
+                gruposBusca = resultado.grupoIds().isEmpty() ? NENHUM_GRUPO : resultado.grupoIds();
+            } else {
+                termo = resultado.termo();
+            }
+        }
+        return new FiltrosKanban(ufFiltro, valorMin, valorMax, termo, filtrarGrupos, gruposBusca,
+            inicioApos, inicioAte);
+    }
+
+    /**
+     * Busca uma página da coluna (um card a mais para saber se há página seguinte).
+     */
+    private ColunaKanbanDTO carregarPagina(TipoWorkflow workflow, StatusWorkflow status, FiltrosKanban filtros,
+                                           LocalDateTime depoisData, Long depoisId, LocalDateTime hoje) {
+        List<KanbanCard> cards = kanbanCardRepository.findPaginaColuna(workflow, status,
+            filtros.uf(), filtros.valorMin(), filtros.valorMax(), filtros.busca(),
+            filtros.filtrarGrupos(), filtros.gruposBusca(),
+            filtros.inicioApos(), filtros.inicioAte(),
+            depoisData, depoisId, Limit.of(CARDS_POR_PAGINA + 1));
+
+        return montarColuna(workflow, status, cards, hoje);
+    }
+
+    /**
+     * Monta a coluna a partir de até CARDS_POR_PAGINA + 1 cards (o excedente só indica
+     * que há página seguinte).
+     */
+    private ColunaKanbanDTO montarColuna(TipoWorkflow workflow, StatusWorkflow status, List<KanbanCard> cards,
+                                         LocalDateTime hoje) {
+        boolean temMais = cards.size() > CARDS_POR_PAGINA;
+        if (temMais) {
+            cards = cards.subList(0, CARDS_POR_PAGINA);
+        }
+
+        ColunaKanbanDTO coluna = ColunaKanbanDTO.builder()
+            .workflow(workflow)
+            .status(status)
+            .temMais(temMais)
+            .build();
+        for (KanbanCard card : cards) {
+            coluna.getCards().add(toDTO(card, hoje));
+        }
+        if (!cards.isEmpty()) {
+            KanbanCard ultimo = cards.get(cards.size() - 1);
+            coluna.setProximoDataInicio(ultimo.getDataInicio());
+            coluna.setProximoId(ultimo.getId());
+        }
+        return coluna;
+    }
+
+    /**
+     * Estado dos filtros na tela (formulário e links de "carregar mais").
+     */
+    private void adicionarFiltros(Model model, String uf, String faixaValor, Integer diasAnalise, String busca) {
+        model.addAttribute("ufSelecionado", uf);
+        model.addAttribute("faixaValorSelecionado", faixaValor);
+        model.addAttribute("diasAnaliseSelecionado", diasAnalise);
+        model.addAttribute("buscaSelecionado", busca != null ? busca : "");
+    }
+
+    /**
+     * Converte um card da projeção no DTO do template; dias em análise calculados agora.
+     */
+    private GrupoKanbanDTO toDTO(KanbanCard card, LocalDateTime hoje) {
+        return GrupoKanbanDTO.builder()
+            .grupoEconomicoId(card.getGrupoEconomicoId())
+            .grupoNome(card.getGrupoNome())
+            .grupoCodigo(card.getGrupoCodigo())
+            .clientesRazaoSocial(card.getClientesRazaoSocial())
+            .analiseIds(card.getAnaliseIds())
+            .quantidadePedidos(card.getQuantidadePedidos())
+            .valorTotal(card.getValorTotal())
+            .piorScore(card.getPiorScore())
+            .alertasConsolidados(card.getAlertas())
+            .status(card.getStatus())
+            .workflow(card.getWorkflow())
+            .analisePrincipalId(card.getAnalisePrincipalId())
+            .diasEmAnalise((int) java.time.Duration.between(card.getDataInicio(), hoje).toDays())
+            .uf(card.getUf())
+            .cardId(card.getId())
+            .dataInicio(card.getDataInicio())
+            .build();
+    }
+
     /**
      * POST /analise/{id}/status - Atualiza o status de uma análise via HTMX.
      *
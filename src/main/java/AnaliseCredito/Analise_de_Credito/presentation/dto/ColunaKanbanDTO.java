@@ -0,0 +1,57 @@
+package AnaliseCredito.Analise_de_Credito.presentation.dto;
+
+import AnaliseCredito.Analise_de_Credito.domain.enums.StatusWorkflow;
+import AnaliseCredito.Analise_de_Credito.domain.enums.TipoWorkflow;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO de uma coluna do Kanban (workflow × status): uma página de cards
+ * mais os totais da coluna inteira com os filtros aplicados.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ColunaKanbanDTO {
+
+    private TipoWorkflow workflow;
+
+    private StatusWorkflow status;
+
+    /**
+     * Cards desta página
+     */
+    @Builder.Default
+    private List<GrupoKanbanDTO> cards = new ArrayList<>();
+
+    /**
+     * Quantidade de cards da coluna (todas as páginas)
+     */
+    private long quantidade;
+
+    /**
+     * Soma do valor dos cards da coluna (todas as páginas)
+     */
+    @Builder.Default
+    private BigDecimal valorTotal = BigDecimal.ZERO;
+
+    /**
+     * Existe página seguinte
+     */
+    private boolean temMais;
+
+    /**
+     * Chave do último card da página (cursor da próxima)
+     */
+    private LocalDateTime proximoDataInicio;
+
+    private Long proximoId;
+}
@@ -8,6 +8,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -54,4 +55,12 @@ public class GrupoKanbanDTO {
      * UF (estado) do primeiro cliente do grupo
      */
     private String uf;
+
+    /**
+     * ID do card na projeção kanban_card e data de início da análise principal:
+     * chave de ordenação na coluna (posição do card nas atualizações em tempo real)
+     */
+    private Long cardId;
+
+    private LocalDateTime dataInicio;
 }
@@ -0,0 +1,23 @@
+package AnaliseCredito.Analise_de_Credito.presentation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO para importação das participações dos sócios do cliente em outras empresas.
+ *
+ * Colunas esperadas:
+ * cnpj, empresa_nome, empresa_cnpj, percentual
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ParticipacaoDTO {
+    private String cnpj;
+    private String empresaNome;
+    private String empresaCnpj;
+    private BigDecimal percentual;
+}
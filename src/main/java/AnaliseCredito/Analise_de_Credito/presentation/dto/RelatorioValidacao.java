@@ -0,0 +1,115 @@
+package AnaliseCredito.Analise_de_Credito.presentation.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Relatório da pré-validação (dry-run) dos arquivos de importação.
+ *
+ * Por arquivo: quantas linhas seriam inseridas, atualizadas ou mantidas,
+ * chaves repetidas, e os problemas encontrados com o número da linha.
+ * Nenhum dado é gravado para produzir o relatório.
+ */
+@Data
+public class RelatorioValidacao {
+
+    /**
+     * Mensagens listadas por arquivo; as demais são só contadas.
+     */
+    public static final int MAX_MENSAGENS = 200;
+
+    private List<Arquivo> arquivos = new ArrayList<>();
+    private long tempoMs;
+
+    public Arquivo arquivo(String nome) {
+        Arquivo arquivo = new Arquivo();
+        arquivo.setNome(nome);
+        arquivos.add(arquivo);
+        return arquivo;
+    }
+
+    public int getTotalErros() {
+        return arquivos.stream().mapToInt(Arquivo::getTotalErros).sum();
+    }
+
+    public int getTotalAvisos() {
+        return arquivos.stream().mapToInt(Arquivo::getTotalAvisos).sum();
+    }
+
+    /**
+     * Sem erros: a importação não rejeitaria nenhuma linha.
+     */
+    public boolean isValido() {
+        return getTotalErros() == 0;
+    }
+
+    /**
+     * Problema de uma linha (linha 0 = arquivo inteiro).
+     */
+    public record Problema(int linha, String mensagem) {
+    }
+
+    @Data
+    public static class Arquivo {
+
+        private String nome;
+
+        // Previsão do que a importação faria com as linhas válidas
+        private int novos = 0;
+        private int atualizados = 0;
+        private int inalterados = 0;
+        private int repetidos = 0;
+
+        private int totalErros = 0;
+        private int totalAvisos = 0;
+        private List<Problema> erros = new ArrayList<>();
+        private List<Problema> avisos = new ArrayList<>();
+
+        private long tempoLeituraMs;
+
+        public void incrementarNovos() {
+            this.novos++;
+        }
+
+        public void incrementarAtualizados() {
+            this.atualizados++;
+        }
+
+        public void incrementarInalterados() {
+            this.inalterados++;
+        }
+
+        public void incrementarRepetidos() {
+            this.repetidos++;
+        }
+
+        public void addErro(int linha, String mensagem) {
+            if (totalErros++ < MAX_MENSAGENS) {
+                erros.add(new Problema(linha, mensagem));
+            }
+        }
+
+        public void addAviso(int linha, String mensagem) {
+            if (totalAvisos++ < MAX_MENSAGENS) {
+                avisos.add(new Problema(linha, mensagem));
+            }
+        }
+
+        public int getTotalValidos() {
+            return novos + atualizados + inalterados + repetidos;
+        }
+
+        /**
+         * Mensagens além do limite exibido.
+         */
+        public int getErrosOcultos() {
+            return totalErros - erros.size();
+        }
+
+        public int getAvisosOcultos() {
+            return totalAvisos - avisos.size();
+        }
+    }
+}
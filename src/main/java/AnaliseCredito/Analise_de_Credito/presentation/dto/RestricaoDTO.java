@@ -0,0 +1,31 @@
+package AnaliseCredito.Analise_de_Credito.presentation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * DTO para importação das restrições do bureau (Pefin, Protesto, Ação Judicial, Cheque)
+ * de um único arquivo, uma restrição por linha.
+ *
+ * Colunas esperadas:
+ * cnpj, tipo, valor, data, origem, detalhe
+ *
+ * origem: credor (Pefin), cartório (Protesto), vara (Ação Judicial), banco (Cheque)
+ * detalhe: tipo da ação (Ação Judicial), agência (Cheque)
+ * tipo vazio ou NADA_CONSTA: cliente consultado sem restrições
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RestricaoDTO {
+    private String cnpj;
+    private String tipo; // PEFIN, PROTESTO, ACAO_JUDICIAL, CHEQUE, NADA_CONSTA
+    private BigDecimal valor;
+    private LocalDate data;
+    private String origem;
+    private String detalhe;
+}
@@ -3,7 +3,9 @@ package AnaliseCredito.Analise_de_Credito.presentation.dto;
 import lombok.Data;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Resultado da importação de arquivos XLSX.
@@ -11,6 +13,13 @@ import java.util.List;
  * Contém contadores de registros importados, avisos e erros.
  * Usa estratégia leniente: continua processamento mesmo com erros,
  * permitindo importações parciais.
+ *
+ * Escrito por mais de uma thread: os arquivos são preparados em paralelo, cada um
+ * na sua. Os métodos que alteram o resultado são synchronized (o incremento não perde
+ * atualizações e as listas não são corrompidas); os contadores são volatile para que
+ * o acompanhamento (SSE) os leia sem lock durante a execução e sempre veja o valor
+ * mais recente. Listas e tempos só são lidos depois de CONCLUIDO (ImportacaoJob),
+ * cuja escrita volatile publica o resultado completo.
  */
 @Data
 public class ResultadoImportacao {
@@ -19,41 +28,108 @@ public class ResultadoImportacao {
     private String status; // SUCESSO, SUCESSO_PARCIAL, ERRO
 
     // Contadores
-    private int clientesImportados = 0;
-    private int pedidosImportados = 0;
-    private int dadosBIImportados = 0;
-    private int duplicatasImportadas = 0;
+    private volatile int clientesImportados = 0;
+    private volatile int pedidosImportados = 0;
+    private volatile int dadosBIImportados = 0;
+    private volatile int duplicatasImportadas = 0;
+
+    // Importação do bureau: restrições, sócios e participações (substitui por cliente)
+    private volatile int restricoesImportadas = 0;
+    private volatile int sociosImportados = 0;
+    private volatile int participacoesImportadas = 0;
+    private volatile int substituidos = 0;
+
+    // Re-importação: registros existentes alterados / idênticos (não regravados)
+    private volatile int atualizados = 0;
+    private volatile int inalterados = 0;
+
+    // Linhas gravadas na área de staging, ainda não publicadas (progresso da leitura)
+    private volatile int preparados = 0;
 
     // Mensagens
     private List<String> erros = new ArrayList<>();
     private List<String> avisos = new ArrayList<>();
 
+    // Tempo de leitura (parse) por arquivo, em ms, na ordem de importação
+    private Map<String, Long> temposLeituraMs = new LinkedHashMap<>();
+
     // Métodos auxiliares
 
-    public void incrementarClientes() {
+    public synchronized void incrementarClientes() {
         this.clientesImportados++;
     }
 
-    public void incrementarPedidos() {
+    public synchronized void incrementarPedidos() {
         this.pedidosImportados++;
     }
 
-    public void incrementarDadosBI() {
+    public synchronized void incrementarDadosBI() {
         this.dadosBIImportados++;
     }
 
-    public void incrementarDuplicatas() {
+    public synchronized void incrementarDuplicatas() {
         this.duplicatasImportadas++;
     }
 
-    public void addErro(String erro) {
+    public synchronized void incrementarRestricoes() {
+        this.restricoesImportadas++;
+    }
+
+    public synchronized void incrementarSocios() {
+        this.sociosImportados++;
+    }
+
+    public synchronized void incrementarParticipacoes() {
+        this.participacoesImportadas++;
+    }
+
+    public synchronized void addSubstituidos(int quantidade) {
+        this.substituidos += quantidade;
+    }
+
+    public synchronized void incrementarAtualizados() {
+        this.atualizados++;
+    }
+
+    public synchronized void incrementarInalterados() {
+        this.inalterados++;
+    }
+
+    public synchronized void addPreparados(int quantidade) {
+        this.preparados += quantidade;
+    }
+
+    public synchronized void addErro(String erro) {
         this.erros.add(erro);
     }
 
-    public void addAviso(String aviso) {
+    public synchronized void addAviso(String aviso) {
         this.avisos.add(aviso);
     }
 
+    public synchronized void registrarTempoLeitura(String arquivo, long tempoMs) {
+        this.temposLeituraMs.put(arquivo, tempoMs);
+    }
+
+    /**
+     * Importação desfeita (rollback): nenhum registro foi gravado.
+     * Zera os contadores e registra o motivo como erro.
+     */
+    public synchronized void desfazer(String motivo) {
+        this.clientesImportados = 0;
+        this.pedidosImportados = 0;
+        this.dadosBIImportados = 0;
+        this.duplicatasImportadas = 0;
+        this.restricoesImportadas = 0;
+        this.sociosImportados = 0;
+        this.participacoesImportadas = 0;
+        this.substituidos = 0;
+        this.atualizados = 0;
+        this.inalterados = 0;
+        this.preparados = 0;
+        this.erros.add(motivo);
+    }
+
     public boolean temErros() {
         return !erros.isEmpty();
     }
@@ -63,16 +139,24 @@ public class ResultadoImportacao {
     }
 
     public int getTotalImportado() {
-        return clientesImportados + pedidosImportados + dadosBIImportados + duplicatasImportadas;
+        return clientesImportados + pedidosImportados + dadosBIImportados + duplicatasImportadas
+                + restricoesImportadas + sociosImportados + participacoesImportadas;
+    }
+
+    /**
+     * Linhas processadas com sucesso: inseridas, atualizadas ou inalteradas
+     */
+    public int getTotalProcessado() {
+        return getTotalImportado() + atualizados + inalterados;
     }
 
     /**
      * Define status automaticamente baseado em erros
      */
     public void finalizarComStatus() {
-        if (!temErros() && getTotalImportado() > 0) {
+        if (!temErros() && getTotalProcessado() > 0) {
             this.status = "SUCESSO";
-        } else if (temErros() && getTotalImportado() > 0) {
+        } else if (temErros() && getTotalProcessado() > 0) {
             this.status = "SUCESSO_PARCIAL";
         } else {
             this.status = "ERRO";
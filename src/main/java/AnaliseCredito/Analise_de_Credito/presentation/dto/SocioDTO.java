@@ -0,0 +1,24 @@
+package AnaliseCredito.Analise_de_Credito.presentation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO para importação dos sócios dos clientes.
+ *
+ * Colunas esperadas:
+ * cnpj, nome, cpf, participacao, renda_anual
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SocioDTO {
+    private String cnpj;
+    private String nome;
+    private String cpf;
+    private BigDecimal participacao;
+    private BigDecimal rendaAnual;
+}
@@ -1,20 +1,40 @@
 package AnaliseCredito.Analise_de_Credito.util;
 
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import AnaliseCredito.Analise_de_Credito.infrastructure.importacao.ConversorPlanilhas;
+import AnaliseCredito.Analise_de_Credito.infrastructure.importacao.LeitorCsvMapeado;
+import AnaliseCredito.Analise_de_Credito.infrastructure.importacao.LeitorXlsxStreaming;
 
-import java.io.*;
-import java.nio.file.Files;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 
 /**
- * Utilitário para converter arquivos CSV em XLSX.
+ * Utilitário de linha de comando para converter planilhas CSV ↔ XLSX.
  *
- * Usado para gerar dados de exemplo para testes da aplicação.
+ * Uso:
+ * - Sem argumentos: converte os CSVs de dados-exemplo/ em XLSX
+ * - &lt;entrada&gt; &lt;saida&gt;: o sentido é definido pela extensão da entrada (.csv ou .xlsx)
+ *
+ * A conversão é feita em streaming pelo ConversorPlanilhas (memória constante).
  */
 public class CsvToXlsxConverter {
 
     public static void main(String[] args) {
+        if (args.length == 2) {
+            try {
+                long linhas = converter(Paths.get(args[0]), Paths.get(args[1]));
+                System.out.println("✅ Convertido: " + args[1] + " (" + linhas + " linhas)");
+            } catch (Exception e) {
+                System.err.println("❌ Erro ao converter " + args[0] + ": " + e.getMessage());
+                System.exit(1);
+            }
+            return;
+        }
+        if (args.length != 0) {
+            System.err.println("Uso: CsvToXlsxConverter [<entrada.csv|entrada.xlsx> <saida>]");
+            System.exit(2);
+        }
+
         String baseDir = "dados-exemplo/";
 
         String[] files = {"Clientes", "Pedidos", "DadosBI", "Duplicatas"};
@@ -36,50 +56,26 @@ public class CsvToXlsxConverter {
      * Converte um arquivo CSV para XLSX.
      */
     public static void convertCsvToXlsx(String csvFilePath, String xlsxFilePath) throws IOException {
-        Workbook workbook = new XSSFWorkbook();
-        Sheet sheet = workbook.createSheet("Dados");
-
-        // Estilo para o cabeçalho
-        CellStyle headerStyle = workbook.createCellStyle();
-        Font headerFont = workbook.createFont();
-        headerFont.setBold(true);
-        headerStyle.setFont(headerFont);
-        headerStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-        headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-
-        // Ler CSV e escrever no XLSX
-        try (BufferedReader br = new BufferedReader(new FileReader(csvFilePath))) {
-            String line;
-            int rowNum = 0;
-
-            while ((line = br.readLine()) != null) {
-                Row row = sheet.createRow(rowNum);
-                String[] values = line.split(",");
-
-                for (int i = 0; i < values.length; i++) {
-                    Cell cell = row.createCell(i);
-                    cell.setCellValue(values[i]);
-
-                    // Aplicar estilo no cabeçalho
-                    if (rowNum == 0) {
-                        cell.setCellStyle(headerStyle);
-                    }
-                }
-
-                rowNum++;
-            }
-        }
+        conversor().csvParaXlsx(Paths.get(csvFilePath), Paths.get(xlsxFilePath));
+    }
 
-        // Auto-ajustar largura das colunas
-        for (int i = 0; i < sheet.getRow(0).getLastCellNum(); i++) {
-            sheet.autoSizeColumn(i);
+    /**
+     * Converte entre CSV e XLSX conforme a extensão da entrada.
+     *
+     * @return Quantidade de linhas de dados convertidas
+     */
+    public static long converter(Path entrada, Path saida) throws IOException {
+        String nome = entrada.getFileName().toString().toLowerCase();
+        if (nome.endsWith(".csv")) {
+            return conversor().csvParaXlsx(entrada, saida);
         }
-
-        // Salvar XLSX
-        try (FileOutputStream fileOut = new FileOutputStream(xlsxFilePath)) {
-            workbook.write(fileOut);
+        if (nome.endsWith(".xlsx")) {
+            return conversor().xlsxParaCsv(entrada, saida);
         }
+        throw new IllegalArgumentException("Formato não suportado: " + nome + ". Use .csv ou .xlsx");
+    }
 
-        workbook.close();
+    private static ConversorPlanilhas conversor() {
+        return new ConversorPlanilhas(new LeitorCsvMapeado(), new LeitorXlsxStreaming());
     }
 }
@@ -0,0 +1,69 @@
+package AnaliseCredito.Analise_de_Credito.util;
+
+import java.math.BigDecimal;
+
+/**
+ * Hash de conteúdo de 64 bits (FNV-1a) para linhas importadas.
+ *
+ * Acumula as colunas normalizadas de uma linha e produz um long estável entre
+ * execuções e JVMs (ao contrário de hashCode), que pode ser gravado no banco
+ * e comparado numa re-importação para detectar se a linha mudou.
+ *
+ * Normalização:
+ * - Textos sem espaços nas pontas; vazio e null são equivalentes
+ * - BigDecimal sem zeros à direita (10.50 == 10.5)
+ * - Cada coluna termina com um separador, então ("ab", "c") != ("a", "bc")
+ *
+ * Não é criptográfico: serve só para detectar alterações.
+ */
+public final class HashConteudo {
+
+    private static final long OFFSET = 0xcbf29ce484222325L;
+    private static final long PRIMO = 0x100000001b3L;
+    private static final int SEPARADOR = 0x1F;
+    private static final int NULO = 0x00;
+
+    private long hash = OFFSET;
+
+    private HashConteudo() {
+    }
+
+    public static HashConteudo novo() {
+        return new HashConteudo();
+    }
+
+    public HashConteudo add(String valor) {
+        String texto = valor != null ? valor.trim() : "";
+        if (texto.isEmpty()) {
+            misturar(NULO);
+        } else {
+            for (int i = 0; i < texto.length(); i++) {
+                char c = texto.charAt(i);
+                misturar(c & 0xFF);
+                misturar(c >>> 8);
+            }
+        }
+        misturar(SEPARADOR);
+        return this;
+    }
+
+    public HashConteudo add(BigDecimal valor) {
+        return add(valor != null ? valor.stripTrailingZeros().toPlainString() : null);
+    }
+
+    public HashConteudo add(Object valor) {
+        if (valor instanceof BigDecimal decimal) {
+            return add(decimal);
+        }
+        return add(valor != null ? valor.toString() : null);
+    }
+
+    public long valor() {
+        return hash;
+    }
+
+    private void misturar(int octeto) {
+        hash ^= octeto;
+        hash *= PRIMO;
+    }
+}
@@ -0,0 +1,111 @@
+package AnaliseCredito.Analise_de_Credito.util;
+
+import java.util.Arrays;
+
+/**
+ * Mapa long → long com endereçamento aberto (sondagem linear).
+ *
+ * Evita o boxing e os objetos Entry de um HashMap&lt;Long, Long&gt;: cada entrada
+ * ocupa 16 bytes em dois arrays primitivos. Usado para índices em memória
+ * com centenas de milhares de chaves (ex: CNPJ → id durante a importação).
+ *
+ * A chave Long.MIN_VALUE é reservada (marca posição vazia). Não é thread-safe.
+ */
+public class MapaLongLong {
+
+    private static final long VAZIO = Long.MIN_VALUE;
+    private static final float FATOR_CARGA = 0.6f;
+
+    private long[] chaves;
+    private long[] valores;
+    private int tamanho;
+    private int limite;
+
+    public MapaLongLong() {
+        this(1024);
+    }
+
+    public MapaLongLong(int capacidadeEsperada) {
+        int capacidade = Integer.highestOneBit(Math.max(16, (int) (capacidadeEsperada / FATOR_CARGA)) - 1) << 1;
+        alocar(capacidade);
+    }
+
+    /**
+     * Retorna o valor associado à chave, ou valorPadrao se ausente.
+     */
+    public long get(long chave, long valorPadrao) {
+        int mascara = chaves.length - 1;
+        int i = indice(chave, mascara);
+        while (chaves[i] != VAZIO) {
+            if (chaves[i] == chave) {
+                return valores[i];
+            }
+            i = (i + 1) & mascara;
+        }
+        return valorPadrao;
+    }
+
+    public boolean contem(long chave) {
+        int mascara = chaves.length - 1;
+        int i = indice(chave, mascara);
+        while (chaves[i] != VAZIO) {
+            if (chaves[i] == chave) {
+                return true;
+            }
+            i = (i + 1) & mascara;
+        }
+        return false;
+    }
+
+    /**
+     * Associa o valor à chave, substituindo o anterior se existir.
+     */
+    public void put(long chave, long valor) {
+        if (chave == VAZIO) {
+            throw new IllegalArgumentException("Chave reservada: " + chave);
+        }
+        int mascara = chaves.length - 1;
+        int i = indice(chave, mascara);
+        while (chaves[i] != VAZIO) {
+            if (chaves[i] == chave) {
+                valores[i] = valor;
+                return;
+            }
+            i = (i + 1) & mascara;
+        }
+        chaves[i] = chave;
+        valores[i] = valor;
+        if (++tamanho > limite) {
+            redimensionar();
+        }
+    }
+
+    public int size() {
+        return tamanho;
+    }
+
+    private void alocar(int capacidade) {
+        chaves = new long[capacidade];
+        valores = new long[capacidade];
+        Arrays.fill(chaves, VAZIO);
+        limite = (int) (capacidade * FATOR_CARGA);
+    }
+
+    private void redimensionar() {
+        long[] chavesAntigas = chaves;
+        long[] valoresAntigos = valores;
+        alocar(chavesAntigas.length * 2);
+        tamanho = 0;
+        for (int i = 0; i < chavesAntigas.length; i++) {
+            if (chavesAntigas[i] != VAZIO) {
+                put(chavesAntigas[i], valoresAntigos[i]);
+            }
+        }
+    }
+
+    private static int indice(long chave, int mascara) {
+        // Hash de Fibonacci - CNPJs sequenciais não colidem em bloco
+        long h = chave * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mascara;
+    }
+}
@@ -2,7 +2,6 @@ package AnaliseCredito.Analise_de_Credito.application.service;
 
 import AnaliseCredito.Analise_de_Credito.domain.enums.TipoCliente;
 import AnaliseCredito.Analise_de_Credito.domain.model.*;
-import AnaliseCredito.Analise_de_Credito.infrastructure.persistence.ConfiguracaoRepository;
 import AnaliseCredito.Analise_de_Credito.infrastructure.persistence.PedidoRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -16,6 +15,7 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -37,7 +37,7 @@ import static org.mockito.Mockito.*;
 class AlertaServiceTest {
 
     @Mock
-    private ConfiguracaoRepository configuracaoRepository;
+    private ConfiguracaoService configuracaoService;
 
     @Mock
     private PedidoRepository pedidoRepository;
@@ -97,8 +97,8 @@ class AlertaServiceTest {
         grupo.getClientes().add(cliente);
 
         // Mock configuracao repository
-        when(configuracaoRepository.findById(1L))
-                .thenReturn(Optional.of(configuracao));
+        when(configuracaoService.atual())
+                .thenAnswer(inv -> ConfiguracaoSnapshot.de(configuracao));
     }
 
     /**
@@ -118,7 +118,7 @@ class AlertaServiceTest {
 
         // Assert
         assertTrue(alerts.contains("SIMEI > LIMITE"));
-        verify(configuracaoRepository).findById(1L);
+        verify(configuracaoService).atual();
     }
 
     /**
@@ -186,7 +186,7 @@ class AlertaServiceTest {
 
         // Assert
         assertTrue(alerts.contains("GRUPO > 2 SIMEIS"));
-        verify(configuracaoRepository).findById(1L);
+        verify(configuracaoService).atual();
     }
 
     /**
@@ -206,7 +206,7 @@ class AlertaServiceTest {
 
         // Assert
         assertTrue(alerts.contains("PEDIDO > LIMITE"));
-        verify(configuracaoRepository).findById(1L);
+        verify(configuracaoService).atual();
     }
 
     /**
@@ -253,7 +253,7 @@ class AlertaServiceTest {
 
         // Assert
         assertTrue(alerts.contains("TOTAL > LIMITE"));
-        verify(configuracaoRepository).findById(1L);
+        verify(configuracaoService).atual();
     }
 
     /**
@@ -300,7 +300,7 @@ class AlertaServiceTest {
 
         // Assert
         assertTrue(alerts.contains("RESTRIÇÕES (3)"));
-        verify(configuracaoRepository).findById(1L);
+        verify(configuracaoService).atual();
     }
 
     /**
@@ -320,7 +320,7 @@ class AlertaServiceTest {
 
         // Assert
         assertTrue(alerts.contains("SCORE BAIXO"));
-        verify(configuracaoRepository).findById(1L);
+        verify(configuracaoService).atual();
     }
 
     /**
@@ -344,7 +344,7 @@ class AlertaServiceTest {
 
         // Assert
         assertTrue(alerts.isEmpty());
-        verify(configuracaoRepository).findById(1L);
+        verify(configuracaoService).atual();
     }
 
     /**
@@ -379,7 +379,7 @@ class AlertaServiceTest {
         assertTrue(alerts.contains("RESTRIÇÕES (1)"));
         assertTrue(alerts.contains("SCORE BAIXO"));
         assertTrue(alerts.size() >= 4);
-        verify(configuracaoRepository).findById(1L);
+        verify(configuracaoService).atual();
     }
 
     /**
@@ -399,7 +399,7 @@ class AlertaServiceTest {
 
         // Assert
         assertFalse(alerts.contains("SIMEI > LIMITE"));
-        verify(configuracaoRepository).findById(1L);
+        verify(configuracaoService).atual();
     }
 
     /**
@@ -419,7 +419,7 @@ class AlertaServiceTest {
 
         // Assert
         assertFalse(alerts.contains("SIMEI > LIMITE"));
-        verify(configuracaoRepository).findById(1L);
+        verify(configuracaoService).atual();
     }
 
     /**
@@ -438,32 +438,11 @@ class AlertaServiceTest {
 
         // Assert
         assertFalse(alerts.contains("SCORE BAIXO"));
-        verify(configuracaoRepository).findById(1L);
+        verify(configuracaoService).atual();
     }
 
     /**
-     * Test 12: CONFIGURAÇÃO NÃO ENCONTRADA
-     *
-     * Setup: configuracaoRepository retorna empty
-     * Expected: Deve lançar RuntimeException
-     */
-    @Test
-    void calcularAlertas_configuracaoNaoEncontrada_lancaExcecao() {
-        // Arrange
-        when(configuracaoRepository.findById(1L))
-                .thenReturn(Optional.empty());
-
-        // Act & Assert
-        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
-            alertaService.calcularAlertas(pedido);
-        });
-
-        assertEquals("Configuração não encontrada", exception.getMessage());
-        verify(configuracaoRepository).findById(1L);
-    }
-
-    /**
-     * Test 13: GRUPO COM SIMEIS SEM PEDIDOS
+     * Test 12: GRUPO COM SIMEIS SEM PEDIDOS
      *
      * Setup: grupo com 3 clientes SIMEI, mas sem pedidos
      * Expected: NÃO deve retornar alerta GRUPO > X SIMEIS
@@ -506,6 +485,34 @@ class AlertaServiceTest {
         // Assert
         // Apenas 1 SIMEI com pedido, não deve retornar alerta
         assertFalse(alerts.contains("GRUPO > 2 SIMEIS"));
-        verify(configuracaoRepository).findById(1L);
+        verify(configuracaoService).atual();
+    }
+
+    /**
+     * Lote: pedidos do mesmo grupo compartilham os agregados do grupo
+     * e a configuração é carregada uma única vez.
+     *
+     * Setup: 2 pedidos do grupo somando 55000, limite do grupo 50000
+     * Expected: ambos com "TOTAL > LIMITE", configuração buscada 1 vez
+     */
+    @Test
+    void calcularAlertasEmLote_mesmoGrupo_carregaConfiguracaoUmaVez() {
+        // Arrange
+        Pedido pedido2 = new Pedido();
+        pedido2.setId(2L);
+        pedido2.setNumero("PED002");
+        pedido2.setData(LocalDate.now());
+        pedido2.setValor(new BigDecimal("25000"));
+        pedido2.setCliente(cliente);
+        cliente.getPedidos().add(pedido2);
+
+        // Act
+        Map<Long, List<String>> alerts = alertaService.calcularAlertasEmLote(List.of(pedido, pedido2));
+
+        // Assert
+        assertEquals(List.of(1L, 2L), List.copyOf(alerts.keySet()));
+        assertTrue(alerts.get(1L).contains("TOTAL > LIMITE"));
+        assertTrue(alerts.get(2L).contains("TOTAL > LIMITE"));
+        verify(configuracaoService, times(1)).atual();
     }
 }
@@ -2,6 +2,7 @@ package AnaliseCredito.Analise_de_Credito.application.service;
 
 import AnaliseCredito.Analise_de_Credito.domain.model.Cliente;
 import AnaliseCredito.Analise_de_Credito.domain.model.Configuracao;
+import AnaliseCredito.Analise_de_Credito.domain.model.ConfiguracaoSnapshot;
 import AnaliseCredito.Analise_de_Credito.domain.model.Protesto;
 import AnaliseCredito.Analise_de_Credito.domain.model.Pefin;
 import AnaliseCredito.Analise_de_Credito.infrastructure.persistence.*;
@@ -25,7 +26,7 @@ import static org.mockito.Mockito.when;
 class ClienteNovoValidationServiceTest {
 
     @Mock
-    private ConfiguracaoRepository configuracaoRepository;
+    private ConfiguracaoService configuracaoService;
 
     @Mock
     private ProtestoRepository protestoRepository;
@@ -80,7 +81,7 @@ class ClienteNovoValidationServiceTest {
 
     @Test
     void validarCadastral_receitaBaixada_retornaMotivo() {
-        when(configuracaoRepository.findById(1L)).thenReturn(Optional.of(config));
+        when(configuracaoService.atual()).thenAnswer(inv -> ConfiguracaoSnapshot.de(config));
         cliente.setStatusReceita("BAIXADA");
         cliente.setSintegra("HABILITADO");
 
@@ -91,7 +92,7 @@ class ClienteNovoValidationServiceTest {
 
     @Test
     void validarCadastral_sintegraInabilitado_retornaMotivo() {
-        when(configuracaoRepository.findById(1L)).thenReturn(Optional.of(config));
+        when(configuracaoService.atual()).thenAnswer(inv -> ConfiguracaoSnapshot.de(config));
         cliente.setStatusReceita("ATIVA");
         cliente.setSintegra("INABILITADO");
 
@@ -103,7 +104,7 @@ class ClienteNovoValidationServiceTest {
     @Test
     void validarCadastral_cnaeNaoPermitido_retornaMotivo() {
         config.setCnaesPermitidos("4781400,4782201");
-        when(configuracaoRepository.findById(1L)).thenReturn(Optional.of(config));
+        when(configuracaoService.atual()).thenAnswer(inv -> ConfiguracaoSnapshot.de(config));
         cliente.setStatusReceita("ATIVA");
         cliente.setSintegra("HABILITADO");
         cliente.setCnae("9999999");
@@ -115,7 +116,7 @@ class ClienteNovoValidationServiceTest {
 
     @Test
     void validarCadastral_tudoOk_retornaNull() {
-        when(configuracaoRepository.findById(1L)).thenReturn(Optional.of(config));
+        when(configuracaoService.atual()).thenAnswer(inv -> ConfiguracaoSnapshot.de(config));
         cliente.setStatusReceita("ATIVA");
         cliente.setSintegra("HABILITADO");
         cliente.setCnae("4781400");
@@ -125,7 +126,7 @@ class ClienteNovoValidationServiceTest {
 
     @Test
     void isFundacaoRecente_menosDe12Meses_retornaTrue() {
-        when(configuracaoRepository.findById(1L)).thenReturn(Optional.of(config));
+        when(configuracaoService.atual()).thenAnswer(inv -> ConfiguracaoSnapshot.de(config));
         cliente.setDataFundacao(LocalDate.now().minusMonths(6));
 
         assertTrue(validationService.isFundacaoRecente(cliente));
@@ -133,7 +134,7 @@ class ClienteNovoValidationServiceTest {
 
     @Test
     void isFundacaoRecente_maisDe12Meses_retornaFalse() {
-        when(configuracaoRepository.findById(1L)).thenReturn(Optional.of(config));
+        when(configuracaoService.atual()).thenAnswer(inv -> ConfiguracaoSnapshot.de(config));
         cliente.setDataFundacao(LocalDate.now().minusYears(2));
 
         assertFalse(validationService.isFundacaoRecente(cliente));
@@ -146,7 +147,7 @@ class ClienteNovoValidationServiceTest {
 
     @Test
     void hasProtestoAcima_comProtestoAlto_retornaTrue() {
-        when(configuracaoRepository.findById(1L)).thenReturn(Optional.of(config));
+        when(configuracaoService.atual()).thenAnswer(inv -> ConfiguracaoSnapshot.de(config));
         Protesto protesto = new Protesto();
         protesto.setValor(new BigDecimal("1500"));
         when(protestoRepository.findByClienteId(1L)).thenReturn(List.of(protesto));
@@ -156,7 +157,7 @@ class ClienteNovoValidationServiceTest {
 
     @Test
     void hasProtestoAcima_comProtestoBaixo_retornaFalse() {
-        when(configuracaoRepository.findById(1L)).thenReturn(Optional.of(config));
+        when(configuracaoService.atual()).thenAnswer(inv -> ConfiguracaoSnapshot.de(config));
         Protesto protesto = new Protesto();
         protesto.setValor(new BigDecimal("500"));
         when(protestoRepository.findByClienteId(1L)).thenReturn(List.of(protesto));
@@ -166,7 +167,7 @@ class ClienteNovoValidationServiceTest {
 
     @Test
     void hasProtestoAcima_semProtestos_retornaFalse() {
-        when(configuracaoRepository.findById(1L)).thenReturn(Optional.of(config));
+        when(configuracaoService.atual()).thenAnswer(inv -> ConfiguracaoSnapshot.de(config));
         when(protestoRepository.findByClienteId(1L)).thenReturn(Collections.emptyList());
 
         assertFalse(validationService.hasProtestoAcima(cliente));
@@ -174,7 +175,7 @@ class ClienteNovoValidationServiceTest {
 
     @Test
     void isLojaRecente_menosDe10Meses_retornaTrue() {
-        when(configuracaoRepository.findById(1L)).thenReturn(Optional.of(config));
+        when(configuracaoService.atual()).thenAnswer(inv -> ConfiguracaoSnapshot.de(config));
         cliente.setDataAberturaLoja(LocalDate.now().minusMonths(5));
 
         assertTrue(validationService.isLojaRecente(cliente));
@@ -182,7 +183,7 @@ class ClienteNovoValidationServiceTest {
 
     @Test
     void isLojaRecente_maisDe10Meses_retornaFalse() {
-        when(configuracaoRepository.findById(1L)).thenReturn(Optional.of(config));
+        when(configuracaoService.atual()).thenAnswer(inv -> ConfiguracaoSnapshot.de(config));
         cliente.setDataAberturaLoja(LocalDate.now().minusMonths(15));
 
         assertFalse(validationService.isLojaRecente(cliente));
@@ -190,7 +191,7 @@ class ClienteNovoValidationServiceTest {
 
     @Test
     void hasRestricaoAcima_totalAlto_retornaTrue() {
-        when(configuracaoRepository.findById(1L)).thenReturn(Optional.of(config));
+        when(configuracaoService.atual()).thenAnswer(inv -> ConfiguracaoSnapshot.de(config));
 
         Pefin pefin = new Pefin();
         pefin.setValor(new BigDecimal("600"));
@@ -205,7 +206,7 @@ class ClienteNovoValidationServiceTest {
 
     @Test
     void hasRestricaoAcima_totalBaixo_retornaFalse() {
-        when(configuracaoRepository.findById(1L)).thenReturn(Optional.of(config));
+        when(configuracaoService.atual()).thenAnswer(inv -> ConfiguracaoSnapshot.de(config));
 
         Pefin pefin = new Pefin();
         pefin.setValor(new BigDecimal("200"));
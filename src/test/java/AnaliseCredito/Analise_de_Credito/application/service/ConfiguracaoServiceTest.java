@@ -0,0 +1,134 @@
+package AnaliseCredito.Analise_de_Credito.application.service;
+
+import AnaliseCredito.Analise_de_Credito.domain.model.Configuracao;
+import AnaliseCredito.Analise_de_Credito.domain.model.ConfiguracaoSnapshot;
+import AnaliseCredito.Analise_de_Credito.infrastructure.persistence.ConfiguracaoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.transaction.TestTransaction;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes para ConfiguracaoService.
+ *
+ * Cache do snapshot, invalidação e versionamento contra o repositório real
+ * (a configuração padrão é criada pelo DataInitializer).
+ */
+@SpringBootTest
+@Transactional
+class ConfiguracaoServiceTest {
+
+    @Autowired
+    private ConfiguracaoService configuracaoService;
+
+    @Autowired
+    private ConfiguracaoRepository configuracaoRepository;
+
+    @BeforeEach
+    void setUp() {
+        configuracaoService.invalidar();
+    }
+
+    @AfterEach
+    void tearDown() {
+        // A transação do teste é desfeita: o cache não pode ficar com a versão do teste
+        configuracaoService.invalidar();
+    }
+
+    @Test
+    void testAtual_LeOBancoUmaVezEServeOMesmoSnapshot() {
+        // Act
+        ConfiguracaoSnapshot primeiro = configuracaoService.atual();
+        ConfiguracaoSnapshot segundo = configuracaoService.atual();
+
+        // Assert
+        assertSame(primeiro, segundo);
+        assertEquals(configuracaoService.buscar().getVersao(), primeiro.getVersao());
+    }
+
+    @Test
+    void testInvalidar_ProximaChamadaReleOBanco() {
+        // Arrange - snapshot em cache e alteração gravada direto no banco
+        ConfiguracaoSnapshot emCache = configuracaoService.atual();
+        Configuracao config = configuracaoService.buscar();
+        config.setLimiteSimei(new BigDecimal("42000.00"));
+        configuracaoRepository.saveAndFlush(config);
+
+        // Act & Assert - sem invalidar, o cache continua servindo o snapshot anterior
+        assertSame(emCache, configuracaoService.atual());
+
+        configuracaoService.invalidar();
+        ConfiguracaoSnapshot relido = configuracaoService.atual();
+
+        assertNotSame(emCache, relido);
+        assertEquals(0, new BigDecimal("42000.00").compareTo(relido.getLimiteSimei()));
+    }
+
+    @Test
+    void testSalvar_IncrementaVersaoEPublicaOSnapshotDepoisDoCommit() {
+        // Arrange - formulário com versão arbitrária: a versão vem do banco
+        ConfiguracaoSnapshot anterior = configuracaoService.atual();
+        Configuracao formulario = new Configuracao();
+        formulario.setLimiteSimei(new BigDecimal("50000.00"));
+        formulario.setVersao(999L);
+
+        // Act
+        ConfiguracaoSnapshot salvo = configuracaoService.salvar(formulario);
+
+        // Assert - gravado, mas ainda não commitado: o cache continua na versão anterior
+        assertEquals(anterior.getVersao() + 1, salvo.getVersao());
+        assertEquals(anterior.getVersao() + 1, configuracaoService.buscar().getVersao());
+        assertEquals(1, configuracaoRepository.count());
+        assertSame(anterior, configuracaoService.atual());
+
+        // Commit (evento AFTER_COMMIT): a nova versão passa a ser servida
+        configuracaoService.aoSalvar(new ConfiguracaoSalvaEvent(salvo));
+        assertSame(salvo, configuracaoService.atual());
+        assertEquals(0, new BigDecimal("50000.00").compareTo(configuracaoService.atual().getLimiteSimei()));
+    }
+
+    @Test
+    void testSalvar_GravacaoDesfeitaNaoChegaAoCache() {
+        // Arrange
+        ConfiguracaoSnapshot anterior = configuracaoService.atual();
+
+        // Act - a transação do salvamento é desfeita
+        configuracaoService.salvar(new Configuracao());
+        TestTransaction.flagForRollback();
+        TestTransaction.end();
+
+        // Assert
+        assertSame(anterior, configuracaoService.atual());
+    }
+
+    @Test
+    void testSalvar_CadaSalvamentoGravaUmaNovaVersao() {
+        // Arrange
+        long versaoAnterior = configuracaoService.buscar().getVersao();
+
+        // Act
+        configuracaoService.salvar(new Configuracao());
+        ConfiguracaoSnapshot segundo = configuracaoService.salvar(new Configuracao());
+
+        // Assert
+        assertEquals(versaoAnterior + 2, segundo.getVersao());
+        assertEquals(versaoAnterior + 2, configuracaoService.buscar().getVersao());
+    }
+
+    @Test
+    void testAtual_ConfiguracaoNaoEncontrada_LancaExcecao() {
+        // Arrange
+        configuracaoRepository.deleteAll();
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> configuracaoService.atual());
+        assertEquals("Configuração não encontrada", exception.getMessage());
+    }
+}
@@ -0,0 +1,191 @@
+package AnaliseCredito.Analise_de_Credito.application.service;
+
+import AnaliseCredito.Analise_de_Credito.domain.model.Pedido;
+import AnaliseCredito.Analise_de_Credito.infrastructure.persistence.*;
+import AnaliseCredito.Analise_de_Credito.presentation.dto.ResultadoImportacao;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes da publicação da importação (staging + transação final).
+ *
+ * Sem @Transactional: o que a importação confirma fica no banco, então os testes
+ * enxergam exatamente o que os demais usuários veriam.
+ */
+@SpringBootTest
+class ImportacaoPublicacaoTest {
+
+    private static final String CNPJ = "31313131000131";
+
+    private static final String CNPJ_LIMITES = "32323232000132";
+
+    @Autowired
+    private ImportacaoService importacaoService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private GrupoEconomicoRepository grupoEconomicoRepository;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private AnaliseRepository analiseRepository;
+
+    @Autowired
+    private DadosBIRepository dadosBIRepository;
+
+    @Autowired
+    private DuplicataRepository duplicataRepository;
+
+    @Autowired
+    private LinhaStagingRepository linhaStagingRepository;
+
+    @Test
+    void testProcessar_FalhaNoMeioDaLeituraNaoDeixaNadaGravado() throws IOException {
+        // Arrange - Clientes, Pedidos e DadosBI válidos; Duplicatas interrompido após 2 linhas
+        MockMultipartFile clientes = csv("clientes.csv",
+                "cnpj,razao_social,estado,grupo_economico\n" + CNPJ + ",Empresa Publicacao,SP,GRP-PUBLICACAO\n");
+        MockMultipartFile pedidos = csv("pedidos.csv",
+                "numero,valor,cnpj_cliente\nPED-PUB-1,100.00," + CNPJ + "\n");
+        MockMultipartFile dadosBI = csv("dadosbi.csv", "grupo_economico,colecao\nGRP-PUBLICACAO,202601\n");
+        MockMultipartFile duplicatas = duplicatasInterrompidas(CNPJ, 5, 2);
+
+        long grupos = grupoEconomicoRepository.count();
+        long clientesAntes = clienteRepository.count();
+        long pedidosAntes = pedidoRepository.count();
+        long analises = analiseRepository.count();
+        long dadosBIAntes = dadosBIRepository.count();
+        long duplicatasAntes = duplicataRepository.count();
+
+        // Act
+        ResultadoImportacao resultado = importacaoService.processar(clientes, pedidos, dadosBI, duplicatas);
+
+        // Assert - nada publicado e staging do lote descartado
+        assertEquals("ERRO", resultado.getStatus());
+        assertTrue(resultado.getErros().stream().anyMatch(e -> e.contains("desfeita")));
+        assertEquals(0, resultado.getTotalProcessado());
+
+        assertTrue(clienteRepository.findByCnpj(CNPJ).isEmpty());
+        assertTrue(grupoEconomicoRepository.findByCodigo("GRP-PUBLICACAO").isEmpty());
+        assertEquals(grupos, grupoEconomicoRepository.count());
+        assertEquals(clientesAntes, clienteRepository.count());
+        assertEquals(pedidosAntes, pedidoRepository.count());
+        assertEquals(analises, analiseRepository.count());
+        assertEquals(dadosBIAntes, dadosBIRepository.count());
+        assertEquals(duplicatasAntes, duplicataRepository.count());
+        assertEquals(0, linhaStagingRepository.count());
+    }
+
+    @Test
+    void testProcessar_LinhaForaDosLimitesDaColunaNaoDesfazAPublicacao() {
+        // Arrange - bloqueio maior que a coluna (10) e valor maior que DECIMAL(15,2):
+        // o banco recusaria essas linhas dentro da transação de publicação
+        MockMultipartFile clientes = csv("clientes.csv",
+                "cnpj,razao_social,estado,grupo_economico\n" + CNPJ_LIMITES + ",Empresa Limites,SP,GRP-LIMITES\n");
+        MockMultipartFile pedidos = csv("pedidos.csv",
+                "numero,valor,cnpj_cliente,bloqueio\n"
+                + "PED-LIM-OK,100.00," + CNPJ_LIMITES + ",80\n"
+                + "PED-LIM-LONGO,200.00," + CNPJ_LIMITES + ",BLOQUEIO-LONGO\n");
+        MockMultipartFile dadosBI = csv("dadosbi.csv", "grupo_economico,colecao\nGRP-LIMITES,202601\n");
+        MockMultipartFile duplicatas = csv("duplicatas.csv",
+                "cnpj,vencimento,valor\n"
+                + CNPJ_LIMITES + ",2026-03-10,1500.00\n"
+                + CNPJ_LIMITES + ",2026-04-10,100000000000000.00\n");
+
+        // Act
+        ResultadoImportacao resultado = importacaoService.processar(clientes, pedidos, dadosBI, duplicatas);
+
+        // Assert - só as duas linhas recusadas ficam de fora; o resto é publicado
+        assertEquals("SUCESSO_PARCIAL", resultado.getStatus());
+        assertFalse(resultado.getErros().stream().anyMatch(e -> e.contains("desfeita")));
+        assertEquals(2, resultado.getErros().size());
+        assertTrue(resultado.getErros().stream().anyMatch(e -> e.contains("PED-LIM-LONGO") && e.contains("bloqueio")));
+        assertTrue(resultado.getErros().stream().anyMatch(e -> e.contains(CNPJ_LIMITES) && e.contains("valor")));
+
+        Long clienteId = clienteRepository.findByCnpj(CNPJ_LIMITES).orElseThrow().getId();
+        assertEquals(List.of("PED-LIM-OK"), pedidoRepository.findByClienteId(clienteId).stream()
+                .map(Pedido::getNumero).toList());
+        assertEquals(1, duplicataRepository.findByClienteId(clienteId).size());
+        assertTrue(grupoEconomicoRepository.findByCodigo("GRP-LIMITES").isPresent());
+        assertEquals(0, linhaStagingRepository.count());
+    }
+
+    // ========== HELPERS ==========
+
+    private MockMultipartFile csv(String nome, String conteudo) {
+        return new MockMultipartFile(nome, nome, "text/csv", conteudo.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Duplicatas.xlsx com o XML da planilha cortado depois de algumas linhas
+     * (arquivo truncado): as primeiras linhas são lidas e a leitura falha em seguida.
+     */
+    private MockMultipartFile duplicatasInterrompidas(String cnpj, int linhas, int linhasLegiveis) throws IOException {
+        byte[] xlsx;
+        try (XSSFWorkbook workbook = new XSSFWorkbook();
+             ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            Sheet sheet = workbook.createSheet("Duplicatas");
+            Row cabecalho = sheet.createRow(0);
+            cabecalho.createCell(0).setCellValue("cnpj");
+            cabecalho.createCell(1).setCellValue("vencimento");
+            cabecalho.createCell(2).setCellValue("valor");
+
+            CellStyle estiloData = workbook.createCellStyle();
+            estiloData.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd"));
+            for (int i = 1; i <= linhas; i++) {
+                Row linha = sheet.createRow(i);
+                linha.createCell(0).setCellValue(cnpj);
+                Cell vencimento = linha.createCell(1);
+                vencimento.setCellValue(LocalDate.of(2026, 3, i));
+                vencimento.setCellStyle(estiloData);
+                linha.createCell(2).setCellValue(100.0 * i);
+            }
+            workbook.write(out);
+            xlsx = out.toByteArray();
+        }
+
+        // Mesmo pacote, com a planilha terminando logo após cabeçalho + linhasLegiveis
+        ByteArrayOutputStream truncado = new ByteArrayOutputStream();
+        try (ZipInputStream zipIn = new ZipInputStream(new ByteArrayInputStream(xlsx));
+             ZipOutputStream zipOut = new ZipOutputStream(truncado)) {
+            for (ZipEntry item; (item = zipIn.getNextEntry()) != null; ) {
+                byte[] conteudo = zipIn.readAllBytes();
+                if (item.getName().startsWith("xl/worksheets/")) {
+                    String xml = new String(conteudo, StandardCharsets.UTF_8);
+                    int corte = 0;
+                    for (int i = 0; i <= linhasLegiveis; i++) {
+                        corte = xml.indexOf("</row>", corte) + "</row>".length();
+                    }
+                    conteudo = xml.substring(0, corte).getBytes(StandardCharsets.UTF_8);
+                }
+                zipOut.putNextEntry(new ZipEntry(item.getName()));
+                zipOut.write(conteudo);
+                zipOut.closeEntry();
+            }
+        }
+        return new MockMultipartFile("duplicatas.xlsx", "duplicatas.xlsx",
+                "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", truncado.toByteArray());
+    }
+}
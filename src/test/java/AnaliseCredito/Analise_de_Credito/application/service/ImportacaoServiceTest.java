@@ -1,21 +1,36 @@
 package AnaliseCredito.Analise_de_Credito.application.service;
 
+import AnaliseCredito.Analise_de_Credito.application.service.PipelineImportacao.Entrada;
 import AnaliseCredito.Analise_de_Credito.domain.enums.StatusWorkflow;
+import AnaliseCredito.Analise_de_Credito.domain.enums.TipoAlerta;
 import AnaliseCredito.Analise_de_Credito.domain.enums.TipoCliente;
 import AnaliseCredito.Analise_de_Credito.domain.enums.TipoWorkflow;
 import AnaliseCredito.Analise_de_Credito.domain.model.*;
 import AnaliseCredito.Analise_de_Credito.infrastructure.persistence.*;
 import AnaliseCredito.Analise_de_Credito.presentation.dto.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -49,6 +64,18 @@ class ImportacaoServiceTest {
     @Autowired
     private DuplicataRepository duplicataRepository;
 
+    @Autowired
+    private AlertaPedidoRepository alertaPedidoRepository;
+
+    @Autowired
+    private PefinRepository pefinRepository;
+
+    @Autowired
+    private ProtestoRepository protestoRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     private ResultadoImportacao resultado;
 
     @BeforeEach
@@ -56,6 +83,7 @@ class ImportacaoServiceTest {
         resultado = new ResultadoImportacao();
 
         // Limpar base para testes isolados
+        alertaPedidoRepository.deleteAll();
         duplicataRepository.deleteAll();
         dadosBIRepository.deleteAll();
         analiseRepository.deleteAll();
@@ -137,7 +165,7 @@ class ImportacaoServiceTest {
     }
 
     @Test
-    void testImportarClientes_SkipDuplicado() {
+    void testImportarClientes_DuplicadoEAtualizadoSemAviso() {
         // Arrange - Criar cliente existente
         GrupoEconomico grupo = new GrupoEconomico();
         grupo.setCodigo("GRUPO001");
@@ -154,7 +182,7 @@ class ImportacaoServiceTest {
         existente.setSimei(false);
         clienteRepository.save(existente);
 
-        // Tentar importar duplicado
+        // Importar o mesmo CNPJ com dados alterados
         List<ClienteDTO> clientes = new ArrayList<>();
         ClienteDTO dto = new ClienteDTO();
         dto.setCnpj("12345678901234");
@@ -164,10 +192,45 @@ class ImportacaoServiceTest {
         // Act
         importacaoService.importarClientes(clientes, resultado);
 
-        // Assert
+        // Assert - atualização só é contada, sem um aviso por linha
         assertEquals(0, resultado.getClientesImportados());
-        assertEquals(1, resultado.getAvisos().size());
-        assertTrue(resultado.getAvisos().get(0).contains("já existe"));
+        assertEquals(1, resultado.getAtualizados());
+        assertTrue(resultado.getAvisos().isEmpty());
+    }
+
+    @Test
+    void testImportarClientes_TrocaDeGrupoMoveAnalisesEAfetaOsDoisGrupos() {
+        // Arrange - cliente no grupo antigo, com uma análise
+        GrupoEconomico grupoAntigo = criarGrupoTeste();
+        Cliente cliente = criarClienteTeste(grupoAntigo);
+
+        PedidoDTO pedido = new PedidoDTO();
+        pedido.setNumero("PED_GRUPO");
+        pedido.setData(LocalDate.now());
+        pedido.setValor(new BigDecimal("1000.00"));
+        pedido.setCnpjCliente(cliente.getCnpj());
+        importacaoService.importarPedidos(List.of(pedido), resultado);
+        assertEquals(grupoAntigo.getId(), analiseRepository.findAll().get(0).getGrupoEconomicoId());
+
+        // Act - re-importação com outro grupo econômico
+        ClienteDTO dto = new ClienteDTO();
+        dto.setCnpj(cliente.getCnpj());
+        dto.setRazaoSocial("Cliente Teste LTDA");
+        dto.setTipo("BASE_PRAZO");
+        dto.setGrupoEconomico("GRUPO_DESTINO");
+        ResolvedorImportacao resolvedor = ResolvedorImportacao.carregar(clienteRepository, grupoEconomicoRepository);
+        ResultadoImportacao reimportacao = new ResultadoImportacao();
+        importacaoService.importarClientes(List.of(Entrada.normalizada(dto, dto.getCnpj(), 1L)),
+                reimportacao, resolvedor);
+        entityManager.clear();
+
+        // Assert
+        GrupoEconomico grupoNovo = grupoEconomicoRepository.findByCodigo("GRUPO_DESTINO").orElseThrow();
+        assertEquals(1, reimportacao.getAtualizados());
+        assertEquals(grupoNovo.getId(), clienteRepository.findByCnpj(cliente.getCnpj())
+                .orElseThrow().getGrupoEconomico().getId());
+        assertEquals(grupoNovo.getId(), analiseRepository.findAll().get(0).getGrupoEconomicoId());
+        assertEquals(Set.of(grupoAntigo.getId(), grupoNovo.getId()), resolvedor.getGruposAfetados());
     }
 
     @Test
@@ -274,6 +337,132 @@ class ImportacaoServiceTest {
         assertEquals(TipoWorkflow.BASE_PRAZO, p3.getWorkflow());
     }
 
+    @Test
+    void testImportarPedidos_ReimportacaoGravaSoODelta() {
+        // Arrange
+        GrupoEconomico grupo = criarGrupoTeste();
+        Cliente cliente = criarClienteTeste(grupo);
+
+        PedidoDTO dto = new PedidoDTO();
+        dto.setNumero("PED_DELTA");
+        dto.setData(LocalDate.now());
+        dto.setValor(new BigDecimal("1000.00"));
+        dto.setCnpjCliente(cliente.getCnpj());
+        dto.setBloqueio("80");
+        importacaoService.importarPedidos(List.of(dto), resultado);
+
+        // Act 1 - mesma linha de novo: inalterada
+        ResultadoImportacao reimportacao = new ResultadoImportacao();
+        importacaoService.importarPedidos(List.of(dto), reimportacao);
+
+        // Assert 1
+        assertEquals(0, reimportacao.getPedidosImportados());
+        assertEquals(1, reimportacao.getInalterados());
+        assertEquals(1, pedidoRepository.count());
+
+        // Act 2 - valor alterado: atualiza o mesmo pedido
+        dto.setValor(new BigDecimal("1500.00"));
+        ResultadoImportacao alteracao = new ResultadoImportacao();
+        importacaoService.importarPedidos(List.of(dto), alteracao);
+
+        // Assert 2
+        assertEquals(0, alteracao.getPedidosImportados());
+        assertEquals(1, alteracao.getAtualizados());
+        assertEquals(1, pedidoRepository.count());
+        assertEquals(1, analiseRepository.count());
+        assertEquals(0, new BigDecimal("1500.00").compareTo(pedidoRepository.findAll().get(0).getValor()));
+    }
+
+    @Test
+    void testImportarPedidos_PedidoGravadoSemChaveNaturalEAtualizado() {
+        // Arrange - pedido gravado antes do delta por chave (chave_natural e hash nulos)
+        GrupoEconomico grupo = criarGrupoTeste();
+        Cliente cliente = criarClienteTeste(grupo);
+
+        Pedido legado = new Pedido();
+        legado.setNumero("PED_LEGADO");
+        legado.setData(LocalDate.now());
+        legado.setValor(new BigDecimal("1000.00"));
+        legado.setCliente(cliente);
+        legado.setWorkflow(TipoWorkflow.BASE_PRAZO);
+        pedidoRepository.save(legado);
+
+        PedidoDTO dto = new PedidoDTO();
+        dto.setNumero("PED_LEGADO");
+        dto.setData(LocalDate.now());
+        dto.setValor(new BigDecimal("1200.00"));
+        dto.setCnpjCliente(cliente.getCnpj());
+
+        // Act
+        importacaoService.importarPedidos(List.of(dto), resultado);
+
+        // Assert - o pedido existente recebe a chave e é atualizado, não duplicado
+        assertEquals(0, resultado.getPedidosImportados());
+        assertEquals(1, resultado.getAtualizados());
+        assertEquals(1, pedidoRepository.count());
+
+        Pedido pedido = pedidoRepository.findById(legado.getId()).orElseThrow();
+        assertEquals(cliente.getCnpj() + "|PED_LEGADO", pedido.getChaveNatural());
+        assertEquals(0, new BigDecimal("1200.00").compareTo(pedido.getValor()));
+    }
+
+    @Test
+    void testImportarPedidos_IdsDaSequenceEInsertsEmLote() {
+        // Arrange - 30 pedidos com lote de 10: três flush/clear durante a importação
+        GrupoEconomico grupo = criarGrupoTeste();
+        Cliente cliente = criarClienteTeste(grupo);
+
+        List<PedidoDTO> pedidos = new ArrayList<>();
+        for (int i = 1; i <= 30; i++) {
+            PedidoDTO dto = new PedidoDTO();
+            dto.setNumero(String.format("PED_LOTE_%02d", i));
+            dto.setData(LocalDate.now());
+            dto.setValor(new BigDecimal("100.00"));
+            dto.setCnpjCliente(cliente.getCnpj());
+            pedidos.add(dto);
+        }
+
+        ImportacaoService alvo = AopTestUtils.getTargetObject(importacaoService);
+        Object tamanhoLoteOriginal = ReflectionTestUtils.getField(alvo, "tamanhoLote");
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        boolean statisticsOriginal = statistics.isStatisticsEnabled();
+        ReflectionTestUtils.setField(alvo, "tamanhoLote", 10);
+        entityManager.flush();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        // Act
+        try {
+            importacaoService.importarPedidos(pedidos, resultado);
+            entityManager.flush();
+        } finally {
+            ReflectionTestUtils.setField(alvo, "tamanhoLote", tamanhoLoteOriginal);
+            statistics.setStatisticsEnabled(statisticsOriginal);
+        }
+
+        // Assert - todas as linhas gravadas, com o contexto limpo a cada lote
+        assertEquals(30, resultado.getPedidosImportados());
+        assertEquals(60, statistics.getEntityInsertCount(), "30 pedidos + 30 análises");
+        assertFalse(entityManager.contains(cliente), "flush/clear a cada lote desanexa o contexto");
+
+        // INSERTs em batch JDBC: um statement por tabela a cada lote, não um por linha
+        assertTrue(statistics.getPrepareStatementCount() < 30,
+                "Statements preparados: " + statistics.getPrepareStatementCount());
+
+        // Ids da sequence pooled-lo: distintos e consecutivos, na ordem do arquivo
+        List<Long> ids = pedidoRepository.findAll().stream()
+                .filter(p -> p.getNumero().startsWith("PED_LOTE_"))
+                .sorted(Comparator.comparing(Pedido::getNumero))
+                .map(Pedido::getId)
+                .toList();
+        assertEquals(30, ids.size());
+        for (int i = 1; i < ids.size(); i++) {
+            assertEquals(ids.get(0) + i, ids.get(i));
+        }
+        assertEquals(30, analiseRepository.count());
+    }
+
     @Test
     void testImportarPedidos_CriaAnalisePendente() {
         // Arrange
@@ -406,6 +595,255 @@ class ImportacaoServiceTest {
         assertEquals(new BigDecimal("1500.00"), duplicata.getValor());
     }
 
+    @Test
+    void testImportarDuplicatas_ValorAlteradoAtualizaAMesmaDuplicata() {
+        // Arrange
+        GrupoEconomico grupo = criarGrupoTeste();
+        Cliente cliente = criarClienteTeste(grupo);
+
+        DuplicataDTO dto = new DuplicataDTO();
+        dto.setCnpj(cliente.getCnpj());
+        dto.setPortador("Banco Teste");
+        dto.setVencimento(LocalDate.now().minusDays(30));
+        dto.setValor(new BigDecimal("1500.00"));
+        dto.setSaldo(new BigDecimal("1500.00"));
+        importacaoService.importarDuplicatas(List.of(dto), resultado);
+
+        // Act - valor renegociado: o valor é conteúdo, não faz parte da chave
+        dto.setValor(new BigDecimal("1200.00"));
+        dto.setSaldo(new BigDecimal("1200.00"));
+        ResultadoImportacao alteracao = new ResultadoImportacao();
+        importacaoService.importarDuplicatas(List.of(dto), alteracao);
+
+        // Assert
+        assertEquals(0, alteracao.getDuplicatasImportadas());
+        assertEquals(1, alteracao.getAtualizados());
+        List<Duplicata> duplicatas = duplicataRepository.findAll();
+        assertEquals(1, duplicatas.size());
+        assertEquals(0, new BigDecimal("1200.00").compareTo(duplicatas.get(0).getValor()));
+    }
+
+    @Test
+    void testImportarDuplicatas_ParcelasNoMesmoVencimentoEPortadorSaoMantidas() {
+        // Arrange - duas parcelas do mesmo cliente, vencimento e portador
+        GrupoEconomico grupo = criarGrupoTeste();
+        Cliente cliente = criarClienteTeste(grupo);
+        LocalDate vencimento = LocalDate.now().plusDays(30);
+
+        DuplicataDTO primeira = new DuplicataDTO();
+        primeira.setCnpj(cliente.getCnpj());
+        primeira.setPortador("Banco Teste");
+        primeira.setVencimento(vencimento);
+        primeira.setValor(new BigDecimal("1500.00"));
+        primeira.setSaldo(new BigDecimal("1500.00"));
+
+        DuplicataDTO segunda = new DuplicataDTO();
+        segunda.setCnpj(cliente.getCnpj());
+        segunda.setPortador("Banco Teste");
+        segunda.setVencimento(vencimento);
+        segunda.setValor(new BigDecimal("800.00"));
+        segunda.setSaldo(new BigDecimal("800.00"));
+
+        // Act
+        importacaoService.importarDuplicatas(List.of(primeira, segunda), resultado);
+        ResultadoImportacao reimportacao = new ResultadoImportacao();
+        importacaoService.importarDuplicatas(List.of(primeira, segunda), reimportacao);
+
+        // Assert - nenhuma sobrescreve a outra, e a re-importação não duplica
+        assertEquals(2, resultado.getDuplicatasImportadas());
+        assertEquals(0, reimportacao.getDuplicatasImportadas());
+        assertEquals(0, reimportacao.getAtualizados());
+        List<Duplicata> duplicatas = duplicataRepository.findAll();
+        assertEquals(2, duplicatas.size());
+        BigDecimal total = duplicatas.stream().map(Duplicata::getValor).reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertEquals(0, new BigDecimal("2300.00").compareTo(total));
+    }
+
+    // ========== TESTES DE IMPORTAÇÃO DO BUREAU ==========
+
+    @Test
+    void testImportarRestricoes_SubstituiRestricoesDoCliente() {
+        // Arrange - cliente com 2 Pefins já cadastrados
+        GrupoEconomico grupo = criarGrupoTeste();
+        Cliente cliente = criarClienteTeste(grupo);
+        for (int i = 0; i < 2; i++) {
+            Pefin pefin = new Pefin();
+            pefin.setCliente(cliente);
+            pefin.setOrigem("Serasa");
+            pefin.setValor(new BigDecimal("100.00"));
+            pefinRepository.save(pefin);
+        }
+
+        List<RestricaoDTO> restricoes = new ArrayList<>();
+        restricoes.add(new RestricaoDTO(cliente.getCnpj(), "Protesto", new BigDecimal("2500.00"),
+                LocalDate.now().minusDays(10), "1º Cartório", null));
+        restricoes.add(new RestricaoDTO("99999999000199", "PEFIN", BigDecimal.TEN, null, "SPC", null));
+
+        // Act
+        importacaoService.importarRestricoes(restricoes, resultado);
+
+        // Assert - o arquivo é a consulta completa: os Pefins antigos saem
+        assertEquals(1, resultado.getRestricoesImportadas());
+        assertEquals(2, resultado.getSubstituidos());
+        assertEquals(1, resultado.getErros().size());
+        assertTrue(resultado.getErros().get(0).contains("99999999000199"));
+
+        assertTrue(pefinRepository.findByClienteId(cliente.getId()).isEmpty());
+        List<Protesto> protestos = protestoRepository.findByClienteId(cliente.getId());
+        assertEquals(1, protestos.size());
+        assertEquals("1º Cartório", protestos.get(0).getCartorio());
+        assertEquals(new BigDecimal("2500.00"), protestos.get(0).getValor());
+    }
+
+    // ========== TESTES DE PRÉ-VALIDAÇÃO ==========
+
+    @Test
+    void testValidar_ApontaLinhaComClienteInexistenteSemGravar() {
+        // Arrange - pedido da linha 3 referencia CNPJ fora do arquivo de Clientes e do banco
+        MockMultipartFile clientes = csv("clientes.csv",
+                "cnpj,razao_social,estado,grupo_economico\n12345678000195,Empresa A,SP,G1\n");
+        MockMultipartFile pedidos = csv("pedidos.csv",
+                "numero,valor,cnpj_cliente\nPED001,100.00,12345678000195\nPED002,50.00,99999999000199\n");
+        MockMultipartFile dadosBI = csv("dadosbi.csv", "grupo_economico,colecao\nG1,202601\n");
+        MockMultipartFile duplicatas = csv("duplicatas.csv",
+                "cnpj,vencimento,valor\n12345678000195,2026-03-10,1500.00\n");
+
+        // Act
+        RelatorioValidacao relatorio = importacaoService.validar(clientes, pedidos, dadosBI, duplicatas);
+
+        // Assert
+        assertFalse(relatorio.isValido());
+        assertEquals(1, relatorio.getTotalErros());
+
+        RelatorioValidacao.Arquivo arquivoPedidos = relatorio.getArquivos().get(1);
+        assertEquals("Pedidos", arquivoPedidos.getNome());
+        assertEquals(1, arquivoPedidos.getNovos());
+        assertEquals(3, arquivoPedidos.getErros().get(0).linha());
+        assertTrue(arquivoPedidos.getErros().get(0).mensagem().contains("99999999000199"));
+
+        // Nada gravado
+        assertEquals(0, clienteRepository.count());
+        assertEquals(0, pedidoRepository.count());
+    }
+
+    @Test
+    void testValidar_ValorInvalidoApontaLinhaEmVezDeZerar() {
+        // Arrange - valor do pedido da linha 3 não é número
+        MockMultipartFile clientes = csv("clientes.csv",
+                "cnpj,razao_social,estado,grupo_economico\n12345678000195,Empresa A,SP,G1\n");
+        MockMultipartFile pedidos = csv("pedidos.csv",
+                "numero,valor,cnpj_cliente\nPED001,100.00,12345678000195\nPED002,1.50.000,12345678000195\n");
+        MockMultipartFile dadosBI = csv("dadosbi.csv", "grupo_economico,colecao\nG1,202601\n");
+        MockMultipartFile duplicatas = csv("duplicatas.csv",
+                "cnpj,vencimento,valor\n12345678000195,2026-03-10,1500.00\n");
+
+        // Act
+        RelatorioValidacao relatorio = importacaoService.validar(clientes, pedidos, dadosBI, duplicatas);
+
+        // Assert
+        assertFalse(relatorio.isValido());
+        RelatorioValidacao.Arquivo arquivoPedidos = relatorio.getArquivos().get(1);
+        assertEquals(1, arquivoPedidos.getNovos());
+        assertEquals(1, arquivoPedidos.getErros().size());
+        assertEquals(3, arquivoPedidos.getErros().get(0).linha());
+        assertTrue(arquivoPedidos.getErros().get(0).mensagem().contains("1.50.000"));
+    }
+
+    private MockMultipartFile csv(String nome, String conteudo) {
+        return new MockMultipartFile(nome, nome, "text/csv", conteudo.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // ========== TESTES DE PÓS-PROCESSAMENTO ==========
+
+    @Test
+    void testCalcularAlertas_GravaSnapshotDoGrupo() {
+        // Arrange - pedido acima do limite aprovado do grupo (50000)
+        GrupoEconomico grupo = criarGrupoTeste();
+        Cliente cliente = criarClienteTeste(grupo);
+
+        PedidoDTO dto = new PedidoDTO();
+        dto.setNumero("PED_ALERTA");
+        dto.setData(LocalDate.now());
+        dto.setValor(new BigDecimal("60000.00"));
+        dto.setCnpjCliente(cliente.getCnpj());
+        dto.setBloqueio("36");
+        importacaoService.importarPedidos(List.of(dto), resultado);
+
+        // Act
+        importacaoService.calcularAlertas(resultado, List.of(grupo.getId()));
+
+        // Assert
+        Long pedidoId = pedidoRepository.findAll().get(0).getId();
+        List<AlertaPedido> alertas = alertaPedidoRepository.findByPedidoIdIn(List.of(pedidoId));
+        assertTrue(alertas.stream().anyMatch(a -> "PEDIDO > LIMITE".equals(a.getTexto())));
+        assertTrue(alertaPedidoRepository.findPedidoIdsByCodigo(TipoAlerta.PEDIDO_ACIMA_LIMITE).contains(pedidoId));
+
+        // Recalcular substitui o snapshot em vez de duplicar
+        importacaoService.calcularAlertas(resultado, List.of(grupo.getId()));
+        assertEquals(alertas.size(), alertaPedidoRepository.findByPedidoIdIn(List.of(pedidoId)).size());
+    }
+
+    @Test
+    void testCalcularLimitesSugeridos_SoGruposAfetadosPelaImportacao() {
+        // Arrange - dois grupos com análises e um limite sugerido já calculado
+        GrupoEconomico grupoAfetado = criarGrupoTeste();
+        Cliente clienteAfetado = criarClienteTeste(grupoAfetado);
+
+        GrupoEconomico grupoIntocado = new GrupoEconomico();
+        grupoIntocado.setCodigo("GRUPO_INTOCADO");
+        grupoIntocado.setNome("Grupo Intocado");
+        grupoIntocado.setLimiteAprovado(new BigDecimal("50000.00"));
+        grupoIntocado.setLimiteDisponivel(new BigDecimal("50000.00"));
+        grupoEconomicoRepository.save(grupoIntocado);
+
+        Cliente clienteIntocado = new Cliente();
+        clienteIntocado.setCnpj("98765432000110");
+        clienteIntocado.setRazaoSocial("Cliente Intocado LTDA");
+        clienteIntocado.setTipoCliente(TipoCliente.BASE_PRAZO);
+        clienteIntocado.setGrupoEconomico(grupoIntocado);
+        clienteIntocado.setSimei(false);
+        clienteRepository.save(clienteIntocado);
+
+        PedidoDTO anterior = new PedidoDTO();
+        anterior.setNumero("PED_INTOCADO");
+        anterior.setData(LocalDate.now());
+        anterior.setValor(new BigDecimal("1000.00"));
+        anterior.setCnpjCliente(clienteIntocado.getCnpj());
+        importacaoService.importarPedidos(List.of(anterior), resultado);
+
+        BigDecimal limiteAnterior = new BigDecimal("12345.00");
+        analiseRepository.findAll().forEach(a -> {
+            a.setLimiteSugerido(limiteAnterior);
+            analiseRepository.save(a);
+        });
+
+        // Act - nova importação só com um pedido do grupo afetado
+        PedidoDTO novo = new PedidoDTO();
+        novo.setNumero("PED_AFETADO");
+        novo.setData(LocalDate.now());
+        novo.setValor(new BigDecimal("2000.00"));
+        novo.setCnpjCliente(clienteAfetado.getCnpj());
+
+        ResolvedorImportacao resolvedor = ResolvedorImportacao.carregar(clienteRepository, grupoEconomicoRepository);
+        ResultadoImportacao importacao = new ResultadoImportacao();
+        importacaoService.importarPedidos(List.of(Entrada.normalizada(novo, novo.getCnpjCliente() + "|" + novo.getNumero(), 1L)),
+                importacao, resolvedor);
+        importacaoService.calcularLimitesSugeridos(importacao, resolvedor.getGruposAfetados());
+        entityManager.clear();
+
+        // Assert - só o grupo afetado foi recalculado (sem DadosBI: limite zero)
+        assertEquals(Set.of(grupoAfetado.getId()), resolvedor.getGruposAfetados());
+        for (Analise analise : analiseRepository.findAll()) {
+            if (analise.getGrupoEconomicoId().equals(grupoAfetado.getId())) {
+                assertEquals(0, BigDecimal.ZERO.compareTo(analise.getLimiteSugerido()));
+            } else {
+                assertEquals(0, limiteAnterior.compareTo(analise.getLimiteSugerido()),
+                        "Grupo fora da importação mantém o limite calculado antes");
+            }
+        }
+        assertTrue(importacao.getAvisos().contains("Limites sugeridos calculados: 1 análises em 1 grupos"));
+    }
+
     // ========== TESTES DE RESULTADO IMPORTAÇÃO ==========
 
     @Test
@@ -446,6 +884,36 @@ class ImportacaoServiceTest {
         assertEquals(5, r.getTotalImportado());
     }
 
+    @Test
+    void testResultadoImportacao_PreparacaoDosArquivosEmParalelo() throws Exception {
+        // Arrange - 4 arquivos preparados ao mesmo tempo escrevem no mesmo resultado
+        ResultadoImportacao r = new ResultadoImportacao();
+
+        // Act
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> arquivos = new ArrayList<>();
+            for (int arquivo = 0; arquivo < 4; arquivo++) {
+                arquivos.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        r.addPreparados(1);
+                        r.incrementarInalterados();
+                        if (i % 100 == 0) {
+                            r.addErro("linha " + i);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> arquivo : arquivos) {
+                arquivo.get();
+            }
+        }
+
+        // Assert - nenhuma atualização perdida
+        assertEquals(40_000, r.getPreparados());
+        assertEquals(40_000, r.getInalterados());
+        assertEquals(400, r.getErros().size());
+    }
+
     // ========== HELPERS ==========
 
     private GrupoEconomico criarGrupoTeste() {
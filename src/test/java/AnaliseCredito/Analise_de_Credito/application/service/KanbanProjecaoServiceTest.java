@@ -0,0 +1,254 @@
+package AnaliseCredito.Analise_de_Credito.application.service;
+
+import AnaliseCredito.Analise_de_Credito.domain.enums.StatusWorkflow;
+import AnaliseCredito.Analise_de_Credito.domain.enums.TipoCliente;
+import AnaliseCredito.Analise_de_Credito.domain.enums.TipoWorkflow;
+import AnaliseCredito.Analise_de_Credito.domain.model.*;
+import AnaliseCredito.Analise_de_Credito.infrastructure.persistence.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes para KanbanProjecaoService.
+ *
+ * Monta a projeção kanban_card a partir de análises gravadas e valida os cards.
+ */
+@SpringBootTest
+@Transactional
+class KanbanProjecaoServiceTest {
+
+    @Autowired
+    private KanbanProjecaoService kanbanProjecaoService;
+
+    @Autowired
+    private KanbanCardRepository kanbanCardRepository;
+
+    @Autowired
+    private IndiceBuscaService indiceBuscaService;
+
+    @Autowired
+    private GrupoEconomicoRepository grupoEconomicoRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private AnaliseRepository analiseRepository;
+
+    private GrupoEconomico grupo;
+
+    @BeforeEach
+    void setUp() {
+        kanbanCardRepository.deleteAll();
+
+        grupo = new GrupoEconomico();
+        grupo.setCodigo("GRP-KANBAN");
+        grupo.setNome("Grupo Kanban");
+        grupo.setLimiteAprovado(BigDecimal.ZERO);
+        grupo.setLimiteDisponivel(BigDecimal.ZERO);
+        grupoEconomicoRepository.save(grupo);
+    }
+
+    @Test
+    void testAtualizar_UmCardPorGrupoEWorkflow() {
+        // Arrange: 2 pedidos BASE_PRAZO (clientes diferentes) e 1 CLIENTE_NOVO no mesmo grupo
+        Cliente clienteA = criarCliente("11111111000111", "Loja Alfa", 650, "SP");
+        Cliente clienteB = criarCliente("22222222000122", "Loja Beta", 420, "RJ");
+
+        Analise antiga = criarAnalise(clienteA, "PED-K1", "10000.00", "10",
+                StatusWorkflow.EM_ANALISE_FINANCEIRO, LocalDateTime.now().minusDays(5));
+        criarAnalise(clienteB, "PED-K2", "2500.50", "10",
+                StatusWorkflow.PENDENTE, LocalDateTime.now().minusDays(1));
+        criarAnalise(clienteB, "PED-K3", "7000.00", "80",
+                StatusWorkflow.PENDENTE, LocalDateTime.now());
+
+        // Act
+        int cards = kanbanProjecaoService.atualizar(List.of(grupo.getId()));
+
+        // Assert
+        assertEquals(2, cards);
+        List<KanbanCard> doGrupo = kanbanCardRepository.findAll().stream()
+                .filter(c -> c.getGrupoEconomicoId().equals(grupo.getId()))
+                .sorted(Comparator.comparing(KanbanCard::getWorkflow))
+                .toList();
+        assertEquals(2, doGrupo.size());
+
+        KanbanCard prazo = doGrupo.get(0);
+        assertEquals(TipoWorkflow.BASE_PRAZO, prazo.getWorkflow());
+        assertEquals(2, prazo.getQuantidadePedidos());
+        assertEquals(0, new BigDecimal("12500.50").compareTo(prazo.getValorTotal()));
+        assertEquals(420, prazo.getPiorScore());
+        assertEquals(antiga.getId(), prazo.getAnalisePrincipalId(), "Principal é a análise mais antiga");
+        assertEquals(StatusWorkflow.EM_ANALISE_FINANCEIRO, prazo.getStatus());
+        assertEquals(List.of("Loja Alfa", "Loja Beta"), prazo.getClientesRazaoSocial().stream().sorted().toList());
+        assertEquals("Grupo Kanban", prazo.getGrupoNome());
+
+        KanbanCard novo = doGrupo.get(1);
+        assertEquals(TipoWorkflow.CLIENTE_NOVO, novo.getWorkflow());
+        assertEquals(1, novo.getQuantidadePedidos());
+
+        // Busca por CNPJ usa o texto desnormalizado do card
+        assertEquals(1, contarCards(List.of(TipoWorkflow.values()), "11111111"));
+        assertEquals(2, contarCards(List.of(TipoWorkflow.values()), "loja beta"));
+        assertEquals(1, contarCards(List.of(TipoWorkflow.CLIENTE_NOVO), "loja beta"));
+    }
+
+    @Test
+    void testAtualizar_SubstituiCardsDoGrupo() {
+        // Arrange
+        Cliente cliente = criarCliente("33333333000133", "Loja Gama", 700, "MG");
+        Analise analise = criarAnalise(cliente, "PED-K4", "5000.00", "10",
+                StatusWorkflow.PENDENTE, LocalDateTime.now());
+        kanbanProjecaoService.atualizar(List.of(grupo.getId()));
+
+        // Act: status muda e o grupo é reprocessado
+        analise.setStatusWorkflow(StatusWorkflow.EM_ANALISE_FINANCEIRO);
+        analiseRepository.save(analise);
+        kanbanProjecaoService.atualizar(List.of(grupo.getId()));
+
+        // Assert: continua um único card, com o novo status
+        List<KanbanCard> doGrupo = kanbanCardRepository.findAll().stream()
+                .filter(c -> c.getGrupoEconomicoId().equals(grupo.getId()))
+                .toList();
+        assertEquals(1, doGrupo.size());
+        assertEquals(StatusWorkflow.EM_ANALISE_FINANCEIRO, doGrupo.get(0).getStatus());
+    }
+
+    @Test
+    void testResumirCards_AgregaNoBancoPeloGrupoDaAnalise() {
+        // Arrange: 3 pedidos BASE_PRAZO no grupo; o cliente B está cadastrado em outro grupo
+        GrupoEconomico outro = new GrupoEconomico();
+        outro.setCodigo("GRP-OUTRO");
+        outro.setNome("Grupo Outro");
+        outro.setLimiteAprovado(BigDecimal.ZERO);
+        outro.setLimiteDisponivel(BigDecimal.ZERO);
+        grupoEconomicoRepository.save(outro);
+
+        Cliente clienteA = criarCliente("66666666000166", "Loja Epsilon", 610, "SP");
+        Cliente clienteB = criarCliente("77777777000177", "Loja Zeta", 380, "PR");
+        clienteB.setGrupoEconomico(outro);
+        clienteRepository.save(clienteB);
+
+        criarAnalise(clienteA, "PED-K8", "1000.00", "10", StatusWorkflow.PENDENTE, LocalDateTime.now());
+        criarAnalise(clienteA, "PED-K9", "2000.25", "10", StatusWorkflow.PENDENTE, LocalDateTime.now());
+        criarAnalise(clienteB, "PED-K10", "300.00", "10", StatusWorkflow.PENDENTE, LocalDateTime.now());
+
+        // Act
+        List<AnaliseRepository.ResumoCard> resumos = analiseRepository.resumirCards(List.of(grupo.getId()));
+
+        // Assert: uma linha por card (grupo × workflow), com o grupo da análise
+        assertEquals(1, resumos.size());
+        AnaliseRepository.ResumoCard resumo = resumos.get(0);
+        assertEquals(grupo.getId(), resumo.getGrupoEconomicoId());
+        assertEquals(TipoWorkflow.BASE_PRAZO, resumo.getWorkflow());
+        assertEquals("Grupo Kanban", resumo.getGrupoNome());
+        assertEquals("GRP-KANBAN", resumo.getGrupoCodigo());
+        assertEquals(3, resumo.getQuantidadePedidos());
+        assertEquals(0, new BigDecimal("3300.25").compareTo(resumo.getValorTotal()));
+        assertEquals(380, resumo.getPiorScore());
+    }
+
+    @Test
+    void testFindPaginaColuna_FiltraWorkflowESlaNoBanco() {
+        // Arrange: card BASE_PRAZO há 5 dias e card CLIENTE_NOVO de hoje, ambos pendentes
+        Cliente cliente = criarCliente("44444444000144", "Loja Delta", 600, "SP");
+        criarAnalise(cliente, "PED-K5", "3000.00", "10",
+                StatusWorkflow.PENDENTE, LocalDateTime.now().minusDays(5));
+        criarAnalise(cliente, "PED-K6", "4000.00", "80",
+                StatusWorkflow.PENDENTE, LocalDateTime.now());
+        kanbanProjecaoService.atualizar(List.of(grupo.getId()));
+
+        // Act: SLA "3+ dias" = dataInicio até hoje - 3 dias
+        LocalDateTime limite = LocalDateTime.now().minusDays(3);
+        List<KanbanCard> prazo = kanbanCardRepository.findPaginaColuna(TipoWorkflow.BASE_PRAZO,
+                StatusWorkflow.PENDENTE, null, null, null, null, false, List.of(0L), null, limite, null, null,
+                Limit.of(10));
+        List<KanbanCard> novo = kanbanCardRepository.findPaginaColuna(TipoWorkflow.CLIENTE_NOVO,
+                StatusWorkflow.PENDENTE, null, null, null, null, false, List.of(0L), null, limite, null, null,
+                Limit.of(10));
+
+        // Assert
+        assertEquals(1, prazo.size());
+        assertEquals(0, novo.size());
+    }
+
+    @Test
+    void testIndiceBusca_SemAcentoPorNomeCnpjEGrupo() {
+        // Arrange
+        Cliente cliente = criarCliente("55555555000155", "Confecções São João", 600, "SP");
+        cliente.setNomeFantasia("Ateliê Joãozinho");
+        clienteRepository.save(cliente);
+        criarAnalise(cliente, "PED-K7", "3000.00", "10", StatusWorkflow.PENDENTE, LocalDateTime.now());
+
+        // Act
+        indiceBuscaService.reindexar(List.of(grupo.getId()));
+
+        // Assert: acentos e maiúsculas ignorados, CNPJ por prefixo com ou sem máscara
+        assertTrue(indiceBuscaService.buscar("CONFECCOES SAO").grupoIds().contains(grupo.getId()));
+        assertTrue(indiceBuscaService.buscar("atelie joaoz").grupoIds().contains(grupo.getId()));
+        assertTrue(indiceBuscaService.buscar("55.555.555/0001").grupoIds().contains(grupo.getId()));
+        assertTrue(indiceBuscaService.buscar("grp-kanban").grupoIds().contains(grupo.getId()));
+        assertFalse(indiceBuscaService.buscar("5555000").grupoIds().contains(grupo.getId()),
+                "CNPJ casa só pelo prefixo");
+        assertFalse(indiceBuscaService.buscar("sao paulo").grupoIds().contains(grupo.getId()));
+
+        // Termo curto não usa o índice (filtro textual no card)
+        assertFalse(indiceBuscaService.buscar("sã").usaIndice());
+    }
+
+    // ========== HELPERS ==========
+
+    private long contarCards(List<TipoWorkflow> workflows, String busca) {
+        return kanbanCardRepository.totalizarColunas(workflows, null, null, null, busca, false, List.of(0L), null, null)
+                .stream()
+                .mapToLong(KanbanCardRepository.TotalColuna::getQuantidade)
+                .sum();
+    }
+
+    private Cliente criarCliente(String cnpj, String razaoSocial, int score, String uf) {
+        Cliente cliente = new Cliente();
+        cliente.setCnpj(cnpj);
+        cliente.setRazaoSocial(razaoSocial);
+        cliente.setTipoCliente(TipoCliente.BASE_PRAZO);
+        cliente.setGrupoEconomico(grupo);
+        cliente.setSimei(false);
+        cliente.setScoreBoaVista(score);
+        cliente.setEstado(uf);
+        return clienteRepository.save(cliente);
+    }
+
+    private Analise criarAnalise(Cliente cliente, String numero, String valor, String bloqueio,
+                                 StatusWorkflow status, LocalDateTime dataInicio) {
+        Pedido pedido = new Pedido();
+        pedido.setNumero(numero);
+        pedido.setCliente(cliente);
+        pedido.setData(LocalDate.now());
+        pedido.setValor(new BigDecimal(valor));
+        pedido.setBloqueio(bloqueio);
+        pedido.calcularWorkflow();
+        pedidoRepository.save(pedido);
+
+        Analise analise = new Analise();
+        analise.setPedido(pedido);
+        analise.setClienteId(cliente.getId());
+        analise.setGrupoEconomicoId(grupo.getId());
+        analise.setStatusWorkflow(status);
+        analise.setDataInicio(dataInicio);
+        return analiseRepository.save(analise);
+    }
+}
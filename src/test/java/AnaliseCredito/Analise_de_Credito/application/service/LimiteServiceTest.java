@@ -12,6 +12,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.util.Optional;
@@ -28,6 +29,9 @@ class LimiteServiceTest {
     @Mock
     private HistoricoLimiteRepository historicoRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private LimiteService limiteService;
 
@@ -59,6 +63,9 @@ class LimiteServiceTest {
         // Verifica que o grupo foi atualizado
         assertEquals(new BigDecimal("75000.00"), grupo.getLimiteAprovado());
         verify(grupoRepository).save(grupo);
+
+        // Card do grupo no Kanban é atualizado
+        verify(eventPublisher).publishEvent(GruposAlteradosEvent.de(1L));
     }
 
     @Test
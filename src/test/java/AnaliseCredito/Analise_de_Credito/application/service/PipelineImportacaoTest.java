@@ -0,0 +1,74 @@
+package AnaliseCredito.Analise_de_Credito.application.service;
+
+import AnaliseCredito.Analise_de_Credito.application.service.PipelineImportacao.Entrada;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes para PipelineImportacao.
+ *
+ * Valida ordem das entradas através das filas limitadas, repasse de erros de linha
+ * e exposição da falha de leitura ao persistidor.
+ */
+class PipelineImportacaoTest {
+
+    @Test
+    void testIterar_MantemOrdemComFilaMenorQueOArquivo() {
+        // Arrange - fila de 2 posições para 100 linhas: leitor e normalizador bloqueiam várias vezes
+        List<Entrada<Integer>> recebidas = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             PipelineImportacao<Integer> pipeline = PipelineImportacao.iniciar("Numeros", 2, executor,
+                     destino -> {
+                         for (int i = 1; i <= 100; i++) {
+                             destino.accept(i % 10 == 0 ? Entrada.comErro("linha " + i, i) : Entrada.lida(i, i));
+                         }
+                     },
+                     n -> n % 7 == 0 ? Entrada.comErro("multiplo de 7: " + n) : Entrada.normalizada(n, "k" + n, n))) {
+
+            // Act
+            pipeline.forEach(recebidas::add);
+
+            // Assert
+            assertNull(pipeline.getFalha());
+            assertEquals(100, pipeline.getLinhasLidas());
+        }
+
+        assertEquals(100, recebidas.size());
+        assertEquals("k1", recebidas.get(0).chave());
+        assertEquals("multiplo de 7: 7", recebidas.get(6).erro());
+        assertEquals("linha 10", recebidas.get(9).erro());
+        assertEquals(99, recebidas.get(98).dto());
+        assertEquals(99L, recebidas.get(98).hash());
+        assertEquals(99, recebidas.get(98).linha());
+        assertEquals(7, recebidas.get(6).linha());
+    }
+
+    @Test
+    void testIterar_FalhaDaLeituraEncerraPipeline() {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             PipelineImportacao<String> pipeline = PipelineImportacao.iniciar("Clientes", 10, executor,
+                     destino -> {
+                         destino.accept(Entrada.lida("A", 2));
+                         throw new IOException("arquivo truncado");
+                     },
+                     s -> Entrada.normalizada(s, s, 0L))) {
+
+            List<Entrada<String>> recebidas = new ArrayList<>();
+            pipeline.forEach(recebidas::add);
+
+            assertEquals(1, recebidas.size());
+            assertEquals(1, pipeline.getLinhasLidas());
+            assertInstanceOf(IOException.class, pipeline.getFalha());
+            assertEquals("arquivo truncado", pipeline.getFalha().getMessage());
+            assertThrows(IllegalStateException.class, pipeline::iterator);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package AnaliseCredito.Analise_de_Credito.application.service;
+
+import AnaliseCredito.Analise_de_Credito.infrastructure.persistence.ClienteRepository;
+import AnaliseCredito.Analise_de_Credito.infrastructure.persistence.GrupoEconomicoRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes para ResolvedorImportacao.
+ *
+ * Valida o empacotamento de CNPJs em long, o mapa de fallback para CNPJs fora
+ * do padrão e o registro de clientes e grupos durante a importação.
+ */
+@ExtendWith(MockitoExtension.class)
+class ResolvedorImportacaoTest {
+
+    @Mock
+    private ClienteRepository clienteRepository;
+
+    @Mock
+    private GrupoEconomicoRepository grupoEconomicoRepository;
+
+    @Test
+    void testChaveCnpj_EmpacotaQuatorzeDigitos() {
+        assertEquals(12_345_678_000_195L, ResolvedorImportacao.chaveCnpj("12345678000195"));
+        assertEquals(99_999_999_999_999L, ResolvedorImportacao.chaveCnpj("99999999999999"));
+        // Zeros à esquerda continuam distintos pelo comprimento fixo de 14 dígitos
+        assertEquals(195L, ResolvedorImportacao.chaveCnpj("00000000000195"));
+        assertEquals(0L, ResolvedorImportacao.chaveCnpj("00000000000000"));
+    }
+
+    @Test
+    void testChaveCnpj_ForaDoPadraoFicaSemChave() {
+        assertEquals(-1L, ResolvedorImportacao.chaveCnpj(null));
+        assertEquals(-1L, ResolvedorImportacao.chaveCnpj(""));
+        assertEquals(-1L, ResolvedorImportacao.chaveCnpj("1234567800019"));
+        assertEquals(-1L, ResolvedorImportacao.chaveCnpj("123456780001950"));
+        assertEquals(-1L, ResolvedorImportacao.chaveCnpj("12.345.678/0001-95"));
+        assertEquals(-1L, ResolvedorImportacao.chaveCnpj("1234567800019A"));
+        assertEquals(-1L, ResolvedorImportacao.chaveCnpj("-1234567800019"));
+    }
+
+    @Test
+    void testCarregar_ResolveCnpjNumericoENaoNumerico() {
+        // Arrange - um CNPJ numérico, um com máscara e um alfanumérico (fallback)
+        when(clienteRepository.findCnpjIdEGrupo()).thenReturn(List.of(
+                new Object[]{"12345678000195", 1L, 10L},
+                new Object[]{"12.345.678/0001-95", 2L, 20L},
+                new Object[]{"AB12CD34000156", 3L, null}));
+        when(grupoEconomicoRepository.findCodigoEId()).thenReturn(List.of(
+                new Object[]{"GRP-A", 10L},
+                new Object[]{"GRP-B", 20L},
+                new Object[]{"GRP-A", 30L}));
+
+        // Act
+        ResolvedorImportacao resolvedor = ResolvedorImportacao.carregar(clienteRepository, grupoEconomicoRepository);
+
+        // Assert - cada formato resolve o próprio cliente, sem se confundir
+        assertEquals(1L, resolvedor.getClienteId("12345678000195"));
+        assertEquals(10L, resolvedor.getGrupoIdDoCliente("12345678000195"));
+        assertEquals(2L, resolvedor.getClienteId("12.345.678/0001-95"));
+        assertEquals(20L, resolvedor.getGrupoIdDoCliente("12.345.678/0001-95"));
+        assertEquals(3L, resolvedor.getClienteId("AB12CD34000156"));
+        assertNull(resolvedor.getGrupoIdDoCliente("AB12CD34000156"), "Cliente sem grupo");
+
+        assertNull(resolvedor.getClienteId("98765432000110"));
+        assertNull(resolvedor.getClienteId("XX12CD34000156"));
+        assertNull(resolvedor.getClienteId(null));
+        assertNull(resolvedor.getGrupoIdDoCliente(null));
+
+        // Código repetido: mantém o primeiro, como findByCodigo
+        assertEquals(10L, resolvedor.getGrupoId("GRP-A"));
+        assertEquals(20L, resolvedor.getGrupoId("GRP-B"));
+        assertNull(resolvedor.getGrupoId("GRP-C"));
+        assertTrue(resolvedor.getGruposAfetados().isEmpty());
+    }
+
+    @Test
+    void testRegistrar_NovosClientesEGruposDuranteAImportacao() {
+        // Arrange
+        when(clienteRepository.findCnpjIdEGrupo()).thenReturn(List.<Object[]>of(
+                new Object[]{"12345678000195", 1L, 10L}));
+        when(grupoEconomicoRepository.findCodigoEId()).thenReturn(List.of());
+        ResolvedorImportacao resolvedor = ResolvedorImportacao.carregar(clienteRepository, grupoEconomicoRepository);
+
+        // Act - cliente novo, troca de grupo de um existente e CNPJ fora do padrão
+        resolvedor.registrarGrupo("GRP-NOVO", 40L);
+        resolvedor.registrarCliente("11222333000181", 5L, 40L);
+        resolvedor.registrarCliente("12345678000195", 1L, 40L);
+        resolvedor.registrarCliente("CNPJ-INVALIDO", 6L, 40L);
+        resolvedor.registrarCliente(null, 7L, 40L);
+        resolvedor.marcarGrupoAfetado(10L);
+        resolvedor.marcarGrupoAfetado(40L);
+        resolvedor.marcarGrupoAfetado(10L);
+        resolvedor.marcarGrupoAfetado(null);
+
+        // Assert
+        assertEquals(40L, resolvedor.getGrupoId("GRP-NOVO"));
+        assertEquals(5L, resolvedor.getClienteId("11222333000181"));
+        assertEquals(1L, resolvedor.getClienteId("12345678000195"));
+        assertEquals(40L, resolvedor.getGrupoIdDoCliente("12345678000195"));
+        assertEquals(6L, resolvedor.getClienteId("CNPJ-INVALIDO"));
+        assertEquals(40L, resolvedor.getGrupoIdDoCliente("CNPJ-INVALIDO"));
+        assertNull(resolvedor.getClienteId(null));
+        assertEquals(Set.of(10L, 40L), resolvedor.getGruposAfetados());
+        assertThrows(UnsupportedOperationException.class, () -> resolvedor.getGruposAfetados().add(99L));
+    }
+}
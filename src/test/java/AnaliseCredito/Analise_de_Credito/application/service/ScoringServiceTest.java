@@ -2,11 +2,11 @@ package AnaliseCredito.Analise_de_Credito.application.service;
 
 import AnaliseCredito.Analise_de_Credito.domain.model.Cliente;
 import AnaliseCredito.Analise_de_Credito.domain.model.Configuracao;
+import AnaliseCredito.Analise_de_Credito.domain.model.ConfiguracaoSnapshot;
 import AnaliseCredito.Analise_de_Credito.domain.model.DadosBI;
 import AnaliseCredito.Analise_de_Credito.domain.model.GrupoEconomico;
 import AnaliseCredito.Analise_de_Credito.domain.model.Pedido;
 import AnaliseCredito.Analise_de_Credito.infrastructure.persistence.ClienteRepository;
-import AnaliseCredito.Analise_de_Credito.infrastructure.persistence.ConfiguracaoRepository;
 import AnaliseCredito.Analise_de_Credito.infrastructure.persistence.DadosBIRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -43,7 +43,7 @@ class ScoringServiceTest {
     private DadosBIRepository dadosBIRepository;
 
     @Mock
-    private ConfiguracaoRepository configuracaoRepository;
+    private ConfiguracaoService configuracaoService;
 
     @Mock
     private ClienteRepository clienteRepository;
@@ -92,8 +92,8 @@ class ScoringServiceTest {
 
         when(dadosBIRepository.findByGrupoEconomicoIdOrderByColecaoDesc(1L))
                 .thenReturn(Collections.singletonList(dadosBI));
-        when(configuracaoRepository.findById(1L))
-                .thenReturn(Optional.of(configuracao));
+        when(configuracaoService.atual())
+                .thenAnswer(inv -> ConfiguracaoSnapshot.de(configuracao));
 
         // Act
         BigDecimal limite = scoringService.calcularLimiteSugerido(grupo);
@@ -101,7 +101,7 @@ class ScoringServiceTest {
         // Assert
         assertEquals(0, new BigDecimal("75000").compareTo(limite));
         verify(dadosBIRepository).findByGrupoEconomicoIdOrderByColecaoDesc(1L);
-        verify(configuracaoRepository).findById(1L);
+        verify(configuracaoService).atual();
     }
 
     /**
@@ -142,8 +142,8 @@ class ScoringServiceTest {
 
         when(dadosBIRepository.findByGrupoEconomicoIdOrderByColecaoDesc(1L))
                 .thenReturn(Collections.singletonList(dadosBI));
-        when(configuracaoRepository.findById(1L))
-                .thenReturn(Optional.of(configuracao));
+        when(configuracaoService.atual())
+                .thenAnswer(inv -> ConfiguracaoSnapshot.de(configuracao));
 
         // Act
         BigDecimal limite = scoringService.calcularLimiteSugerido(grupo);
@@ -153,7 +153,7 @@ class ScoringServiceTest {
         // With SIMEI cap: 35000
         assertEquals(new BigDecimal("35000"), limite);
         verify(dadosBIRepository).findByGrupoEconomicoIdOrderByColecaoDesc(1L);
-        verify(configuracaoRepository).findById(1L);
+        verify(configuracaoService).atual();
     }
 
     /**
@@ -174,7 +174,7 @@ class ScoringServiceTest {
         // Assert
         assertEquals(BigDecimal.ZERO, limite);
         verify(dadosBIRepository).findByGrupoEconomicoIdOrderByColecaoDesc(1L);
-        verify(configuracaoRepository, never()).findById(anyLong());
+        verify(configuracaoService, never()).atual();
     }
 
     /**
@@ -209,8 +209,8 @@ class ScoringServiceTest {
 
         when(dadosBIRepository.findByGrupoEconomicoIdOrderByColecaoDesc(1L))
                 .thenReturn(dadosBI);
-        when(configuracaoRepository.findById(1L))
-                .thenReturn(Optional.of(configuracao));
+        when(configuracaoService.atual())
+                .thenAnswer(inv -> ConfiguracaoSnapshot.de(configuracao));
 
         // Act
         BigDecimal limite = scoringService.calcularLimiteSugerido(grupo);
@@ -219,7 +219,7 @@ class ScoringServiceTest {
         // Should use: maior credito (45000) * score da recente (600 -> 1.2) = 54000
         assertEquals(0, new BigDecimal("54000").compareTo(limite));
         verify(dadosBIRepository).findByGrupoEconomicoIdOrderByColecaoDesc(1L);
-        verify(configuracaoRepository).findById(1L);
+        verify(configuracaoService).atual();
     }
 
     /**
@@ -238,8 +238,8 @@ class ScoringServiceTest {
 
         when(dadosBIRepository.findByGrupoEconomicoIdOrderByColecaoDesc(1L))
                 .thenReturn(Collections.singletonList(dadosBI));
-        when(configuracaoRepository.findById(1L))
-                .thenReturn(Optional.of(configuracao));
+        when(configuracaoService.atual())
+                .thenAnswer(inv -> ConfiguracaoSnapshot.de(configuracao));
 
         // Act
         BigDecimal limite = scoringService.calcularLimiteSugerido(grupo);
@@ -265,8 +265,8 @@ class ScoringServiceTest {
 
         when(dadosBIRepository.findByGrupoEconomicoIdOrderByColecaoDesc(1L))
                 .thenReturn(Collections.singletonList(dadosBI));
-        when(configuracaoRepository.findById(1L))
-                .thenReturn(Optional.of(configuracao));
+        when(configuracaoService.atual())
+                .thenAnswer(inv -> ConfiguracaoSnapshot.de(configuracao));
 
         // Act
         BigDecimal limite = scoringService.calcularLimiteSugerido(grupo);
@@ -292,8 +292,8 @@ class ScoringServiceTest {
 
         when(dadosBIRepository.findByGrupoEconomicoIdOrderByColecaoDesc(1L))
                 .thenReturn(Collections.singletonList(dadosBI));
-        when(configuracaoRepository.findById(1L))
-                .thenReturn(Optional.of(configuracao));
+        when(configuracaoService.atual())
+                .thenAnswer(inv -> ConfiguracaoSnapshot.de(configuracao));
 
         // Act
         BigDecimal limite = scoringService.calcularLimiteSugerido(grupo);
@@ -330,8 +330,8 @@ class ScoringServiceTest {
 
         when(dadosBIRepository.findByGrupoEconomicoIdOrderByColecaoDesc(1L))
                 .thenReturn(Collections.singletonList(dadosBI));
-        when(configuracaoRepository.findById(1L))
-                .thenReturn(Optional.of(configuracao));
+        when(configuracaoService.atual())
+                .thenAnswer(inv -> ConfiguracaoSnapshot.de(configuracao));
 
         // Act
         BigDecimal limite = scoringService.calcularLimiteSugerido(grupo);
@@ -357,8 +357,8 @@ class ScoringServiceTest {
 
         when(dadosBIRepository.findByGrupoEconomicoIdOrderByColecaoDesc(1L))
                 .thenReturn(Collections.singletonList(dadosBI));
-        when(configuracaoRepository.findById(1L))
-                .thenReturn(Optional.empty());
+        when(configuracaoService.atual())
+                .thenThrow(new RuntimeException("Configuração não encontrada"));
 
         // Act & Assert
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
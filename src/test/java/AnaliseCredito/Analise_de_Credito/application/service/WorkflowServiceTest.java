@@ -6,11 +6,11 @@ import AnaliseCredito.Analise_de_Credito.domain.enums.TipoWorkflow;
 import AnaliseCredito.Analise_de_Credito.domain.model.Analise;
 import AnaliseCredito.Analise_de_Credito.domain.model.Cliente;
 import AnaliseCredito.Analise_de_Credito.domain.model.Configuracao;
+import AnaliseCredito.Analise_de_Credito.domain.model.ConfiguracaoSnapshot;
 import AnaliseCredito.Analise_de_Credito.domain.model.GrupoEconomico;
 import AnaliseCredito.Analise_de_Credito.domain.model.Pedido;
 import AnaliseCredito.Analise_de_Credito.infrastructure.persistence.AnaliseRepository;
 import AnaliseCredito.Analise_de_Credito.infrastructure.persistence.ClienteRepository;
-import AnaliseCredito.Analise_de_Credito.infrastructure.persistence.ConfiguracaoRepository;
 import AnaliseCredito.Analise_de_Credito.infrastructure.persistence.GrupoEconomicoRepository;
 import AnaliseCredito.Analise_de_Credito.infrastructure.persistence.PedidoRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -20,6 +20,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -51,7 +52,7 @@ class WorkflowServiceTest {
     private AnaliseRepository analiseRepository;
 
     @Mock
-    private ConfiguracaoRepository configuracaoRepository;
+    private ConfiguracaoService configuracaoService;
 
     @Mock
     private GrupoEconomicoRepository grupoEconomicoRepository;
@@ -62,6 +63,9 @@ class WorkflowServiceTest {
     @Mock
     private PedidoRepository pedidoRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private WorkflowService workflowService;
 
@@ -173,7 +177,7 @@ class WorkflowServiceTest {
         analise.setStatusWorkflow(StatusWorkflow.EM_ANALISE_FINANCEIRO);
         analise.setDataInicio(LocalDateTime.now());
 
-        when(configuracaoRepository.findById(1L)).thenReturn(Optional.of(configuracao));
+        when(configuracaoService.atual()).thenAnswer(inv -> ConfiguracaoSnapshot.de(configuracao));
         when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
         when(grupoEconomicoRepository.findById(1L)).thenReturn(Optional.of(grupo));
         when(analiseRepository.save(any(Analise.class))).thenReturn(analise);
@@ -223,7 +227,7 @@ class WorkflowServiceTest {
         // Arrange
         pedido.setValor(new BigDecimal("150000"));  // > 100000 threshold
 
-        when(configuracaoRepository.findById(1L)).thenReturn(Optional.of(configuracao));
+        when(configuracaoService.atual()).thenAnswer(inv -> ConfiguracaoSnapshot.de(configuracao));
         when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
         when(grupoEconomicoRepository.findById(1L)).thenReturn(Optional.of(grupo));
 
@@ -245,7 +249,7 @@ class WorkflowServiceTest {
             cliente.getPefins().add(null);  // Just counting, don't need actual objects
         }
 
-        when(configuracaoRepository.findById(1L)).thenReturn(Optional.of(configuracao));
+        when(configuracaoService.atual()).thenAnswer(inv -> ConfiguracaoSnapshot.de(configuracao));
         when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
         when(grupoEconomicoRepository.findById(1L)).thenReturn(Optional.of(grupo));
 
@@ -282,7 +286,7 @@ class WorkflowServiceTest {
         pedido2.setAnalise(analise2);
         cliente.getPedidos().add(pedido2);
 
-        when(configuracaoRepository.findById(1L)).thenReturn(Optional.of(configuracao));
+        when(configuracaoService.atual()).thenAnswer(inv -> ConfiguracaoSnapshot.de(configuracao));
         when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
         when(grupoEconomicoRepository.findById(1L)).thenReturn(Optional.of(grupo));
 
@@ -301,7 +305,7 @@ class WorkflowServiceTest {
         // Arrange
         pedido.setValor(new BigDecimal("50000"));  // < 100000
 
-        when(configuracaoRepository.findById(1L)).thenReturn(Optional.of(configuracao));
+        when(configuracaoService.atual()).thenAnswer(inv -> ConfiguracaoSnapshot.de(configuracao));
         when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
         when(grupoEconomicoRepository.findById(1L)).thenReturn(Optional.of(grupo));
 
@@ -360,7 +364,7 @@ class WorkflowServiceTest {
         pedido.setWorkflow(TipoWorkflow.CLIENTE_NOVO);
         analise.setStatusWorkflow(StatusWorkflow.EM_ANALISE_CLIENTE_NOVO);
 
-        when(configuracaoRepository.findById(1L)).thenReturn(Optional.of(configuracao));
+        when(configuracaoService.atual()).thenAnswer(inv -> ConfiguracaoSnapshot.de(configuracao));
         when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
         when(grupoEconomicoRepository.findById(1L)).thenReturn(Optional.of(grupo));
         when(analiseRepository.save(any(Analise.class))).thenReturn(analise);
@@ -479,7 +483,7 @@ class WorkflowServiceTest {
         analise.setDataInicio(LocalDateTime.now());
         pedido.setValor(new BigDecimal("150000"));  // > threshold
 
-        when(configuracaoRepository.findById(1L)).thenReturn(Optional.of(configuracao));
+        when(configuracaoService.atual()).thenAnswer(inv -> ConfiguracaoSnapshot.de(configuracao));
         when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
         when(grupoEconomicoRepository.findById(1L)).thenReturn(Optional.of(grupo));
         when(analiseRepository.save(any(Analise.class))).thenReturn(analise);
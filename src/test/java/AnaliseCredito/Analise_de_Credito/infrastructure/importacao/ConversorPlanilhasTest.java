@@ -0,0 +1,88 @@
+package AnaliseCredito.Analise_de_Credito.infrastructure.importacao;
+
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes para ConversorPlanilhas.
+ *
+ * Converte CSV → XLSX → CSV em arquivos temporários e valida tipos e aspas.
+ */
+class ConversorPlanilhasTest {
+
+    private final ConversorPlanilhas conversor =
+            new ConversorPlanilhas(new LeitorCsvMapeado(), new LeitorXlsxStreaming());
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testCsvParaXlsx_InfereTiposEPreservaDocumentos() throws IOException {
+        // Arrange
+        Path csv = dir.resolve("entrada.csv");
+        Files.writeString(csv, """
+                cnpj,nome,valor,data,ativo
+                01234567000195,"Empresa, Ltda",1500.45,2024-03-15,true
+                """, StandardCharsets.UTF_8);
+        Path xlsx = dir.resolve("saida.xlsx");
+
+        // Act
+        long linhas = conversor.csvParaXlsx(csv, xlsx);
+
+        // Assert
+        assertEquals(1, linhas);
+        try (InputStream in = Files.newInputStream(xlsx); XSSFWorkbook workbook = new XSSFWorkbook(in)) {
+            Row cabecalho = workbook.getSheetAt(0).getRow(0);
+            assertEquals("cnpj", cabecalho.getCell(0).getStringCellValue());
+            assertTrue(workbook.getFontAt(cabecalho.getCell(0).getCellStyle().getFontIndex()).getBold());
+
+            Row row = workbook.getSheetAt(0).getRow(1);
+            assertEquals(CellType.STRING, row.getCell(0).getCellType(), "CNPJ com zero à esquerda fica texto");
+            assertEquals("01234567000195", row.getCell(0).getStringCellValue());
+            assertEquals("Empresa, Ltda", row.getCell(1).getStringCellValue());
+            assertEquals(CellType.NUMERIC, row.getCell(2).getCellType());
+            assertEquals(1500.45, row.getCell(2).getNumericCellValue(), 0.0001);
+            assertTrue(DateUtil.isCellDateFormatted(row.getCell(3)));
+            assertEquals(CellType.BOOLEAN, row.getCell(4).getCellType());
+        }
+    }
+
+    @Test
+    void testIdaEVolta_CsvXlsxCsvMantemValoresEAspas() throws IOException {
+        // Arrange
+        Path csv = dir.resolve("entrada.csv");
+        Files.writeString(csv, """
+                cnpj;nome;valor;data;obs
+                12345678000195;"Diz ""oi\""";1.234,56;15/03/2024;
+                00000000000191;Outra;42;;"linha1
+                linha2"
+                """, StandardCharsets.UTF_8);
+        Path xlsx = dir.resolve("meio.xlsx");
+        Path volta = dir.resolve("volta.csv");
+
+        // Act
+        conversor.csvParaXlsx(csv, xlsx);
+        long linhas = conversor.xlsxParaCsv(xlsx, volta);
+
+        // Assert
+        assertEquals(2, linhas);
+        assertEquals("""
+                cnpj,nome,valor,data,obs\r
+                12345678000195,"Diz ""oi\""",1234.56,2024-03-15,\r
+                00000000000191,Outra,42,,"linha1
+                linha2"\r
+                """, Files.readString(volta, StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,123 @@
+package AnaliseCredito.Analise_de_Credito.infrastructure.importacao;
+
+import AnaliseCredito.Analise_de_Credito.presentation.dto.PedidoDTO;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes para EsquemaPlanilha e ConversaoNumerica.
+ *
+ * Valida localização das colunas pelo cabeçalho, fallback por posição,
+ * coluna obrigatória ausente e conversão decimal exata do texto da célula.
+ */
+class EsquemaPlanilhaTest {
+
+    private static final EsquemaPlanilha<PedidoDTO> ESQUEMA = EsquemaPlanilha.de("Pedidos", PedidoDTO::new)
+            .obrigatoria("numero", 0, TipoColuna.TEXTO, PedidoDTO::setNumero)
+            .coluna("valor", 1, TipoColuna.DECIMAL, BigDecimal.ZERO, PedidoDTO::setValor)
+            .obrigatoria("cnpj_cliente", 2, TipoColuna.TEXTO, PedidoDTO::setCnpjCliente)
+            .coluna("colecao", 3, TipoColuna.INTEIRO, 202601, PedidoDTO::setColecao);
+
+    @Test
+    void testCompilar_LocalizaColunasPeloNomeEmQualquerOrdem() throws IOException {
+        // Cabeçalho fora de ordem, com acento/caixa/espaço e sem a coluna colecao
+        List<PedidoDTO> pedidos = ler("CNPJ Cliente,Valor,Número\n12345678000195,\"1.234,56\",PED001\n");
+
+        assertEquals(1, pedidos.size());
+        PedidoDTO pedido = pedidos.get(0);
+        assertEquals("PED001", pedido.getNumero());
+        assertEquals("12345678000195", pedido.getCnpjCliente());
+        assertEquals(new BigDecimal("1234.56"), pedido.getValor());
+        assertEquals(202601, pedido.getColecao()); // ausente: valor padrão
+    }
+
+    @Test
+    void testCompilar_UsaPosicaoQuandoCabecalhoNaoTemONome() throws IOException {
+        List<PedidoDTO> pedidos = ler("ped,vlr,doc,col\nPED002,10.5,23456789000186,202602\n");
+
+        PedidoDTO pedido = pedidos.get(0);
+        assertEquals("PED002", pedido.getNumero());
+        assertEquals(new BigDecimal("10.50"), pedido.getValor());
+        assertEquals("23456789000186", pedido.getCnpjCliente());
+        assertEquals(202602, pedido.getColecao());
+    }
+
+    @Test
+    void testCompilar_ColunaObrigatoriaAusenteRecusaArquivo() {
+        IllegalArgumentException erro = assertThrows(IllegalArgumentException.class,
+                () -> ESQUEMA.compilar(List.of("numero", "valor")));
+
+        assertTrue(erro.getMessage().contains("cnpj_cliente"));
+    }
+
+    @Test
+    void testDecimalCelula_ExatoSemPassarPorDouble() {
+        assertEquals(new BigDecimal("0.30000000000000004"), ConversaoNumerica.decimalCelula("0.30000000000000004"));
+        assertEquals(new BigDecimal("12345678901234567890.12"), ConversaoNumerica.decimalCelula("12345678901234567890.12"));
+        assertEquals(0, new BigDecimal("1500").compareTo(ConversaoNumerica.decimalCelula("1.5E3")));
+        assertEquals(12345678000195L, ConversaoNumerica.inteiroCelula("1.2345678000195E13"));
+        assertNull(ConversaoNumerica.decimalCelula("12abc"));
+        assertNull(ConversaoNumerica.decimalCelula("1E99999"));
+        assertNull(ConversaoNumerica.inteiroTexto("7.5"));
+    }
+
+    @Test
+    void testDecimalTexto_SeparadoresSemAmbiguidade() {
+        assertEquals(new BigDecimal("1000000"), ConversaoNumerica.decimalTexto("1.000.000"));
+        assertEquals(new BigDecimal("1000000"), ConversaoNumerica.decimalTexto("1,000,000"));
+        assertEquals(new BigDecimal("1234.56"), ConversaoNumerica.decimalTexto("1.234,56"));
+        assertEquals(new BigDecimal("1234.56"), ConversaoNumerica.decimalTexto("1,234.56"));
+        assertEquals(new BigDecimal("1.5"), ConversaoNumerica.decimalTexto("1,5"));
+        assertEquals(new BigDecimal("1.5"), ConversaoNumerica.decimalTexto("1.5"));
+        assertEquals(new BigDecimal("1.50"), ConversaoNumerica.decimalTexto("1.50"));
+        assertEquals(new BigDecimal("0.500"), ConversaoNumerica.decimalTexto("0.500"));
+        assertEquals(new BigDecimal("1500.456"), ConversaoNumerica.decimalTexto("1500.456"));
+    }
+
+    @Test
+    void testDecimalTexto_SeparadoresAmbiguosRetornamNull() {
+        assertNull(ConversaoNumerica.decimalTexto("1.50.000"));
+        assertNull(ConversaoNumerica.decimalTexto("12.34.567"));
+        assertNull(ConversaoNumerica.decimalTexto("1,5,0"));
+        assertNull(ConversaoNumerica.decimalTexto("1.234,5,6"));
+    }
+
+    @Test
+    void testDecimalTexto_UnicoSeparadorEDecimalMesmoSeguidoDeTresDigitos() {
+        // Único sinal é sempre decimal, como na leitura original ("1.500" = 1,5); milhar só repetido ou misto
+        assertEquals(new BigDecimal("1.500"), ConversaoNumerica.decimalTexto("1.500"));
+        assertEquals(new BigDecimal("1.500"), ConversaoNumerica.decimalTexto("1,500"));
+        assertEquals(new BigDecimal("-250.000"), ConversaoNumerica.decimalTexto("-250.000"));
+        assertEquals(new BigDecimal("1500.000"), ConversaoNumerica.decimalTexto("1.500,000"));
+        assertEquals(new BigDecimal("15000.00"), ConversaoNumerica.decimalTexto("15000.00"));
+    }
+
+    @Test
+    void testInteiroTexto_AceitaMilharERecusaParteDecimal() {
+        assertEquals(1000000, ConversaoNumerica.inteiroTexto("1.000.000"));
+        assertNull(ConversaoNumerica.inteiroTexto("1.000"));
+        assertEquals(750, ConversaoNumerica.inteiroTexto("750,00"));
+        assertEquals(-3, ConversaoNumerica.inteiroTexto(" -3 "));
+        assertNull(ConversaoNumerica.inteiroTexto("7,5"));
+        assertNull(ConversaoNumerica.inteiroTexto("2147483648"));
+    }
+
+    private List<PedidoDTO> ler(String csv) throws IOException {
+        AtomicReference<Function<LinhaPlanilha, PedidoDTO>> mapeador = new AtomicReference<>();
+        List<PedidoDTO> pedidos = new ArrayList<>();
+        new LeitorCsvMapeado().ler(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)),
+                cabecalho -> mapeador.set(ESQUEMA.compilar(cabecalho)),
+                linha -> pedidos.add(mapeador.get().apply(linha)));
+        return pedidos;
+    }
+}
@@ -0,0 +1,139 @@
+package AnaliseCredito.Analise_de_Credito.infrastructure.importacao;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes para LeitorCsvMapeado.
+ *
+ * Valida separação de campos (aspas, separador, fim de linha) e conversões direto dos bytes.
+ */
+class LeitorCsvMapeadoTest {
+
+    @Test
+    void testLer_IgnoraCabecalhoEConverteTipos() throws IOException {
+        // Arrange - BOM, aspas com separador e "" escapado, CRLF, linha em branco no fim
+        String csv = "\uFEFFcnpj,razao_social,valor,data,simei,score\r\n"
+                + "12345678000195,\"LOJA \"\"A\"\", LTDA\",1500.456,2024-03-15,true,750\r\n"
+                + " 23456789000186 ,,, 15/03/2024 ,SIM,abc\r\n"
+                + "\r\n";
+
+        List<Object[]> lidas = ler(new LeitorCsvMapeado(), csv);
+
+        // Assert
+        assertEquals(2, lidas.size());
+
+        Object[] primeira = lidas.get(0);
+        assertEquals(2, primeira[0]);
+        assertEquals("12345678000195", primeira[1]);
+        assertEquals("LOJA \"A\", LTDA", primeira[2]);
+        assertEquals(new BigDecimal("1500.46"), primeira[3]);
+        assertEquals(LocalDate.of(2024, 3, 15), primeira[4]);
+        assertEquals(true, primeira[5]);
+        assertEquals(750, primeira[6]);
+
+        Object[] segunda = lidas.get(1);
+        assertEquals("23456789000186", segunda[1]);
+        assertNull(segunda[2]);
+        assertEquals(BigDecimal.ZERO, segunda[3]);
+        assertEquals(LocalDate.of(2024, 3, 15), segunda[4]);
+        assertEquals(true, segunda[5]);
+        assertNull(segunda[6]);
+    }
+
+    @Test
+    void testLer_PontoEVirgulaEDecimalBrasileiro() throws IOException {
+        String csv = "cnpj;razao_social;valor\n"
+                + "1;A;1.234,56\n"
+                + "2;B;-10,5\n";
+
+        List<Object[]> lidas = ler(new LeitorCsvMapeado(), csv);
+
+        assertEquals(2, lidas.size());
+        assertEquals(new BigDecimal("1234.56"), lidas.get(0)[3]);
+        assertEquals(new BigDecimal("-10.50"), lidas.get(1)[3]);
+    }
+
+    @Test
+    void testLer_UnicoSeparadorEDecimalEInteiroAmbiguoViraDefault() throws IOException {
+        // Arrange - "1.500" é decimal (1,5); inteiro "1.000" pode ser 1 ou mil e não é adivinhado
+        String csv = "cnpj;razao_social;valor;data;simei;score\n"
+                + "1;A;1.500;;;1.000\n"
+                + "2;B;250,000;;;7,5\n"
+                + "3;C;15000.00;;;1.000.000\n";
+
+        List<Object[]> lidas = ler(new LeitorCsvMapeado(), csv);
+
+        // Assert
+        assertEquals(new BigDecimal("1.50"), lidas.get(0)[3]);
+        assertNull(lidas.get(0)[6]);
+        assertEquals(new BigDecimal("250.00"), lidas.get(1)[3]);
+        assertNull(lidas.get(1)[6]);
+        assertEquals(new BigDecimal("15000.00"), lidas.get(2)[3]);
+        assertEquals(1000000, lidas.get(2)[6]);
+    }
+
+    @Test
+    void testLer_DecimalPreenchidoInvalidoNaoViraZero() throws IOException {
+        // Arrange - "1.50.000" não é agrupamento válido e "abc" não é número
+        String csv = "cnpj;razao_social;valor\n"
+                + "1;A;1.50.000\n"
+                + "2;B;abc\n"
+                + "3;C;\n";
+        List<String> erros = new ArrayList<>();
+        List<BigDecimal> valores = new ArrayList<>();
+
+        // Act
+        new LeitorCsvMapeado().ler(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), l -> {
+            try {
+                valores.add(l.getDecimal(2));
+            } catch (IllegalArgumentException e) {
+                erros.add(e.getMessage());
+            }
+        });
+
+        // Assert - só a célula vazia vale o default ZERO
+        assertEquals(List.of(BigDecimal.ZERO), valores);
+        assertEquals(2, erros.size());
+        assertTrue(erros.get(0).contains("'1.50.000'"));
+        assertTrue(erros.get(1).contains("'abc'"));
+    }
+
+    @Test
+    void testLer_LinhasAtravessamJanelasMapeadas() throws IOException {
+        // Janela de 16 bytes: quase toda linha cruza o fim de uma janela, algumas não cabem nela
+        StringBuilder csv = new StringBuilder("cnpj,razao_social,valor\n");
+        for (int i = 1; i <= 50; i++) {
+            csv.append(i).append(",\"EMPRESA ").append(i).append(", COM VIRGULA\",").append(i).append(".10\n");
+        }
+
+        List<Object[]> lidas = ler(new LeitorCsvMapeado(16), csv.toString());
+
+        assertEquals(50, lidas.size());
+        for (int i = 1; i <= 50; i++) {
+            Object[] linha = lidas.get(i - 1);
+            assertEquals(i + 1, linha[0]);
+            assertEquals(String.valueOf(i), linha[1]);
+            assertEquals("EMPRESA " + i + ", COM VIRGULA", linha[2]);
+            assertEquals(new BigDecimal(i + ".10"), linha[3]);
+        }
+    }
+
+    private List<Object[]> ler(LeitorCsvMapeado leitor, String csv) throws IOException {
+        List<Object[]> lidas = new ArrayList<>();
+        leitor.ler(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), l -> lidas.add(new Object[]{
+                l.getNumero(), l.getTexto(0), l.getTexto(1), l.getDecimal(2),
+                l.getData(3), l.getBooleano(4), l.getInteiro(5)
+        }));
+        return lidas;
+    }
+}
@@ -0,0 +1,119 @@
+package AnaliseCredito.Analise_de_Credito.infrastructure.importacao;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes para LeitorXlsxStreaming.
+ *
+ * Gera planilhas em memória e valida a leitura tipada via SAX.
+ */
+class LeitorXlsxStreamingTest {
+
+    private final LeitorXlsxStreaming leitor = new LeitorXlsxStreaming();
+
+    @Test
+    void testLer_IgnoraCabecalhoEConverteTipos() throws IOException {
+        // Arrange
+        byte[] arquivo;
+        try (XSSFWorkbook workbook = new XSSFWorkbook();
+             ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            Sheet sheet = workbook.createSheet("Dados");
+            Row cabecalho = sheet.createRow(0);
+            cabecalho.createCell(0).setCellValue("cnpj");
+            cabecalho.createCell(1).setCellValue("valor");
+
+            CellStyle estiloData = workbook.createCellStyle();
+            estiloData.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd"));
+
+            Row linha = sheet.createRow(1);
+            linha.createCell(0).setCellValue(" 12345678000195 ");
+            linha.createCell(1).setCellValue(1500.456);
+            var data = linha.createCell(2);
+            data.setCellValue(LocalDate.of(2024, 3, 15));
+            data.setCellStyle(estiloData);
+            linha.createCell(3).setCellValue(true);
+            // coluna 4 ausente (célula esparsa)
+            linha.createCell(5).setCellValue(42);
+
+            workbook.write(out);
+            arquivo = out.toByteArray();
+        }
+
+        List<Object[]> lidas = new ArrayList<>();
+
+        // Act
+        leitor.ler(new ByteArrayInputStream(arquivo), l -> lidas.add(new Object[]{
+                l.getNumero(), l.getTexto(0), l.getDecimal(1), l.getData(2),
+                l.getBooleano(3), l.getTexto(4), l.getDecimal(4), l.getInteiro(5), l.getTexto(1), l.getTexto(5)
+        }));
+
+        // Assert
+        assertEquals(1, lidas.size());
+        Object[] valores = lidas.get(0);
+        assertEquals(2, valores[0]);
+        assertEquals("12345678000195", valores[1]);
+        assertEquals(new BigDecimal("1500.46"), valores[2]);
+        assertEquals(LocalDate.of(2024, 3, 15), valores[3]);
+        assertEquals(true, valores[4]);
+        assertNull(valores[5]);
+        assertEquals(BigDecimal.ZERO, valores[6]);
+        assertEquals(42, valores[7]);
+        assertEquals("1500.456", valores[8]);
+        assertEquals("42", valores[9]);
+    }
+
+    @Test
+    void testLer_DecimalDigitadoComoTexto() throws IOException {
+        // Arrange - valores digitados em células de texto
+        byte[] arquivo;
+        try (XSSFWorkbook workbook = new XSSFWorkbook();
+             ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            Sheet sheet = workbook.createSheet("Dados");
+            sheet.createRow(0).createCell(0).setCellValue("valor");
+            sheet.createRow(1).createCell(0).setCellValue("1.500");
+            sheet.createRow(2).createCell(0).setCellValue("1.234,56");
+            sheet.createRow(3).createCell(0).setCellValue("abc");
+            workbook.write(out);
+            arquivo = out.toByteArray();
+        }
+
+        List<Object> lidos = new ArrayList<>();
+
+        // Act
+        leitor.ler(new ByteArrayInputStream(arquivo), l -> {
+            try {
+                lidos.add(l.getDecimal(0));
+            } catch (IllegalArgumentException e) {
+                lidos.add(e.getMessage());
+            }
+        });
+
+        // Assert - único '.' é decimal, como na leitura original; texto inválido não vira ZERO
+        assertEquals(3, lidos.size());
+        assertEquals(new BigDecimal("1.50"), lidos.get(0));
+        assertEquals(new BigDecimal("1234.56"), lidos.get(1));
+        assertTrue(lidos.get(2) instanceof String erro && erro.contains("'abc'"));
+    }
+
+    @Test
+    void testLer_ArquivoInvalido() {
+        byte[] invalido = "nao e xlsx".getBytes();
+
+        assertThrows(IOException.class,
+                () -> leitor.ler(new ByteArrayInputStream(invalido), l -> { }));
+    }
+}
@@ -41,4 +41,35 @@ public class ControllerTest {
             .andExpect(status().isOk())
             .andExpect(view().name("fragments/historico-limite-modal :: corpo"));
     }
+
+    @Test
+    void kanbanColuna_deveRetornarPaginaDaColuna() throws Exception {
+        mockMvc.perform(get("/analise/kanban/coluna")
+                .param("workflow", "BASE_PRAZO")
+                .param("status", "PENDENTE")
+                .param("uf", "")
+                .sessionAttr("perfil", "FINANCEIRO"))
+            .andExpect(status().isOk())
+            .andExpect(view().name("kanban-coluna"))
+            .andExpect(model().attributeExists("coluna"));
+    }
+
+    @Test
+    void kanbanCards_deveRetornarDeltaDosGrupos() throws Exception {
+        mockMvc.perform(get("/analise/kanban/cards")
+                .param("grupoIds", "1,2")
+                .param("filtro", "TODOS")
+                .sessionAttr("perfil", "FINANCEIRO"))
+            .andExpect(status().isOk())
+            .andExpect(view().name("kanban-delta"))
+            .andExpect(model().attributeExists("cards"))
+            .andExpect(model().attributeExists("colunas"));
+    }
+
+    @Test
+    void kanbanEventos_deveAbrirCanalSse() throws Exception {
+        mockMvc.perform(get("/analise/kanban/eventos")
+                .sessionAttr("perfil", "FINANCEIRO"))
+            .andExpect(request().asyncStarted());
+    }
 }
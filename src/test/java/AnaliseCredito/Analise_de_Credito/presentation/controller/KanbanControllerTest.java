@@ -0,0 +1,158 @@
+package AnaliseCredito.Analise_de_Credito.presentation.controller;
+
+import AnaliseCredito.Analise_de_Credito.application.service.VersaoDadosService;
+import AnaliseCredito.Analise_de_Credito.domain.enums.StatusWorkflow;
+import AnaliseCredito.Analise_de_Credito.domain.enums.TipoWorkflow;
+import AnaliseCredito.Analise_de_Credito.domain.model.KanbanCard;
+import AnaliseCredito.Analise_de_Credito.infrastructure.persistence.KanbanCardRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Regressão do plano de consultas do Kanban: abrir o quadro custa um número fixo
+ * de SQL, qualquer que seja a quantidade de cards (sem N+1 por grupo ou por coluna),
+ * e uma revalidação sem alteração (ETag) não consulta o banco.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@Transactional
+public class KanbanControllerTest {
+
+    /**
+     * Totais agrupados das colunas + primeiras páginas de todas as colunas
+     */
+    private static final long CONSULTAS_POR_ABERTURA = 2;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private KanbanCardRepository kanbanCardRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private VersaoDadosService versaoDadosService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void kanban_quantidadeDeConsultasNaoDependeDoTamanhoDoQuadro() throws Exception {
+        long consultasAntes = contarConsultas("TODOS");
+        assertEquals(CONSULTAS_POR_ABERTURA, consultasAntes);
+
+        // 40 cards em cada coluna: mais de uma página por coluna
+        List<KanbanCard> cards = new ArrayList<>();
+        long grupoId = 900_000;
+        for (StatusWorkflow status : List.of(StatusWorkflow.PENDENTE, StatusWorkflow.EM_ANALISE_FINANCEIRO,
+                StatusWorkflow.PARECER_APROVADO, StatusWorkflow.FINALIZADO)) {
+            for (TipoWorkflow workflow : TipoWorkflow.values()) {
+                for (int i = 0; i < 40; i++) {
+                    cards.add(novoCard(grupoId++, workflow, status));
+                }
+            }
+        }
+        kanbanCardRepository.saveAllAndFlush(cards);
+
+        assertEquals(consultasAntes, contarConsultas("TODOS"));
+        assertEquals(consultasAntes, contarConsultas("PRAZO"));
+    }
+
+    @Test
+    void kanban_semAlteracao_responde304SemConsultas() throws Exception {
+        String etag = mockMvc.perform(get("/analise/kanban")
+                .sessionAttr("perfil", "FINANCEIRO"))
+            .andExpect(status().isOk())
+            .andExpect(header().exists("ETag"))
+            .andReturn().getResponse().getHeader("ETag");
+
+        statistics.clear();
+        mockMvc.perform(get("/analise/kanban")
+                .header("If-None-Match", etag)
+                .sessionAttr("perfil", "FINANCEIRO"))
+            .andExpect(status().isNotModified());
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        // Dados alterados: página montada de novo, com ETag novo
+        versaoDadosService.incrementar();
+        String novoEtag = mockMvc.perform(get("/analise/kanban")
+                .header("If-None-Match", etag)
+                .sessionAttr("perfil", "FINANCEIRO"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(etag, novoEtag);
+
+        // Outro perfil na mesma versão não reaproveita a página
+        mockMvc.perform(get("/analise/kanban")
+                .header("If-None-Match", novoEtag)
+                .sessionAttr("perfil", "COMERCIAL"))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    void kanban_comMensagemFlash_naoGuardaNemRevalidaAPagina() throws Exception {
+        String etag = mockMvc.perform(get("/analise/kanban")
+                .sessionAttr("perfil", "FINANCEIRO"))
+            .andReturn().getResponse().getHeader("ETag");
+
+        // GET do redirect de uma escrita: a mensagem é exibida uma vez, então nada de 304 ou ETag
+        mockMvc.perform(get("/analise/kanban")
+                .header("If-None-Match", etag)
+                .flashAttr("mensagem", "Parecer salvo com sucesso")
+                .sessionAttr("perfil", "FINANCEIRO"))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("ETag"))
+            .andExpect(header().string("Cache-Control", "no-store"));
+    }
+
+    private long contarConsultas(String filtro) throws Exception {
+        statistics.clear();
+        mockMvc.perform(get("/analise/kanban")
+                .param("filtro", filtro)
+                .sessionAttr("perfil", "FINANCEIRO"))
+            .andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private KanbanCard novoCard(long grupoId, TipoWorkflow workflow, StatusWorkflow status) {
+        KanbanCard card = new KanbanCard();
+        card.setGrupoEconomicoId(grupoId);
+        card.setWorkflow(workflow);
+        card.setStatus(status);
+        card.setGrupoNome("Grupo " + grupoId);
+        card.setGrupoCodigo("G" + grupoId);
+        card.setClientesRazaoSocial(new ArrayList<>(List.of("Cliente " + grupoId)));
+        card.setAnaliseIds(new ArrayList<>(List.of(grupoId)));
+        card.setQuantidadePedidos(1);
+        card.setValorTotal(new BigDecimal("1000.00"));
+        card.setAnalisePrincipalId(grupoId);
+        card.setDataInicio(LocalDateTime.now().minusDays(grupoId % 5));
+        card.setTextoBusca("cliente " + grupoId);
+        card.setAtualizadoEm(LocalDateTime.now());
+        return card;
+    }
+}
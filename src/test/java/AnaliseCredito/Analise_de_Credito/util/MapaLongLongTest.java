@@ -0,0 +1,88 @@
+package AnaliseCredito.Analise_de_Credito.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes para MapaLongLong.
+ *
+ * Valida colisões através dos redimensionamentos, substituição de valores
+ * e a chave reservada (Long.MIN_VALUE).
+ */
+class MapaLongLongTest {
+
+    @Test
+    void testPut_ColisoesSobrevivemAoRedimensionamento() {
+        // Arrange - capacidade mínima (16 posições) e 5.000 chaves: sondagens longas e vários redimensionamentos
+        MapaLongLong mapa = new MapaLongLong(1);
+        int quantidade = 5_000;
+
+        // Act - CNPJs sequenciais, negativos, zero e múltiplos de 2^32 (mesmos bits baixos)
+        for (int i = 0; i < quantidade; i++) {
+            mapa.put(11_222_333_000_100L + i, i);
+            mapa.put(-1L - i, -i);
+            mapa.put((long) i << 32, 1_000_000L + i);
+        }
+
+        // Assert
+        assertEquals(quantidade * 3, mapa.size());
+        for (int i = 0; i < quantidade; i++) {
+            assertEquals(i, mapa.get(11_222_333_000_100L + i, -99));
+            assertEquals(-i, mapa.get(-1L - i, -99));
+            assertEquals(1_000_000L + i, mapa.get((long) i << 32, -99));
+        }
+        assertFalse(mapa.contem(11_222_333_000_100L + quantidade));
+        assertEquals(-99, mapa.get(Long.MAX_VALUE, -99));
+    }
+
+    @Test
+    void testPut_SubstituiValorSemAumentarTamanho() {
+        // Arrange
+        MapaLongLong mapa = new MapaLongLong(16);
+        mapa.put(42L, 1L);
+        mapa.put(43L, 2L);
+
+        // Act
+        mapa.put(42L, 10L);
+
+        // Assert
+        assertEquals(2, mapa.size());
+        assertEquals(10L, mapa.get(42L, -1));
+        assertEquals(2L, mapa.get(43L, -1));
+    }
+
+    @Test
+    void testPut_SubstituicaoDepoisDoRedimensionamento() {
+        // Arrange - chaves inseridas antes de o mapa crescer
+        MapaLongLong mapa = new MapaLongLong(1);
+        for (long chave = 0; chave < 100; chave++) {
+            mapa.put(chave, chave);
+        }
+
+        // Act
+        for (long chave = 0; chave < 100; chave++) {
+            mapa.put(chave, chave * 2);
+        }
+
+        // Assert
+        assertEquals(100, mapa.size());
+        for (long chave = 0; chave < 100; chave++) {
+            assertEquals(chave * 2, mapa.get(chave, -1));
+        }
+    }
+
+    @Test
+    void testChaveReservada_RejeitadaNoPutEAusenteNaConsulta() {
+        // Arrange
+        MapaLongLong mapa = new MapaLongLong();
+        mapa.put(Long.MIN_VALUE + 1, 5L);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> mapa.put(Long.MIN_VALUE, 1L));
+        assertEquals(1, mapa.size());
+        assertFalse(mapa.contem(Long.MIN_VALUE));
+        assertEquals(7L, mapa.get(Long.MIN_VALUE, 7L));
+        assertEquals(5L, mapa.get(Long.MIN_VALUE + 1, 7L));
+    }
+}